@@ -30,7 +30,6 @@ import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.DBRRunnableWithProgress;
 import org.jkiss.dbeaver.tools.compare.simple.CompareObjectsExecutor;
 import org.jkiss.dbeaver.tools.compare.simple.CompareObjectsSettings;
-import org.jkiss.dbeaver.tools.compare.simple.CompareReport;
 import org.jkiss.dbeaver.tools.compare.simple.CompareReportRenderer;
 import org.jkiss.dbeaver.ui.DialogSettingsDelegate;
 import org.jkiss.dbeaver.ui.UIUtils;
@@ -108,10 +107,8 @@ public class CompareObjectsWizard extends Wizard implements IExportWizard {
                 @Override
                 public void run(DBRProgressMonitor monitor) throws InvocationTargetException, InterruptedException {
                     try {
-                        CompareReport report = generateReport(monitor, executor);
-
-                        renderReport(monitor, report);
-                    } catch (DBException e) {
+                        generateReport(monitor, executor);
+                    } catch (DBException | IOException e) {
                         throw new InvocationTargetException(e);
                     }
                 }
@@ -136,46 +133,33 @@ public class CompareObjectsWizard extends Wizard implements IExportWizard {
         return true;
     }
 
-    private CompareReport generateReport(DBRProgressMonitor monitor, CompareObjectsExecutor executor) throws DBException, InterruptedException
-    {
-        monitor.beginTask("Compare objects", 1000);
-        CompareReport report = executor.compareObjects(monitor, getSettings().getNodes());
-        monitor.done();
-        return report;
-    }
-
-    private void renderReport(DBRProgressMonitor monitor, CompareReport report)
+    private void generateReport(DBRProgressMonitor monitor, CompareObjectsExecutor executor) throws DBException, IOException, InterruptedException
     {
-        try {
-            File reportFile;
-            switch (settings.getOutputType()) {
-                case BROWSER:
-                    reportFile = File.createTempFile("compare-report", ".html");
-                    break;
-                default:
-                {
-                    StringBuilder fileName = new StringBuilder("compare");//"compare-report.html";
-                    for (DBNDatabaseNode node : report.getNodes()) {
-                        fileName.append("-").append(CommonUtils.escapeIdentifier(node.getName()));
-                    }
-                    fileName.append("-report.html");
-                    reportFile = new File(settings.getOutputFolder(), fileName.toString());
-                    break;
+        File reportFile;
+        switch (settings.getOutputType()) {
+            case BROWSER:
+                reportFile = File.createTempFile("compare-report", ".html");
+                break;
+            default:
+            {
+                StringBuilder fileName = new StringBuilder("compare");//"compare-report.html";
+                for (DBNDatabaseNode node : settings.getNodes()) {
+                    fileName.append("-").append(CommonUtils.escapeIdentifier(node.getName()));
                 }
+                fileName.append("-report.html");
+                reportFile = new File(settings.getOutputFolder(), fileName.toString());
+                break;
             }
+        }
 
-            reportFile.deleteOnExit();
-            try (OutputStream outputStream = new FileOutputStream(reportFile)) {
-                monitor.beginTask("Render report", report.getReportLines().size());
-                CompareReportRenderer reportRenderer = new CompareReportRenderer();
-                reportRenderer.renderReport(monitor, report, getSettings(), outputStream);
-                monitor.done();
-            }
-            UIUtils.launchProgram(reportFile.getAbsolutePath());
-        } catch (IOException e) {
-            showError(e.getMessage());
-            log.error(e);
+        reportFile.deleteOnExit();
+        // Report lines are rendered as soon as they are compared
+        try (OutputStream outputStream = new FileOutputStream(reportFile)) {
+            monitor.beginTask("Compare objects", 1000);
+            executor.compareObjects(monitor, getSettings().getNodes(), new CompareReportRenderer(), outputStream);
+            monitor.done();
         }
+        UIUtils.launchProgram(reportFile.getAbsolutePath());
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,127 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.compare.simple;
+
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.navigator.DBNDatabaseNode;
+import org.jkiss.dbeaver.model.navigator.DBNEvent;
+import org.jkiss.dbeaver.model.navigator.DBNNode;
+import org.jkiss.dbeaver.model.navigator.INavigatorListener;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Subtree fingerprints of recently compared nodes.
+ *
+ * Only fingerprints are kept (not property values), so cache doesn't hold compared objects.
+ * Identical subtrees are skipped by following compares without reading their objects.
+ * Refreshed nodes are replaced with new instances so they are not found in cache. Nodes changed in place
+ * are evicted (with their parents) by navigator events.
+ */
+class CompareFingerprintCache {
+
+    private static final int MAX_ENTRIES = 100000;
+
+    private static class Entry {
+        final String settingsKey;
+        final long fingerprint;
+
+        Entry(String settingsKey, long fingerprint) {
+            this.settingsKey = settingsKey;
+            this.fingerprint = fingerprint;
+        }
+    }
+
+    private static final Map<DBNDatabaseNode, Entry> entries = new WeakHashMap<>();
+    private static boolean listenerRegistered;
+
+    private static final INavigatorListener navigatorListener = event -> {
+        if (event.getAction() == DBNEvent.Action.ADD && !(event.getNode() instanceof DBNDatabaseNode)) {
+            return;
+        }
+        synchronized (entries) {
+            // New child changes parent subtree too
+            DBNNode node = event.getAction() == DBNEvent.Action.ADD ? event.getNode().getParentNode() : event.getNode();
+            for (; node instanceof DBNDatabaseNode; node = node.getParentNode()) {
+                entries.remove(node);
+            }
+        }
+    };
+
+    @Nullable
+    static Long get(DBNDatabaseNode node, String settingsKey) {
+        synchronized (entries) {
+            Entry entry = entries.get(node);
+            return entry != null && entry.settingsKey.equals(settingsKey) ? entry.fingerprint : null;
+        }
+    }
+
+    static void put(DBNDatabaseNode node, String settingsKey, long fingerprint) {
+        synchronized (entries) {
+            if (!listenerRegistered) {
+                DBWorkbench.getPlatform().getNavigatorModel().addListener(navigatorListener);
+                listenerRegistered = true;
+            }
+            if (entries.size() >= MAX_ENTRIES) {
+                entries.clear();
+            }
+            entries.put(node, new Entry(settingsKey, fingerprint));
+        }
+    }
+
+    /**
+     * Hash of property value. Equal values (see {@link CompareUtils#equalPropertyValues}) have equal hashes.
+     */
+    static long hashValue(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof DBSObject) {
+            long hash = 1;
+            for (DBSObject object = (DBSObject) value; object != null && !(object instanceof DBPDataSourceContainer); object = object.getParentObject()) {
+                hash = mix(mix(hash, object.getClass().getName().hashCode()), hashString(object.getName()));
+            }
+            return hash;
+        }
+        if (value instanceof CharSequence) {
+            return hashString(value.toString());
+        }
+        return value.hashCode();
+    }
+
+    static long mix(long hash, long value) {
+        return (hash ^ value) * 0x100000001B3L + (hash >>> 29);
+    }
+
+    static long hashString(String str) {
+        if (str == null) {
+            return 0;
+        }
+        // 64-bit FNV-1a. Scripts are long and String.hashCode() collisions are too likely
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < str.length(); i++) {
+            hash ^= str.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return hash;
+    }
+
+}
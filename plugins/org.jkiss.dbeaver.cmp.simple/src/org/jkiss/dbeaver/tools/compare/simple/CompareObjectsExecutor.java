@@ -17,6 +17,7 @@
 package org.jkiss.dbeaver.tools.compare.simple;
 
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBConstants;
@@ -27,37 +28,71 @@ import org.jkiss.dbeaver.model.navigator.DBNDatabaseFolder;
 import org.jkiss.dbeaver.model.navigator.DBNDatabaseNode;
 import org.jkiss.dbeaver.model.navigator.meta.DBXTreeNode;
 import org.jkiss.dbeaver.model.preferences.DBPPropertyDescriptor;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
 import org.jkiss.dbeaver.model.runtime.DBRProgressListener;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
-import org.jkiss.dbeaver.model.runtime.SubTaskProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.model.struct.DBSObjectContainer;
+import org.jkiss.dbeaver.model.struct.DBStructUtils;
 import org.jkiss.dbeaver.runtime.properties.*;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Compares object trees.
+ *
+ * Trees are compared one level at a time: children and compared properties of each side are read in a separate job
+ * right before they are compared and are released after their subtree is compared.
+ * Each compared node gets a fingerprint (hash of its properties and children fingerprints). Fingerprints are cached,
+ * so identical subtrees are skipped by following compares without reading them.
+ * Report lines may be passed to renderer as soon as they are compared.
+ */
 public class CompareObjectsExecutor {
 
     private static final Log log = Log.getLog(CompareObjectsExecutor.class);
 
-    private final Object PROPS_LOCK = new Object();
+    // Tree depth isn't known before streamed report is started
+    private static final int MAX_REPORT_DEPTH = 16;
 
     private CompareObjectsSettings settings;
 
     private final List<DBNDatabaseNode> rootNodes;
     private final Map<DBPDataSource, DataSourcePropertyFilter> dataSourceFilters = new IdentityHashMap<>();
+    private final Map<DataSourcePropertyFilter, Map<Class<?>, List<ObjectPropertyDescriptor>>> comparedProperties = new IdentityHashMap<>();
 
     private final DBRProgressListener initializeFinisher;
     private final ILazyPropertyLoadListener lazyPropertyLoadListener;
 
     private volatile int initializedCount = 0;
     private volatile IStatus initializeError;
-    private final Map<Object, Map<DBPPropertyDescriptor, Object>> propertyValues = new IdentityHashMap<>();
+    private final Map<Object, Map<String, Object>> propertyValues = new IdentityHashMap<>();
+    private final Map<DBNDatabaseNode, NodeSnapshot> nodeSnapshots = new ConcurrentHashMap<>();
+    private final String settingsKey;
 
-    private final List<CompareReportLine> reportLines = new ArrayList<>();
+    private ReportLineConsumer lineConsumer;
+    // Lines of subtrees without found differences ("only differences" mode)
+    private final Deque<CompareReportLine> pendingLines = new ArrayDeque<>();
     private int reportDepth = 0;
+    private int comparedCount = 0;
     private CompareReportLine lastLine;
 
+    /**
+     * Compared children and properties hash of a node
+     */
+    private static class NodeSnapshot {
+        DBNDatabaseNode[] children;
+        long propertiesHash;
+        // Children read failed, node can't be treated as identical to anything
+        boolean readError;
+    }
+
+    private interface ReportLineConsumer {
+        void addLine(CompareReportLine line) throws IOException;
+    }
+
     private void reportObjectsCompareBegin(List<DBNDatabaseNode> objects)
     {
         reportDepth++;
@@ -79,7 +114,6 @@ public class CompareObjectsExecutor {
                 break;
             }
         }
-        reportLines.add(lastLine);
     }
 
     private void reportPropertyCompare(ObjectPropertyDescriptor property)
@@ -91,9 +125,12 @@ public class CompareObjectsExecutor {
             if (node == null) {
                 continue;
             }
-            Map<DBPPropertyDescriptor, Object> valueMap = propertyValues.get(node.getObject());
+            Map<String, Object> valueMap;
+            synchronized (propertyValues) {
+                valueMap = propertyValues.get(node.getObject());
+            }
             if (valueMap != null) {
-                reportProperty.values[i] = valueMap.get(property);
+                reportProperty.values[i] = valueMap.get(property.getId());
             }
         }
         if (lastLine.properties == null) {
@@ -119,6 +156,7 @@ public class CompareObjectsExecutor {
     {
         this.settings = settings;
         this.rootNodes = settings.getNodes();
+        this.settingsKey = getSettingsKey();
 
         initializeFinisher = new DBRProgressListener() {
             @Override
@@ -136,9 +174,9 @@ public class CompareObjectsExecutor {
             public void handlePropertyLoad(Object object, DBPPropertyDescriptor property, Object propertyValue, boolean completed)
             {
                 synchronized (propertyValues) {
-                    Map<DBPPropertyDescriptor, Object> objectProps = propertyValues.get(object);
+                    Map<String, Object> objectProps = propertyValues.get(object);
                     if (objectProps != null) {
-                        objectProps.put(property, propertyValue);
+                        objectProps.put(property.getId(), propertyValue);
                     }
                 }
             }
@@ -159,96 +197,279 @@ public class CompareObjectsExecutor {
     public CompareReport compareObjects(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes)
         throws DBException, InterruptedException
     {
-        reportLines.clear();
-        lastLine = null;
-
-        compareNodes(monitor, nodes);
+        List<CompareReportLine> reportLines = new ArrayList<>();
+        try {
+            prepareObjects(monitor, nodes);
+            compareNodes(monitor, nodes, reportLines::add);
+        } catch (IOException e) {
+            // Can't happen
+            throw new DBException("Error adding report line", e);
+        } finally {
+            clearObjects();
+        }
         return new CompareReport(rootNodes, reportLines);
     }
 
-    private void compareNodes(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes)
+    /**
+     * Compares objects and renders report lines right after they are compared.
+     * Report doesn't keep all compared objects in memory.
+     */
+    public void compareObjects(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes, CompareReportRenderer renderer, OutputStream outputStream)
+        throws DBException, InterruptedException, IOException
+    {
+        try {
+            prepareObjects(monitor, nodes);
+            renderer.startReport(settings, rootNodes, MAX_REPORT_DEPTH, outputStream);
+            compareNodes(monitor, nodes, renderer::renderLine);
+            renderer.endReport(comparedCount);
+        } finally {
+            clearObjects();
+        }
+    }
+
+    private void prepareObjects(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes)
         throws DBException, InterruptedException
     {
-        reportObjectsCompareBegin(nodes);
+        clearObjects();
+        initializeNodes(monitor, nodes);
+
+        // Compared tables may be read from a few schemas. Read their structure at once.
+        List<DBSObject> objects = new ArrayList<>(nodes.size());
+        for (DBNDatabaseNode node : nodes) {
+            objects.add(node.getObject());
+        }
+        DBStructUtils.cacheStructure(monitor, objects, DBSObjectContainer.STRUCT_ALL);
+    }
 
+    /**
+     * Reads properties and children of compared nodes. Each side is read in parallel.
+     */
+    private void readNodes(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes)
+        throws DBException, InterruptedException
+    {
+        if (nodes.size() == 1) {
+            readNode(monitor, nodes.get(0));
+            return;
+        }
+        List<NodeReaderJob> readers = new ArrayList<>(nodes.size());
+        for (DBNDatabaseNode node : nodes) {
+            NodeReaderJob reader = new NodeReaderJob(node);
+            readers.add(reader);
+            reader.schedule();
+        }
         try {
-            if (nodes.size() > 1) {
-                // Go deeper only if we have more than one node
-                if (!(nodes.get(0) instanceof DBNDatabaseFolder)) {
-                    compareProperties(monitor, nodes);
+            for (NodeReaderJob reader : readers) {
+                while (!reader.done) {
+                    if (monitor.isCanceled()) {
+                        throw new InterruptedException();
+                    }
+                    Thread.sleep(10);
+                }
+                if (reader.error instanceof DBException) {
+                    throw (DBException) reader.error;
+                } else if (reader.error != null) {
+                    throw new DBException("Error reading compared objects", reader.error);
                 }
-
-                compareChildren(monitor, nodes);
             }
         } finally {
-            reportObjectsCompareEnd();
+            for (NodeReaderJob reader : readers) {
+                if (!reader.done) {
+                    reader.cancel();
+                }
+            }
         }
     }
 
-    private void compareProperties(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes) throws DBException, InterruptedException
+    private void clearObjects()
     {
-        boolean onlyStruct = settings.isCompareOnlyStructure();
+        nodeSnapshots.clear();
+        synchronized (propertyValues) {
+            propertyValues.clear();
+        }
+        pendingLines.clear();
+        reportDepth = 0;
+        comparedCount = 0;
+        lastLine = null;
+    }
 
-        // Clear compare singletons
-        this.initializedCount = 0;
-        this.initializeError = null;
-        this.propertyValues.clear();
+    private void compareNodes(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes, ReportLineConsumer lineConsumer)
+        throws DBException, InterruptedException, IOException
+    {
+        this.lineConsumer = lineConsumer;
+        try {
+            compareNodes(monitor, nodes);
+        } finally {
+            this.lineConsumer = null;
+        }
+    }
 
-        StringBuilder title = new StringBuilder();
-        // Initialize nodes
-        {
-            monitor.subTask("Initialize nodes");
-            for (DBNDatabaseNode node : nodes) {
-                if (title.length() > 0) title.append(", ");
-                title.append(node.getNodeFullName());
-                node.initializeNode(null, initializeFinisher);
-                monitor.worked(1);
+    /**
+     * Compares nodes and their children.
+     * @return subtree fingerprints of compared nodes. Null fingerprint means that node subtree wasn't read completely.
+     */
+    private Long[] compareNodes(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes)
+        throws DBException, InterruptedException, IOException
+    {
+        reportObjectsCompareBegin(nodes);
+        CompareReportLine line = lastLine;
+        comparedCount++;
+
+        try {
+            if (settings.isShowOnlyDifferences()) {
+                Long[] cachedFingerprints = getIdenticalFingerprints(line, nodes);
+                if (cachedFingerprints != null) {
+                    // Nothing to show in this subtree
+                    return cachedFingerprints;
+                }
+            }
+            readNodes(monitor, nodes);
+            if (nodes.size() > 1 && !(nodes.get(0) instanceof DBNDatabaseFolder)) {
+                compareProperties(monitor, nodes);
             }
-            while (initializedCount != nodes.size()) {
-                if (initializeError != null) {
-                    throw new DBException(initializeError.getMessage());
+            addLine(line);
+
+            Long[] fingerprints = new Long[nodes.size()];
+            if (nodes.size() > 1) {
+                // Go deeper only if we have more than one node
+                Long[] childrenHashes = compareChildren(monitor, nodes);
+                for (int i = 0; i < nodes.size(); i++) {
+                    DBNDatabaseNode node = nodes.get(i);
+                    NodeSnapshot snapshot = nodeSnapshots.get(node);
+                    if (snapshot == null || snapshot.readError || childrenHashes[i] == null || monitor.isCanceled()) {
+                        continue;
+                    }
+                    fingerprints[i] = CompareFingerprintCache.mix(
+                        CompareFingerprintCache.mix(snapshot.propertiesHash, childrenHashes[i]), snapshot.children.length);
+                    CompareFingerprintCache.put(node, settingsKey, fingerprints[i]);
                 }
-                Thread.sleep(50);
-                if (monitor.isCanceled()) {
-                    throw new InterruptedException();
+            }
+            return fingerprints;
+        } finally {
+            reportObjectsCompareEnd();
+            if (pendingLines.peekLast() == line) {
+                // No differences in this subtree
+                pendingLines.removeLast();
+            }
+            // Compared objects aren't needed anymore
+            for (DBNDatabaseNode node : nodes) {
+                nodeSnapshots.remove(node);
+                synchronized (propertyValues) {
+                    propertyValues.remove(node.getObject());
                 }
             }
         }
+    }
 
-        monitor.subTask("Compare " + title.toString());
-        boolean compareLazyProperties = false;
-
-        DBNDatabaseNode firstNode = nodes.get(0);
-        List<ObjectPropertyDescriptor> properties = ObjectPropertyDescriptor.extractAnnotations(
-            null,
-            firstNode.getObject().getClass(),
-            getDataSourceFilter(firstNode), null);
-        for (ObjectPropertyDescriptor prop : properties) {
-            if (prop.isLazy()) {
-                compareLazyProperties = true;
-                break;
+    /**
+     * Returns cached fingerprints if all sides exist and have equal fingerprints
+     */
+    private Long[] getIdenticalFingerprints(CompareReportLine line, List<DBNDatabaseNode> nodes)
+    {
+        if (nodes.size() != line.nodes.length) {
+            return null;
+        }
+        Long[] fingerprints = new Long[nodes.size()];
+        for (int i = 0; i < nodes.size(); i++) {
+            fingerprints[i] = CompareFingerprintCache.get(nodes.get(i), settingsKey);
+            if (fingerprints[i] == null || !fingerprints[i].equals(fingerprints[0])) {
+                return null;
             }
         }
+        return fingerprints;
+    }
 
-        boolean compareScripts = compareLazyProperties && settings.isCompareScripts();
-        compareLazyProperties = compareLazyProperties && settings.isCompareLazyProperties();
-
-        if (onlyStruct && !compareScripts) {
+    /**
+     * In "only differences" mode line is passed to consumer only if it or some of its children differs.
+     * Parent lines are passed first.
+     */
+    private void addLine(CompareReportLine line) throws IOException
+    {
+        if (!settings.isShowOnlyDifferences()) {
+            lineConsumer.addLine(line);
             return;
         }
+        pendingLines.addLast(line);
+        if (line.hasDifference) {
+            for (CompareReportLine pendingLine : pendingLines) {
+                pendingLine.hasDifference = true;
+                lineConsumer.addLine(pendingLine);
+            }
+            pendingLines.clear();
+        }
+    }
 
-        // Load all properties
+    private void initializeNodes(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes) throws DBException, InterruptedException
+    {
+        // Clear compare singletons
+        this.initializedCount = 0;
+        this.initializeError = null;
+
+        monitor.subTask("Initialize nodes");
         for (DBNDatabaseNode node : nodes) {
+            node.initializeNode(null, initializeFinisher);
+            monitor.worked(1);
+        }
+        while (initializedCount != nodes.size()) {
+            if (initializeError != null) {
+                throw new DBException(initializeError.getMessage());
+            }
+            Thread.sleep(50);
             if (monitor.isCanceled()) {
                 throw new InterruptedException();
             }
-            DBSObject databaseObject = node.getObject();
-            Map<DBPPropertyDescriptor, Object> nodeProperties = propertyValues.get(databaseObject);
-            if (nodeProperties == null) {
-                nodeProperties = new IdentityHashMap<>();
-                propertyValues.put(databaseObject, nodeProperties);
+        }
+    }
+
+    private void compareProperties(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes) throws DBException, InterruptedException
+    {
+        if (monitor.isCanceled()) {
+            throw new InterruptedException();
+        }
+        StringBuilder title = new StringBuilder();
+        for (DBNDatabaseNode node : nodes) {
+            if (title.length() > 0) title.append(", ");
+            title.append(node.getNodeFullName());
+        }
+        monitor.subTask("Compare " + title.toString());
+
+        // Property values were read by side readers
+        for (ObjectPropertyDescriptor prop : getComparedProperties(nodes.get(0))) {
+            reportPropertyCompare(prop);
+        }
+        monitor.worked(1);
+    }
+
+    /**
+     * Returns properties which are compared according to compare settings
+     */
+    private List<ObjectPropertyDescriptor> getComparedProperties(DBNDatabaseNode node)
+    {
+        DataSourcePropertyFilter filter = getDataSourceFilter(node);
+        Class<?> objectClass = node.getObject().getClass();
+        synchronized (comparedProperties) {
+            Map<Class<?>, List<ObjectPropertyDescriptor>> classProperties = comparedProperties.computeIfAbsent(filter, k -> new HashMap<>());
+            List<ObjectPropertyDescriptor> result = classProperties.get(objectClass);
+            if (result != null) {
+                return result;
+            }
+            result = new ArrayList<>();
+            classProperties.put(objectClass, result);
+
+            boolean onlyStruct = settings.isCompareOnlyStructure();
+            List<ObjectPropertyDescriptor> properties = ObjectPropertyDescriptor.extractAnnotations(null, objectClass, filter, null);
+            boolean compareLazyProperties = false;
+            for (ObjectPropertyDescriptor prop : properties) {
+                if (prop.isLazy()) {
+                    compareLazyProperties = true;
+                    break;
+                }
+            }
+            boolean compareScripts = compareLazyProperties && settings.isCompareScripts();
+            compareLazyProperties = compareLazyProperties && settings.isCompareLazyProperties();
+            if (onlyStruct && !compareScripts) {
+                return result;
             }
-            PropertyCollector propertySource = new PropertyCollector(databaseObject, compareLazyProperties || compareScripts);
+
             for (ObjectPropertyDescriptor prop : properties) {
                 boolean isScriptProperty = prop.getId().equals(DBConstants.PARAM_OBJECT_DEFINITION_TEXT) || prop.getId().equals(DBConstants.PARAM_EXTENDED_DEFINITION_TEXT);
                 if (prop.isLazy()) {
@@ -270,50 +491,108 @@ public class CompareObjectsExecutor {
                 if (onlyStruct && !isScriptProperty) {
                     continue;
                 }
-                Object propertyValue = propertySource.getPropertyValue(monitor, databaseObject, prop, true);
-                synchronized (PROPS_LOCK) {
-                    if (propertyValue instanceof DBPNamedObject) {
-                        // Compare just object names
-                        propertyValue = ((DBPNamedObject) propertyValue).getName();
-                    }
-                    nodeProperties.put(prop, propertyValue);
-                }
+                result.add(prop);
             }
-            monitor.worked(1);
-        }
-
-        // Compare properties
-        for (ObjectPropertyDescriptor prop : properties) {
-            reportPropertyCompare(prop);
+            return result;
         }
     }
 
-    private void compareChildren(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes) throws DBException, InterruptedException
+    /**
+     * @return hashes of children fingerprints of each node
+     */
+    private Long[] compareChildren(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes) throws DBException, InterruptedException, IOException
     {
         // Compare children
         int nodeCount = nodes.size();
-        List<DBNDatabaseNode[]> allChildren = new ArrayList<>(nodeCount);
-        // Use submonitor to avoid huge number of tasks
-        DBRProgressMonitor subMonitor = new SubTaskProgressMonitor(monitor);
+        List<Map<String, DBNDatabaseNode>> allChildren = new ArrayList<>(nodeCount);
+        Set<String> allChildNames = new LinkedHashSet<>();
+        Long[] childrenHashes = new Long[nodeCount];
         for (int i = 0; i < nodeCount; i++) {
-            DBNDatabaseNode node = nodes.get(i);
-            // Cache structure if possible
-            if (node.getObject() instanceof DBSObjectContainer) {
-                ((DBSObjectContainer) node.getObject()).cacheStructure(subMonitor, DBSObjectContainer.STRUCT_ALL);
+            NodeSnapshot snapshot = nodeSnapshots.get(nodes.get(i));
+            Map<String, DBNDatabaseNode> childMap = new HashMap<>();
+            if (snapshot != null && snapshot.children != null) {
+                childrenHashes[i] = 0L;
+                for (DBNDatabaseNode child : snapshot.children) {
+                    String childName = child.getNodeName();
+                    allChildNames.add(childName);
+                    if (childMap.putIfAbsent(childName, child) != null) {
+                        // Children with duplicate names aren't compared
+                        snapshot.readError = true;
+                    }
+                }
             }
-            try {
-                DBNDatabaseNode[] children = node.getChildren(subMonitor);
-                allChildren.add(children);
-            } catch (Exception e) {
-                log.warn("Error reading child nodes for compare", e);
-                allChildren.add(null);
+            allChildren.add(childMap);
+        }
+
+        for (String childName : allChildNames) {
+            List<DBNDatabaseNode> nodesToCompare = new ArrayList<>(nodeCount);
+            List<Integer> childSides = new ArrayList<>(nodeCount);
+            for (int i = 0; i < nodeCount; i++) {
+                DBNDatabaseNode child = allChildren.get(i).get(childName);
+                if (child != null) {
+                    nodesToCompare.add(child);
+                    childSides.add(i);
+                }
+            }
+            // Compare children recursively
+            Long[] childFingerprints = compareNodes(monitor, nodesToCompare);
+            // Children are matched by name so their order doesn't matter
+            for (int k = 0; k < childFingerprints.length; k++) {
+                int side = childSides.get(k);
+                if (childrenHashes[side] != null) {
+                    childrenHashes[side] = childFingerprints[k] == null ? null :
+                        childrenHashes[side] + CompareFingerprintCache.mix(CompareFingerprintCache.hashString(childName), childFingerprints[k]);
+                }
             }
         }
+        return childrenHashes;
+    }
 
-        Set<String> allChildNames = new LinkedHashSet<>();
-        for (DBNDatabaseNode[] childList : allChildren) {
-            if (childList == null) continue;
-            for (DBNDatabaseNode child : childList) {
+    private DataSourcePropertyFilter getDataSourceFilter(DBNDatabaseNode node)
+    {
+        DBPDataSource dataSource = node.getDataSourceContainer().getDataSource();
+        if (dataSource == null) {
+            return null;
+        }
+        synchronized (dataSourceFilters) {
+            DataSourcePropertyFilter filter = dataSourceFilters.get(dataSource);
+            if (filter == null) {
+                filter = new DataSourcePropertyFilter(dataSource);
+                dataSourceFilters.put(dataSource, filter);
+            }
+            return filter;
+        }
+    }
+
+    private String getSettingsKey()
+    {
+        return "lazy=" + settings.isCompareLazyProperties() +
+            ",scripts=" + settings.isCompareScripts() +
+            ",struct=" + settings.isCompareOnlyStructure();
+    }
+
+    /**
+     * Reads compared properties and children of a node (without their subtrees)
+     */
+    private void readNode(DBRProgressMonitor monitor, DBNDatabaseNode node)
+    {
+        DBSObject object = node.getObject();
+        NodeSnapshot snapshot = new NodeSnapshot();
+        snapshot.propertiesHash = CompareFingerprintCache.mix(1, CompareFingerprintCache.hashString(object == null ? null : object.getClass().getName()));
+        if (!(node instanceof DBNDatabaseFolder) && object != null) {
+            snapshot.propertiesHash = CompareFingerprintCache.mix(snapshot.propertiesHash, readProperties(monitor, node, object));
+        }
+
+        DBNDatabaseNode[] children = null;
+        try {
+            children = node.getChildren(monitor);
+        } catch (Exception e) {
+            log.warn("Error reading child nodes for compare", e);
+            snapshot.readError = true;
+        }
+        List<DBNDatabaseNode> comparedChildren = new ArrayList<>();
+        if (children != null) {
+            for (DBNDatabaseNode child : children) {
                 DBXTreeNode meta = child.getMeta();
                 if (meta.isVirtual()) {
                     // Skip virtual nodes
@@ -323,60 +602,79 @@ public class CompareObjectsExecutor {
                     // Skip system objects
                     continue;
                 }
-                allChildNames.add(child.getNodeName());
+                comparedChildren.add(child);
             }
         }
+        snapshot.children = comparedChildren.toArray(new DBNDatabaseNode[0]);
+        if (monitor.isCanceled()) {
+            snapshot.readError = true;
+        }
+        nodeSnapshots.put(node, snapshot);
+    }
 
-        for (String childName : allChildNames) {
-            int[] childIndexes = new int[nodeCount];
-            for (int i = 0; i < nodeCount; i++) {
-                childIndexes[i] = -1;
-                DBNDatabaseNode[] childList = allChildren.get(i);
-                if (childList == null) continue;
-                for (int k = 0; k < childList.length; k++) {
-                    DBNDatabaseNode child = childList[k];
-                    if (child.getNodeName().equals(childName)) {
-                        childIndexes[i] = k;
-                        break;
-                    }
+    private long readProperties(DBRProgressMonitor monitor, DBNDatabaseNode node, DBSObject object)
+    {
+        List<ObjectPropertyDescriptor> properties = getComparedProperties(node);
+        Map<String, Object> values = new HashMap<>();
+        long hash = 1;
+        if (!properties.isEmpty()) {
+            boolean loadLazyProps = false;
+            for (ObjectPropertyDescriptor prop : properties) {
+                if (prop.isLazy()) {
+                    loadLazyProps = true;
+                    break;
                 }
             }
-
-            List<DBNDatabaseNode> nodesToCompare = new ArrayList<>(nodeCount);
-            for (int i = 0; i < nodeCount; i++) {
-                if (childIndexes[i] == -1) {
-                    // Missing
-                } else {
-                    for (int k = 0; k < nodeCount; k++) {
-                        if (k != i && childIndexes[k] != childIndexes[i]) {
-                            // Wrong index - add to report
-                            break;
-                        }
-                    }
-                    final DBNDatabaseNode[] childList = allChildren.get(i);
-                    if (childList != null) {
-                        nodesToCompare.add(childList[childIndexes[i]]);
-                    }
+            PropertyCollector propertySource = new PropertyCollector(object, loadLazyProps);
+            for (ObjectPropertyDescriptor prop : properties) {
+                if (monitor.isCanceled()) {
+                    break;
                 }
+                Object propertyValue = propertySource.getPropertyValue(monitor, object, prop, true);
+                if (propertyValue instanceof DBPNamedObject) {
+                    // Compare just object names
+                    propertyValue = ((DBPNamedObject) propertyValue).getName();
+                }
+                values.put(prop.getId(), propertyValue);
+                hash = CompareFingerprintCache.mix(hash,
+                    CompareFingerprintCache.mix(CompareFingerprintCache.hashString(prop.getId()), CompareFingerprintCache.hashValue(propertyValue)));
             }
-            // Compare children recursively
-            compareNodes(monitor, nodesToCompare);
         }
+        synchronized (propertyValues) {
+            propertyValues.put(object, values);
+        }
+        return hash;
     }
 
+    /**
+     * Reads one compared side of a report line
+     */
+    private class NodeReaderJob extends AbstractJob {
 
-    private DataSourcePropertyFilter getDataSourceFilter(DBNDatabaseNode node)
-    {
-        DBPDataSource dataSource = node.getDataSourceContainer().getDataSource();
-        if (dataSource == null) {
-            return null;
+        private final DBNDatabaseNode node;
+        private volatile boolean done;
+        private volatile Throwable error;
+
+        NodeReaderJob(DBNDatabaseNode node)
+        {
+            super("Read " + node.getNodeFullName() + " for compare");
+            setUser(false);
+            setSystem(true);
+            this.node = node;
         }
-        DataSourcePropertyFilter filter = dataSourceFilters.get(dataSource);
-        if (filter == null) {
-            filter = new DataSourcePropertyFilter(dataSource);
-            dataSourceFilters.put(dataSource, filter);
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor)
+        {
+            try {
+                readNode(monitor, node);
+            } catch (Throwable e) {
+                error = e;
+            } finally {
+                done = true;
+            }
+            return Status.OK_STATUS;
         }
-        return filter;
     }
 
-}
\ No newline at end of file
+}
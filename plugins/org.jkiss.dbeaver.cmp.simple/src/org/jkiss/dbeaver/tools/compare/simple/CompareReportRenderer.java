@@ -27,26 +27,24 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.util.List;
 
+/**
+ * Renders compare report in HTML.
+ * Report lines may be rendered as soon as they are compared (see {@link #startReport}).
+ */
 public class CompareReportRenderer {
 
-    private CompareReport report;
+    private List<DBNDatabaseNode> nodes;
     private XMLBuilder xml;
     private CompareObjectsSettings settings;
+    private int maxDepth;
+    // Line rendering is delayed until the next line is known (to skip empty folders)
+    private CompareReportLine pendingLine;
 
     public void renderReport(DBRProgressMonitor monitor, CompareReport report, CompareObjectsSettings settings, OutputStream outputStream) throws IOException
     {
-        this.report = report;
-        this.settings = settings;
-        this.xml = new XMLBuilder(outputStream, GeneralUtils.UTF8_ENCODING, true);
-        this.xml.setButify(true);
-        xml.addContent(
-            "<!DOCTYPE html \n" +
-            "     PUBLIC \"-//W3C//DTD XHTML 1.0 Strict//EN\"\n" +
-            "    \"http://www.w3.org/TR/xhtml1/DTD/xhtml1-strict.dtd\">");
-
+        List<CompareReportLine> reportLines = report.getReportLines();
         if (settings.isShowOnlyDifferences()) {
             // Mark differences on tree nodes
-            List<CompareReportLine> reportLines = report.getReportLines();
             int reportLinesSize = reportLines.size();
             for (int i = 0; i < reportLinesSize; i++) {
                 if (reportLines.get(i).hasDifference) {
@@ -65,6 +63,37 @@ public class CompareReportRenderer {
                 }
             }
         }
+        int maxDepth = 0;
+        for (CompareReportLine line : reportLines) {
+            if (line.depth > maxDepth) {
+                maxDepth = line.depth;
+            }
+        }
+
+        startReport(settings, report.getNodes(), maxDepth, outputStream);
+        for (CompareReportLine line : reportLines) {
+            monitor.worked(1);
+            renderLine(line);
+        }
+        endReport(reportLines.size());
+    }
+
+    /**
+     * Starts report rendering. Lines are rendered by {@link #renderLine(CompareReportLine)}, report is finished by {@link #endReport(int)}.
+     * In "only differences" mode line must have difference flag if any of its children differs.
+     */
+    public void startReport(CompareObjectsSettings settings, List<DBNDatabaseNode> nodes, int maxDepth, OutputStream outputStream) throws IOException
+    {
+        this.nodes = nodes;
+        this.settings = settings;
+        this.maxDepth = maxDepth;
+        this.pendingLine = null;
+        this.xml = new XMLBuilder(outputStream, GeneralUtils.UTF8_ENCODING, true);
+        this.xml.setButify(true);
+        xml.addContent(
+            "<!DOCTYPE html \n" +
+            "     PUBLIC \"-//W3C//DTD XHTML 1.0 Strict//EN\"\n" +
+            "    \"http://www.w3.org/TR/xhtml1/DTD/xhtml1-strict.dtd\">");
 
         xml.startElement("html");
         xml.startElement("head");
@@ -85,7 +114,43 @@ public class CompareReportRenderer {
         //xml.addAttribute("border", "1");
         xml.addAttribute("cellspacing", 0);
         xml.addAttribute("cellpadding", 0);
-        renderBody(monitor);
+
+        // Table head
+        xml.startElement("tr");
+        xml.startElement("th");
+        xml.addText("Structure");
+        xml.endElement();
+        for (DBNDatabaseNode node : nodes) {
+            xml.startElement("th");
+            xml.addText(node.getNodeFullName());
+            xml.endElement();
+        }
+        xml.endElement();
+    }
+
+    public void renderLine(CompareReportLine line) throws IOException
+    {
+        if (pendingLine != null) {
+            renderLine(pendingLine, line);
+        }
+        pendingLine = line;
+    }
+
+    public void endReport(int objectCount) throws IOException
+    {
+        if (pendingLine != null) {
+            renderLine(pendingLine, null);
+            pendingLine = null;
+        }
+
+        // Table footer
+        xml.startElement("tr");
+        xml.addAttribute("class", "object");
+        xml.startElement("td");
+        xml.addAttribute("colspan", nodes.size() + 1);
+        xml.addText("" + objectCount + " objects compared");
+        xml.endElement();
+        xml.endElement();
 
         xml.endElement();
         xml.endElement();
@@ -96,13 +161,7 @@ public class CompareReportRenderer {
 
     private void renderHeader() throws IOException
     {
-        int maxLevel = 0;
-        for (CompareReportLine line : report.getReportLines()) {
-            if (line.depth > maxLevel) {
-                maxLevel = line.depth;
-            }
-        }
-        maxLevel++;
+        int maxLevel = maxDepth + 1;
         xml.startElement("style");
         StringBuilder styles = new StringBuilder();
         styles.append("table {font-family:\"Lucida Sans Unicode\", \"Lucida Grande\", Sans-Serif;font-size:12px;text-align:left;} ");
@@ -119,127 +178,98 @@ public class CompareReportRenderer {
         xml.endElement();
     }
 
-    private void renderBody(DBRProgressMonitor monitor) throws IOException
+    private void renderLine(CompareReportLine line, CompareReportLine nextLine) throws IOException
     {
-        // Table head
-        xml.startElement("tr");
-        xml.startElement("th");
-        xml.addText("Structure");
-        xml.endElement();
-        for (DBNDatabaseNode node : report.getNodes()) {
-            xml.startElement("th");
-            xml.addText(node.getNodeFullName());
-            xml.endElement();
-        }
-        xml.endElement();
-
-        // Table body
         boolean showOnlyDifferences = settings.isShowOnlyDifferences();
-        int objectCount = report.getNodes().size();
-        List<CompareReportLine> reportLines = report.getReportLines();
-        int reportLinesSize = reportLines.size();
-        for (int i = 0; i < reportLinesSize; i++) {
-            monitor.worked(1);
-            CompareReportLine line = reportLines.get(i);
-            if (showOnlyDifferences && !line.hasDifference) {
-                continue;
-            }
-            boolean onlyStructure = line.structure instanceof DBNDatabaseFolder && !line.hasDifference;
-            // Skip empty folders
-            if (onlyStructure && (i >= reportLinesSize - 1 || reportLines.get(i + 1).depth <= line.depth)) {
-                continue;
-            }
+        if (showOnlyDifferences && !line.hasDifference) {
+            return;
+        }
+        int objectCount = nodes.size();
+        boolean onlyStructure = line.structure instanceof DBNDatabaseFolder && !line.hasDifference;
+        // Skip empty folders
+        if (onlyStructure && (nextLine == null || nextLine.depth <= line.depth)) {
+            return;
+        }
 
-            xml.startElement("tr");
-            xml.addAttribute("class", "object level" + line.depth);
-            xml.addAttribute("valign", "top");
+        xml.startElement("tr");
+        xml.addAttribute("class", "object level" + line.depth);
+        xml.addAttribute("valign", "top");
+        xml.startElement("td");
+        xml.addText(line.structure.getNodeType());
+        xml.endElement();
+        if (onlyStructure) {
             xml.startElement("td");
-            xml.addText(line.structure.getNodeType());
+            xml.addAttribute("colspan", line.nodes.length);
+            xml.addText("&nbsp;", false);
             xml.endElement();
-            if (onlyStructure) {
+        } else {
+            for (int k = 0; k < objectCount; k++) {
                 xml.startElement("td");
-                xml.addAttribute("colspan", line.nodes.length);
-                xml.addText("&nbsp;", false);
-                xml.endElement();
-            } else {
-                for (int k = 0; k < objectCount; k++) {
-                    xml.startElement("td");
-                    if (line.nodes[k] == null) {
-                        xml.addAttribute("class", "missing");
-                        xml.addText("N/A");
-                    } else {
-                        xml.addText(line.nodes[k].getName());
-                    }
-                    xml.endElement();
+                if (line.nodes[k] == null) {
+                    xml.addAttribute("class", "missing");
+                    xml.addText("N/A");
+                } else {
+                    xml.addText(line.nodes[k].getName());
                 }
+                xml.endElement();
             }
+        }
 
-            xml.endElement();
+        xml.endElement();
 
-            if (line.properties != null) {
-                for (CompareReportProperty reportProperty : line.properties) {
-                    boolean differs = false;
-                    Object firstValue = null;
-                    boolean hasValue = false;
-                    for (int k = 0; k < reportProperty.values.length; k++) {
-                        if (line.nodes[k] == null) {
-                            // Ignore properties of missing objects
-                            continue;
-                        }
-                        Object value = reportProperty.values[k];
-                        if (value != null) {
-                            hasValue = true;
-                            if (firstValue == null) {
-                                firstValue = value;
-                            }
-                        }
-                        if (!CompareUtils.equalPropertyValues(value, firstValue)) {
-                            differs = true;
-                            break;
-                        }
-                    }
-                    if (!hasValue) {
-                        // Skip[ properties when nobody have it's value
-                        continue;
-                    }
-                    if (showOnlyDifferences && !differs) {
+        if (line.properties != null) {
+            for (CompareReportProperty reportProperty : line.properties) {
+                boolean differs = false;
+                Object firstValue = null;
+                boolean hasValue = false;
+                for (int k = 0; k < reportProperty.values.length; k++) {
+                    if (line.nodes[k] == null) {
+                        // Ignore properties of missing objects
                         continue;
                     }
-                    xml.startElement("tr");
-                    xml.addAttribute("class", "property level" + (line.depth + 1) + (differs ? " differs" : ""));
-                    xml.addAttribute("valign", "top");
-                    xml.startElement("td");
-                    xml.addText(reportProperty.property.getDisplayName());
-                    xml.endElement();
-
-                    for (int k = 0; k < objectCount; k++) {
-                        xml.startElement("td");
-                        String stringValue = "";
-                        if (reportProperty.values[k] != null) {
-                            stringValue = reportProperty.values[k].toString();
-                        }
-                        if (CommonUtils.isEmpty(stringValue)) {
-                            xml.addText("&nbsp;", false);
-                        } else {
-                            xml.addText(stringValue);
+                    Object value = reportProperty.values[k];
+                    if (value != null) {
+                        hasValue = true;
+                        if (firstValue == null) {
+                            firstValue = value;
                         }
+                    }
+                    if (!CompareUtils.equalPropertyValues(value, firstValue)) {
+                        differs = true;
+                        break;
+                    }
+                }
+                if (!hasValue) {
+                    // Skip[ properties when nobody have it's value
+                    continue;
+                }
+                if (showOnlyDifferences && !differs) {
+                    continue;
+                }
+                xml.startElement("tr");
+                xml.addAttribute("class", "property level" + (line.depth + 1) + (differs ? " differs" : ""));
+                xml.addAttribute("valign", "top");
+                xml.startElement("td");
+                xml.addText(reportProperty.property.getDisplayName());
+                xml.endElement();
 
-                        xml.endElement();
+                for (int k = 0; k < objectCount; k++) {
+                    xml.startElement("td");
+                    String stringValue = "";
+                    if (reportProperty.values[k] != null) {
+                        stringValue = reportProperty.values[k].toString();
+                    }
+                    if (CommonUtils.isEmpty(stringValue)) {
+                        xml.addText("&nbsp;", false);
+                    } else {
+                        xml.addText(stringValue);
                     }
 
                     xml.endElement();
                 }
+
+                xml.endElement();
             }
         }
-
-        // Table footer
-        xml.startElement("tr");
-        xml.addAttribute("class", "object");
-        xml.startElement("td");
-        xml.addAttribute("colspan", report.getNodes().size() + 1);
-        xml.addText("" + reportLines.size() + " objects compared");
-        xml.endElement();
-        xml.endElement();
-
     }
-}
\ No newline at end of file
+}
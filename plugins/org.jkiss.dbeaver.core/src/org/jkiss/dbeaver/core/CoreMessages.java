@@ -386,6 +386,12 @@ public class CoreMessages extends NLS {
 	public static String pref_page_database_general_checkbox_show_row_count_tip;
 	public static String pref_page_database_general_server_side_object_filters;
 	public static String pref_page_database_general_server_side_object_filters_tip;
+	public static String pref_page_database_general_persistent_metadata_cache;
+	public static String pref_page_database_general_persistent_metadata_cache_tip;
+	public static String pref_page_database_general_metadata_search_index;
+	public static String pref_page_database_general_metadata_search_index_tip;
+	public static String pref_page_database_general_metadata_change_tracking;
+	public static String pref_page_database_general_metadata_change_tracking_tip;
 	public static String pref_page_database_general_group_query_metadata;
 	// EntityEditor
 	public static String pref_page_ui_general_keep_database_editors_tip;
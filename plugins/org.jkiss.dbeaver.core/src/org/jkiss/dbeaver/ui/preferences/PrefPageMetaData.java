@@ -40,6 +40,9 @@ public class PrefPageMetaData extends TargetPrefPage
     private Button separateMetaConnectionCheck;
     private Button caseSensitiveNamesCheck;
     private Button serverSideFiltersCheck;
+    private Button persistentCacheCheck;
+    private Button searchIndexCheck;
+    private Button changeTrackingCheck;
 
     public PrefPageMetaData()
     {
@@ -54,7 +57,10 @@ public class PrefPageMetaData extends TargetPrefPage
             store.contains(ModelPreferences.READ_EXPENSIVE_PROPERTIES) ||
             store.contains(ModelPreferences.META_SEPARATE_CONNECTION) ||
             store.contains(ModelPreferences.META_CASE_SENSITIVE) ||
-            store.contains(ModelPreferences.META_USE_SERVER_SIDE_FILTERS)
+            store.contains(ModelPreferences.META_USE_SERVER_SIDE_FILTERS) ||
+            store.contains(ModelPreferences.META_PERSISTENT_CACHE) ||
+            store.contains(ModelPreferences.META_SEARCH_INDEX) ||
+            store.contains(ModelPreferences.META_CHANGE_TRACKING)
             ;
     }
 
@@ -75,6 +81,9 @@ public class PrefPageMetaData extends TargetPrefPage
             caseSensitiveNamesCheck = UIUtils.createCheckbox(metadataGroup, CoreMessages.pref_page_database_general_checkbox_case_sensitive_names, CoreMessages.pref_page_database_general_checkbox_case_sensitive_names_tip, false, 1);
             readExpensiveCheck = UIUtils.createCheckbox(metadataGroup, CoreMessages.pref_page_database_general_checkbox_show_row_count, CoreMessages.pref_page_database_general_checkbox_show_row_count_tip, false, 1);
             serverSideFiltersCheck = UIUtils.createCheckbox(metadataGroup, CoreMessages.pref_page_database_general_server_side_object_filters, CoreMessages.pref_page_database_general_server_side_object_filters_tip, false, 1);
+            persistentCacheCheck = UIUtils.createCheckbox(metadataGroup, CoreMessages.pref_page_database_general_persistent_metadata_cache, CoreMessages.pref_page_database_general_persistent_metadata_cache_tip, false, 1);
+            searchIndexCheck = UIUtils.createCheckbox(metadataGroup, CoreMessages.pref_page_database_general_metadata_search_index, CoreMessages.pref_page_database_general_metadata_search_index_tip, false, 1);
+            changeTrackingCheck = UIUtils.createCheckbox(metadataGroup, CoreMessages.pref_page_database_general_metadata_change_tracking, CoreMessages.pref_page_database_general_metadata_change_tracking_tip, false, 1);
         }
 
         return composite;
@@ -88,6 +97,9 @@ public class PrefPageMetaData extends TargetPrefPage
             separateMetaConnectionCheck.setSelection(store.getBoolean(ModelPreferences.META_SEPARATE_CONNECTION));
             caseSensitiveNamesCheck.setSelection(store.getBoolean(ModelPreferences.META_CASE_SENSITIVE));
             serverSideFiltersCheck.setSelection(store.getBoolean(ModelPreferences.META_USE_SERVER_SIDE_FILTERS));
+            persistentCacheCheck.setSelection(store.getBoolean(ModelPreferences.META_PERSISTENT_CACHE));
+            searchIndexCheck.setSelection(store.getBoolean(ModelPreferences.META_SEARCH_INDEX));
+            changeTrackingCheck.setSelection(store.getBoolean(ModelPreferences.META_CHANGE_TRACKING));
 
         } catch (Exception e) {
             log.warn(e);
@@ -102,6 +114,9 @@ public class PrefPageMetaData extends TargetPrefPage
             store.setValue(ModelPreferences.META_SEPARATE_CONNECTION, separateMetaConnectionCheck.getSelection());
             store.setValue(ModelPreferences.META_CASE_SENSITIVE, caseSensitiveNamesCheck.getSelection());
             store.setValue(ModelPreferences.META_USE_SERVER_SIDE_FILTERS, serverSideFiltersCheck.getSelection());
+            store.setValue(ModelPreferences.META_PERSISTENT_CACHE, persistentCacheCheck.getSelection());
+            store.setValue(ModelPreferences.META_SEARCH_INDEX, searchIndexCheck.getSelection());
+            store.setValue(ModelPreferences.META_CHANGE_TRACKING, changeTrackingCheck.getSelection());
 
         } catch (Exception e) {
             log.warn(e);
@@ -116,6 +131,9 @@ public class PrefPageMetaData extends TargetPrefPage
         store.setToDefault(ModelPreferences.META_SEPARATE_CONNECTION);
         store.setToDefault(ModelPreferences.META_CASE_SENSITIVE);
         store.setToDefault(ModelPreferences.META_USE_SERVER_SIDE_FILTERS);
+        store.setToDefault(ModelPreferences.META_PERSISTENT_CACHE);
+        store.setToDefault(ModelPreferences.META_SEARCH_INDEX);
+        store.setToDefault(ModelPreferences.META_CHANGE_TRACKING);
 
     }
 
@@ -61,6 +61,7 @@ class SQLScriptTaskPageSettings extends ActiveWizardPage<SQLScriptTaskConfigurat
     private Button ignoreErrorsCheck;
     private Button dumpQueryCheck;
     private Button autoCommitCheck;
+    private Spinner batchSizeSpinner;
     private TableViewer scriptsViewer;
     private TableViewer dataSourceViewer;
 
@@ -276,6 +277,7 @@ class SQLScriptTaskPageSettings extends ActiveWizardPage<SQLScriptTaskConfigurat
             dumpQueryCheck = UIUtils.createCheckbox(settingsGroup, DTMessages.sql_script_task_page_settings_option_dump_results, "", dtSettings.isDumpQueryResultsToLog(), 1);
             dumpQueryCheck.setEnabled(false);
             autoCommitCheck = UIUtils.createCheckbox(settingsGroup, DTMessages.sql_script_task_page_settings_option_auto_commit, "", dtSettings.isAutoCommit(), 1);
+            batchSizeSpinner = UIUtils.createLabelSpinner(settingsGroup, DTMessages.sql_script_task_page_settings_option_batch_size, DTMessages.sql_script_task_page_settings_option_batch_size_tip, dtSettings.getBatchSize(), 1, 10000);
         }
 
         getWizard().createTaskSaveButtons(composite, true, 1);
@@ -412,6 +414,7 @@ class SQLScriptTaskPageSettings extends ActiveWizardPage<SQLScriptTaskConfigurat
         settings.setIgnoreErrors(ignoreErrorsCheck.getSelection());
         settings.setDumpQueryResultsToLog(dumpQueryCheck.getSelection());
         settings.setAutoCommit(autoCommitCheck.getSelection());
+        settings.setBatchSize(batchSizeSpinner.getSelection());
     }
 
 }
\ No newline at end of file
@@ -51,6 +51,12 @@ public class DTUIMessages extends NLS {
 	public static String database_consumer_wizard_truncate_checkbox_question;
 	public static String database_consumer_wizard_disable_import_batches_label;
 	public static String database_consumer_wizard_disable_import_batches_description;
+	public static String database_consumer_wizard_multi_row_insert_label;
+	public static String database_consumer_wizard_multi_row_insert_description;
+	public static String database_consumer_wizard_multi_row_insert_batch_label;
+	public static String database_consumer_wizard_multi_row_insert_size_label;
+	public static String database_consumer_wizard_bulk_load_label;
+	public static String database_consumer_wizard_bulk_load_description;
 	
 	public static String columns_mapping_dialog_shell_text;
 	public static String columns_mapping_dialog_composite_label_text_source_container;
@@ -84,6 +90,8 @@ public class DTUIMessages extends NLS {
 	public static String database_producer_page_extract_settings_row_count_checkbox_tooltip;
 	public static String database_producer_page_extract_settings_text_fetch_size_label;
 	public static String database_producer_page_extract_settings_text_fetch_size_tooltip;
+	public static String database_producer_page_extract_settings_pipelined_checkbox_label;
+	public static String database_producer_page_extract_settings_pipelined_checkbox_tooltip;
 
 	public static String database_producer_page_input_objects_name;
 	public static String database_producer_page_input_objects_title;
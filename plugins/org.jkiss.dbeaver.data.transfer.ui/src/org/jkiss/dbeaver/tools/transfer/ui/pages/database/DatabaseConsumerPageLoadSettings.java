@@ -34,6 +34,9 @@ public class DatabaseConsumerPageLoadSettings extends ActiveWizardPage<DataTrans
 
     private Button transferAutoGeneratedColumns;
     private Button truncateTargetTable;
+    private Button multiRowInsertCheck;
+    private Spinner multiRowInsertBatchEdit;
+    private Spinner multiRowInsertSizeEdit;
 
     public DatabaseConsumerPageLoadSettings() {
     	super(DTUIMessages.database_consumer_wizard_name);
@@ -115,8 +118,42 @@ public class DatabaseConsumerPageLoadSettings extends ActiveWizardPage<DataTrans
                 @Override
                 public void widgetSelected(SelectionEvent e) {
                     settings.setDisableUsingBatches(useBatchCheck.getSelection());
+                    updateMultiRowInsertEnablement();
                 }
             });
+
+            multiRowInsertCheck = UIUtils.createCheckbox(performanceSettings, DTUIMessages.database_consumer_wizard_multi_row_insert_label, DTUIMessages.database_consumer_wizard_multi_row_insert_description, settings.isUseMultiRowInsert(), 4);
+            multiRowInsertCheck.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e) {
+                    settings.setUseMultiRowInsert(multiRowInsertCheck.getSelection());
+                    updateMultiRowInsertEnablement();
+                }
+            });
+
+            multiRowInsertBatchEdit = UIUtils.createLabelSpinner(performanceSettings, DTUIMessages.database_consumer_wizard_multi_row_insert_batch_label, settings.getMultiRowInsertBatch(), 2, 10000);
+            multiRowInsertBatchEdit.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e) {
+                    settings.setMultiRowInsertBatch(multiRowInsertBatchEdit.getSelection());
+                }
+            });
+            multiRowInsertSizeEdit = UIUtils.createLabelSpinner(performanceSettings, DTUIMessages.database_consumer_wizard_multi_row_insert_size_label, settings.getMultiRowInsertMaxSize(), 1, 1024 * 1024);
+            multiRowInsertSizeEdit.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e) {
+                    settings.setMultiRowInsertMaxSize(multiRowInsertSizeEdit.getSelection());
+                }
+            });
+
+            final Button bulkLoadCheck = UIUtils.createCheckbox(performanceSettings, DTUIMessages.database_consumer_wizard_bulk_load_label, DTUIMessages.database_consumer_wizard_bulk_load_description, settings.isUseBulkLoad(), 4);
+            bulkLoadCheck.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e) {
+                    settings.setUseBulkLoad(bulkLoadCheck.getSelection());
+                }
+            });
+            updateMultiRowInsertEnablement();
         }
 
         {
@@ -140,6 +177,14 @@ public class DatabaseConsumerPageLoadSettings extends ActiveWizardPage<DataTrans
         setControl(composite);
     }
 
+    private void updateMultiRowInsertEnablement() {
+        DatabaseConsumerSettings settings = getSettings();
+        multiRowInsertCheck.setEnabled(!settings.isDisableUsingBatches());
+        boolean useMultiRowInsert = settings.isUseMultiRowInsert() && !settings.isDisableUsingBatches();
+        multiRowInsertBatchEdit.setEnabled(useMultiRowInsert);
+        multiRowInsertSizeEdit.setEnabled(useMultiRowInsert);
+    }
+
     private DatabaseConsumerSettings getSettings() {
         return getWizard().getPageSettings(this, DatabaseConsumerSettings.class);
     }
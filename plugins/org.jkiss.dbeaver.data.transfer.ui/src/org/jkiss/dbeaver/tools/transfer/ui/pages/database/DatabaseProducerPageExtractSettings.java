@@ -29,6 +29,7 @@ import org.jkiss.dbeaver.tools.transfer.ui.internal.DTUIMessages;
 import org.jkiss.dbeaver.tools.transfer.ui.wizard.DataTransferWizard;
 import org.jkiss.dbeaver.ui.UIUtils;
 import org.jkiss.dbeaver.ui.dialogs.ActiveWizardPage;
+import org.jkiss.utils.CommonUtils;
 
 import java.util.Locale;
 
@@ -41,8 +42,14 @@ public class DatabaseProducerPageExtractSettings extends ActiveWizardPage<DataTr
     private Combo rowsExtractType;
     private Label segmentSizeLabel;
     private Text segmentSizeText;
+    private Label segmentThreadsLabel;
+    private Text segmentThreadsText;
+    private Label segmentColumnLabel;
+    private Text segmentColumnText;
+    private Text incrementalColumnText;
     private Button newConnectionCheckbox;
     private Button rowCountCheckbox;
+    private Button pipelinedCheckbox;
     private Button selectedColumnsOnlyCheckbox;
     private Button selectedRowsOnlyCheckbox;
     private Text fetchSizeText;
@@ -112,6 +119,31 @@ public class DatabaseProducerPageExtractSettings extends ActiveWizardPage<DataTr
                     }
                 });
                 segmentSizeText.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING, GridData.VERTICAL_ALIGN_BEGINNING, false, false, 1, 1));
+
+                segmentThreadsLabel = UIUtils.createControlLabel(generalSettings, DTMessages.data_transfer_wizard_output_label_segment_threads);
+                segmentThreadsText = new Text(generalSettings, SWT.BORDER);
+                segmentThreadsText.setToolTipText(DTMessages.data_transfer_wizard_output_label_segment_threads_tooltip);
+                segmentThreadsText.addVerifyListener(UIUtils.getIntegerVerifyListener(Locale.ENGLISH));
+                segmentThreadsText.addModifyListener(e -> {
+                    try {
+                        settings.setSegmentThreads(Integer.parseInt(segmentThreadsText.getText()));
+                    } catch (NumberFormatException e1) {
+                        // just skip it
+                    }
+                });
+                segmentThreadsText.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING, GridData.VERTICAL_ALIGN_BEGINNING, false, false, 1, 1));
+
+                segmentColumnLabel = UIUtils.createControlLabel(generalSettings, DTMessages.data_transfer_wizard_output_label_segment_column);
+                segmentColumnText = new Text(generalSettings, SWT.BORDER);
+                segmentColumnText.setToolTipText(DTMessages.data_transfer_wizard_output_label_segment_column_tooltip);
+                segmentColumnText.addModifyListener(e -> settings.setSegmentColumn(segmentColumnText.getText().trim()));
+                segmentColumnText.setLayoutData(new GridData(GridData.FILL_HORIZONTAL, GridData.VERTICAL_ALIGN_BEGINNING, false, false, 3, 1));
+
+                UIUtils.createControlLabel(generalSettings, DTMessages.data_transfer_wizard_output_label_incremental_column);
+                incrementalColumnText = new Text(generalSettings, SWT.BORDER);
+                incrementalColumnText.setToolTipText(DTMessages.data_transfer_wizard_output_label_incremental_column_tooltip);
+                incrementalColumnText.addModifyListener(e -> settings.setIncrementalColumn(incrementalColumnText.getText().trim()));
+                incrementalColumnText.setLayoutData(new GridData(GridData.FILL_HORIZONTAL, GridData.VERTICAL_ALIGN_BEGINNING, false, false, 3, 1));
             }
 
             newConnectionCheckbox = UIUtils.createCheckbox(generalSettings, DTMessages.data_transfer_wizard_output_checkbox_new_connection, DTUIMessages.database_producer_page_extract_settings_new_connection_checkbox_tooltip, true, 4);
@@ -130,6 +162,14 @@ public class DatabaseProducerPageExtractSettings extends ActiveWizardPage<DataTr
                 }
             });
 
+            pipelinedCheckbox = UIUtils.createCheckbox(generalSettings, DTUIMessages.database_producer_page_extract_settings_pipelined_checkbox_label, DTUIMessages.database_producer_page_extract_settings_pipelined_checkbox_tooltip, false, 4);
+            pipelinedCheckbox.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e) {
+                    getWizard().getSettings().setPipelined(pipelinedCheckbox.getSelection());
+                }
+            });
+
             fetchSizeText = UIUtils.createLabelText(generalSettings, DTUIMessages.database_producer_page_extract_settings_text_fetch_size_label, "", SWT.BORDER);
             fetchSizeText.setToolTipText(DTUIMessages.database_producer_page_extract_settings_text_fetch_size_tooltip);
             fetchSizeText.addVerifyListener(UIUtils.getIntegerVerifyListener(Locale.ENGLISH));
@@ -181,9 +221,13 @@ public class DatabaseProducerPageExtractSettings extends ActiveWizardPage<DataTr
         threadsNumText.setText(String.valueOf(getWizard().getSettings().getMaxJobCount()));
         newConnectionCheckbox.setSelection(settings.isOpenNewConnections());
         rowCountCheckbox.setSelection(settings.isQueryRowCount());
+        pipelinedCheckbox.setSelection(getWizard().getSettings().isPipelined());
 
         if (segmentSizeText != null) {
             segmentSizeText.setText(String.valueOf(settings.getSegmentSize()));
+            segmentThreadsText.setText(String.valueOf(settings.getSegmentThreads()));
+            segmentColumnText.setText(CommonUtils.notEmpty(settings.getSegmentColumn()));
+            incrementalColumnText.setText(CommonUtils.notEmpty(settings.getIncrementalColumn()));
             switch (settings.getExtractType()) {
                 case SINGLE_QUERY: rowsExtractType.select(EXTRACT_TYPE_SINGLE_QUERY); break;
                 case SEGMENTS: rowsExtractType.select(EXTRACT_TYPE_SEGMENTS); break;
@@ -205,13 +249,13 @@ public class DatabaseProducerPageExtractSettings extends ActiveWizardPage<DataTr
     {
         if (rowsExtractType != null) {
             int selectionIndex = rowsExtractType.getSelectionIndex();
-            if (selectionIndex == EXTRACT_TYPE_SEGMENTS) {
-                segmentSizeLabel.setEnabled(true);
-                segmentSizeText.setEnabled(true);
-            } else {
-                segmentSizeLabel.setEnabled(false);
-                segmentSizeText.setEnabled(false);
-            }
+            boolean segments = selectionIndex == EXTRACT_TYPE_SEGMENTS;
+            segmentSizeLabel.setEnabled(segments);
+            segmentSizeText.setEnabled(segments);
+            segmentThreadsLabel.setEnabled(segments);
+            segmentThreadsText.setEnabled(segments);
+            segmentColumnLabel.setEnabled(segments);
+            segmentColumnText.setEnabled(segments);
         }
         return true;
     }
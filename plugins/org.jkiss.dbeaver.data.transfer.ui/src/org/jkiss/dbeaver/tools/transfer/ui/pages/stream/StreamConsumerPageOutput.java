@@ -45,6 +45,9 @@ public class StreamConsumerPageOutput extends ActiveWizardPage<DataTransferWizar
     private Text directoryText;
     private Text fileNameText;
     private Button compressCheckbox;
+    private Combo compressionFormatCombo;
+    private Label compressionThreadsLabel;
+    private Text compressionThreadsText;
     private Button showFolderCheckbox;
     private Button execProcessCheckbox;
     private Text execProcessText;
@@ -164,6 +167,29 @@ public class StreamConsumerPageOutput extends ActiveWizardPage<DataTransferWizar
                     updateControlsEnablement();
                 }
             });
+            compressionFormatCombo = UIUtils.createLabelCombo(generalSettings, DTMessages.data_transfer_wizard_output_label_compression_format, SWT.DROP_DOWN | SWT.READ_ONLY);
+            for (StreamConsumerSettings.CompressionFormat format : StreamConsumerSettings.CompressionFormat.values()) {
+                compressionFormatCombo.add(format.name());
+            }
+            compressionFormatCombo.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e) {
+                    settings.setCompressionFormat(StreamConsumerSettings.CompressionFormat.values()[compressionFormatCombo.getSelectionIndex()]);
+                    updateControlsEnablement();
+                }
+            });
+            compressionThreadsLabel = UIUtils.createControlLabel(generalSettings, DTMessages.data_transfer_wizard_output_label_compression_threads);
+            compressionThreadsText = new Text(generalSettings, SWT.BORDER);
+            compressionThreadsText.setToolTipText(DTMessages.data_transfer_wizard_output_label_compression_threads_tooltip);
+            compressionThreadsText.addVerifyListener(UIUtils.getIntegerVerifyListener(Locale.ENGLISH));
+            compressionThreadsText.addModifyListener(e -> {
+                try {
+                    settings.setCompressionThreads(Integer.parseInt(compressionThreadsText.getText()));
+                } catch (NumberFormatException e1) {
+                    // just skip it
+                }
+            });
+            compressionThreadsText.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING, GridData.VERTICAL_ALIGN_BEGINNING, false, false, 1, 1));
 
             {
                 Composite outFilesSettings = UIUtils.createComposite(generalSettings, 3);
@@ -257,6 +283,11 @@ public class StreamConsumerPageOutput extends ActiveWizardPage<DataTransferWizar
         directoryText.setEnabled(!clipboard);
         fileNameText.setEnabled(!clipboard);
         compressCheckbox.setEnabled(!clipboard);
+        boolean compress = !clipboard && compressCheckbox.getSelection();
+        compressionFormatCombo.setEnabled(compress);
+        boolean gzip = compress && compressionFormatCombo.getSelectionIndex() == StreamConsumerSettings.CompressionFormat.GZIP.ordinal();
+        compressionThreadsLabel.setEnabled(gzip);
+        compressionThreadsText.setEnabled(gzip);
         splitFilesCheckbox.setEnabled(!clipboard);
         maximumFileSizeLabel.setEnabled(!clipboard && splitFilesCheckbox.getSelection());
         maximumFileSizeText.setEnabled(!clipboard && splitFilesCheckbox.getSelection());
@@ -280,6 +311,8 @@ public class StreamConsumerPageOutput extends ActiveWizardPage<DataTransferWizar
         directoryText.setText(CommonUtils.toString(settings.getOutputFolder()));
         fileNameText.setText(CommonUtils.toString(settings.getOutputFilePattern()));
         compressCheckbox.setSelection(settings.isCompressResults());
+        compressionFormatCombo.select(settings.getCompressionFormat().ordinal());
+        compressionThreadsText.setText(String.valueOf(settings.getCompressionThreads()));
         splitFilesCheckbox.setSelection(settings.isSplitOutFiles());
         maximumFileSizeText.setText(String.valueOf(settings.getMaxOutFileSize()));
         encodingCombo.setText(CommonUtils.toString(settings.getOutputEncoding()));
@@ -421,11 +421,18 @@ public class DataTransferWizard extends TaskConfigurationWizard<DataTransferSett
         DataTransferSettings.saveNodesLocation(runnableContext, task, state, producers, "producers");
         DataTransferSettings.saveNodesLocation(runnableContext, task, state, consumers, "consumers");
         state.put("configuration", saveConfiguration(new LinkedHashMap<>()));
+        // Keep watermarks of incremental export
+        Object incrementalState = task.getProperties().get(DTConstants.TASK_PROP_INCREMENTAL_STATE);
+        if (incrementalState != null) {
+            state.put(DTConstants.TASK_PROP_INCREMENTAL_STATE, incrementalState);
+        }
     }
 
     private Map<String, Object> saveConfiguration(Map<String, Object> config) {
         config.put("maxJobCount", settings.getMaxJobCount());
         config.put("showFinalMessage", settings.isShowFinalMessage());
+        config.put("pipelined", settings.isPipelined());
+        config.put("pipelineQueueSize", settings.getPipelineQueueSize());
 
         // Save nodes' settings
         boolean isTask = getCurrentTask() != null;
@@ -532,6 +539,12 @@ public class DataTransferWizard extends TaskConfigurationWizard<DataTransferSett
             return settings.isShowFinalMessage();
         }
 
+        @Override
+        protected String getFinalMessageDetails() {
+            List<String> statistics = settings.getState().getStatistics();
+            return statistics.isEmpty() ? null : String.join("\n", statistics);
+        }
+
         @Override
         protected void runTask() throws DBException {
             DTTaskHandlerTransfer handlerTransfer = new DTTaskHandlerTransfer();
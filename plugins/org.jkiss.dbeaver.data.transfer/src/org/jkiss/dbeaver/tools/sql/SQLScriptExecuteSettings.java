@@ -41,6 +41,8 @@ public class SQLScriptExecuteSettings implements DBTTaskSettings<IResource> {
 
     private static final Log log = Log.getLog(SQLScriptExecuteSettings.class);
 
+    public static final int DEFAULT_BATCH_SIZE = 100;
+
     private List<DBPDataSourceContainer> dataSources = new ArrayList<>();
     private List<String> scriptFiles = new ArrayList<>();
 
@@ -49,6 +51,7 @@ public class SQLScriptExecuteSettings implements DBTTaskSettings<IResource> {
 
     private boolean ignoreErrors;
     private boolean dumpQueryResultsToLog;
+    private int batchSize = DEFAULT_BATCH_SIZE;
 
     public List<String> getScriptFiles() {
         return scriptFiles;
@@ -82,6 +85,14 @@ public class SQLScriptExecuteSettings implements DBTTaskSettings<IResource> {
         this.dumpQueryResultsToLog = dumpQueryResultsToLog;
     }
 
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
     public boolean isAutoCommit() {
         return autoCommit;
     }
@@ -133,6 +144,7 @@ public class SQLScriptExecuteSettings implements DBTTaskSettings<IResource> {
         dumpQueryResultsToLog = JSONUtils.getBoolean(config, "dumpQueryResultsToLog");
 
         autoCommit = JSONUtils.getBoolean(config, "autoCommit");
+        batchSize = JSONUtils.getInteger(config, "batchSize", DEFAULT_BATCH_SIZE);
     }
 
     public void saveConfiguration(Map<String, Object> config) {
@@ -150,6 +162,7 @@ public class SQLScriptExecuteSettings implements DBTTaskSettings<IResource> {
         config.put("dumpQueryResultsToLog", dumpQueryResultsToLog);
 
         config.put("autoCommit", autoCommit);
+        config.put("batchSize", batchSize);
     }
 
     public static IFile getWorkspaceFile(String filePath) {
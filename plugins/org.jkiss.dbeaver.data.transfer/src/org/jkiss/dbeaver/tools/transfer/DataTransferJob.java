@@ -22,7 +22,10 @@ import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.DBRRunnableWithProgress;
 import org.jkiss.dbeaver.model.task.DBTTask;
 import org.jkiss.dbeaver.model.task.DBTTaskExecutionListener;
+import org.jkiss.dbeaver.tools.transfer.database.DatabaseTransferConsumer;
+import org.jkiss.dbeaver.tools.transfer.database.DatabaseTransferProducer;
 import org.jkiss.dbeaver.tools.transfer.internal.DTMessages;
+import org.jkiss.dbeaver.utils.RuntimeUtils;
 import org.jkiss.utils.CommonUtils;
 
 import java.lang.reflect.InvocationTargetException;
@@ -105,16 +108,33 @@ public class DataTransferJob implements DBRRunnableWithProgress {
             //consumer.initTransfer(producer.getDatabaseObject(), consumerSettings, );
 
             IDataTransferProcessor processor = settings.getProcessor() == null ? null : settings.getProcessor().getInstance();
+            // In pipelined mode consumer writes rows in a separate thread
+            DataTransferPipelineConsumer pipelineConsumer = settings.isPipelined() ?
+                new DataTransferPipelineConsumer(consumer, settings.getPipelineQueueSize()) : null;
+            long startTime = System.currentTimeMillis();
             try {
                 producer.transferData(
                     monitor,
-                    consumer,
+                    pipelineConsumer != null ? pipelineConsumer : consumer,
                     processor,
                     nodeSettings,
                     task);
             } finally {
                 consumer.finishTransfer(monitor, false);
             }
+            if (task != null && producer instanceof DatabaseTransferProducer && !monitor.isCanceled()) {
+                // All rows were written, so the next incremental export may start after them.
+                // Canceled transfer may have skipped some rows, so its state is not saved.
+                ((DatabaseTransferProducer) producer).saveIncrementalState(task);
+            }
+            log.debug("Transferred " + producer.getObjectName() + " to " + consumer.getObjectName() +
+                " in " + RuntimeUtils.formatExecutionTime(System.currentTimeMillis() - startTime));
+            if (consumer instanceof DatabaseTransferConsumer) {
+                addStatistics(monitor, ((DatabaseTransferConsumer) consumer).getLoadStatistics());
+            }
+            if (pipelineConsumer != null) {
+                addStatistics(monitor, "Pipeline " + producer.getObjectName() + " to " + consumer.getObjectName() + ": " + pipelineConsumer.getStatisticsSummary());
+            }
             return true;
         } catch (Exception e) {
             log.error("Error transfering data from " + producer.getObjectName() + " to " + consumer.getObjectName(), e);
@@ -125,4 +145,12 @@ public class DataTransferJob implements DBRRunnableWithProgress {
 
     }
 
+    private void addStatistics(DBRProgressMonitor monitor, String message) {
+        if (message != null) {
+            settings.getState().addStatistics(message);
+            monitor.subTask(message);
+            log.debug(message);
+        }
+    }
+
 }
@@ -0,0 +1,357 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBPImage;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.exec.DBCAttributeMetaData;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCResultSet;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.utils.RuntimeUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pipelined consumer.
+ * Producer thread fetches rows and puts them in the bounded queue in batches.
+ * Separate writer thread passes rows from the queue to the target consumer.
+ * So fetch from source and write to target run at the same time.
+ *
+ * Producer blocks when queue is full. Result sets with LOB columns are passed to the target consumer directly
+ * because LOB values may become invalid after cursor moves to the next row.
+ */
+public class DataTransferPipelineConsumer implements IDataTransferConsumer<IDataTransferSettings, IDataTransferProcessor> {
+
+    public static final int DEFAULT_QUEUE_SIZE = 16;
+
+    private static final int BATCH_SIZE = 200;
+    private static final long WAIT_TIMEOUT = 100;
+    // End of data marker
+    private static final List<Object[]> END_OF_DATA = new ArrayList<>();
+
+    private final IDataTransferConsumer consumer;
+    private final int queueSize;
+
+    private BlockingQueue<List<Object[]>> queue;
+    private WriterJob writerJob;
+    private volatile Throwable writeError;
+    private List<DBCAttributeMetaData> attributes;
+    private DBDValueHandler[] valueHandlers;
+    private List<Object[]> batch;
+    private long lastFetchTime;
+
+    // Stage statistics (in nanoseconds)
+    private long rowCount;
+    private long fetchTime;
+    private long transformTime;
+    private long writeTime;
+    private long producerWaitTime;
+    private long writerWaitTime;
+
+    public DataTransferPipelineConsumer(@NotNull IDataTransferConsumer consumer, int queueSize) {
+        this.consumer = consumer;
+        this.queueSize = Math.max(1, queueSize);
+    }
+
+    @NotNull
+    public IDataTransferConsumer getConsumer() {
+        return consumer;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Time spent by the producer to fetch rows from source (in ms)
+     */
+    public long getFetchTime() {
+        return fetchTime / 1000000;
+    }
+
+    /**
+     * Time spent to read values from the source result set (in ms)
+     */
+    public long getTransformTime() {
+        return transformTime / 1000000;
+    }
+
+    /**
+     * Time spent by the target consumer to write rows (in ms)
+     */
+    public long getWriteTime() {
+        return writeTime / 1000000;
+    }
+
+    /**
+     * Time the producer waited for free space in the queue (in ms). Big value means that target is a bottleneck.
+     */
+    public long getProducerWaitTime() {
+        return producerWaitTime / 1000000;
+    }
+
+    /**
+     * Time the writer waited for new rows (in ms). Big value means that source is a bottleneck.
+     */
+    public long getWriterWaitTime() {
+        return writerWaitTime / 1000000;
+    }
+
+    public String getStatisticsSummary() {
+        return rowCount + " row(s): fetch " + RuntimeUtils.formatExecutionTime(getFetchTime()) +
+            ", transform " + RuntimeUtils.formatExecutionTime(getTransformTime()) +
+            ", write " + RuntimeUtils.formatExecutionTime(getWriteTime()) +
+            " (producer waited " + RuntimeUtils.formatExecutionTime(getProducerWaitTime()) +
+            ", writer waited " + RuntimeUtils.formatExecutionTime(getWriterWaitTime()) + ")";
+    }
+
+    @Override
+    public void initTransfer(DBSObject sourceObject, IDataTransferSettings settings, TransferParameters parameters, IDataTransferProcessor processor, Map<String, Object> processorProperties) {
+        consumer.initTransfer(sourceObject, settings, parameters, processor, processorProperties);
+    }
+
+    @Override
+    public void startTransfer(DBRProgressMonitor monitor) throws DBException {
+        consumer.startTransfer(monitor);
+    }
+
+    @Override
+    public void finishTransfer(DBRProgressMonitor monitor, boolean last) {
+        consumer.finishTransfer(monitor, last);
+    }
+
+    @Override
+    public Object getTargetObject() {
+        return consumer.getTargetObject();
+    }
+
+    @Override
+    public Object getTargetObjectContainer() {
+        return consumer.getTargetObjectContainer();
+    }
+
+    @Override
+    public DBSObject getDatabaseObject() {
+        return consumer.getDatabaseObject();
+    }
+
+    @Override
+    public String getObjectName() {
+        return consumer.getObjectName();
+    }
+
+    @Override
+    public DBPImage getObjectIcon() {
+        return consumer.getObjectIcon();
+    }
+
+    @Override
+    public String getObjectContainerName() {
+        return consumer.getObjectContainerName();
+    }
+
+    @Override
+    public DBPImage getObjectContainerIcon() {
+        return consumer.getObjectContainerIcon();
+    }
+
+    @Override
+    public void fetchStart(DBCSession session, DBCResultSet resultSet, long offset, long maxRows) throws DBCException {
+        consumer.fetchStart(session, resultSet, offset, maxRows);
+
+        attributes = resultSet.getMeta().getAttributes();
+        boolean hasContent = false;
+        for (DBCAttributeMetaData attribute : attributes) {
+            if (attribute.getDataKind() == DBPDataKind.CONTENT) {
+                hasContent = true;
+                break;
+            }
+        }
+        if (!hasContent) {
+            valueHandlers = new DBDValueHandler[attributes.size()];
+            for (int i = 0; i < valueHandlers.length; i++) {
+                valueHandlers[i] = DBUtils.findValueHandler(session, attributes.get(i));
+            }
+            queue = new ArrayBlockingQueue<>(queueSize);
+            batch = new ArrayList<>(BATCH_SIZE);
+            writeError = null;
+            writerJob = new WriterJob(session, new DataTransferRowsResultSet(session, resultSet.getSourceStatement(), resultSet.getMeta(), batch));
+            writerJob.schedule();
+        }
+        lastFetchTime = System.nanoTime();
+    }
+
+    @Override
+    public void fetchRow(DBCSession session, DBCResultSet resultSet) throws DBCException {
+        long startTime = System.nanoTime();
+        fetchTime += startTime - lastFetchTime;
+        rowCount++;
+        if (writerJob == null) {
+            // Direct mode
+            consumer.fetchRow(session, resultSet);
+            lastFetchTime = System.nanoTime();
+            writeTime += lastFetchTime - startTime;
+            return;
+        }
+        checkWriteError();
+
+        Object[] row = new Object[valueHandlers.length];
+        for (int i = 0; i < valueHandlers.length; i++) {
+            row[i] = valueHandlers[i].fetchValueObject(session, resultSet, attributes.get(i), i);
+        }
+        batch.add(row);
+        long transformEndTime = System.nanoTime();
+        transformTime += transformEndTime - startTime;
+
+        if (batch.size() >= BATCH_SIZE) {
+            putBatch(session.getProgressMonitor(), batch);
+            batch = new ArrayList<>(BATCH_SIZE);
+        }
+        lastFetchTime = System.nanoTime();
+        producerWaitTime += lastFetchTime - transformEndTime;
+    }
+
+    @Override
+    public void fetchEnd(DBCSession session, DBCResultSet resultSet) throws DBCException {
+        if (writerJob != null) {
+            boolean completed = false;
+            try {
+                DBRProgressMonitor monitor = session.getProgressMonitor();
+                completed = (batch.isEmpty() || putBatch(monitor, batch)) && putBatch(monitor, END_OF_DATA);
+            } finally {
+                // Wait until writer flushes all queued rows
+                stopWriter(!completed);
+            }
+            checkWriteError();
+        }
+        consumer.fetchEnd(session, resultSet);
+    }
+
+    @Override
+    public void close() {
+        // Writer is still active if producer failed before fetchEnd
+        stopWriter(true);
+        consumer.close();
+    }
+
+    private boolean putBatch(@NotNull DBRProgressMonitor monitor, @NotNull List<Object[]> rows) throws DBCException {
+        try {
+            while (!queue.offer(rows, WAIT_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                checkWriteError();
+                if (monitor.isCanceled() || writerJob.isFinished()) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (InterruptedException e) {
+            throw new DBCException("Data transfer interrupted");
+        }
+    }
+
+    private void checkWriteError() throws DBCException {
+        Throwable error = writeError;
+        if (error instanceof DBCException) {
+            throw (DBCException) error;
+        } else if (error != null) {
+            throw new DBCException("Error writing data to " + consumer.getObjectName(), error);
+        }
+    }
+
+    private void stopWriter(boolean cancel) {
+        if (writerJob != null) {
+            if (cancel) {
+                writerJob.cancelWrite();
+            }
+            try {
+                writerJob.join();
+            } catch (InterruptedException e) {
+                // ignore
+            }
+            writerJob = null;
+            queue = null;
+            batch = null;
+        }
+    }
+
+    private class WriterJob extends AbstractJob {
+
+        private final DBCSession session;
+        private final DataTransferRowsResultSet resultSet;
+        private volatile boolean canceled;
+        private volatile boolean finished;
+
+        WriterJob(DBCSession session, DataTransferRowsResultSet resultSet) {
+            super("Write data to " + consumer.getObjectName());
+            setUser(false);
+            setSystem(true);
+            this.session = session;
+            this.resultSet = resultSet;
+        }
+
+        boolean isFinished() {
+            return finished;
+        }
+
+        void cancelWrite() {
+            canceled = true;
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            try {
+                while (!canceled) {
+                    long waitStartTime = System.nanoTime();
+                    List<Object[]> rows = queue.poll(WAIT_TIMEOUT, TimeUnit.MILLISECONDS);
+                    long writeStartTime = System.nanoTime();
+                    writerWaitTime += writeStartTime - waitStartTime;
+                    if (rows == END_OF_DATA) {
+                        break;
+                    }
+                    if (rows == null) {
+                        continue;
+                    }
+                    resultSet.setRows(rows);
+                    while (!canceled && resultSet.nextRow()) {
+                        consumer.fetchRow(session, resultSet);
+                    }
+                    writeTime += System.nanoTime() - writeStartTime;
+                }
+            } catch (Throwable e) {
+                writeError = e;
+            } finally {
+                finished = true;
+            }
+            return Status.OK_STATUS;
+        }
+    }
+
+}
@@ -0,0 +1,95 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.impl.AbstractResultSet;
+
+import java.util.List;
+
+/**
+ * Result set over rows which were already fetched from the source result set.
+ * Row values are fetched with value handlers, so consumers read them with the same value handlers
+ * as from the original result set.
+ */
+public class DataTransferRowsResultSet extends AbstractResultSet<DBCSession, DBCStatement> {
+
+    private final DBCResultSetMetaData meta;
+    private List<Object[]> rows;
+    private int position = -1;
+
+    public DataTransferRowsResultSet(@NotNull DBCSession session, DBCStatement statement, @NotNull DBCResultSetMetaData meta, @NotNull List<Object[]> rows) {
+        super(session, statement);
+        this.meta = meta;
+        this.rows = rows;
+    }
+
+    public void setRows(@NotNull List<Object[]> rows) {
+        this.rows = rows;
+        this.position = -1;
+    }
+
+    @Override
+    public Object getAttributeValue(int index) throws DBCException {
+        Object[] row = rows.get(position);
+        if (index < 0 || index >= row.length) {
+            throw new DBCException("Attribute index out of range (" + index + "/" + row.length + ")");
+        }
+        return row[index];
+    }
+
+    @Override
+    public Object getAttributeValue(String name) throws DBCException {
+        List<DBCAttributeMetaData> attributes = meta.getAttributes();
+        for (int i = 0; i < attributes.size(); i++) {
+            if (attributes.get(i).getLabel().equals(name)) {
+                return getAttributeValue(i);
+            }
+        }
+        throw new DBCException("Bad attribute name: " + name);
+    }
+
+    @Override
+    public boolean nextRow() {
+        if (position + 1 >= rows.size()) {
+            return false;
+        }
+        position++;
+        return true;
+    }
+
+    @Override
+    public boolean moveTo(int position) {
+        if (position < 0 || position >= rows.size()) {
+            return false;
+        }
+        this.position = position;
+        return true;
+    }
+
+    @NotNull
+    @Override
+    public DBCResultSetMetaData getMeta() {
+        return meta;
+    }
+
+    @Override
+    public void close() {
+    }
+
+}
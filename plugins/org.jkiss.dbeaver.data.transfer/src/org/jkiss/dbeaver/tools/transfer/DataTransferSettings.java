@@ -70,6 +70,8 @@ public class DataTransferSettings implements DBTTaskSettings<DBPObject> {
     private boolean consumerOptional;
     private boolean producerOptional;
     private int maxJobCount = DEFAULT_THREADS_NUM;
+    private boolean pipelined;
+    private int pipelineQueueSize = DataTransferPipelineConsumer.DEFAULT_QUEUE_SIZE;
 
     private transient int curPipeNum = 0;
 
@@ -236,6 +238,8 @@ public class DataTransferSettings implements DBTTaskSettings<DBPObject> {
     public void loadSettings(DBRProgressMonitor monitor, Map<String, Object> config) {
         this.setMaxJobCount(CommonUtils.toInt(config.get("maxJobCount"), DataTransferSettings.DEFAULT_THREADS_NUM));
         this.setShowFinalMessage(CommonUtils.getBoolean(config.get("showFinalMessage"), this.isShowFinalMessage()));
+        this.setPipelined(CommonUtils.getBoolean(config.get("pipelined"), false));
+        this.setPipelineQueueSize(CommonUtils.toInt(config.get("pipelineQueueSize"), DataTransferPipelineConsumer.DEFAULT_QUEUE_SIZE));
 
         DataTransferNodeDescriptor savedConsumer = null, savedProducer = null, processorNode = null;
         {
@@ -542,6 +546,30 @@ public class DataTransferSettings implements DBTTaskSettings<DBPObject> {
         }
     }
 
+    /**
+     * In pipelined mode rows are written to the target in a separate thread while producer fetches next rows
+     */
+    public boolean isPipelined() {
+        return pipelined;
+    }
+
+    public void setPipelined(boolean pipelined) {
+        this.pipelined = pipelined;
+    }
+
+    /**
+     * Maximum number of row batches buffered between producer and consumer in pipelined mode
+     */
+    public int getPipelineQueueSize() {
+        return pipelineQueueSize;
+    }
+
+    public void setPipelineQueueSize(int pipelineQueueSize) {
+        if (pipelineQueueSize > 0) {
+            this.pipelineQueueSize = pipelineQueueSize;
+        }
+    }
+
     public boolean isShowFinalMessage() {
         return showFinalMessage;
     }
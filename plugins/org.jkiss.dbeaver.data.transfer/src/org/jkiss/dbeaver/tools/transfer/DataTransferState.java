@@ -25,6 +25,7 @@ import java.util.List;
 public class DataTransferState {
 
     private List<Throwable> loadErrors = new ArrayList<>();
+    private final List<String> statistics = new ArrayList<>();
 
     public List<Throwable> getLoadErrors() {
         return loadErrors;
@@ -37,4 +38,15 @@ public class DataTransferState {
     public boolean hasErrors() {
         return !loadErrors.isEmpty();
     }
+
+    /**
+     * Returns human readable statistics of finished transfers (load method, throughput, etc)
+     */
+    public synchronized List<String> getStatistics() {
+        return new ArrayList<>(statistics);
+    }
+
+    public synchronized void addStatistics(String message) {
+        statistics.add(message);
+    }
 }
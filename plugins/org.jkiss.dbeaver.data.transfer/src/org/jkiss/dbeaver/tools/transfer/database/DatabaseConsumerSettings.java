@@ -58,6 +58,10 @@ public class DatabaseConsumerSettings implements IDataTransferSettings {
     private boolean truncateBeforeLoad = false;
     private boolean openTableOnFinish = true;
     private boolean disableUsingBatches = false;
+    private boolean useMultiRowInsert = false;
+    private int multiRowInsertBatch = 100;
+    private int multiRowInsertMaxSize = 1024;
+    private boolean useBulkLoad = false;
 
     private transient Map<String, Object> dialogSettings;
 
@@ -151,6 +155,44 @@ public class DatabaseConsumerSettings implements IDataTransferSettings {
         this.disableUsingBatches = disableUsingBatches;
     }
 
+    public boolean isUseMultiRowInsert() {
+        return useMultiRowInsert;
+    }
+
+    public void setUseMultiRowInsert(boolean useMultiRowInsert) {
+        this.useMultiRowInsert = useMultiRowInsert;
+    }
+
+    /**
+     * Maximum number of rows in a single multi-row INSERT statement
+     */
+    public int getMultiRowInsertBatch() {
+        return multiRowInsertBatch;
+    }
+
+    public void setMultiRowInsertBatch(int multiRowInsertBatch) {
+        this.multiRowInsertBatch = multiRowInsertBatch;
+    }
+
+    /**
+     * Maximum estimated size of values in a single multi-row INSERT statement (in kilobytes)
+     */
+    public int getMultiRowInsertMaxSize() {
+        return multiRowInsertMaxSize;
+    }
+
+    public void setMultiRowInsertMaxSize(int multiRowInsertMaxSize) {
+        this.multiRowInsertMaxSize = multiRowInsertMaxSize;
+    }
+
+    public boolean isUseBulkLoad() {
+        return useBulkLoad;
+    }
+
+    public void setUseBulkLoad(boolean useBulkLoad) {
+        this.useBulkLoad = useBulkLoad;
+    }
+
     public int getCommitAfterRows() {
         return commitAfterRows;
     }
@@ -181,6 +223,10 @@ public class DatabaseConsumerSettings implements IDataTransferSettings {
 
         commitAfterRows = CommonUtils.toInt(settings.get("commitAfterRows"), commitAfterRows);
         disableUsingBatches = CommonUtils.getBoolean(settings.get("disableUsingBatches"), disableUsingBatches);
+        useMultiRowInsert = CommonUtils.getBoolean(settings.get("useMultiRowInsert"), useMultiRowInsert);
+        multiRowInsertBatch = CommonUtils.toInt(settings.get("multiRowInsertBatch"), multiRowInsertBatch);
+        multiRowInsertMaxSize = CommonUtils.toInt(settings.get("multiRowInsertMaxSize"), multiRowInsertMaxSize);
+        useBulkLoad = CommonUtils.getBoolean(settings.get("useBulkLoad"), useBulkLoad);
         transferAutoGeneratedColumns = CommonUtils.getBoolean(settings.get("transferAutoGeneratedColumns"), transferAutoGeneratedColumns);
         truncateBeforeLoad = CommonUtils.getBoolean(settings.get("truncateBeforeLoad"), truncateBeforeLoad);
         openTableOnFinish = CommonUtils.getBoolean(settings.get("openTableOnFinish"), openTableOnFinish);
@@ -245,6 +291,10 @@ public class DatabaseConsumerSettings implements IDataTransferSettings {
         settings.put("useTransactions", useTransactions);
         settings.put("commitAfterRows", commitAfterRows);
         settings.put("disableUsingBatches", disableUsingBatches);
+        settings.put("useMultiRowInsert", useMultiRowInsert);
+        settings.put("multiRowInsertBatch", multiRowInsertBatch);
+        settings.put("multiRowInsertMaxSize", multiRowInsertMaxSize);
+        settings.put("useBulkLoad", useBulkLoad);
         settings.put("transferAutoGeneratedColumns", transferAutoGeneratedColumns);
         settings.put("truncateBeforeLoad", truncateBeforeLoad);
         settings.put("openTableOnFinish", openTableOnFinish);
@@ -273,6 +323,11 @@ public class DatabaseConsumerSettings implements IDataTransferSettings {
             DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_commit_after, commitAfterRows);
         }
         DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_disable_batches, disableUsingBatches);
+        DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_multi_row_insert, useMultiRowInsert);
+        if (useMultiRowInsert) {
+            DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_multi_row_insert_batch, multiRowInsertBatch);
+        }
+        DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_use_bulk_load, useBulkLoad);
         DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_transfer_auto_generated_columns, transferAutoGeneratedColumns);
         DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_truncate_before_load, truncateBeforeLoad);
 
@@ -0,0 +1,285 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.database;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDDataFilter;
+import org.jkiss.dbeaver.model.data.DBDDataReceiver;
+import org.jkiss.dbeaver.model.data.json.JSONUtils;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.sql.SQLUtils;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+import org.jkiss.dbeaver.model.task.DBTTask;
+import org.jkiss.dbeaver.tools.transfer.DTConstants;
+import org.jkiss.utils.CommonUtils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Incremental (delta) extraction of table rows by watermark column.
+ * Reads rows with watermark value greater than the value saved by the previous task run
+ * and not greater than the column maximum at the moment of extraction start.
+ * New watermark is the maximum column value of transferred rows. It is saved in task properties
+ * only after rows were successfully transferred.
+ */
+class DatabaseIncrementalExtract {
+
+    private static final Log log = Log.getLog(DatabaseIncrementalExtract.class);
+
+    private static final String TYPE_NUMBER = "number";
+    private static final String TYPE_TIMESTAMP = "timestamp";
+
+    private final String entityId;
+    private final String columnName;
+    private final String condition;
+    @Nullable
+    private final Object maxValue;
+    // Maximum watermark value of rows passed to the consumer
+    @Nullable
+    private volatile Object lastValue;
+    private volatile boolean columnFetched;
+
+    private DatabaseIncrementalExtract(String entityId, String columnName, String condition, @Nullable Object maxValue) {
+        this.entityId = entityId;
+        this.columnName = columnName;
+        this.condition = condition;
+        this.maxValue = maxValue;
+    }
+
+    @NotNull
+    static DatabaseIncrementalExtract prepare(
+        @NotNull DBCSession session,
+        @NotNull DBSEntity entity,
+        @NotNull String columnName,
+        @NotNull DBTTask task) throws DBException
+    {
+        DBSEntityAttribute column = entity.getAttribute(session.getProgressMonitor(), columnName);
+        if (column == null) {
+            throw new DBException("Incremental column '" + columnName + "' not found in " + entity.getName());
+        }
+        switch (column.getDataKind()) {
+            case NUMERIC:
+            case DATETIME:
+                break;
+            default:
+                throw new DBException("Incremental column '" + columnName + "' must be numeric or date/time");
+        }
+        String entityId = DBUtils.getObjectFullId(entity);
+        Object lastValue = loadWatermark(task, entityId, column.getName());
+        Object maxValue = readMaxValue(session, entity, column);
+
+        String quotedName = DBUtils.getQuotedIdentifier(column);
+        String condition;
+        if (maxValue == null) {
+            // Table is empty - nothing to read
+            condition = "1=0";
+        } else {
+            condition = quotedName + "<=" + toSQLValue(session, column, maxValue);
+            if (lastValue != null) {
+                condition = quotedName + ">" + toSQLValue(session, column, lastValue) + " AND " + condition;
+            }
+        }
+        log.debug("Incremental extract of " + entity.getName() + ": " + condition);
+        return new DatabaseIncrementalExtract(entityId, column.getName(), condition, maxValue);
+    }
+
+    /**
+     * Adds watermark condition to the data filter
+     */
+    @NotNull
+    DBDDataFilter makeFilter(@Nullable DBDDataFilter dataFilter) {
+        DBDDataFilter filter = dataFilter == null ? new DBDDataFilter() : new DBDDataFilter(dataFilter);
+        String where = filter.getWhere();
+        filter.setWhere(CommonUtils.isEmpty(where) ? condition : "(" + where + ") AND " + condition);
+        return filter;
+    }
+
+    /**
+     * Wraps data receiver to track watermark values of transferred rows
+     */
+    @NotNull
+    DBDDataReceiver wrapReceiver(@NotNull DBDDataReceiver receiver) {
+        return new WatermarkReceiver(receiver);
+    }
+
+    /**
+     * Saves new watermark in the task configuration. Next task run will read rows after this watermark.
+     * Watermark is the last transferred value. If watermark column wasn't read (e.g. only selected columns
+     * were exported) then maximum value at the moment of extraction start is used.
+     */
+    void saveWatermark(@NotNull DBTTask task) throws DBException {
+        Object newValue = columnFetched ? lastValue : maxValue;
+        if (newValue == null) {
+            // Nothing was transferred
+            return;
+        }
+        Map<String, Object> watermark = new LinkedHashMap<>();
+        watermark.put("column", columnName);
+        if (newValue instanceof BigDecimal) {
+            watermark.put("type", TYPE_NUMBER);
+            watermark.put("value", ((BigDecimal) newValue).toPlainString());
+        } else {
+            watermark.put("type", TYPE_TIMESTAMP);
+            watermark.put("value", newValue.toString());
+        }
+        // Several tables of the same task may be transferred in parallel
+        synchronized (task) {
+            Map<String, Object> properties = new LinkedHashMap<>(task.getProperties());
+            Map<String, Object> state = new LinkedHashMap<>(JSONUtils.getObject(properties, DTConstants.TASK_PROP_INCREMENTAL_STATE));
+            state.put(entityId, watermark);
+            properties.put(DTConstants.TASK_PROP_INCREMENTAL_STATE, state);
+            task.setProperties(properties);
+            task.getProject().getTaskManager().updateTaskConfiguration(task);
+        }
+    }
+
+    @Nullable
+    private static Object loadWatermark(@NotNull DBTTask task, @NotNull String entityId, @NotNull String columnName) throws DBException {
+        Map<String, Object> watermark;
+        synchronized (task) {
+            watermark = JSONUtils.getObject(JSONUtils.getObject(task.getProperties(), DTConstants.TASK_PROP_INCREMENTAL_STATE), entityId);
+        }
+        String value = JSONUtils.getString(watermark, "value");
+        if (CommonUtils.isEmpty(value)) {
+            return null;
+        }
+        if (!columnName.equals(JSONUtils.getString(watermark, "column"))) {
+            log.debug("Incremental column of " + entityId + " was changed. Read all rows.");
+            return null;
+        }
+        try {
+            if (TYPE_NUMBER.equals(JSONUtils.getString(watermark, "type"))) {
+                return new BigDecimal(value);
+            } else {
+                return Timestamp.valueOf(value);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new DBException("Bad incremental watermark value '" + value + "' of " + entityId, e);
+        }
+    }
+
+    @Nullable
+    private static Object readMaxValue(@NotNull DBCSession session, @NotNull DBSEntity entity, @NotNull DBSEntityAttribute column) throws DBException {
+        String query = "SELECT MAX(" + DBUtils.getQuotedIdentifier(column) + ") FROM " + DBUtils.getObjectFullName(entity, DBPEvaluationContext.DML);
+        Object value = null;
+        try (DBCStatement dbStat = session.prepareStatement(DBCStatementType.QUERY, query, false, false, false)) {
+            if (dbStat.executeStatement()) {
+                try (DBCResultSet dbResult = dbStat.openResultSet()) {
+                    if (dbResult != null && dbResult.nextRow()) {
+                        value = dbResult.getAttributeValue(0);
+                    }
+                }
+            }
+        }
+        if (value == null) {
+            return null;
+        }
+        Object watermarkValue = toWatermarkValue(value);
+        if (watermarkValue == null) {
+            throw new DBException("Unsupported incremental column value type: " + value.getClass().getName());
+        }
+        return watermarkValue;
+    }
+
+    @Nullable
+    private static Object toWatermarkValue(@NotNull Object value) {
+        if (value instanceof BigDecimal) {
+            return value;
+        } else if (value instanceof BigInteger) {
+            return new BigDecimal((BigInteger) value);
+        } else if (value instanceof Double || value instanceof Float) {
+            return BigDecimal.valueOf(((Number) value).doubleValue());
+        } else if (value instanceof Number) {
+            return BigDecimal.valueOf(((Number) value).longValue());
+        } else if (value instanceof Timestamp) {
+            return value;
+        } else if (value instanceof Date) {
+            return new Timestamp(((Date) value).getTime());
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized void updateLastValue(@Nullable Object value) {
+        Object watermarkValue = value == null ? null : toWatermarkValue(value);
+        if (watermarkValue != null && (lastValue == null ||
+            (lastValue.getClass() == watermarkValue.getClass() && ((Comparable<Object>) lastValue).compareTo(watermarkValue) < 0)))
+        {
+            lastValue = watermarkValue;
+        }
+    }
+
+    private class WatermarkReceiver implements DBDDataReceiver {
+        private final DBDDataReceiver receiver;
+        private int columnIndex = -1;
+
+        WatermarkReceiver(DBDDataReceiver receiver) {
+            this.receiver = receiver;
+        }
+
+        @Override
+        public void fetchStart(DBCSession session, DBCResultSet resultSet, long offset, long maxRows) throws DBCException {
+            columnIndex = -1;
+            List<DBCAttributeMetaData> attributes = resultSet.getMeta().getAttributes();
+            for (int i = 0; i < attributes.size(); i++) {
+                if (columnName.equalsIgnoreCase(attributes.get(i).getName())) {
+                    columnIndex = i;
+                    columnFetched = true;
+                    break;
+                }
+            }
+            receiver.fetchStart(session, resultSet, offset, maxRows);
+        }
+
+        @Override
+        public void fetchRow(DBCSession session, DBCResultSet resultSet) throws DBCException {
+            Object value = columnIndex < 0 ? null : resultSet.getAttributeValue(columnIndex);
+            receiver.fetchRow(session, resultSet);
+            updateLastValue(value);
+        }
+
+        @Override
+        public void fetchEnd(DBCSession session, DBCResultSet resultSet) throws DBCException {
+            receiver.fetchEnd(session, resultSet);
+        }
+
+        @Override
+        public void close() {
+            receiver.close();
+        }
+    }
+
+    private static String toSQLValue(@NotNull DBCSession session, @NotNull DBSEntityAttribute column, @NotNull Object value) {
+        if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).toPlainString();
+        }
+        return SQLUtils.convertValueToSQL(session.getDataSource(), column, value);
+    }
+
+}
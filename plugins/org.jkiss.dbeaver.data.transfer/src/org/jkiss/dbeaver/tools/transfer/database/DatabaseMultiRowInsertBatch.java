@@ -0,0 +1,257 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.database;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDContent;
+import org.jkiss.dbeaver.model.data.DBDDisplayFormat;
+import org.jkiss.dbeaver.model.data.DBDValueBinder;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.edit.DBEPersistAction;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.impl.edit.SQLDatabasePersistAction;
+import org.jkiss.dbeaver.model.impl.jdbc.JDBCSQLDialect;
+import org.jkiss.dbeaver.model.sql.SQLConstants;
+import org.jkiss.dbeaver.model.sql.SQLDialect;
+import org.jkiss.dbeaver.model.sql.SQLUtils;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataManipulator;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inserts rows with multi-row statements (INSERT INTO table (...) VALUES (...),(...),...).
+ * Rows are grouped into statements limited by rows count, estimated parameters size and parameters count.
+ * Prepared statement is reused while statements have the same rows count.
+ */
+class DatabaseMultiRowInsertBatch implements DBSDataManipulator.ExecuteBatch {
+
+    // SQL Server doesn't allow more than 2100 parameters in a single statement
+    static final int MAX_STATEMENT_PARAMETERS = 2000;
+
+    private final DBSEntity entity;
+    private final DBSAttributeBase[] attributes;
+    private final DBCExecutionSource source;
+    private final int maxRows;
+    private final long maxBytes;
+    private final List<Object[]> values = new ArrayList<>();
+
+    private DBDValueHandler[] handlers;
+    private DBCStatement cachedStatement;
+    private int cachedStatementRows;
+
+    DatabaseMultiRowInsertBatch(@NotNull DBSEntity entity, @NotNull DBSAttributeBase[] attributes, @NotNull DBCExecutionSource source, int maxRows, long maxBytes) {
+        this.entity = entity;
+        this.attributes = attributes;
+        this.source = source;
+        this.maxRows = Math.max(1, Math.min(maxRows, MAX_STATEMENT_PARAMETERS / Math.max(1, attributes.length)));
+        this.maxBytes = maxBytes;
+    }
+
+    static boolean isSupported(@Nullable DBSDataManipulator targetObject, @NotNull DBPDataSource dataSource) {
+        if (!(targetObject instanceof DBSEntity)) {
+            return false;
+        }
+        SQLDialect dialect = dataSource.getSQLDialect();
+        // Regular inserts use UPSERT keyword in dialects which support it (so existing rows are replaced).
+        // Multi-row batch always generates plain INSERT, so it would fail on duplicates instead.
+        return dialect != null &&
+            dialect.getMultiValueInsertMode() == SQLDialect.MultiValueInsertMode.GROUP_ROWS &&
+            !(dialect instanceof JDBCSQLDialect && ((JDBCSQLDialect) dialect).supportsUpsertStatement());
+    }
+
+    @Override
+    public void add(@NotNull Object[] attributeValues) {
+        values.add(attributeValues);
+    }
+
+    @NotNull
+    @Override
+    public DBCStatistics execute(@NotNull DBCSession session, Map<String, Object> options) throws DBCException {
+        initHandlers(session);
+        DBCStatistics statistics = new DBCStatistics();
+        try {
+            for (int rowIndex = 0; rowIndex < values.size(); ) {
+                if (session.getProgressMonitor().isCanceled()) {
+                    break;
+                }
+                int rowCount = getStatementRowCount(rowIndex);
+                // Tail statements are executed once, do not keep them
+                boolean cacheStatement = rowIndex + rowCount < values.size() || rowCount == maxRows;
+                DBCStatement statement;
+                if (cachedStatement != null && cachedStatementRows == rowCount) {
+                    statement = cachedStatement;
+                } else {
+                    statement = session.prepareStatement(DBCStatementType.QUERY, makeQuery(session, rowIndex, rowCount, options, false), false, false, false);
+                    statement.setStatementSource(source);
+                    statistics.setQueryText(statement.getQueryString());
+                    statistics.addStatementsCount();
+                    if (cacheStatement) {
+                        closeCachedStatement();
+                        cachedStatement = statement;
+                        cachedStatementRows = rowCount;
+                    }
+                }
+                try {
+                    int paramIndex = 0;
+                    for (int i = rowIndex; i < rowIndex + rowCount; i++) {
+                        Object[] rowValues = values.get(i);
+                        for (int k = 0; k < attributes.length; k++) {
+                            if (DBUtils.isPseudoAttribute(attributes[k])) {
+                                continue;
+                            }
+                            handlers[k].bindValueObject(session, statement, attributes[k], paramIndex++, rowValues[k]);
+                        }
+                    }
+                    long startTime = System.currentTimeMillis();
+                    statement.executeStatement();
+                    statistics.addExecuteTime(System.currentTimeMillis() - startTime);
+                    long updatedRows = statement.getUpdateRowCount();
+                    statistics.addRowsUpdated(updatedRows >= 0 ? updatedRows : rowCount);
+                    Throwable[] warnings = statement.getStatementWarnings();
+                    if (warnings != null) {
+                        for (Throwable w : warnings) {
+                            statistics.addWarning(w);
+                        }
+                    }
+                } finally {
+                    if (statement != cachedStatement) {
+                        statement.close();
+                    }
+                }
+                rowIndex += rowCount;
+            }
+        } finally {
+            values.clear();
+        }
+        return statistics;
+    }
+
+    @Override
+    public void generatePersistActions(@NotNull DBCSession session, @NotNull List<DBEPersistAction> actions, Map<String, Object> options) {
+        initHandlers(session);
+        for (int rowIndex = 0; rowIndex < values.size(); ) {
+            int rowCount = getStatementRowCount(rowIndex);
+            actions.add(new SQLDatabasePersistAction("Insert rows", makeQuery(session, rowIndex, rowCount, options, true)));
+            rowIndex += rowCount;
+        }
+        values.clear();
+    }
+
+    @Override
+    public void close() {
+        closeCachedStatement();
+        values.clear();
+    }
+
+    private void initHandlers(@NotNull DBCSession session) {
+        if (handlers == null) {
+            handlers = new DBDValueHandler[attributes.length];
+            for (int i = 0; i < attributes.length; i++) {
+                handlers[i] = DBUtils.findValueHandler(session, attributes[i]);
+            }
+        }
+    }
+
+    private void closeCachedStatement() {
+        if (cachedStatement != null) {
+            cachedStatement.close();
+            cachedStatement = null;
+            cachedStatementRows = 0;
+        }
+    }
+
+    private int getStatementRowCount(int fromRow) {
+        int rowCount = Math.min(maxRows, values.size() - fromRow);
+        if (maxBytes > 0) {
+            long statementSize = 0;
+            for (int i = 0; i < rowCount; i++) {
+                statementSize += getRowSize(values.get(fromRow + i));
+                if (statementSize > maxBytes && i > 0) {
+                    return i;
+                }
+            }
+        }
+        return rowCount;
+    }
+
+    private static long getRowSize(Object[] row) {
+        long size = 0;
+        for (Object value : row) {
+            if (value instanceof CharSequence) {
+                size += ((CharSequence) value).length();
+            } else if (value instanceof byte[]) {
+                size += ((byte[]) value).length;
+            } else if (value instanceof DBDContent) {
+                try {
+                    size += Math.max(0, ((DBDContent) value).getContentLength());
+                } catch (DBCException e) {
+                    size += 8;
+                }
+            } else {
+                size += 8;
+            }
+        }
+        return size;
+    }
+
+    private String makeQuery(@NotNull DBCSession session, int fromRow, int rowCount, Map<String, Object> options, boolean inlineValues) {
+        StringBuilder query = new StringBuilder(64 + rowCount * attributes.length * 4);
+        query.append(SQLConstants.KEYWORD_INSERT).append(" INTO ").append(DBUtils.getEntityScriptName(entity, options)).append(" ("); //$NON-NLS-1$
+        boolean hasKey = false;
+        for (DBSAttributeBase attribute : attributes) {
+            if (DBUtils.isPseudoAttribute(attribute)) {
+                continue;
+            }
+            if (hasKey) query.append(","); //$NON-NLS-1$
+            hasKey = true;
+            query.append(DBUtils.getObjectFullName(session.getDataSource(), attribute, DBPEvaluationContext.DML));
+        }
+        query.append(")\n\tVALUES "); //$NON-NLS-1$
+        for (int i = fromRow; i < fromRow + rowCount; i++) {
+            Object[] rowValues = values.get(i);
+            if (i > fromRow) query.append(",\n\t"); //$NON-NLS-1$
+            query.append("("); //$NON-NLS-1$
+            hasKey = false;
+            for (int k = 0; k < attributes.length; k++) {
+                DBSAttributeBase attribute = attributes[k];
+                if (DBUtils.isPseudoAttribute(attribute)) {
+                    continue;
+                }
+                if (hasKey) query.append(","); //$NON-NLS-1$
+                hasKey = true;
+                if (inlineValues) {
+                    query.append(SQLUtils.convertValueToSQL(session.getDataSource(), attribute, handlers[k], rowValues[k], DBDDisplayFormat.NATIVE));
+                } else if (handlers[k] instanceof DBDValueBinder) {
+                    query.append(((DBDValueBinder) handlers[k]).makeQueryBind(attribute, rowValues[k]));
+                } else {
+                    query.append("?"); //$NON-NLS-1$
+                }
+            }
+            query.append(")"); //$NON-NLS-1$
+        }
+        return query.toString();
+    }
+
+}
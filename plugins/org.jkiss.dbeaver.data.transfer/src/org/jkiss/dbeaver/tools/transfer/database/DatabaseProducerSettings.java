@@ -39,6 +39,9 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
     private static final int DEFAULT_FETCH_SIZE = 10000;
 
     private int segmentSize = DEFAULT_SEGMENT_SIZE;
+    private int segmentThreads = 1;
+    private String segmentColumn;
+    private String incrementalColumn;
 
     private boolean openNewConnections = true;
     private boolean queryRowCount = true;
@@ -60,6 +63,41 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
         }
     }
 
+    /**
+     * Number of threads which read segments of the same table in parallel.
+     * Values greater than 1 are used only if new connections are opened.
+     */
+    public int getSegmentThreads() {
+        return segmentThreads;
+    }
+
+    public void setSegmentThreads(int segmentThreads) {
+        this.segmentThreads = Math.max(1, segmentThreads);
+    }
+
+    /**
+     * Column used to split table into segments in parallel mode. If empty then primary key is used.
+     */
+    public String getSegmentColumn() {
+        return segmentColumn;
+    }
+
+    public void setSegmentColumn(String segmentColumn) {
+        this.segmentColumn = segmentColumn;
+    }
+
+    /**
+     * Watermark column of incremental export. Task reads only rows with values greater than
+     * the maximum value read by the previous run. Empty value disables incremental export.
+     */
+    public String getIncrementalColumn() {
+        return incrementalColumn;
+    }
+
+    public void setIncrementalColumn(String incrementalColumn) {
+        this.incrementalColumn = incrementalColumn;
+    }
+
     public boolean isQueryRowCount() {
         return queryRowCount;
     }
@@ -112,6 +150,9 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
     public void loadSettings(DBRRunnableContext runnableContext, DataTransferSettings dataTransferSettings, Map<String, Object> settings) {
         extractType = CommonUtils.valueOf(ExtractType.class, (String) settings.get("extractType"), extractType);
         segmentSize = CommonUtils.toInt(settings.get("segmentSize"), DEFAULT_SEGMENT_SIZE);
+        segmentThreads = Math.max(1, CommonUtils.toInt(settings.get("segmentThreads"), 1));
+        segmentColumn = CommonUtils.toString(settings.get("segmentColumn"), null);
+        incrementalColumn = CommonUtils.toString(settings.get("incrementalColumn"), null);
         fetchSize = CommonUtils.toInt(settings.get("fetchSize"), fetchSize);
         openNewConnections = CommonUtils.toBoolean(settings.get("openNewConnections"));
         queryRowCount = CommonUtils.toBoolean(settings.get("queryRowCount"));
@@ -123,6 +164,9 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
     public void saveSettings(Map<String, Object> settings) {
         settings.put("extractType", extractType.name());
         settings.put("segmentSize", segmentSize);
+        settings.put("segmentThreads", segmentThreads);
+        settings.put("segmentColumn", segmentColumn);
+        settings.put("incrementalColumn", incrementalColumn);
         settings.put("fetchSize", fetchSize);
         settings.put("openNewConnections", openNewConnections);
         settings.put("queryRowCount", queryRowCount);
@@ -136,6 +180,16 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
 
         DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_checkbox_new_connection, openNewConnections);
         DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_label_extract_type, extractType.name());
+        if (extractType == ExtractType.SEGMENTS) {
+            DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_label_segment_size, segmentSize);
+            DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_label_segment_threads, segmentThreads);
+            if (!CommonUtils.isEmpty(segmentColumn)) {
+                DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_label_segment_column, segmentColumn);
+            }
+        }
+        if (!CommonUtils.isEmpty(incrementalColumn)) {
+            DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_label_incremental_column, incrementalColumn);
+        }
         DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_checkbox_select_row_count, queryRowCount);
         DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_checkbox_selected_rows_only, selectedRowsOnly);
         DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_checkbox_selected_columns_only, selectedColumnsOnly);
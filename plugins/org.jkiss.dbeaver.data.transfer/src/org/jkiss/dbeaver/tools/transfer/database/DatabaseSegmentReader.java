@@ -0,0 +1,511 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.database;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBFetchProgress;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDContent;
+import org.jkiss.dbeaver.model.data.DBDDataFilter;
+import org.jkiss.dbeaver.model.data.DBDDataReceiver;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.impl.AbstractExecutionSource;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.sql.SQLUtils;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+import org.jkiss.dbeaver.tools.transfer.DataTransferRowsResultSet;
+import org.jkiss.dbeaver.utils.RuntimeUtils;
+import org.jkiss.utils.CommonUtils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.util.*;
+
+/**
+ * Reads single table in several parallel threads.
+ * Table is split into segments by ranges of primary key (or user-specified numeric or date column) values.
+ * Each thread reads segments in its own isolated execution context.
+ * Segments are passed to the consumer in segment order, so consumer sees rows in the same order
+ * as in sequential segments mode.
+ * Rows are handed over in chunks. Segment which is being passed to the consumer is streamed, other segments
+ * are buffered until the total number of buffered rows reaches the limit, then their readers wait.
+ */
+class DatabaseSegmentReader {
+
+    private static final Log log = Log.getLog(DatabaseSegmentReader.class);
+
+    private static final int MAX_SEGMENT_COUNT = 10000;
+    private static final int WAIT_TIMEOUT = 100;
+    private static final int CHUNK_SIZE = 1000;
+    private static final int MAX_BUFFERED_ROWS = 100000;
+
+    private final DBSEntity entity;
+    @Nullable
+    private final DBDDataFilter dataFilter;
+    private final DatabaseProducerSettings settings;
+    private final long readFlags;
+
+    private final List<Segment> segments = new ArrayList<>();
+    private int nextSegment;
+    private int replayedSegments;
+    private int bufferedRows;
+    private boolean finished;
+    private Throwable readError;
+
+    private static class Segment {
+        final int index;
+        final String condition;
+        final ArrayDeque<List<Object[]>> chunks = new ArrayDeque<>();
+        int bufferedRows;
+        DBCResultSetMetaData meta;
+        DBCStatement statement;
+        boolean fetched;
+
+        Segment(int index, String condition) {
+            this.index = index;
+            this.condition = condition;
+        }
+    }
+
+    private DatabaseSegmentReader(@NotNull DBSEntity entity, @Nullable DBDDataFilter dataFilter, @NotNull DatabaseProducerSettings settings, long readFlags) {
+        this.entity = entity;
+        this.dataFilter = dataFilter;
+        this.settings = settings;
+        this.readFlags = readFlags;
+    }
+
+    /**
+     * Creates reader and splits table into segments.
+     * Returns null if table can't be read in parallel (no suitable segment column, LOB columns, etc).
+     */
+    @Nullable
+    static DatabaseSegmentReader createReader(
+        @NotNull DBCSession session,
+        @NotNull DBSDataContainer dataContainer,
+        @Nullable DBDDataFilter dataFilter,
+        @NotNull DatabaseProducerSettings settings,
+        long readFlags,
+        long totalRows) throws DBException
+    {
+        if (!(dataContainer instanceof DBSEntity) || dataContainer.getDataSource().getInfo().isDynamicMetadata()) {
+            return null;
+        }
+        DBSEntity entity = (DBSEntity) dataContainer;
+        DBRProgressMonitor monitor = session.getProgressMonitor();
+        for (DBSEntityAttribute attribute : CommonUtils.safeCollection(entity.getAttributes(monitor))) {
+            if (attribute.getDataKind() == DBPDataKind.CONTENT) {
+                // LOBs are bound to the connection which was used to read them
+                log.debug("Table " + entity.getName() + " has LOB columns, it can't be read in parallel");
+                return null;
+            }
+        }
+        DBSEntityAttribute segmentColumn = getSegmentColumn(monitor, entity, settings.getSegmentColumn());
+        if (segmentColumn == null) {
+            log.debug("No numeric or date column to split " + entity.getName() + " into segments");
+            return null;
+        }
+        DatabaseSegmentReader reader = new DatabaseSegmentReader(entity, dataFilter, settings, readFlags);
+        if (!reader.makeSegments(session, segmentColumn, totalRows)) {
+            return null;
+        }
+        return reader;
+    }
+
+    @Nullable
+    private static DBSEntityAttribute getSegmentColumn(@NotNull DBRProgressMonitor monitor, @NotNull DBSEntity entity, @Nullable String columnName) throws DBException {
+        DBSEntityAttribute column;
+        if (!CommonUtils.isEmpty(columnName)) {
+            column = entity.getAttribute(monitor, columnName);
+            if (column == null) {
+                throw new DBException("Segment column '" + columnName + "' not found in " + entity.getName());
+            }
+        } else {
+            List<? extends DBSEntityAttribute> identifier = DBUtils.getBestTableIdentifier(monitor, entity);
+            if (identifier.size() != 1) {
+                return null;
+            }
+            column = identifier.get(0);
+        }
+        switch (column.getDataKind()) {
+            case NUMERIC:
+            case DATETIME:
+                return column;
+            default:
+                return null;
+        }
+    }
+
+    private boolean makeSegments(@NotNull DBCSession session, @NotNull DBSEntityAttribute column, long totalRows) throws DBCException {
+        String columnName = DBUtils.getQuotedIdentifier(column);
+        String query = "SELECT MIN(" + columnName + "),MAX(" + columnName + ") FROM " + DBUtils.getObjectFullName(entity, DBPEvaluationContext.DML);
+        Object minValue = null, maxValue = null;
+        try (DBCStatement dbStat = session.prepareStatement(DBCStatementType.QUERY, query, false, false, false)) {
+            if (dbStat.executeStatement()) {
+                try (DBCResultSet dbResult = dbStat.openResultSet()) {
+                    if (dbResult != null && dbResult.nextRow()) {
+                        minValue = dbResult.getAttributeValue(0);
+                        maxValue = dbResult.getAttributeValue(1);
+                    }
+                }
+            }
+        }
+
+        int threadCount = settings.getSegmentThreads();
+        int segmentSize = settings.getSegmentSize();
+        long segmentCount = totalRows > 0 ? (totalRows + segmentSize - 1) / segmentSize : threadCount * 4;
+
+        List<String> bounds = new ArrayList<>();
+        if (minValue instanceof Number && maxValue instanceof Number) {
+            BigDecimal min = toBigDecimal((Number) minValue), max = toBigDecimal((Number) maxValue);
+            boolean integral = min.stripTrailingZeros().scale() <= 0 && max.stripTrailingZeros().scale() <= 0;
+            if (totalRows <= 0 && integral) {
+                // Row count is unknown. Range of unique integer keys is the upper bound of row count.
+                BigDecimal keyCount = max.subtract(min).add(BigDecimal.ONE);
+                segmentCount = keyCount.divide(BigDecimal.valueOf(segmentSize), 0, RoundingMode.CEILING)
+                    .min(BigDecimal.valueOf(MAX_SEGMENT_COUNT)).longValue();
+            }
+            segmentCount = Math.max(threadCount, Math.min(segmentCount, MAX_SEGMENT_COUNT));
+            BigDecimal step = max.subtract(min).divide(BigDecimal.valueOf(segmentCount), 10, RoundingMode.HALF_UP);
+            if (integral) {
+                step = step.setScale(0, RoundingMode.CEILING).max(BigDecimal.ONE);
+            }
+            if (step.signum() > 0) {
+                for (BigDecimal bound = min.add(step); bound.compareTo(max) <= 0; bound = bound.add(step)) {
+                    bounds.add(bound.toPlainString());
+                }
+            }
+        } else if (minValue instanceof Date && maxValue instanceof Date) {
+            segmentCount = Math.max(threadCount, Math.min(segmentCount, MAX_SEGMENT_COUNT));
+            long min = ((Date) minValue).getTime(), max = ((Date) maxValue).getTime();
+            long step = Math.max(1, (max - min) / segmentCount);
+            for (long bound = min + step; bound <= max; bound += step) {
+                bounds.add(SQLUtils.convertValueToSQL(session.getDataSource(), column, new Timestamp(bound)));
+            }
+        } else if (minValue != null && maxValue != null) {
+            log.debug("Unsupported segment column value type: " + minValue.getClass().getName());
+            return false;
+        }
+
+        String prevBound = null;
+        for (String bound : bounds) {
+            if (prevBound == null) {
+                addSegment(columnName + "<" + bound);
+            } else {
+                addSegment(columnName + ">=" + prevBound + " AND " + columnName + "<" + bound);
+            }
+            prevBound = bound;
+        }
+        addSegment(prevBound == null ? columnName + " IS NOT NULL" : columnName + ">=" + prevBound);
+        if (!column.isRequired()) {
+            addSegment(columnName + " IS NULL");
+        }
+        return true;
+    }
+
+    private static BigDecimal toBigDecimal(Number value) {
+        if (value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        } else if (value instanceof BigInteger) {
+            return new BigDecimal((BigInteger) value);
+        } else if (value instanceof Double || value instanceof Float) {
+            return BigDecimal.valueOf(value.doubleValue());
+        } else {
+            return BigDecimal.valueOf(value.longValue());
+        }
+    }
+
+    private void addSegment(String condition) {
+        segments.add(new Segment(segments.size(), condition));
+    }
+
+    int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Reads all segments and passes them to the consumer.
+     * @param session main producer session. Consumer receives all rows in this session
+     * @param baseContext context which is used as a template for isolated contexts of reader threads
+     */
+    DBCStatistics readData(@NotNull DBCSession session, @NotNull DBCExecutionContext baseContext, @NotNull DBDDataReceiver consumer) throws DBException {
+        DBRProgressMonitor monitor = session.getProgressMonitor();
+        int threadCount = Math.min(settings.getSegmentThreads(), segments.size());
+        List<SegmentReaderJob> readers = new ArrayList<>(threadCount);
+        for (int i = 0; i < threadCount; i++) {
+            SegmentReaderJob reader = new SegmentReaderJob(i + 1, baseContext);
+            readers.add(reader);
+            reader.schedule();
+        }
+
+        long startTime = System.currentTimeMillis();
+        DBCStatistics statistics = new DBCStatistics();
+        try {
+            for (int index = 0; index < segments.size() && !monitor.isCanceled(); index++) {
+                replaySegment(session, consumer, segments.get(index), statistics);
+            }
+        } finally {
+            synchronized (this) {
+                finished = true;
+                notifyAll();
+            }
+            for (SegmentReaderJob reader : readers) {
+                // Readers are still running only if transfer was canceled or failed
+                reader.cancel();
+                try {
+                    reader.join();
+                } catch (InterruptedException e) {
+                    // ignore
+                }
+            }
+        }
+        statistics.setExecuteTime(System.currentTimeMillis() - startTime);
+        monitor.subTask("Read " + statistics.getRowsFetched() + " row(s) from " + DBUtils.getObjectFullName(entity, DBPEvaluationContext.UI) +
+            " in " + segments.size() + " segment(s) by " + threadCount + " thread(s) (" + RuntimeUtils.formatExecutionTime(statistics.getExecuteTime()) + ")");
+        return statistics;
+    }
+
+    /**
+     * Waits for the next chunk of segment rows.
+     * Returns null if all segment rows were passed to the consumer or transfer was canceled.
+     */
+    @Nullable
+    private synchronized List<Object[]> takeChunk(@NotNull DBRProgressMonitor monitor, @NotNull Segment segment) throws DBException {
+        while (segment.chunks.isEmpty()) {
+            if (readError != null) {
+                throw new DBException("Error reading data segment", readError);
+            }
+            if (segment.fetched || monitor.isCanceled()) {
+                return null;
+            }
+            try {
+                wait(WAIT_TIMEOUT);
+            } catch (InterruptedException e) {
+                return null;
+            }
+        }
+        List<Object[]> chunk = segment.chunks.removeFirst();
+        segment.bufferedRows -= chunk.size();
+        bufferedRows -= chunk.size();
+        notifyAll();
+        return chunk;
+    }
+
+    private void replaySegment(@NotNull DBCSession session, @NotNull DBDDataReceiver consumer, @NotNull Segment segment, @NotNull DBCStatistics statistics) throws DBException {
+        DBRProgressMonitor monitor = session.getProgressMonitor();
+        monitor.subTask("Segment " + (segment.index + 1) + " of " + segments.size() + " (" + statistics.getRowsFetched() + " rows)");
+        synchronized (this) {
+            // Consumer reads this segment now, so its reader may stream rows regardless of buffer limit
+            replayedSegments = segment.index;
+            notifyAll();
+        }
+        List<Object[]> chunk = takeChunk(monitor, segment);
+        if (segment.meta != null) {
+            DataTransferRowsResultSet resultSet = new DataTransferRowsResultSet(
+                session, segment.statement, segment.meta, chunk == null ? Collections.emptyList() : chunk);
+            try {
+                consumer.fetchStart(session, resultSet, statistics.getRowsFetched(), -1);
+                DBFetchProgress fetchProgress = new DBFetchProgress(monitor);
+                try {
+                    while (chunk != null && !fetchProgress.isCanceled()) {
+                        while (resultSet.nextRow()) {
+                            if (fetchProgress.isCanceled()) {
+                                break;
+                            }
+                            consumer.fetchRow(session, resultSet);
+                            fetchProgress.monitorRowFetch();
+                        }
+                        chunk = takeChunk(monitor, segment);
+                        if (chunk != null) {
+                            resultSet.setRows(chunk);
+                        }
+                    }
+                } finally {
+                    statistics.setRowsFetched(statistics.getRowsFetched() + fetchProgress.getRowCount());
+                    consumer.fetchEnd(session, resultSet);
+                }
+            } finally {
+                consumer.close();
+            }
+        }
+        synchronized (this) {
+            replayedSegments = segment.index + 1;
+            notifyAll();
+        }
+    }
+
+    @Nullable
+    private synchronized Segment claimSegment() {
+        // Do not read too far ahead of consumer. Each claimed segment holds an open cursor.
+        int maxReadAhead = settings.getSegmentThreads() * 2;
+        while (!finished && readError == null && nextSegment < segments.size()) {
+            if (nextSegment - replayedSegments < maxReadAhead) {
+                return segments.get(nextSegment++);
+            }
+            try {
+                wait(WAIT_TIMEOUT);
+            } catch (InterruptedException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Passes fetched rows to the consumer thread. Waits while too many rows are buffered,
+     * unless consumer already reads this segment.
+     */
+    private synchronized void publishChunk(@NotNull Segment segment, @NotNull List<Object[]> chunk) throws DBCException {
+        while ((segment.index == replayedSegments ? segment.bufferedRows : bufferedRows) + chunk.size() > MAX_BUFFERED_ROWS) {
+            if (finished) {
+                throw new DBCException("Data transfer finished");
+            }
+            try {
+                wait(WAIT_TIMEOUT);
+            } catch (InterruptedException e) {
+                throw new DBCException("Segment read interrupted");
+            }
+        }
+        segment.chunks.addLast(chunk);
+        segment.bufferedRows += chunk.size();
+        bufferedRows += chunk.size();
+        notifyAll();
+    }
+
+    private synchronized void finishSegment(@NotNull Segment segment) {
+        segment.fetched = true;
+        notifyAll();
+    }
+
+    private synchronized void setReadError(@NotNull Throwable error) {
+        if (readError == null) {
+            readError = error;
+        }
+        notifyAll();
+    }
+
+    private class SegmentReaderJob extends AbstractJob {
+
+        private final DBCExecutionContext baseContext;
+
+        SegmentReaderJob(int number, DBCExecutionContext baseContext) {
+            super("Read " + entity.getName() + " segments (" + number + ")");
+            setUser(false);
+            setSystem(true);
+            this.baseContext = baseContext;
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            try {
+                DBCExecutionContext context = DBUtils.getObjectOwnerInstance(entity).openIsolatedContext(monitor, "Data transfer segment reader", baseContext);
+                try (DBCSession session = context.openSession(monitor, DBCExecutionPurpose.UTIL, "Read data segments")) {
+                    session.enableLogging(false);
+                    // Some drivers (e.g. PostgreSQL) use cursors only in manual commit mode
+                    DBCTransactionManager txnManager = DBUtils.getTransactionManager(context);
+                    if (txnManager != null && txnManager.isSupportsTransactions() && txnManager.isAutoCommit()) {
+                        txnManager.setAutoCommit(monitor, false);
+                    }
+                    AbstractExecutionSource source = new AbstractExecutionSource((DBSDataContainer) entity, context, DatabaseSegmentReader.this);
+                    for (Segment segment = claimSegment(); segment != null && !monitor.isCanceled(); segment = claimSegment()) {
+                        readSegment(session, source, segment);
+                    }
+                } finally {
+                    context.close();
+                }
+            } catch (Throwable e) {
+                setReadError(e);
+            }
+            return Status.OK_STATUS;
+        }
+
+        private void readSegment(DBCSession session, DBCExecutionSource source, Segment segment) throws DBCException {
+            DBDDataFilter segmentFilter = dataFilter == null ? new DBDDataFilter() : new DBDDataFilter(dataFilter);
+            String where = segmentFilter.getWhere();
+            segmentFilter.setWhere(CommonUtils.isEmpty(where) ? segment.condition : "(" + where + ") AND " + segment.condition);
+            ((DBSDataContainer) entity).readData(source, session, new SegmentReceiver(segment), segmentFilter, -1, -1, readFlags, settings.getFetchSize());
+            finishSegment(segment);
+        }
+    }
+
+    /**
+     * Fetches segment rows and passes them to the consumer thread in chunks
+     */
+    private class SegmentReceiver implements DBDDataReceiver {
+        private final Segment segment;
+        private List<DBCAttributeMetaData> attributes;
+        private DBDValueHandler[] valueHandlers;
+        private List<Object[]> chunk = new ArrayList<>();
+
+        SegmentReceiver(Segment segment) {
+            this.segment = segment;
+        }
+
+        @Override
+        public void fetchStart(DBCSession session, DBCResultSet resultSet, long offset, long maxRows) throws DBCException {
+            segment.meta = resultSet.getMeta();
+            segment.statement = resultSet.getSourceStatement();
+            attributes = segment.meta.getAttributes();
+            valueHandlers = new DBDValueHandler[attributes.size()];
+            for (int i = 0; i < valueHandlers.length; i++) {
+                valueHandlers[i] = DBUtils.findValueHandler(session, attributes.get(i));
+            }
+        }
+
+        @Override
+        public void fetchRow(DBCSession session, DBCResultSet resultSet) throws DBCException {
+            Object[] row = new Object[valueHandlers.length];
+            for (int i = 0; i < valueHandlers.length; i++) {
+                Object value = valueHandlers[i].fetchValueObject(session, resultSet, attributes.get(i), i);
+                if (value instanceof DBDContent) {
+                    throw new DBCException("LOB values can't be read in parallel segments mode");
+                }
+                row[i] = value;
+            }
+            chunk.add(row);
+            if (chunk.size() >= CHUNK_SIZE) {
+                publishChunk(segment, chunk);
+                chunk = new ArrayList<>();
+            }
+        }
+
+        @Override
+        public void fetchEnd(DBCSession session, DBCResultSet resultSet) throws DBCException {
+            if (!chunk.isEmpty()) {
+                publishChunk(segment, chunk);
+                chunk = new ArrayList<>();
+            }
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+}
@@ -40,6 +40,7 @@ import org.jkiss.dbeaver.tools.transfer.IDataTransferConsumer;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferNodePrimary;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferProcessor;
 import org.jkiss.dbeaver.tools.transfer.internal.DTMessages;
+import org.jkiss.dbeaver.utils.RuntimeUtils;
 import org.jkiss.utils.CommonUtils;
 
 import java.util.*;
@@ -60,6 +61,9 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
     private DBCSession targetSession;
     private DBSDataManipulator.ExecuteBatch executeBatch;
     private long rowsExported = 0;
+    private long loadTime = 0;
+    private String loadMethod;
+    private String loadStatistics;
     private boolean ignoreErrors = false;
 
     private List<DBSEntityAttribute> targetAttributes;
@@ -237,17 +241,49 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
             if (targetObject instanceof DBSDataManipulatorExt) {
                 ((DBSDataManipulatorExt) targetObject).beforeDataChange(targetSession, DBSManipulationType.INSERT, attributes, executionSource);
             }
-            executeBatch = targetObject.insertData(
-                targetSession,
-                attributes,
-                null,
-                executionSource);
+            executeBatch = createInsertBatch(targetObject, attributes, executionSource);
         } else {
             previewRows = new ArrayList<>();
             executeBatch = new PreviewBatch();
         }
     }
 
+    @NotNull
+    private DBSDataManipulator.ExecuteBatch createInsertBatch(DBSDataManipulator targetObject, DBSAttributeBase[] attributes, DBCExecutionSource executionSource) throws DBCException {
+        DBPDataSource targetDataSource = targetContext.getDataSource();
+        DBSDataBulkLoader bulkLoader = settings.isUseBulkLoad() ? DBUtils.getAdapter(DBSDataBulkLoader.class, targetDataSource) : null;
+        if (bulkLoader != null && targetObject instanceof DBSEntity) {
+            try {
+                DBSDataManipulator.ExecuteBatch bulkLoad = bulkLoader.createBulkLoad(
+                    targetSession,
+                    (DBSEntity) targetObject,
+                    attributes,
+                    executionSource);
+                if (bulkLoad != null) {
+                    loadMethod = "bulk load";
+                    return bulkLoad;
+                }
+            } catch (DBException e) {
+                log.warn("Bulk load can't be used for '" + targetObject.getName() + "', fallback to INSERT", e);
+            }
+        }
+        if (settings.isUseMultiRowInsert() && !settings.isDisableUsingBatches() && DatabaseMultiRowInsertBatch.isSupported(targetObject, targetDataSource)) {
+            loadMethod = "multi-row insert";
+            return new DatabaseMultiRowInsertBatch(
+                (DBSEntity) targetObject,
+                attributes,
+                executionSource,
+                settings.getMultiRowInsertBatch(),
+                settings.getMultiRowInsertMaxSize() * 1024L);
+        }
+        loadMethod = "insert";
+        return targetObject.insertData(
+            targetSession,
+            attributes,
+            null,
+            executionSource);
+    }
+
     private boolean isSkipColumn(DBDAttributeBinding attr) {
         return attr.isPseudoAttribute() ||
             (!settings.isTransferAutoGeneratedColumns() && attr.isAutoGenerated()) ||
@@ -306,8 +342,10 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
             boolean retryInsert;
             do {
                 retryInsert = false;
+                long startTime = System.currentTimeMillis();
                 try {
                     executeBatch.execute(targetSession, options);
+                    loadTime += System.currentTimeMillis() - startTime;
                 } catch (Throwable e) {
                     log.error("Error inserting row", e);
                     if (!disableUsingBatches) {
@@ -358,6 +396,10 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
                 executeBatch.close();
                 executeBatch = null;
             }
+            if (!isPreview && rowsExported > 0) {
+                loadStatistics = "Loaded " + rowsExported + " row(s) into " + getObjectName() + " using " + loadMethod + " in " +
+                    RuntimeUtils.formatExecutionTime(loadTime) + " (" + (rowsExported * 1000 / Math.max(loadTime, 1)) + " rows/s)";
+            }
         } finally {
             DBSDataManipulator targetObject = getTargetObject();
             if (!isPreview && targetObject instanceof DBSDataManipulatorExt) {
@@ -584,6 +626,14 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
         }
     }
 
+    /**
+     * Returns load method and throughput of the finished transfer or null if no rows were loaded
+     */
+    @Nullable
+    public String getLoadStatistics() {
+        return loadStatistics;
+    }
+
     public DBSDataContainer getSourceObject() {
         return containerMapping == null ? null : containerMapping.getSource();
     }
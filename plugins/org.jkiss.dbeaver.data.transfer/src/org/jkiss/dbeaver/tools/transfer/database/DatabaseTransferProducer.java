@@ -25,6 +25,7 @@ import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.*;
 import org.jkiss.dbeaver.model.app.DBPProject;
 import org.jkiss.dbeaver.model.data.DBDDataFilter;
+import org.jkiss.dbeaver.model.data.DBDDataReceiver;
 import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.impl.AbstractExecutionSource;
 import org.jkiss.dbeaver.model.meta.DBSerializable;
@@ -65,6 +66,8 @@ public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseP
     private DBSDataContainer dataContainer;
     @Nullable
     private DBDDataFilter dataFilter;
+    @Nullable
+    private volatile DatabaseIncrementalExtract incrementalExtract;
 
     public DatabaseTransferProducer() {
     }
@@ -118,6 +121,36 @@ public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseP
         return null;
     }
 
+    private boolean readSegmentsInParallel(
+        @NotNull DBCSession session,
+        @NotNull DBCExecutionContext context,
+        @NotNull DBDDataReceiver consumer,
+        @NotNull DatabaseProducerSettings settings,
+        @Nullable DBDDataFilter readFilter,
+        long readFlags,
+        long totalRows) throws DBException
+    {
+        DatabaseSegmentReader segmentReader = DatabaseSegmentReader.createReader(session, dataContainer, readFilter, settings, readFlags, totalRows);
+        if (segmentReader == null) {
+            log.debug("Table '" + dataContainer.getName() + "' can't be read in parallel. Read segments sequentially.");
+            return false;
+        }
+        segmentReader.readData(session, context, consumer);
+        return true;
+    }
+
+    /**
+     * Saves watermark of incremental export in the task.
+     * Must be called after all transferred rows were written by consumer.
+     */
+    public void saveIncrementalState(@NotNull DBTTask task) throws DBException {
+        DatabaseIncrementalExtract extract = incrementalExtract;
+        if (extract != null) {
+            extract.saveWatermark(task);
+            incrementalExtract = null;
+        }
+    }
+
     @Override
     public void transferData(
         @NotNull DBRProgressMonitor monitor1,
@@ -134,6 +167,7 @@ public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseP
         }
         DBPDataSource dataSource = databaseObject.getDataSource();
         assert (dataSource != null);
+        incrementalExtract = null;
 
         DBExecUtils.tryExecuteRecover(monitor1, dataSource, monitor -> {
             long readFlags = DBSDataContainer.FLAG_NONE;
@@ -185,11 +219,24 @@ public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseP
                             }
 
                         }
+                        DBDDataFilter readFilter = dataFilter;
+                        DBDDataReceiver dataReceiver = consumer;
+                        if (task != null && !CommonUtils.isEmpty(settings.getIncrementalColumn())) {
+                            if (dataContainer instanceof DBSEntity) {
+                                DatabaseIncrementalExtract extract = DatabaseIncrementalExtract.prepare(
+                                    session, (DBSEntity) dataContainer, settings.getIncrementalColumn(), task);
+                                readFilter = extract.makeFilter(dataFilter);
+                                dataReceiver = extract.wrapReceiver(consumer);
+                                incrementalExtract = extract;
+                            } else {
+                                log.warn("Incremental export is not supported for '" + dataContainer.getName() + "'. Read all rows.");
+                            }
+                        }
                         long totalRows = 0;
                         if (settings.isQueryRowCount() && (dataContainer.getSupportedFeatures() & DBSDataContainer.DATA_COUNT) != 0) {
                             monitor.beginTask(DTMessages.data_transfer_wizard_job_task_retrieve, 1);
                             try {
-                                totalRows = dataContainer.countData(transferSource, session, dataFilter, readFlags);
+                                totalRows = dataContainer.countData(transferSource, session, readFilter, readFlags);
                             } catch (Throwable e) {
                                 log.warn("Can't retrieve row count from '" + dataContainer.getName() + "'", e);
                                 try {
@@ -213,19 +260,24 @@ public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseP
                             // Perform export
                             if (settings.getExtractType() == DatabaseProducerSettings.ExtractType.SINGLE_QUERY) {
                                 // Just do it in single query
-                                dataContainer.readData(transferSource, session, consumer, dataFilter, -1, -1, readFlags, settings.getFetchSize());
+                                dataContainer.readData(transferSource, session, dataReceiver, readFilter, -1, -1, readFlags, settings.getFetchSize());
                             } else {
-                                // Read all data by segments
-                                long offset = 0;
-                                int segmentSize = settings.getSegmentSize();
-                                for (; ; ) {
-                                    DBCStatistics statistics = dataContainer.readData(
-                                        transferSource, session, consumer, dataFilter, offset, segmentSize, readFlags, settings.getFetchSize());
-                                    if (statistics == null || statistics.getRowsFetched() < segmentSize) {
-                                        // Done
-                                        break;
+                                // Parallel read requires separate connections for each reader
+                                boolean parallelRead = settings.getSegmentThreads() > 1 && !selectiveExportFromUI && newConnection &&
+                                    readSegmentsInParallel(session, context, dataReceiver, settings, readFilter, readFlags, totalRows);
+                                if (!parallelRead) {
+                                    // Read all data by segments
+                                    long offset = 0;
+                                    int segmentSize = settings.getSegmentSize();
+                                    for (; ; ) {
+                                        DBCStatistics statistics = dataContainer.readData(
+                                            transferSource, session, dataReceiver, readFilter, offset, segmentSize, readFlags, settings.getFetchSize());
+                                        if (statistics == null || statistics.getRowsFetched() < segmentSize) {
+                                            // Done
+                                            break;
+                                        }
+                                        offset += statistics.getRowsFetched();
                                     }
-                                    offset += statistics.getRowsFetched();
                                 }
                             }
                         } finally {
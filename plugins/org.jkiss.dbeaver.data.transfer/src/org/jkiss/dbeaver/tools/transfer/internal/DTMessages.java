@@ -33,6 +33,9 @@ public class DTMessages extends NLS {
 	public static String data_transfer_wizard_job_task_export_table_data;
 	public static String data_transfer_wizard_job_task_retrieve;
 	public static String data_transfer_wizard_output_checkbox_compress;
+	public static String data_transfer_wizard_output_label_compression_format;
+	public static String data_transfer_wizard_output_label_compression_threads;
+	public static String data_transfer_wizard_output_label_compression_threads_tooltip;
 	public static String data_transfer_wizard_output_checkbox_split_files;
 	public static String data_transfer_wizard_output_checkbox_split_files_tip;
 	public static String data_transfer_wizard_output_checkbox_new_connection;
@@ -59,6 +62,12 @@ public class DTMessages extends NLS {
 	public static String data_transfer_wizard_output_label_insert_bom_tooltip;
 	public static String data_transfer_wizard_output_label_max_threads;
 	public static String data_transfer_wizard_output_label_segment_size;
+	public static String data_transfer_wizard_output_label_segment_threads;
+	public static String data_transfer_wizard_output_label_segment_threads_tooltip;
+	public static String data_transfer_wizard_output_label_segment_column;
+	public static String data_transfer_wizard_output_label_segment_column_tooltip;
+	public static String data_transfer_wizard_output_label_incremental_column;
+	public static String data_transfer_wizard_output_label_incremental_column_tooltip;
 	public static String data_transfer_wizard_output_name;
 	public static String data_transfer_wizard_output_title;
 	public static String data_transfer_wizard_settings_binaries_item_inline;
@@ -111,11 +120,16 @@ public class DTMessages extends NLS {
 	public static String sql_script_task_page_settings_option_ignore_errors;
 	public static String sql_script_task_page_settings_option_dump_results;
 	public static String sql_script_task_page_settings_option_auto_commit;
+	public static String sql_script_task_page_settings_option_batch_size;
+	public static String sql_script_task_page_settings_option_batch_size_tip;
 	public static String database_consumer_settings_option_use_transactions;
 	public static String database_consumer_settings_option_commit_after;
 	public static String database_consumer_settings_option_disable_batches;
 	public static String database_consumer_settings_option_transfer_auto_generated_columns;
 	public static String database_consumer_settings_option_truncate_before_load;
+	public static String database_consumer_settings_option_multi_row_insert;
+	public static String database_consumer_settings_option_multi_row_insert_batch;
+	public static String database_consumer_settings_option_use_bulk_load;
 
 	public static String data_transfer_settings_title_find_producer;
 	public static String data_transfer_settings_message_find_data_producer;
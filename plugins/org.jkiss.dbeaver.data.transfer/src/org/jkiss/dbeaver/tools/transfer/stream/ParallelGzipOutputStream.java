@@ -0,0 +1,289 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * GZIP output stream which compresses data blocks in parallel.
+ * Each block is deflated independently (with the tail of the previous block as a dictionary)
+ * and ends with a sync flush, so compressed blocks are concatenated into a single regular gzip member.
+ * Compressed blocks are written in order as soon as they are ready.
+ */
+public class ParallelGzipOutputStream extends OutputStream {
+
+    private static final int BLOCK_SIZE = 1024 * 1024;
+    private static final int DICTIONARY_SIZE = 32 * 1024;
+    private static final long WAIT_TIMEOUT = 1000;
+
+    private static final byte[] GZIP_HEADER = { 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0 };
+
+    private static class Block {
+        final byte[] data;
+        final int length;
+        final byte[] dictionary;
+        final boolean last;
+        ByteArrayOutputStream compressed;
+
+        Block(byte[] data, int length, byte[] dictionary, boolean last) {
+            this.data = data;
+            this.length = length;
+            this.dictionary = dictionary;
+            this.last = last;
+        }
+    }
+
+    private final OutputStream out;
+    private final int level;
+    private final int maxBlocksInFlight;
+    private final CRC32 crc = new CRC32();
+    private final List<CompressorJob> compressors = new ArrayList<>();
+
+    // Guarded by this
+    private final ArrayDeque<Block> pendingBlocks = new ArrayDeque<>();
+    private final ArrayDeque<Block> writeQueue = new ArrayDeque<>();
+    private Throwable compressError;
+    private boolean closed;
+
+    private byte[] buffer = new byte[BLOCK_SIZE];
+    private int count;
+    private long totalLength;
+    private byte[] dictionary;
+    private final byte[] singleByte = new byte[1];
+
+    public ParallelGzipOutputStream(@NotNull OutputStream out, int level, int threadCount) throws IOException {
+        this.out = out;
+        this.level = level;
+        this.maxBlocksInFlight = threadCount * 2;
+        for (int i = 0; i < threadCount; i++) {
+            CompressorJob compressor = new CompressorJob(i + 1);
+            compressors.add(compressor);
+            compressor.schedule();
+        }
+        out.write(GZIP_HEADER);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        singleByte[0] = (byte) b;
+        write(singleByte, 0, 1);
+    }
+
+    @Override
+    public void write(@NotNull byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            int size = Math.min(len, BLOCK_SIZE - count);
+            System.arraycopy(b, off, buffer, count, size);
+            count += size;
+            off += size;
+            len -= size;
+            if (count == BLOCK_SIZE) {
+                submitBlock(false);
+            }
+        }
+    }
+
+    /**
+     * Writes blocks which are already compressed. Buffered data is not flushed
+     * because short blocks make compression worse.
+     */
+    @Override
+    public void flush() throws IOException {
+        writeBlocks(false);
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+        }
+        try {
+            submitBlock(true);
+            writeBlocks(true);
+            writeInt((int) crc.getValue());
+            writeInt((int) totalLength);
+            out.flush();
+        } finally {
+            stopCompressors();
+            out.close();
+        }
+    }
+
+    private void submitBlock(boolean last) throws IOException {
+        Block block = new Block(buffer, count, dictionary, last);
+        crc.update(buffer, 0, count);
+        totalLength += count;
+        if (count >= DICTIONARY_SIZE) {
+            dictionary = Arrays.copyOfRange(buffer, count - DICTIONARY_SIZE, count);
+        } else if (count > 0) {
+            dictionary = Arrays.copyOfRange(buffer, 0, count);
+        }
+        buffer = new byte[BLOCK_SIZE];
+        count = 0;
+        synchronized (this) {
+            pendingBlocks.add(block);
+            writeQueue.add(block);
+            notifyAll();
+        }
+        writeBlocks(false);
+    }
+
+    /**
+     * Writes compressed blocks in order.
+     * Waits for compression if too many blocks are in memory or if all blocks must be written.
+     */
+    private void writeBlocks(boolean all) throws IOException {
+        for (;;) {
+            Block block;
+            synchronized (this) {
+                if (compressError != null) {
+                    throw new IOException("Error compressing data", compressError);
+                }
+                block = writeQueue.peek();
+                if (block == null) {
+                    return;
+                }
+                if (block.compressed == null) {
+                    if (!all && writeQueue.size() <= maxBlocksInFlight) {
+                        return;
+                    }
+                    try {
+                        wait(WAIT_TIMEOUT);
+                    } catch (InterruptedException e) {
+                        throw new IOException("Compression interrupted");
+                    }
+                    continue;
+                }
+                writeQueue.remove();
+            }
+            block.compressed.writeTo(out);
+        }
+    }
+
+    private void writeInt(int value) throws IOException {
+        out.write(value & 0xFF);
+        out.write((value >> 8) & 0xFF);
+        out.write((value >> 16) & 0xFF);
+        out.write((value >> 24) & 0xFF);
+    }
+
+    private void stopCompressors() {
+        synchronized (this) {
+            closed = true;
+            notifyAll();
+        }
+        for (CompressorJob compressor : compressors) {
+            compressor.cancel();
+            try {
+                compressor.join();
+            } catch (InterruptedException e) {
+                // ignore
+            }
+        }
+    }
+
+    @Nullable
+    private synchronized Block claimBlock() {
+        while (!closed) {
+            Block block = pendingBlocks.poll();
+            if (block != null) {
+                return block;
+            }
+            try {
+                wait(WAIT_TIMEOUT);
+            } catch (InterruptedException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private synchronized void finishBlock(Block block, ByteArrayOutputStream compressed) {
+        block.compressed = compressed;
+        notifyAll();
+    }
+
+    private synchronized void setCompressError(Throwable error) {
+        if (compressError == null) {
+            compressError = error;
+        }
+        notifyAll();
+    }
+
+    private class CompressorJob extends AbstractJob {
+
+        CompressorJob(int number) {
+            super("Compress output (" + number + ")");
+            setUser(false);
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            Deflater deflater = new Deflater(level, true);
+            byte[] deflateBuffer = new byte[64 * 1024];
+            try {
+                for (Block block = claimBlock(); block != null && !monitor.isCanceled(); block = claimBlock()) {
+                    deflater.reset();
+                    if (block.dictionary != null) {
+                        deflater.setDictionary(block.dictionary);
+                    }
+                    deflater.setInput(block.data, 0, block.length);
+                    ByteArrayOutputStream compressed = new ByteArrayOutputStream(block.length / 2 + 64);
+                    if (block.last) {
+                        deflater.finish();
+                        while (!deflater.finished()) {
+                            compressed.write(deflateBuffer, 0, deflater.deflate(deflateBuffer));
+                        }
+                    } else {
+                        // Sync flush aligns output to byte boundary so blocks can be concatenated
+                        int length;
+                        do {
+                            length = deflater.deflate(deflateBuffer, 0, deflateBuffer.length, Deflater.SYNC_FLUSH);
+                            compressed.write(deflateBuffer, 0, length);
+                        } while (length == deflateBuffer.length || !deflater.needsInput());
+                    }
+                    finishBlock(block, compressed);
+                }
+            } catch (Throwable e) {
+                setCompressError(e);
+            } finally {
+                deflater.end();
+            }
+            return Status.OK_STATUS;
+        }
+    }
+
+}
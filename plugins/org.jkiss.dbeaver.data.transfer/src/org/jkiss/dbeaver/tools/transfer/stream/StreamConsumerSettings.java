@@ -47,6 +47,11 @@ public class StreamConsumerSettings implements IDataTransferSettings {
         NATIVE
     }
 
+    public enum CompressionFormat {
+        ZIP,
+        GZIP
+    }
+
     public static final String PROP_EXTRACT_IMAGES = "extractImages";
     public static final String PROP_FILE_EXTENSION = "extension";
     public static final String PROP_FORMAT = "format";
@@ -65,6 +70,8 @@ public class StreamConsumerSettings implements IDataTransferSettings {
     private boolean outputClipboard = false;
     private boolean useSingleFile = false;
     private boolean compressResults = false;
+    private CompressionFormat compressionFormat = CompressionFormat.ZIP;
+    private int compressionThreads = 1;
     private boolean splitOutFiles = false;
     private long maxOutFileSize = 10 * 1000 * 1000;
     private boolean openFolderOnFinish = true;
@@ -151,6 +158,25 @@ public class StreamConsumerSettings implements IDataTransferSettings {
         this.compressResults = compressResults;
     }
 
+    public CompressionFormat getCompressionFormat() {
+        return compressionFormat;
+    }
+
+    public void setCompressionFormat(CompressionFormat compressionFormat) {
+        this.compressionFormat = compressionFormat;
+    }
+
+    /**
+     * Number of threads used for GZIP compression
+     */
+    public int getCompressionThreads() {
+        return compressionThreads;
+    }
+
+    public void setCompressionThreads(int compressionThreads) {
+        this.compressionThreads = compressionThreads;
+    }
+
     public boolean isSplitOutFiles() {
         return splitOutFiles;
     }
@@ -217,6 +243,8 @@ public class StreamConsumerSettings implements IDataTransferSettings {
         }
 
         compressResults = CommonUtils.getBoolean(settings.get("compressResults"), compressResults);
+        compressionFormat = CommonUtils.valueOf(CompressionFormat.class, (String) settings.get("compressionFormat"), CompressionFormat.ZIP);
+        compressionThreads = CommonUtils.toInt(settings.get("compressionThreads"), compressionThreads);
         splitOutFiles = CommonUtils.getBoolean(settings.get("splitOutFiles"), splitOutFiles);
         maxOutFileSize = CommonUtils.toLong(settings.get("maxOutFileSize"), maxOutFileSize);
         openFolderOnFinish = CommonUtils.getBoolean(settings.get("openFolderOnFinish"), openFolderOnFinish);
@@ -243,6 +271,8 @@ public class StreamConsumerSettings implements IDataTransferSettings {
         settings.put("useSingleFile", useSingleFile);
 
         settings.put("compressResults", compressResults);
+        settings.put("compressionFormat", compressionFormat.name());
+        settings.put("compressionThreads", compressionThreads);
         settings.put("splitOutFiles", splitOutFiles);
         settings.put("maxOutFileSize", maxOutFileSize);
 
@@ -273,6 +303,12 @@ public class StreamConsumerSettings implements IDataTransferSettings {
         }
 
         DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_checkbox_compress, compressResults);
+        if (compressResults) {
+            DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_label_compression_format, compressionFormat);
+            if (compressionFormat == CompressionFormat.GZIP) {
+                DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_label_compression_threads, compressionThreads);
+            }
+        }
         if (executeProcessOnFinish) {
             DTUtils.addSummary(summary, "Execute process on finish", finishProcessCommand);
         }
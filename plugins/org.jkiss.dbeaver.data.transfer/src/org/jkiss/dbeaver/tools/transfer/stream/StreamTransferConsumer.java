@@ -55,6 +55,8 @@ import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.Locale;
 import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -278,9 +280,17 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
             new FileOutputStream(outputFile, settings.isUseSingleFile()),
             OUT_FILE_BUFFER_SIZE);
         if (settings.isCompressResults()) {
-            this.zipStream = new ZipOutputStream(this.outputStream);
-            this.zipStream.putNextEntry(new ZipEntry(getOutputFileName()));
-            this.outputStream = zipStream;
+            if (settings.getCompressionFormat() == StreamConsumerSettings.CompressionFormat.GZIP) {
+                // Compress while writing, parallel compression is used for multiple threads
+                int threads = settings.getCompressionThreads();
+                this.outputStream = threads > 1 ?
+                    new ParallelGzipOutputStream(this.outputStream, Deflater.DEFAULT_COMPRESSION, threads) :
+                    new GZIPOutputStream(this.outputStream, OUT_FILE_BUFFER_SIZE);
+            } else {
+                this.zipStream = new ZipOutputStream(this.outputStream);
+                this.zipStream.putNextEntry(new ZipEntry(getOutputFileName()));
+                this.outputStream = zipStream;
+            }
         }
 
         // If we need to split files - use stream wrapper to calculate fiel size
@@ -465,7 +475,7 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
         }
         String fileName = getOutputFileName();
         if (settings.isCompressResults()) {
-            fileName += ".zip";
+            fileName += settings.getCompressionFormat() == StreamConsumerSettings.CompressionFormat.GZIP ? ".gz" : ".zip";
         }
         return new File(dir, fileName);
     }
@@ -0,0 +1,68 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.columnar;
+
+/**
+ * Arrow IPC format constants (see Schema.fbs and Message.fbs)
+ */
+final class ArrowFormat {
+
+    static final int CONTINUATION_MARKER = 0xFFFFFFFF;
+    static final int METADATA_VERSION_V5 = 4;
+
+    // Message header types
+    static final int HEADER_SCHEMA = 1;
+    static final int HEADER_DICTIONARY_BATCH = 2;
+    static final int HEADER_RECORD_BATCH = 3;
+
+    // Type union ids
+    static final int TYPE_NULL = 1;
+    static final int TYPE_INT = 2;
+    static final int TYPE_FLOATING_POINT = 3;
+    static final int TYPE_BINARY = 4;
+    static final int TYPE_UTF8 = 5;
+    static final int TYPE_BOOL = 6;
+    static final int TYPE_DECIMAL = 7;
+    static final int TYPE_DATE = 8;
+    static final int TYPE_TIME = 9;
+    static final int TYPE_TIMESTAMP = 10;
+    static final int TYPE_FIXED_SIZE_BINARY = 15;
+    static final int TYPE_LARGE_BINARY = 19;
+    static final int TYPE_LARGE_UTF8 = 20;
+
+    // Floating point precision
+    static final int PRECISION_HALF = 0;
+    static final int PRECISION_SINGLE = 1;
+    static final int PRECISION_DOUBLE = 2;
+
+    // Date units
+    static final int DATE_DAY = 0;
+    static final int DATE_MILLISECOND = 1;
+
+    // Time units
+    static final int UNIT_SECOND = 0;
+    static final int UNIT_MILLISECOND = 1;
+    static final int UNIT_MICROSECOND = 2;
+    static final int UNIT_NANOSECOND = 3;
+
+    // FieldNode and Buffer struct sizes
+    static final int STRUCT_SIZE = 16;
+
+    private ArrowFormat() {
+    }
+
+}
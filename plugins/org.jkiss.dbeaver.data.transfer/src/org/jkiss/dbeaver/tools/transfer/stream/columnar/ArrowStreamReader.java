@@ -0,0 +1,350 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.columnar;
+
+import org.jkiss.code.NotNull;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.jkiss.dbeaver.tools.transfer.stream.columnar.ArrowFormat.*;
+
+/**
+ * Arrow IPC stream reader.
+ * Supports flat schemas of primitive, decimal, temporal, string and binary types.
+ * Dictionary encoded fields and compressed record batches are not supported.
+ */
+public class ArrowStreamReader implements ColumnarReader {
+
+    private static class FieldDescriptor {
+        String name;
+        int typeId;
+        int bitWidth;
+        boolean signed;
+        int precision;
+        int scale;
+        int unit;
+        ColumnarDataType type;
+    }
+
+    private final DataInputStream in;
+    private final List<FieldDescriptor> fields = new ArrayList<>();
+    private Object[][] batchValues;
+    private int batchRows;
+    private int batchPosition;
+    private boolean endOfStream;
+
+    public ArrowStreamReader(@NotNull InputStream in) throws IOException {
+        this.in = new DataInputStream(in);
+        FlatBufferTable message = readMessage();
+        if (message == null || message.getByte(1, 0) != HEADER_SCHEMA) {
+            throw new IOException("Arrow stream must start with schema message");
+        }
+        readSchema(message.getTable(2));
+    }
+
+    @NotNull
+    @Override
+    public List<ColumnarDataType.Column> getColumns() {
+        List<ColumnarDataType.Column> result = new ArrayList<>(fields.size());
+        for (FieldDescriptor field : fields) {
+            result.add(new ColumnarDataType.Column(field.name, field.type, field.precision, field.scale));
+        }
+        return result;
+    }
+
+    @Override
+    public boolean nextRow(@NotNull Object[] row) throws IOException {
+        while (batchValues == null || batchPosition >= batchRows) {
+            if (endOfStream || !readRecordBatch()) {
+                return false;
+            }
+        }
+        for (int i = 0; i < fields.size(); i++) {
+            row[i] = batchValues[i][batchPosition];
+        }
+        batchPosition++;
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private FlatBufferTable readMessage() throws IOException {
+        int length;
+        try {
+            length = Integer.reverseBytes(in.readInt());
+        } catch (EOFException e) {
+            // Stream without EOS marker
+            return null;
+        }
+        if (length == CONTINUATION_MARKER) {
+            length = Integer.reverseBytes(in.readInt());
+        }
+        if (length == 0) {
+            return null;
+        }
+        if (length < 0) {
+            throw new IOException("Bad Arrow message length: " + length);
+        }
+        byte[] metadata = new byte[length];
+        in.readFully(metadata);
+        return FlatBufferTable.getRoot(metadata);
+    }
+
+    private void readSchema(FlatBufferTable schema) throws IOException {
+        if (schema.getShort(0, 0) != 0) {
+            throw new IOException("Big-endian Arrow streams are not supported");
+        }
+        int fieldCount = schema.getVectorLength(1);
+        for (int i = 0; i < fieldCount; i++) {
+            FlatBufferTable fieldTable = schema.getVectorTable(1, i);
+            FieldDescriptor field = new FieldDescriptor();
+            field.name = fieldTable.getString(0);
+            if (field.name == null) {
+                field.name = "Column" + (i + 1);
+            }
+            if (fieldTable.has(4)) {
+                throw new IOException("Dictionary encoded Arrow field '" + field.name + "' is not supported");
+            }
+            field.typeId = fieldTable.getByte(2, 0);
+            FlatBufferTable type = fieldTable.getTable(3);
+            switch (field.typeId) {
+                case TYPE_NULL:
+                    field.type = ColumnarDataType.STRING;
+                    break;
+                case TYPE_INT:
+                    field.bitWidth = type.getInt(0, 32);
+                    field.signed = type.getBoolean(1, false);
+                    field.type = field.bitWidth < 32 || (field.bitWidth == 32 && field.signed) ? ColumnarDataType.INT32 : ColumnarDataType.INT64;
+                    break;
+                case TYPE_FLOATING_POINT:
+                    field.unit = type.getShort(0, PRECISION_HALF);
+                    if (field.unit == PRECISION_HALF) {
+                        throw new IOException("Half-float Arrow field '" + field.name + "' is not supported");
+                    }
+                    field.type = field.unit == PRECISION_SINGLE ? ColumnarDataType.FLOAT : ColumnarDataType.DOUBLE;
+                    break;
+                case TYPE_UTF8:
+                case TYPE_LARGE_UTF8:
+                    field.type = ColumnarDataType.STRING;
+                    break;
+                case TYPE_BINARY:
+                case TYPE_LARGE_BINARY:
+                    field.type = ColumnarDataType.BINARY;
+                    break;
+                case TYPE_FIXED_SIZE_BINARY:
+                    field.bitWidth = type.getInt(0, 0) * 8;
+                    field.type = ColumnarDataType.BINARY;
+                    break;
+                case TYPE_BOOL:
+                    field.type = ColumnarDataType.BOOLEAN;
+                    break;
+                case TYPE_DECIMAL:
+                    field.precision = type.getInt(0, ColumnarDataType.MAX_DECIMAL_PRECISION);
+                    field.scale = type.getInt(1, 0);
+                    field.bitWidth = type.getInt(2, 128);
+                    field.type = ColumnarDataType.DECIMAL;
+                    break;
+                case TYPE_DATE:
+                    field.unit = type.getShort(0, DATE_MILLISECOND);
+                    field.bitWidth = field.unit == DATE_DAY ? 32 : 64;
+                    field.type = ColumnarDataType.DATE;
+                    break;
+                case TYPE_TIME:
+                    field.unit = type.getShort(0, UNIT_MILLISECOND);
+                    field.bitWidth = type.getInt(1, 32);
+                    field.type = ColumnarDataType.TIME;
+                    break;
+                case TYPE_TIMESTAMP:
+                    field.unit = type.getShort(0, UNIT_SECOND);
+                    field.bitWidth = 64;
+                    field.type = ColumnarDataType.TIMESTAMP;
+                    break;
+                default:
+                    throw new IOException("Arrow type " + field.typeId + " of field '" + field.name + "' is not supported");
+            }
+            fields.add(field);
+        }
+    }
+
+    private boolean readRecordBatch() throws IOException {
+        for (;;) {
+            FlatBufferTable message = readMessage();
+            if (message == null) {
+                endOfStream = true;
+                return false;
+            }
+            int headerType = message.getByte(1, 0);
+            long bodyLength = message.getLong(3, 0);
+            if (bodyLength < 0 || bodyLength > Integer.MAX_VALUE) {
+                throw new IOException("Arrow record batch is too big: " + bodyLength);
+            }
+            byte[] body = new byte[(int) bodyLength];
+            in.readFully(body);
+            if (headerType == HEADER_DICTIONARY_BATCH) {
+                throw new IOException("Arrow dictionary batches are not supported");
+            }
+            if (headerType != HEADER_RECORD_BATCH) {
+                // Skip unknown messages
+                continue;
+            }
+            FlatBufferTable recordBatch = message.getTable(2);
+            if (recordBatch.has(3)) {
+                throw new IOException("Compressed Arrow record batches are not supported");
+            }
+            decodeRecordBatch(recordBatch, body);
+            return true;
+        }
+    }
+
+    private void decodeRecordBatch(FlatBufferTable recordBatch, byte[] body) throws IOException {
+        batchRows = (int) recordBatch.getLong(0, 0);
+        batchPosition = 0;
+        batchValues = new Object[fields.size()][];
+        if (recordBatch.getVectorLength(1) < fields.size()) {
+            throw new IOException("Arrow record batch doesn't match schema");
+        }
+        int bufferIndex = 0;
+        for (int i = 0; i < fields.size(); i++) {
+            FieldDescriptor field = fields.get(i);
+            int length = (int) recordBatch.getVectorStructLong(1, i, STRUCT_SIZE, 0);
+            long nullCount = recordBatch.getVectorStructLong(1, i, STRUCT_SIZE, 8);
+            Object[] values = new Object[batchRows];
+            batchValues[i] = values;
+            if (field.typeId == TYPE_NULL) {
+                continue;
+            }
+            int validityOffset = (int) recordBatch.getVectorStructLong(2, bufferIndex, STRUCT_SIZE, 0);
+            int validityLength = (int) recordBatch.getVectorStructLong(2, bufferIndex, STRUCT_SIZE, 8);
+            bufferIndex++;
+            boolean hasValidity = nullCount > 0 && validityLength > 0;
+
+            int dataOffset = (int) recordBatch.getVectorStructLong(2, bufferIndex, STRUCT_SIZE, 0);
+            bufferIndex++;
+            int valuesOffset = 0;
+            boolean largeOffsets = field.typeId == TYPE_LARGE_UTF8 || field.typeId == TYPE_LARGE_BINARY;
+            boolean variableWidth = field.typeId == TYPE_UTF8 || field.typeId == TYPE_BINARY || largeOffsets;
+            if (variableWidth) {
+                valuesOffset = (int) recordBatch.getVectorStructLong(2, bufferIndex, STRUCT_SIZE, 0);
+                bufferIndex++;
+            }
+            for (int k = 0; k < Math.min(length, batchRows); k++) {
+                if (hasValidity && (body[validityOffset + (k >> 3)] & (1 << (k & 7))) == 0) {
+                    continue;
+                }
+                if (variableWidth) {
+                    int start, end;
+                    if (largeOffsets) {
+                        start = (int) readLong(body, dataOffset + k * 8, 8);
+                        end = (int) readLong(body, dataOffset + (k + 1) * 8, 8);
+                    } else {
+                        start = (int) readLong(body, dataOffset + k * 4, 4);
+                        end = (int) readLong(body, dataOffset + (k + 1) * 4, 4);
+                    }
+                    values[k] = field.type == ColumnarDataType.STRING ?
+                        new String(body, valuesOffset + start, end - start, StandardCharsets.UTF_8) :
+                        Arrays.copyOfRange(body, valuesOffset + start, valuesOffset + end);
+                } else {
+                    values[k] = readFixedValue(field, body, dataOffset, k);
+                }
+            }
+        }
+    }
+
+    private static Object readFixedValue(FieldDescriptor field, byte[] body, int offset, int index) {
+        switch (field.typeId) {
+            case TYPE_BOOL:
+                return (body[offset + (index >> 3)] & (1 << (index & 7))) != 0;
+            case TYPE_INT: {
+                int width = field.bitWidth / 8;
+                long value = readLong(body, offset + index * width, width);
+                if (field.signed && width < 8) {
+                    // Sign extension
+                    value = (value << (64 - field.bitWidth)) >> (64 - field.bitWidth);
+                }
+                if (field.type == ColumnarDataType.INT32) {
+                    return (int) value;
+                }
+                return value;
+            }
+            case TYPE_FLOATING_POINT:
+                if (field.type == ColumnarDataType.FLOAT) {
+                    return Float.intBitsToFloat((int) readLong(body, offset + index * 4, 4));
+                }
+                return Double.longBitsToDouble(readLong(body, offset + index * 8, 8));
+            case TYPE_FIXED_SIZE_BINARY: {
+                int width = field.bitWidth / 8;
+                return Arrays.copyOfRange(body, offset + index * width, offset + (index + 1) * width);
+            }
+            case TYPE_DECIMAL: {
+                int width = field.bitWidth / 8;
+                return ColumnarUtils.readDecimal(body, offset + index * width, width, field.scale);
+            }
+            case TYPE_DATE:
+                if (field.unit == DATE_DAY) {
+                    return ColumnarUtils.fromEpochDays((int) readLong(body, offset + index * 4, 4));
+                }
+                return new java.sql.Date(readLong(body, offset + index * 8, 8));
+            case TYPE_TIME: {
+                int width = field.bitWidth / 8;
+                long value = readLong(body, offset + index * width, width);
+                if (width == 4) {
+                    value = (int) value;
+                }
+                return ColumnarUtils.fromMillisOfDay(toMillis(value, field.unit));
+            }
+            case TYPE_TIMESTAMP: {
+                long value = readLong(body, offset + index * 8, 8);
+                switch (field.unit) {
+                    case UNIT_SECOND: return ColumnarUtils.fromEpochMillis(value * 1000);
+                    case UNIT_MILLISECOND: return ColumnarUtils.fromEpochMillis(value);
+                    case UNIT_MICROSECOND: return ColumnarUtils.fromEpochMicros(value);
+                    default: return ColumnarUtils.fromEpochNanos(value);
+                }
+            }
+            default:
+                return null;
+        }
+    }
+
+    private static long toMillis(long value, int unit) {
+        switch (unit) {
+            case UNIT_SECOND: return value * 1000;
+            case UNIT_MICROSECOND: return value / 1000;
+            case UNIT_NANOSECOND: return value / 1000000;
+            default: return value;
+        }
+    }
+
+    private static long readLong(byte[] data, int offset, int width) {
+        long value = 0;
+        for (int i = 0; i < width; i++) {
+            value |= (long) (data[offset + i] & 0xFF) << (8 * i);
+        }
+        return value;
+    }
+
+}
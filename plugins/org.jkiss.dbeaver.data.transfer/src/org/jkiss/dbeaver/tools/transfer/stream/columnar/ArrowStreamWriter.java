@@ -0,0 +1,266 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.columnar;
+
+import org.jkiss.code.NotNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.jkiss.dbeaver.tools.transfer.stream.columnar.ArrowFormat.*;
+
+/**
+ * Arrow IPC stream writer.
+ * Writes schema message followed by record batches of the specified size.
+ * Values must be normalized the same way as for {@link ParquetFileWriter}.
+ */
+public class ArrowStreamWriter {
+
+    private final OutputStream out;
+    private final List<ColumnarDataType.Column> columns;
+    private final int batchSize;
+    private final Object[][] values;
+    private int rowCount;
+
+    public ArrowStreamWriter(@NotNull OutputStream out, @NotNull List<ColumnarDataType.Column> columns, int batchSize) {
+        this.out = out;
+        this.columns = columns;
+        this.batchSize = Math.max(1, batchSize);
+        this.values = new Object[columns.size()][this.batchSize];
+    }
+
+    public void start() throws IOException {
+        List<FlatBufferWriter.Table> fields = new ArrayList<>();
+        for (ColumnarDataType.Column column : columns) {
+            fields.add(new FlatBufferWriter.Table()
+                .addString(0, column.name)
+                .addBoolean(1, true)
+                .addByte(2, getTypeId(column.type))
+                .addTable(3, makeType(column))
+                .addTables(5, new ArrayList<>()));
+        }
+        FlatBufferWriter.Table schema = new FlatBufferWriter.Table()
+            .addShort(0, 0)
+            .addTables(1, fields);
+        writeMessage(HEADER_SCHEMA, schema, null, 0);
+    }
+
+    public void addRow(@NotNull Object[] row) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            values[i][rowCount] = row[i];
+        }
+        rowCount++;
+        if (rowCount >= batchSize) {
+            flushBatch();
+        }
+    }
+
+    public void finish() throws IOException {
+        if (rowCount > 0) {
+            flushBatch();
+        }
+        LittleEndianBuffer eos = new LittleEndianBuffer(8);
+        eos.writeInt(CONTINUATION_MARKER);
+        eos.writeInt(0);
+        eos.writeTo(out);
+        out.flush();
+    }
+
+    private void flushBatch() throws IOException {
+        LittleEndianBuffer body = new LittleEndianBuffer(rowCount * columns.size() * 8 + 64);
+        LittleEndianBuffer nodes = new LittleEndianBuffer(columns.size() * STRUCT_SIZE);
+        LittleEndianBuffer buffers = new LittleEndianBuffer(columns.size() * STRUCT_SIZE * 3);
+        for (int i = 0; i < columns.size(); i++) {
+            ColumnarDataType.Column column = columns.get(i);
+            Object[] columnValues = values[i];
+
+            // Validity bitmap
+            int nullCount = 0;
+            byte[] validity = new byte[(rowCount + 7) / 8];
+            for (int k = 0; k < rowCount; k++) {
+                if (columnValues[k] != null) {
+                    validity[k >> 3] |= 1 << (k & 7);
+                } else {
+                    nullCount++;
+                }
+            }
+            nodes.writeLong(rowCount);
+            nodes.writeLong(nullCount);
+            addBuffer(body, buffers, validity, validity.length);
+
+            switch (column.type) {
+                case BOOLEAN: {
+                    byte[] bits = new byte[(rowCount + 7) / 8];
+                    for (int k = 0; k < rowCount; k++) {
+                        if (Boolean.TRUE.equals(columnValues[k])) {
+                            bits[k >> 3] |= 1 << (k & 7);
+                        }
+                    }
+                    addBuffer(body, buffers, bits, bits.length);
+                    break;
+                }
+                case STRING:
+                case BINARY: {
+                    LittleEndianBuffer offsets = new LittleEndianBuffer((rowCount + 1) * 4);
+                    LittleEndianBuffer data = new LittleEndianBuffer(rowCount * 16);
+                    offsets.writeInt(0);
+                    for (int k = 0; k < rowCount; k++) {
+                        Object value = columnValues[k];
+                        if (value != null) {
+                            data.writeRaw(column.type == ColumnarDataType.STRING ?
+                                ((String) value).getBytes(StandardCharsets.UTF_8) : (byte[]) value);
+                        }
+                        offsets.writeInt(data.size());
+                    }
+                    addBuffer(body, buffers, offsets.getBuffer(), offsets.size());
+                    addBuffer(body, buffers, data.getBuffer(), data.size());
+                    break;
+                }
+                default: {
+                    int width = getValueWidth(column.type);
+                    byte[] data = new byte[rowCount * width];
+                    for (int k = 0; k < rowCount; k++) {
+                        Object value = columnValues[k];
+                        if (value == null) {
+                            continue;
+                        }
+                        int offset = k * width;
+                        switch (column.type) {
+                            case INT32:
+                            case DATE:
+                            case TIME:
+                                putLong(data, offset, (Integer) value, 4);
+                                break;
+                            case INT64:
+                            case TIMESTAMP:
+                                putLong(data, offset, (Long) value, 8);
+                                break;
+                            case FLOAT:
+                                putLong(data, offset, Float.floatToIntBits((Float) value), 4);
+                                break;
+                            case DOUBLE:
+                                putLong(data, offset, Double.doubleToLongBits((Double) value), 8);
+                                break;
+                            case DECIMAL:
+                                ColumnarUtils.writeDecimal128((BigDecimal) value, data, offset);
+                                break;
+                        }
+                    }
+                    addBuffer(body, buffers, data, data.length);
+                    break;
+                }
+            }
+            // Release values
+            for (int k = 0; k < rowCount; k++) {
+                columnValues[k] = null;
+            }
+        }
+
+        FlatBufferWriter.Table recordBatch = new FlatBufferWriter.Table()
+            .addLong(0, rowCount)
+            .addStructs(1, new FlatBufferWriter.StructVector(columns.size(), nodes.toByteArray()))
+            .addStructs(2, new FlatBufferWriter.StructVector(buffers.size() / STRUCT_SIZE, buffers.toByteArray()));
+        writeMessage(HEADER_RECORD_BATCH, recordBatch, body, body.size());
+        rowCount = 0;
+    }
+
+    private static void addBuffer(LittleEndianBuffer body, LittleEndianBuffer buffers, byte[] data, int length) {
+        buffers.writeLong(body.size());
+        buffers.writeLong(length);
+        body.write(data, 0, length);
+        body.align(8);
+    }
+
+    private void writeMessage(int headerType, FlatBufferWriter.Table header, LittleEndianBuffer body, long bodyLength) throws IOException {
+        FlatBufferWriter.Table message = new FlatBufferWriter.Table()
+            .addShort(0, METADATA_VERSION_V5)
+            .addByte(1, headerType)
+            .addTable(2, header)
+            .addLong(3, bodyLength);
+        // Serialized metadata is padded to 8 bytes so the body stays aligned
+        byte[] metadata = FlatBufferWriter.serialize(message);
+        LittleEndianBuffer prefix = new LittleEndianBuffer(8);
+        prefix.writeInt(CONTINUATION_MARKER);
+        prefix.writeInt(metadata.length);
+        prefix.writeTo(out);
+        out.write(metadata);
+        if (body != null) {
+            body.writeTo(out);
+        }
+    }
+
+    private static FlatBufferWriter.Table makeType(ColumnarDataType.Column column) {
+        FlatBufferWriter.Table type = new FlatBufferWriter.Table();
+        switch (column.type) {
+            case INT32:
+                return type.addInt(0, 32).addBoolean(1, true);
+            case INT64:
+                return type.addInt(0, 64).addBoolean(1, true);
+            case FLOAT:
+                return type.addShort(0, PRECISION_SINGLE);
+            case DOUBLE:
+                return type.addShort(0, PRECISION_DOUBLE);
+            case DECIMAL:
+                return type.addInt(0, column.precision).addInt(1, column.scale).addInt(2, 128);
+            case DATE:
+                return type.addShort(0, DATE_DAY);
+            case TIME:
+                return type.addShort(0, UNIT_MILLISECOND).addInt(1, 32);
+            case TIMESTAMP:
+                return type.addShort(0, UNIT_MICROSECOND).addString(1, "UTC");
+            default:
+                return type;
+        }
+    }
+
+    private static int getTypeId(ColumnarDataType type) {
+        switch (type) {
+            case BOOLEAN: return TYPE_BOOL;
+            case INT32:
+            case INT64: return TYPE_INT;
+            case FLOAT:
+            case DOUBLE: return TYPE_FLOATING_POINT;
+            case DECIMAL: return TYPE_DECIMAL;
+            case STRING: return TYPE_UTF8;
+            case DATE: return TYPE_DATE;
+            case TIME: return TYPE_TIME;
+            case TIMESTAMP: return TYPE_TIMESTAMP;
+            default: return TYPE_BINARY;
+        }
+    }
+
+    private static int getValueWidth(ColumnarDataType type) {
+        switch (type) {
+            case INT64:
+            case DOUBLE:
+            case TIMESTAMP: return 8;
+            case DECIMAL: return 16;
+            default: return 4;
+        }
+    }
+
+    private static void putLong(byte[] data, int offset, long value, int width) {
+        for (int i = 0; i < width; i++) {
+            data[offset + i] = (byte) (value >>> (8 * i));
+        }
+    }
+
+}
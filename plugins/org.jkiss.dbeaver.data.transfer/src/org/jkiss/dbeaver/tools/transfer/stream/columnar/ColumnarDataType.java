@@ -0,0 +1,148 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.columnar;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.utils.CommonUtils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * Column value type in columnar formats (Parquet, Arrow)
+ */
+public enum ColumnarDataType {
+
+    BOOLEAN("BOOLEAN", DBPDataKind.BOOLEAN),
+    INT32("INTEGER", DBPDataKind.NUMERIC),
+    INT64("BIGINT", DBPDataKind.NUMERIC),
+    FLOAT("REAL", DBPDataKind.NUMERIC),
+    DOUBLE("DOUBLE", DBPDataKind.NUMERIC),
+    DECIMAL("DECIMAL", DBPDataKind.NUMERIC),
+    STRING("VARCHAR", DBPDataKind.STRING),
+    BINARY("BINARY", DBPDataKind.BINARY),
+    DATE("DATE", DBPDataKind.DATETIME),
+    TIME("TIME", DBPDataKind.DATETIME),
+    TIMESTAMP("TIMESTAMP", DBPDataKind.DATETIME);
+
+    // Max precision of decimals stored in 128 bits
+    public static final int MAX_DECIMAL_PRECISION = 38;
+    // Scale of decimal column without declared precision. Exporter resolves it from actual values
+    public static final int UNKNOWN_SCALE = -1;
+
+    private final String typeName;
+    private final DBPDataKind dataKind;
+
+    ColumnarDataType(String typeName, DBPDataKind dataKind) {
+        this.typeName = typeName;
+        this.dataKind = dataKind;
+    }
+
+    /**
+     * SQL type name used for imported columns
+     */
+    public String getTypeName() {
+        return typeName;
+    }
+
+    public DBPDataKind getDataKind() {
+        return dataKind;
+    }
+
+    /**
+     * Column definition of exported attribute
+     */
+    public static class Column {
+        public final String name;
+        public final ColumnarDataType type;
+        public final int precision;
+        public final int scale;
+
+        public Column(String name, ColumnarDataType type, int precision, int scale) {
+            this.name = name;
+            this.type = type;
+            this.precision = precision;
+            this.scale = scale;
+        }
+
+        public String getTypeName() {
+            return type == DECIMAL ? type.typeName + "(" + precision + "," + scale + ")" : type.typeName;
+        }
+    }
+
+    @NotNull
+    public static Column makeColumn(@NotNull DBDAttributeBinding attribute) {
+        String name = attribute.getLabel();
+        if (CommonUtils.isEmpty(name)) {
+            name = attribute.getName();
+        }
+        int precision = CommonUtils.toInt(attribute.getPrecision());
+        int scale = CommonUtils.toInt(attribute.getScale());
+        switch (attribute.getDataKind()) {
+            case BOOLEAN:
+                return new Column(name, BOOLEAN, 0, 0);
+            case NUMERIC: {
+                Class<?> valueType = attribute.getValueHandler().getValueObjectType(attribute);
+                if (valueType == Byte.class || valueType == Short.class || valueType == Integer.class) {
+                    return new Column(name, INT32, 0, 0);
+                } else if (valueType == Long.class) {
+                    return new Column(name, INT64, 0, 0);
+                } else if (valueType == Float.class) {
+                    return new Column(name, FLOAT, 0, 0);
+                } else if (valueType == Double.class) {
+                    return new Column(name, DOUBLE, 0, 0);
+                }
+                if (precision > 0 && precision <= MAX_DECIMAL_PRECISION && scale >= 0 && scale <= precision) {
+                    if (scale == 0 && precision < 10 && valueType != BigDecimal.class && valueType != BigInteger.class) {
+                        return new Column(name, INT32, 0, 0);
+                    }
+                    return new Column(name, DECIMAL, precision, scale);
+                }
+                // Unknown precision and scale (e.g. NUMBER or NUMERIC without modifiers).
+                // Double would lose precision so scale is resolved from exported values.
+                return new Column(name, DECIMAL, MAX_DECIMAL_PRECISION, valueType == BigInteger.class ? 0 : UNKNOWN_SCALE);
+            }
+            case DATETIME: {
+                Class<?> valueType = attribute.getValueHandler().getValueObjectType(attribute);
+                if (valueType == java.sql.Date.class) {
+                    return new Column(name, DATE, 0, 0);
+                } else if (valueType == java.sql.Time.class) {
+                    return new Column(name, TIME, 0, 0);
+                }
+                return new Column(name, TIMESTAMP, 0, 0);
+            }
+            case BINARY:
+                return new Column(name, BINARY, 0, 0);
+            case CONTENT:
+                return new Column(name, isTextType(attribute.getTypeName()) ? STRING : BINARY, 0, 0);
+            default:
+                return new Column(name, STRING, 0, 0);
+        }
+    }
+
+    private static boolean isTextType(String typeName) {
+        if (typeName == null) {
+            return false;
+        }
+        String upperName = typeName.toUpperCase();
+        return upperName.contains("CHAR") || upperName.contains("CLOB") || upperName.contains("TEXT") ||
+            upperName.contains("XML") || upperName.contains("JSON");
+    }
+
+}
@@ -0,0 +1,164 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.columnar;
+
+import org.jkiss.code.NotNull;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.*;
+import java.time.temporal.TemporalAccessor;
+import java.util.Date;
+
+/**
+ * Value conversions for columnar formats.
+ * Dates are stored as days since epoch, times as milliseconds since midnight
+ * and timestamps as microseconds since epoch (UTC).
+ */
+public final class ColumnarUtils {
+
+    private static final long MICROS_PER_SECOND = 1000000L;
+    private static final long NANOS_PER_MILLI = 1000000L;
+
+    private ColumnarUtils() {
+    }
+
+    public static int toEpochDays(@NotNull Object value) {
+        if (value instanceof java.sql.Date) {
+            return (int) ((java.sql.Date) value).toLocalDate().toEpochDay();
+        } else if (value instanceof Date) {
+            return (int) Instant.ofEpochMilli(((Date) value).getTime()).atZone(ZoneId.systemDefault()).toLocalDate().toEpochDay();
+        } else if (value instanceof TemporalAccessor) {
+            return (int) LocalDate.from((TemporalAccessor) value).toEpochDay();
+        }
+        throw new IllegalArgumentException("Value " + value.getClass().getName() + " can't be converted to date");
+    }
+
+    public static java.sql.Date fromEpochDays(long days) {
+        return java.sql.Date.valueOf(LocalDate.ofEpochDay(days));
+    }
+
+    public static int toMillisOfDay(@NotNull Object value) {
+        LocalTime localTime;
+        if (value instanceof Time) {
+            // Time.toLocalTime() loses milliseconds
+            localTime = ((Time) value).toLocalTime().withNano((int) (Math.floorMod(((Time) value).getTime(), 1000L) * NANOS_PER_MILLI));
+        } else if (value instanceof Date) {
+            localTime = Instant.ofEpochMilli(((Date) value).getTime()).atZone(ZoneId.systemDefault()).toLocalTime();
+        } else if (value instanceof TemporalAccessor) {
+            localTime = LocalTime.from((TemporalAccessor) value);
+        } else {
+            throw new IllegalArgumentException("Value " + value.getClass().getName() + " can't be converted to time");
+        }
+        return (int) (localTime.toNanoOfDay() / NANOS_PER_MILLI);
+    }
+
+    public static Time fromMillisOfDay(long millis) {
+        LocalDateTime dateTime = LocalDate.ofEpochDay(0).atTime(LocalTime.ofNanoOfDay(millis * NANOS_PER_MILLI));
+        return new Time(dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    public static long toEpochMicros(@NotNull Object value) {
+        Instant instant;
+        if (value instanceof Timestamp) {
+            instant = ((Timestamp) value).toInstant();
+        } else if (value instanceof Date) {
+            instant = Instant.ofEpochMilli(((Date) value).getTime());
+        } else if (value instanceof Instant) {
+            instant = (Instant) value;
+        } else if (value instanceof LocalDateTime) {
+            instant = ((LocalDateTime) value).atZone(ZoneId.systemDefault()).toInstant();
+        } else if (value instanceof TemporalAccessor) {
+            instant = Instant.from((TemporalAccessor) value);
+        } else {
+            throw new IllegalArgumentException("Value " + value.getClass().getName() + " can't be converted to timestamp");
+        }
+        return Math.multiplyExact(instant.getEpochSecond(), MICROS_PER_SECOND) + instant.getNano() / 1000;
+    }
+
+    public static Timestamp fromEpochMicros(long micros) {
+        return Timestamp.from(Instant.ofEpochSecond(Math.floorDiv(micros, MICROS_PER_SECOND), Math.floorMod(micros, MICROS_PER_SECOND) * 1000));
+    }
+
+    public static Timestamp fromEpochMillis(long millis) {
+        return new Timestamp(millis);
+    }
+
+    public static Timestamp fromEpochNanos(long nanos) {
+        return Timestamp.from(Instant.ofEpochSecond(Math.floorDiv(nanos, 1000000000L), Math.floorMod(nanos, 1000000000L)));
+    }
+
+    public static BigDecimal toDecimal(@NotNull Object value, int scale) {
+        return toDecimal(value).setScale(scale, RoundingMode.HALF_UP);
+    }
+
+    public static BigDecimal toDecimal(@NotNull Object value) {
+        BigDecimal decimal;
+        if (value instanceof BigDecimal) {
+            decimal = (BigDecimal) value;
+        } else if (value instanceof BigInteger) {
+            decimal = new BigDecimal((BigInteger) value);
+        } else if (value instanceof Double || value instanceof Float) {
+            decimal = BigDecimal.valueOf(((Number) value).doubleValue());
+        } else if (value instanceof Number) {
+            decimal = BigDecimal.valueOf(((Number) value).longValue());
+        } else {
+            decimal = new BigDecimal(value.toString().trim());
+        }
+        return decimal;
+    }
+
+    /**
+     * Big-endian two's complement representation of decimal unscaled value
+     */
+    public static byte[] toUnscaledBytes(@NotNull BigDecimal value) {
+        return value.unscaledValue().toByteArray();
+    }
+
+    public static BigDecimal fromUnscaledBytes(@NotNull byte[] bytes, int scale) {
+        return new BigDecimal(new BigInteger(bytes), scale);
+    }
+
+    /**
+     * Little-endian two's complement representation of decimal unscaled value (Arrow decimal format)
+     */
+    public static void writeDecimal128(@NotNull BigDecimal value, byte[] buffer, int offset) {
+        byte[] bigEndian = toUnscaledBytes(value);
+        if (bigEndian.length > 16) {
+            throw new ArithmeticException("Decimal value " + value + " doesn't fit in 128 bits");
+        }
+        byte fill = value.signum() < 0 ? (byte) 0xFF : 0;
+        for (int i = 0; i < 16; i++) {
+            buffer[offset + i] = i < bigEndian.length ? bigEndian[bigEndian.length - 1 - i] : fill;
+        }
+    }
+
+    /**
+     * Reads little-endian two's complement decimal unscaled value
+     */
+    public static BigDecimal readDecimal(byte[] buffer, int offset, int length, int scale) {
+        byte[] bigEndian = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bigEndian[i] = buffer[offset + length - 1 - i];
+        }
+        return fromUnscaledBytes(bigEndian, scale);
+    }
+
+}
@@ -0,0 +1,120 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.columnar;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * FlatBuffers table accessor.
+ * Used to read Arrow IPC metadata.
+ */
+class FlatBufferTable {
+
+    private final ByteBuffer buffer;
+    private final int position;
+    private final int vtable;
+    private final int vtableSize;
+
+    private FlatBufferTable(ByteBuffer buffer, int position) {
+        this.buffer = buffer;
+        this.position = position;
+        this.vtable = position - buffer.getInt(position);
+        this.vtableSize = buffer.getShort(vtable) & 0xFFFF;
+    }
+
+    static FlatBufferTable getRoot(byte[] data) {
+        ByteBuffer buffer = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+        return new FlatBufferTable(buffer, buffer.getInt(0));
+    }
+
+    private int fieldOffset(int id) {
+        int vtableOffset = 4 + id * 2;
+        return vtableOffset < vtableSize ? buffer.getShort(vtable + vtableOffset) & 0xFFFF : 0;
+    }
+
+    boolean has(int id) {
+        return fieldOffset(id) != 0;
+    }
+
+    int getByte(int id, int defaultValue) {
+        int offset = fieldOffset(id);
+        return offset == 0 ? defaultValue : buffer.get(position + offset) & 0xFF;
+    }
+
+    boolean getBoolean(int id, boolean defaultValue) {
+        int offset = fieldOffset(id);
+        return offset == 0 ? defaultValue : buffer.get(position + offset) != 0;
+    }
+
+    int getShort(int id, int defaultValue) {
+        int offset = fieldOffset(id);
+        return offset == 0 ? defaultValue : buffer.getShort(position + offset);
+    }
+
+    int getInt(int id, int defaultValue) {
+        int offset = fieldOffset(id);
+        return offset == 0 ? defaultValue : buffer.getInt(position + offset);
+    }
+
+    long getLong(int id, long defaultValue) {
+        int offset = fieldOffset(id);
+        return offset == 0 ? defaultValue : buffer.getLong(position + offset);
+    }
+
+    FlatBufferTable getTable(int id) {
+        int target = getReference(id);
+        return target < 0 ? null : new FlatBufferTable(buffer, target);
+    }
+
+    String getString(int id) {
+        int target = getReference(id);
+        if (target < 0) {
+            return null;
+        }
+        int length = buffer.getInt(target);
+        return new String(buffer.array(), target + 4, length, StandardCharsets.UTF_8);
+    }
+
+    int getVectorLength(int id) {
+        int target = getReference(id);
+        return target < 0 ? 0 : buffer.getInt(target);
+    }
+
+    FlatBufferTable getVectorTable(int id, int index) {
+        int elementPos = getReference(id) + 4 + index * 4;
+        return new FlatBufferTable(buffer, elementPos + buffer.getInt(elementPos));
+    }
+
+    /**
+     * Reads long field of the struct vector element
+     */
+    long getVectorStructLong(int id, int index, int structSize, int fieldOffset) {
+        return buffer.getLong(getReference(id) + 4 + index * structSize + fieldOffset);
+    }
+
+    private int getReference(int id) {
+        int offset = fieldOffset(id);
+        if (offset == 0) {
+            return -1;
+        }
+        int pos = position + offset;
+        return pos + buffer.getInt(pos);
+    }
+
+}
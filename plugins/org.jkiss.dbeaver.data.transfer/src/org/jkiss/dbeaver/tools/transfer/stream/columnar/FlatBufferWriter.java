@@ -0,0 +1,248 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.columnar;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal FlatBuffers serializer.
+ * Objects are described as a tree of {@link Table}s and serialized front-to-back:
+ * each table is followed by its children, so all offsets point forward.
+ * Used to write Arrow IPC metadata.
+ */
+class FlatBufferWriter {
+
+    private static final int KIND_BYTE = 1;
+    private static final int KIND_SHORT = 2;
+    private static final int KIND_INT = 4;
+    private static final int KIND_LONG = 8;
+    private static final int KIND_OFFSET = 0;
+
+    private static class FieldValue {
+        final int id;
+        final int kind;
+        final long value;
+        final Object child;
+
+        FieldValue(int id, int kind, long value, Object child) {
+            this.id = id;
+            this.kind = kind;
+            this.value = value;
+            this.child = child;
+        }
+    }
+
+    /**
+     * Vector of inline structs. Each struct is 8-byte aligned.
+     */
+    static class StructVector {
+        final int count;
+        final byte[] data;
+
+        StructVector(int count, byte[] data) {
+            this.count = count;
+            this.data = data;
+        }
+    }
+
+    static class Table {
+        private final List<FieldValue> fields = new ArrayList<>();
+
+        Table addBoolean(int id, boolean value) {
+            return addByte(id, value ? 1 : 0);
+        }
+
+        Table addByte(int id, int value) {
+            fields.add(new FieldValue(id, KIND_BYTE, value, null));
+            return this;
+        }
+
+        Table addShort(int id, int value) {
+            fields.add(new FieldValue(id, KIND_SHORT, value, null));
+            return this;
+        }
+
+        Table addInt(int id, int value) {
+            fields.add(new FieldValue(id, KIND_INT, value, null));
+            return this;
+        }
+
+        Table addLong(int id, long value) {
+            fields.add(new FieldValue(id, KIND_LONG, value, null));
+            return this;
+        }
+
+        Table addString(int id, String value) {
+            fields.add(new FieldValue(id, KIND_OFFSET, 0, value));
+            return this;
+        }
+
+        Table addTable(int id, Table value) {
+            fields.add(new FieldValue(id, KIND_OFFSET, 0, value));
+            return this;
+        }
+
+        Table addTables(int id, List<Table> value) {
+            fields.add(new FieldValue(id, KIND_OFFSET, 0, value));
+            return this;
+        }
+
+        Table addStructs(int id, StructVector value) {
+            fields.add(new FieldValue(id, KIND_OFFSET, 0, value));
+            return this;
+        }
+    }
+
+    private final LittleEndianBuffer buffer = new LittleEndianBuffer(256);
+
+    /**
+     * Serializes root table. Result length is padded to 8 bytes.
+     */
+    static byte[] serialize(Table root) {
+        FlatBufferWriter writer = new FlatBufferWriter();
+        writer.buffer.writeInt(0);
+        int rootPos = writer.writeTable(root);
+        writer.patchInt(0, rootPos);
+        writer.buffer.align(8);
+        return writer.buffer.toByteArray();
+    }
+
+    private int writeTable(Table table) {
+        int maxId = -1;
+        int maxAlign = 4;
+        for (FieldValue field : table.fields) {
+            maxId = Math.max(maxId, field.id);
+            if (field.kind == KIND_LONG) {
+                maxAlign = 8;
+            }
+        }
+        int vtableSize = 4 + 2 * (maxId + 1);
+        int[] fieldOffsets = new int[maxId + 1];
+
+        // Vtable placeholder
+        buffer.align(2);
+        int vtablePos = buffer.size();
+        for (int i = 0; i < vtableSize; i++) {
+            buffer.write(0);
+        }
+
+        // Table
+        buffer.align(maxAlign);
+        int tablePos = buffer.size();
+        buffer.writeInt(tablePos - vtablePos);
+        List<int[]> pendingOffsets = new ArrayList<>();
+        List<Object> pendingChildren = new ArrayList<>();
+        for (FieldValue field : table.fields) {
+            int size = field.kind == KIND_OFFSET ? 4 : field.kind;
+            buffer.align(size);
+            fieldOffsets[field.id] = buffer.size() - tablePos;
+            switch (field.kind) {
+                case KIND_BYTE:
+                    buffer.write((int) field.value);
+                    break;
+                case KIND_SHORT:
+                    buffer.write((int) field.value);
+                    buffer.write((int) (field.value >>> 8));
+                    break;
+                case KIND_INT:
+                    buffer.writeInt((int) field.value);
+                    break;
+                case KIND_LONG:
+                    buffer.writeLong(field.value);
+                    break;
+                default:
+                    pendingOffsets.add(new int[]{buffer.size()});
+                    pendingChildren.add(field.child);
+                    buffer.writeInt(0);
+                    break;
+            }
+        }
+        int tableSize = buffer.size() - tablePos;
+
+        // Patch vtable
+        patchShort(vtablePos, vtableSize);
+        patchShort(vtablePos + 2, tableSize);
+        for (int i = 0; i < fieldOffsets.length; i++) {
+            patchShort(vtablePos + 4 + i * 2, fieldOffsets[i]);
+        }
+
+        // Children
+        for (int i = 0; i < pendingChildren.size(); i++) {
+            int offsetPos = pendingOffsets.get(i)[0];
+            int childPos = writeObject(pendingChildren.get(i));
+            patchInt(offsetPos, childPos - offsetPos);
+        }
+        return tablePos;
+    }
+
+    @SuppressWarnings("unchecked")
+    private int writeObject(Object object) {
+        if (object instanceof String) {
+            byte[] bytes = ((String) object).getBytes(StandardCharsets.UTF_8);
+            buffer.align(4);
+            int pos = buffer.size();
+            buffer.writeInt(bytes.length);
+            buffer.writeRaw(bytes);
+            buffer.write(0);
+            return pos;
+        } else if (object instanceof Table) {
+            return writeTable((Table) object);
+        } else if (object instanceof StructVector) {
+            StructVector vector = (StructVector) object;
+            // Elements must be 8-byte aligned, length prefix goes right before them
+            while ((buffer.size() + 4) % 8 != 0) {
+                buffer.write(0);
+            }
+            int pos = buffer.size();
+            buffer.writeInt(vector.count);
+            buffer.writeRaw(vector.data);
+            return pos;
+        } else {
+            List<Table> tables = (List<Table>) object;
+            buffer.align(4);
+            int pos = buffer.size();
+            buffer.writeInt(tables.size());
+            int elementsPos = buffer.size();
+            for (int i = 0; i < tables.size(); i++) {
+                buffer.writeInt(0);
+            }
+            for (int i = 0; i < tables.size(); i++) {
+                int offsetPos = elementsPos + i * 4;
+                int childPos = writeTable(tables.get(i));
+                patchInt(offsetPos, childPos - offsetPos);
+            }
+            return pos;
+        }
+    }
+
+    private void patchShort(int pos, int value) {
+        byte[] buf = buffer.getBuffer();
+        buf[pos] = (byte) value;
+        buf[pos + 1] = (byte) (value >>> 8);
+    }
+
+    private void patchInt(int pos, int value) {
+        byte[] buf = buffer.getBuffer();
+        buf[pos] = (byte) value;
+        buf[pos + 1] = (byte) (value >>> 8);
+        buf[pos + 2] = (byte) (value >>> 16);
+        buf[pos + 3] = (byte) (value >>> 24);
+    }
+
+}
@@ -0,0 +1,574 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.columnar;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.jkiss.dbeaver.tools.transfer.stream.columnar.ParquetFormat.*;
+
+/**
+ * Parquet file reader.
+ * Supports flat schemas, PLAIN and dictionary encodings, v1/v2 data pages
+ * and uncompressed, SNAPPY or GZIP column chunks.
+ * Values are returned as Boolean, Integer, Long, Float, Double, BigDecimal, String, byte[],
+ * java.sql.Date, java.sql.Time or java.sql.Timestamp.
+ */
+public class ParquetFileReader implements ColumnarReader {
+
+    private static final long JULIAN_EPOCH_DAY = 2440588;
+    private static final long NANOS_PER_DAY = 86400L * 1000000000L;
+
+    private static class ColumnDescriptor {
+        String name;
+        int physicalType;
+        int typeLength;
+        int maxDefinitionLevel;
+        ColumnarDataType type;
+        int precision;
+        int scale;
+        int timeUnit = UNIT_MILLIS;
+    }
+
+    @Nullable
+    private final RandomAccessFile file;
+    @Nullable
+    private final byte[] data;
+    private final long length;
+    private final List<ColumnDescriptor> columns = new ArrayList<>();
+    private final List<ThriftCompactReader.Struct> rowGroups;
+    private final long rowCount;
+
+    private int rowGroupIndex = -1;
+    private Object[][] rowGroupValues;
+    private int rowGroupRows;
+    private int rowGroupPosition;
+
+    public ParquetFileReader(@NotNull File file) throws IOException {
+        this.file = new RandomAccessFile(file, "r");
+        this.data = null;
+        this.length = this.file.length();
+        try {
+            ThriftCompactReader.Struct metaData = readFileMetaData();
+            this.rowGroups = metaData.getList(4);
+            this.rowCount = metaData.getLong(3, 0);
+        } catch (IOException e) {
+            this.file.close();
+            throw e;
+        }
+    }
+
+    public ParquetFileReader(@NotNull byte[] data) throws IOException {
+        this.file = null;
+        this.data = data;
+        this.length = data.length;
+        ThriftCompactReader.Struct metaData = readFileMetaData();
+        this.rowGroups = metaData.getList(4);
+        this.rowCount = metaData.getLong(3, 0);
+    }
+
+    @NotNull
+    @Override
+    public List<ColumnarDataType.Column> getColumns() {
+        List<ColumnarDataType.Column> result = new ArrayList<>(columns.size());
+        for (ColumnDescriptor column : columns) {
+            result.add(new ColumnarDataType.Column(column.name, column.type, column.precision, column.scale));
+        }
+        return result;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public boolean nextRow(@NotNull Object[] row) throws IOException {
+        while (rowGroupValues == null || rowGroupPosition >= rowGroupRows) {
+            if (rowGroupIndex + 1 >= rowGroups.size()) {
+                return false;
+            }
+            readRowGroup(rowGroups.get(++rowGroupIndex));
+        }
+        for (int i = 0; i < columns.size(); i++) {
+            row[i] = rowGroupValues[i][rowGroupPosition];
+        }
+        rowGroupPosition++;
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (file != null) {
+            file.close();
+        }
+    }
+
+    private ThriftCompactReader.Struct readFileMetaData() throws IOException {
+        if (length < 12) {
+            throw new IOException("File is too short to be a Parquet file");
+        }
+        byte[] tail = readBytes(length - 8, 8);
+        if (!Arrays.equals(Arrays.copyOfRange(tail, 4, 8), MAGIC)) {
+            throw new IOException("Not a Parquet file (bad magic)");
+        }
+        int footerLength = readInt(tail, 0);
+        if (footerLength <= 0 || footerLength > length - 12) {
+            throw new IOException("Bad Parquet footer length: " + footerLength);
+        }
+        ThriftCompactReader.Struct metaData = new ThriftCompactReader(readBytes(length - 8 - footerLength, footerLength), 0).readStruct();
+        readSchema(metaData.getList(2));
+        return metaData;
+    }
+
+    private void readSchema(List<ThriftCompactReader.Struct> schema) throws IOException {
+        if (schema.isEmpty()) {
+            throw new IOException("Empty Parquet schema");
+        }
+        for (int i = 1; i < schema.size(); i++) {
+            ThriftCompactReader.Struct element = schema.get(i);
+            ColumnDescriptor column = new ColumnDescriptor();
+            column.name = element.getString(4);
+            if (element.getInt(5, 0) > 0 || !element.has(1)) {
+                throw new IOException("Nested Parquet column '" + column.name + "' is not supported");
+            }
+            int repetition = element.getInt(3, REPETITION_OPTIONAL);
+            if (repetition == REPETITION_REPEATED) {
+                throw new IOException("Repeated Parquet column '" + column.name + "' is not supported");
+            }
+            column.physicalType = element.getInt(1, TYPE_BYTE_ARRAY);
+            column.typeLength = element.getInt(2, 0);
+            column.maxDefinitionLevel = repetition == REPETITION_OPTIONAL ? 1 : 0;
+            column.precision = element.getInt(8, 0);
+            column.scale = element.getInt(7, 0);
+            column.type = resolveType(column, element);
+            columns.add(column);
+        }
+    }
+
+    private static ColumnarDataType resolveType(ColumnDescriptor column, ThriftCompactReader.Struct element) {
+        int convertedType = element.getInt(6, -1);
+        ThriftCompactReader.Struct logicalType = element.getStruct(10);
+        if (logicalType != null) {
+            ThriftCompactReader.Struct decimal = logicalType.getStruct(LOGICAL_DECIMAL);
+            if (decimal != null) {
+                column.scale = decimal.getInt(1, column.scale);
+                column.precision = decimal.getInt(2, column.precision);
+                convertedType = CONVERTED_DECIMAL;
+            } else if (logicalType.has(LOGICAL_STRING) || logicalType.has(LOGICAL_ENUM) || logicalType.has(LOGICAL_JSON)) {
+                convertedType = CONVERTED_UTF8;
+            } else if (logicalType.has(LOGICAL_DATE)) {
+                convertedType = CONVERTED_DATE;
+            } else if (logicalType.has(LOGICAL_TIME) || logicalType.has(LOGICAL_TIMESTAMP)) {
+                boolean time = logicalType.has(LOGICAL_TIME);
+                ThriftCompactReader.Struct unit = logicalType.getStruct(time ? LOGICAL_TIME : LOGICAL_TIMESTAMP).getStruct(2);
+                if (unit != null) {
+                    column.timeUnit = unit.has(UNIT_NANOS) ? UNIT_NANOS : unit.has(UNIT_MICROS) ? UNIT_MICROS : UNIT_MILLIS;
+                }
+                convertedType = time ? CONVERTED_TIME_MILLIS : CONVERTED_TIMESTAMP_MILLIS;
+            }
+        }
+        switch (convertedType) {
+            case CONVERTED_UTF8:
+            case CONVERTED_ENUM:
+            case CONVERTED_JSON:
+                return ColumnarDataType.STRING;
+            case CONVERTED_DECIMAL:
+                if (column.precision <= 0) {
+                    column.precision = ColumnarDataType.MAX_DECIMAL_PRECISION;
+                }
+                return ColumnarDataType.DECIMAL;
+            case CONVERTED_DATE:
+                return ColumnarDataType.DATE;
+            case CONVERTED_TIME_MICROS:
+                column.timeUnit = UNIT_MICROS;
+                return ColumnarDataType.TIME;
+            case CONVERTED_TIME_MILLIS:
+                return ColumnarDataType.TIME;
+            case CONVERTED_TIMESTAMP_MICROS:
+                column.timeUnit = UNIT_MICROS;
+                return ColumnarDataType.TIMESTAMP;
+            case CONVERTED_TIMESTAMP_MILLIS:
+                return ColumnarDataType.TIMESTAMP;
+        }
+        switch (column.physicalType) {
+            case TYPE_BOOLEAN: return ColumnarDataType.BOOLEAN;
+            case TYPE_INT32: return ColumnarDataType.INT32;
+            case TYPE_INT64: return ColumnarDataType.INT64;
+            case TYPE_INT96: return ColumnarDataType.TIMESTAMP;
+            case TYPE_FLOAT: return ColumnarDataType.FLOAT;
+            case TYPE_DOUBLE: return ColumnarDataType.DOUBLE;
+            default: return ColumnarDataType.BINARY;
+        }
+    }
+
+    private void readRowGroup(ThriftCompactReader.Struct rowGroup) throws IOException {
+        List<ThriftCompactReader.Struct> chunks = rowGroup.getList(1);
+        if (chunks.size() != columns.size()) {
+            throw new IOException("Row group columns count (" + chunks.size() + ") doesn't match schema (" + columns.size() + ")");
+        }
+        rowGroupRows = (int) rowGroup.getLong(3, 0);
+        rowGroupPosition = 0;
+        rowGroupValues = new Object[columns.size()][];
+        for (int i = 0; i < columns.size(); i++) {
+            ThriftCompactReader.Struct chunk = chunks.get(i);
+            if (chunk.getString(1) != null) {
+                throw new IOException("External Parquet column chunks are not supported");
+            }
+            ThriftCompactReader.Struct chunkMeta = chunk.getStruct(3);
+            if (chunkMeta == null) {
+                throw new IOException("Column chunk metadata is missing");
+            }
+            rowGroupValues[i] = readColumnChunk(columns.get(i), chunkMeta);
+        }
+    }
+
+    private Object[] readColumnChunk(ColumnDescriptor column, ThriftCompactReader.Struct chunkMeta) throws IOException {
+        int codec = chunkMeta.getInt(4, CODEC_UNCOMPRESSED);
+        if (codec != CODEC_UNCOMPRESSED && codec != CODEC_SNAPPY && codec != CODEC_GZIP) {
+            throw new IOException("Parquet compression codec " + codec + " is not supported");
+        }
+        long numValues = chunkMeta.getLong(5, 0);
+        long offset = chunkMeta.getLong(9, 0);
+        long dictionaryOffset = chunkMeta.getLong(11, 0);
+        if (dictionaryOffset > 0 && dictionaryOffset < offset) {
+            offset = dictionaryOffset;
+        }
+        byte[] chunkData = readBytes(offset, (int) chunkMeta.getLong(7, 0));
+
+        Object[] values = new Object[rowGroupRows];
+        Object[] dictionary = null;
+        int valueIndex = 0;
+        int position = 0;
+        while (valueIndex < numValues && position < chunkData.length) {
+            ThriftCompactReader headerReader = new ThriftCompactReader(chunkData, position);
+            ThriftCompactReader.Struct pageHeader = headerReader.readStruct();
+            position = headerReader.getPosition();
+            int pageType = pageHeader.getInt(1, -1);
+            int uncompressedSize = pageHeader.getInt(2, 0);
+            int compressedSize = pageHeader.getInt(3, 0);
+            int pageEnd = position + compressedSize;
+
+            if (pageType == PAGE_DICTIONARY) {
+                ThriftCompactReader.Struct dictHeader = pageHeader.getStruct(7);
+                int dictSize = dictHeader == null ? 0 : dictHeader.getInt(1, 0);
+                byte[] page = decompress(codec, chunkData, position, compressedSize, uncompressedSize);
+                dictionary = new Object[dictSize];
+                PlainDecoder decoder = new PlainDecoder(column, page, 0);
+                for (int i = 0; i < dictSize; i++) {
+                    dictionary[i] = decoder.next();
+                }
+            } else if (pageType == PAGE_DATA) {
+                ThriftCompactReader.Struct dataHeader = pageHeader.getStruct(5);
+                int pageValues = dataHeader.getInt(1, 0);
+                int encoding = dataHeader.getInt(2, ENCODING_PLAIN);
+                byte[] page = decompress(codec, chunkData, position, compressedSize, uncompressedSize);
+                int pos = 0;
+                int[] levels = null;
+                if (column.maxDefinitionLevel > 0) {
+                    int levelsLength = readInt(page, 0);
+                    levels = new RleDecoder(page, 4, 4 + levelsLength, 1).read(pageValues);
+                    pos = 4 + levelsLength;
+                }
+                valueIndex = decodeValues(column, page, pos, page.length, encoding, pageValues, levels, dictionary, values, valueIndex);
+            } else if (pageType == PAGE_DATA_V2) {
+                ThriftCompactReader.Struct dataHeader = pageHeader.getStruct(8);
+                int pageValues = dataHeader.getInt(1, 0);
+                int encoding = dataHeader.getInt(4, ENCODING_PLAIN);
+                int defLength = dataHeader.getInt(5, 0);
+                int repLength = dataHeader.getInt(6, 0);
+                boolean compressed = dataHeader.getBoolean(7, true);
+                int[] levels = null;
+                if (column.maxDefinitionLevel > 0) {
+                    levels = new RleDecoder(chunkData, position + repLength, position + repLength + defLength, 1).read(pageValues);
+                }
+                int levelsLength = repLength + defLength;
+                byte[] page = compressed ?
+                    decompress(codec, chunkData, position + levelsLength, compressedSize - levelsLength, uncompressedSize - levelsLength) :
+                    Arrays.copyOfRange(chunkData, position + levelsLength, pageEnd);
+                valueIndex = decodeValues(column, page, 0, page.length, encoding, pageValues, levels, dictionary, values, valueIndex);
+            }
+            // Skip index and unknown pages
+            position = pageEnd;
+        }
+        return values;
+    }
+
+    private static int decodeValues(ColumnDescriptor column, byte[] page, int pos, int end, int encoding, int pageValues,
+                                    int[] levels, Object[] dictionary, Object[] values, int valueIndex) throws IOException {
+        if (encoding == ENCODING_PLAIN) {
+            PlainDecoder decoder = new PlainDecoder(column, page, pos);
+            for (int i = 0; i < pageValues; i++) {
+                values[valueIndex++] = levels == null || levels[i] == column.maxDefinitionLevel ? decoder.next() : null;
+            }
+        } else if (encoding == ENCODING_PLAIN_DICTIONARY || encoding == ENCODING_RLE_DICTIONARY) {
+            if (dictionary == null) {
+                throw new IOException("Dictionary page is missing for column '" + column.name + "'");
+            }
+            RleDecoder indexes = new RleDecoder(page, pos + 1, end, page[pos] & 0xFF);
+            for (int i = 0; i < pageValues; i++) {
+                values[valueIndex++] = levels == null || levels[i] == column.maxDefinitionLevel ? dictionary[indexes.next()] : null;
+            }
+        } else if (encoding == ENCODING_RLE && column.physicalType == TYPE_BOOLEAN) {
+            RleDecoder decoder = new RleDecoder(page, pos + 4, pos + 4 + readInt(page, pos), 1);
+            for (int i = 0; i < pageValues; i++) {
+                values[valueIndex++] = levels == null || levels[i] == column.maxDefinitionLevel ? decoder.next() != 0 : null;
+            }
+        } else {
+            throw new IOException("Parquet encoding " + encoding + " is not supported (column '" + column.name + "')");
+        }
+        return valueIndex;
+    }
+
+    private static byte[] decompress(int codec, byte[] data, int offset, int length, int uncompressedSize) throws IOException {
+        switch (codec) {
+            case CODEC_SNAPPY:
+                return SnappyDecompressor.decompress(data, offset, length);
+            case CODEC_GZIP: {
+                byte[] result = new byte[uncompressedSize];
+                try (DataInputStream is = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(data, offset, length)))) {
+                    is.readFully(result);
+                }
+                return result;
+            }
+            default:
+                return Arrays.copyOfRange(data, offset, offset + length);
+        }
+    }
+
+    /**
+     * PLAIN values decoder
+     */
+    private static class PlainDecoder {
+        private final ColumnDescriptor column;
+        private final byte[] page;
+        private int pos;
+        private int bitIndex;
+
+        PlainDecoder(ColumnDescriptor column, byte[] page, int pos) {
+            this.column = column;
+            this.page = page;
+            this.pos = pos;
+        }
+
+        Object next() throws IOException {
+            switch (column.physicalType) {
+                case TYPE_BOOLEAN: {
+                    boolean value = (page[pos + bitIndex / 8] & (1 << (bitIndex % 8))) != 0;
+                    bitIndex++;
+                    return value;
+                }
+                case TYPE_INT32: {
+                    int value = readInt(page, pos);
+                    pos += 4;
+                    return convertInt(value);
+                }
+                case TYPE_INT64: {
+                    long value = readLong(page, pos);
+                    pos += 8;
+                    return convertLong(value);
+                }
+                case TYPE_INT96: {
+                    long nanosOfDay = readLong(page, pos);
+                    long julianDay = readInt(page, pos + 8) & 0xFFFFFFFFL;
+                    pos += 12;
+                    return ColumnarUtils.fromEpochNanos((julianDay - JULIAN_EPOCH_DAY) * NANOS_PER_DAY + nanosOfDay);
+                }
+                case TYPE_FLOAT: {
+                    float value = Float.intBitsToFloat(readInt(page, pos));
+                    pos += 4;
+                    return value;
+                }
+                case TYPE_DOUBLE: {
+                    double value = Double.longBitsToDouble(readLong(page, pos));
+                    pos += 8;
+                    return value;
+                }
+                case TYPE_FIXED_LEN_BYTE_ARRAY: {
+                    byte[] bytes = Arrays.copyOfRange(page, pos, pos + column.typeLength);
+                    pos += column.typeLength;
+                    return convertBytes(bytes);
+                }
+                default: {
+                    int length = readInt(page, pos);
+                    if (length < 0 || pos + 4 + length > page.length) {
+                        throw new IOException("Corrupted Parquet byte array value in column '" + column.name + "'");
+                    }
+                    pos += 4;
+                    if (column.type == ColumnarDataType.STRING) {
+                        String value = new String(page, pos, length, StandardCharsets.UTF_8);
+                        pos += length;
+                        return value;
+                    }
+                    byte[] bytes = Arrays.copyOfRange(page, pos, pos + length);
+                    pos += length;
+                    return convertBytes(bytes);
+                }
+            }
+        }
+
+        private Object convertInt(int value) {
+            switch (column.type) {
+                case DATE: return ColumnarUtils.fromEpochDays(value);
+                case TIME: return ColumnarUtils.fromMillisOfDay(value);
+                case DECIMAL: return BigDecimal.valueOf(value, column.scale);
+                default: return value;
+            }
+        }
+
+        private Object convertLong(long value) {
+            switch (column.type) {
+                case TIMESTAMP:
+                    switch (column.timeUnit) {
+                        case UNIT_MICROS: return ColumnarUtils.fromEpochMicros(value);
+                        case UNIT_NANOS: return ColumnarUtils.fromEpochNanos(value);
+                        default: return ColumnarUtils.fromEpochMillis(value);
+                    }
+                case TIME:
+                    switch (column.timeUnit) {
+                        case UNIT_MICROS: return ColumnarUtils.fromMillisOfDay(value / 1000);
+                        case UNIT_NANOS: return ColumnarUtils.fromMillisOfDay(value / 1000000);
+                        default: return ColumnarUtils.fromMillisOfDay(value);
+                    }
+                case DECIMAL:
+                    return BigDecimal.valueOf(value, column.scale);
+                default:
+                    return value;
+            }
+        }
+
+        private Object convertBytes(byte[] bytes) {
+            if (column.type == ColumnarDataType.DECIMAL) {
+                return ColumnarUtils.fromUnscaledBytes(bytes, column.scale);
+            } else if (column.type == ColumnarDataType.STRING) {
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+            return bytes;
+        }
+    }
+
+    /**
+     * RLE/bit-packing hybrid decoder
+     */
+    private static class RleDecoder {
+        private final byte[] data;
+        private final int end;
+        private final int bitWidth;
+        private int pos;
+        private int rleCount;
+        private int rleValue;
+        private int packedCount;
+        private long packedBitOffset;
+
+        RleDecoder(byte[] data, int pos, int end, int bitWidth) {
+            this.data = data;
+            this.pos = pos;
+            this.end = end;
+            this.bitWidth = bitWidth;
+        }
+
+        int[] read(int count) throws IOException {
+            int[] result = new int[count];
+            for (int i = 0; i < count; i++) {
+                result[i] = next();
+            }
+            return result;
+        }
+
+        int next() throws IOException {
+            if (rleCount == 0 && packedCount == 0) {
+                readRunHeader();
+            }
+            if (rleCount > 0) {
+                rleCount--;
+                return rleValue;
+            }
+            packedCount--;
+            int value = 0;
+            for (int i = 0; i < bitWidth; i++, packedBitOffset++) {
+                int bytePos = (int) (packedBitOffset >>> 3);
+                if ((data[bytePos] & (1 << (packedBitOffset & 7))) != 0) {
+                    value |= 1 << i;
+                }
+            }
+            return value;
+        }
+
+        private void readRunHeader() throws IOException {
+            if (pos >= end) {
+                throw new IOException("Unexpected end of RLE data");
+            }
+            int header = 0;
+            for (int shift = 0; ; shift += 7) {
+                int b = data[pos++] & 0xFF;
+                header |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    break;
+                }
+            }
+            if ((header & 1) == 0) {
+                rleCount = header >>> 1;
+                rleValue = 0;
+                int valueBytes = (bitWidth + 7) / 8;
+                for (int i = 0; i < valueBytes; i++) {
+                    rleValue |= (data[pos++] & 0xFF) << (8 * i);
+                }
+            } else {
+                int groups = header >>> 1;
+                packedCount = groups * 8;
+                packedBitOffset = (long) pos * 8;
+                int runBytes = groups * bitWidth;
+                if (pos + runBytes > data.length) {
+                    throw new IOException("Corrupted bit-packed run");
+                }
+                pos += runBytes;
+            }
+            if (rleCount == 0 && packedCount == 0) {
+                throw new IOException("Empty RLE run");
+            }
+        }
+    }
+
+    private byte[] readBytes(long offset, int count) throws IOException {
+        if (offset < 0 || count < 0 || offset + count > length) {
+            throw new IOException("Parquet data offset is out of file bounds");
+        }
+        if (data != null) {
+            return Arrays.copyOfRange(data, (int) offset, (int) offset + count);
+        }
+        byte[] result = new byte[count];
+        file.seek(offset);
+        file.readFully(result);
+        return result;
+    }
+
+    private static int readInt(byte[] data, int pos) {
+        return (data[pos] & 0xFF) | ((data[pos + 1] & 0xFF) << 8) | ((data[pos + 2] & 0xFF) << 16) | ((data[pos + 3] & 0xFF) << 24);
+    }
+
+    private static long readLong(byte[] data, int pos) {
+        return (readInt(data, pos) & 0xFFFFFFFFL) | ((long) readInt(data, pos + 4) << 32);
+    }
+
+}
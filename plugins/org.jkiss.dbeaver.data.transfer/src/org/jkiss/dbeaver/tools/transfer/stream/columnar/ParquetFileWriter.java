@@ -0,0 +1,351 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.columnar;
+
+import org.jkiss.code.NotNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.jkiss.dbeaver.tools.transfer.stream.columnar.ParquetFormat.*;
+
+/**
+ * Parquet file writer.
+ * Writes flat schema with optional columns. Values are PLAIN encoded in v1 data pages.
+ * Values must be normalized: Integer for INT32, DATE (epoch days) and TIME (millis of day),
+ * Long for INT64 and TIMESTAMP (epoch micros), BigDecimal with column scale for DECIMAL.
+ */
+public class ParquetFileWriter {
+
+    public enum Compression {
+        none(CODEC_UNCOMPRESSED),
+        gzip(CODEC_GZIP);
+
+        private final int codec;
+
+        Compression(int codec) {
+            this.codec = codec;
+        }
+    }
+
+    private static final int PAGE_ROWS = 10000;
+    private static final String CREATED_BY = "DBeaver";
+
+    private static class ColumnChunkInfo {
+        long offset;
+        long numValues;
+        long uncompressedSize;
+        long compressedSize;
+    }
+
+    private static class RowGroupInfo {
+        final List<ColumnChunkInfo> columns = new ArrayList<>();
+        long numRows;
+        long totalByteSize;
+    }
+
+    private final OutputStream out;
+    private final List<ColumnarDataType.Column> columns;
+    private final Compression compression;
+    private final int rowGroupSize;
+    // Row group values are buffered in pages of [column][PAGE_ROWS], pages are allocated as rows arrive
+    private final List<Object[][]> pages = new ArrayList<>();
+    private final List<RowGroupInfo> rowGroups = new ArrayList<>();
+    private int rowCount;
+    private long totalRows;
+    private long position;
+
+    public ParquetFileWriter(@NotNull OutputStream out, @NotNull List<ColumnarDataType.Column> columns, @NotNull Compression compression, int rowGroupSize) {
+        this.out = out;
+        this.columns = columns;
+        this.compression = compression;
+        this.rowGroupSize = Math.max(1, rowGroupSize);
+    }
+
+    public void start() throws IOException {
+        write(MAGIC);
+    }
+
+    public void addRow(@NotNull Object[] row) throws IOException {
+        int pageOffset = rowCount % PAGE_ROWS;
+        if (pageOffset == 0) {
+            pages.add(new Object[columns.size()][Math.min(PAGE_ROWS, rowGroupSize - rowCount)]);
+        }
+        Object[][] page = pages.get(pages.size() - 1);
+        for (int i = 0; i < page.length; i++) {
+            page[i][pageOffset] = row[i];
+        }
+        rowCount++;
+        if (rowCount >= rowGroupSize) {
+            flushRowGroup();
+        }
+    }
+
+    public void finish() throws IOException {
+        if (rowCount > 0) {
+            flushRowGroup();
+        }
+        byte[] footer = makeFileMetaData();
+        write(footer);
+        LittleEndianBuffer length = new LittleEndianBuffer(4);
+        length.writeInt(footer.length);
+        write(length.toByteArray());
+        write(MAGIC);
+        out.flush();
+    }
+
+    private void flushRowGroup() throws IOException {
+        RowGroupInfo rowGroup = new RowGroupInfo();
+        rowGroup.numRows = rowCount;
+        for (int i = 0; i < columns.size(); i++) {
+            ColumnChunkInfo chunk = new ColumnChunkInfo();
+            chunk.offset = position;
+            chunk.numValues = rowCount;
+            for (int pageIndex = 0; pageIndex < pages.size(); pageIndex++) {
+                int pageRows = Math.min(PAGE_ROWS, rowCount - pageIndex * PAGE_ROWS);
+                Object[] pageValues = pages.get(pageIndex)[i];
+                LittleEndianBuffer pageData = encodePage(columns.get(i).type, pageValues, 0, pageRows);
+                byte[] body = compress(pageData);
+                byte[] header = makePageHeader(pageData.size(), body.length, pageRows);
+                write(header);
+                write(body);
+                chunk.uncompressedSize += header.length + pageData.size();
+                chunk.compressedSize += header.length + body.length;
+            }
+            rowGroup.columns.add(chunk);
+            rowGroup.totalByteSize += chunk.uncompressedSize;
+            // Release values
+            for (Object[][] page : pages) {
+                page[i] = null;
+            }
+        }
+        pages.clear();
+        rowGroups.add(rowGroup);
+        totalRows += rowCount;
+        rowCount = 0;
+    }
+
+    private static LittleEndianBuffer encodePage(ColumnarDataType type, Object[] columnValues, int offset, int count) {
+        LittleEndianBuffer page = new LittleEndianBuffer(count * 8 + 64);
+
+        // Definition levels (1 = value is present). Encoded with RLE runs
+        LittleEndianBuffer levels = new LittleEndianBuffer(64);
+        for (int i = 0; i < count; ) {
+            boolean present = columnValues[offset + i] != null;
+            int runLength = 1;
+            while (i + runLength < count && (columnValues[offset + i + runLength] != null) == present) {
+                runLength++;
+            }
+            levels.writeUnsignedVarint(runLength << 1);
+            levels.write(present ? 1 : 0);
+            i += runLength;
+        }
+        page.writeInt(levels.size());
+        page.write(levels.getBuffer(), 0, levels.size());
+
+        // Values
+        if (type == ColumnarDataType.BOOLEAN) {
+            int bits = 0, bitCount = 0;
+            for (int i = 0; i < count; i++) {
+                Object value = columnValues[offset + i];
+                if (value == null) {
+                    continue;
+                }
+                if ((Boolean) value) {
+                    bits |= 1 << bitCount;
+                }
+                if (++bitCount == 8) {
+                    page.write(bits);
+                    bits = 0;
+                    bitCount = 0;
+                }
+            }
+            if (bitCount > 0) {
+                page.write(bits);
+            }
+            return page;
+        }
+        for (int i = 0; i < count; i++) {
+            Object value = columnValues[offset + i];
+            if (value == null) {
+                continue;
+            }
+            switch (type) {
+                case INT32:
+                case DATE:
+                case TIME:
+                    page.writeInt((Integer) value);
+                    break;
+                case INT64:
+                case TIMESTAMP:
+                    page.writeLong((Long) value);
+                    break;
+                case FLOAT:
+                    page.writeInt(Float.floatToIntBits((Float) value));
+                    break;
+                case DOUBLE:
+                    page.writeLong(Double.doubleToLongBits((Double) value));
+                    break;
+                case DECIMAL:
+                    writeByteArray(page, ColumnarUtils.toUnscaledBytes((BigDecimal) value));
+                    break;
+                case STRING:
+                    writeByteArray(page, ((String) value).getBytes(StandardCharsets.UTF_8));
+                    break;
+                default:
+                    writeByteArray(page, (byte[]) value);
+                    break;
+            }
+        }
+        return page;
+    }
+
+    private static void writeByteArray(LittleEndianBuffer page, byte[] bytes) {
+        page.writeInt(bytes.length);
+        page.writeRaw(bytes);
+    }
+
+    private byte[] compress(LittleEndianBuffer data) throws IOException {
+        if (compression == Compression.gzip) {
+            LittleEndianBuffer compressed = new LittleEndianBuffer(data.size() / 2 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(data.getBuffer(), 0, data.size());
+            }
+            return compressed.toByteArray();
+        }
+        return data.toByteArray();
+    }
+
+    private static byte[] makePageHeader(int uncompressedSize, int compressedSize, int numValues) {
+        ThriftCompactWriter writer = new ThriftCompactWriter();
+        writer.structBegin();
+        writer.fieldI32(1, PAGE_DATA);
+        writer.fieldI32(2, uncompressedSize);
+        writer.fieldI32(3, compressedSize);
+        writer.fieldStruct(5);
+        {
+            writer.fieldI32(1, numValues);
+            writer.fieldI32(2, ENCODING_PLAIN);
+            writer.fieldI32(3, ENCODING_RLE);
+            writer.fieldI32(4, ENCODING_RLE);
+        }
+        writer.structEnd();
+        writer.structEnd();
+        return writer.toByteArray();
+    }
+
+    private byte[] makeFileMetaData() {
+        ThriftCompactWriter writer = new ThriftCompactWriter();
+        writer.structBegin();
+        writer.fieldI32(1, 1);
+
+        // Schema: root element followed by columns
+        writer.fieldList(2, ThriftCompactWriter.TYPE_STRUCT, columns.size() + 1);
+        writer.structBegin();
+        writer.fieldString(4, "schema");
+        writer.fieldI32(5, columns.size());
+        writer.structEnd();
+        for (ColumnarDataType.Column column : columns) {
+            writer.structBegin();
+            writer.fieldI32(1, getPhysicalType(column.type));
+            writer.fieldI32(3, REPETITION_OPTIONAL);
+            writer.fieldString(4, column.name);
+            int convertedType = getConvertedType(column.type);
+            if (convertedType >= 0) {
+                writer.fieldI32(6, convertedType);
+            }
+            if (column.type == ColumnarDataType.DECIMAL) {
+                writer.fieldI32(7, column.scale);
+                writer.fieldI32(8, column.precision);
+            }
+            writer.structEnd();
+        }
+
+        writer.fieldI64(3, totalRows);
+
+        writer.fieldList(4, ThriftCompactWriter.TYPE_STRUCT, rowGroups.size());
+        for (RowGroupInfo rowGroup : rowGroups) {
+            writer.structBegin();
+            writer.fieldList(1, ThriftCompactWriter.TYPE_STRUCT, rowGroup.columns.size());
+            for (int i = 0; i < rowGroup.columns.size(); i++) {
+                ColumnChunkInfo chunk = rowGroup.columns.get(i);
+                ColumnarDataType.Column column = columns.get(i);
+                writer.structBegin();
+                writer.fieldI64(2, chunk.offset);
+                writer.fieldStruct(3);
+                {
+                    writer.fieldI32(1, getPhysicalType(column.type));
+                    writer.fieldList(2, ThriftCompactWriter.TYPE_I32, 2);
+                    writer.writeI32(ENCODING_PLAIN);
+                    writer.writeI32(ENCODING_RLE);
+                    writer.fieldList(3, ThriftCompactWriter.TYPE_BINARY, 1);
+                    writer.writeString(column.name);
+                    writer.fieldI32(4, compression.codec);
+                    writer.fieldI64(5, chunk.numValues);
+                    writer.fieldI64(6, chunk.uncompressedSize);
+                    writer.fieldI64(7, chunk.compressedSize);
+                    writer.fieldI64(9, chunk.offset);
+                }
+                writer.structEnd();
+                writer.structEnd();
+            }
+            writer.fieldI64(2, rowGroup.totalByteSize);
+            writer.fieldI64(3, rowGroup.numRows);
+            writer.structEnd();
+        }
+
+        writer.fieldString(6, CREATED_BY);
+        writer.structEnd();
+        return writer.toByteArray();
+    }
+
+    private static int getPhysicalType(ColumnarDataType type) {
+        switch (type) {
+            case BOOLEAN: return TYPE_BOOLEAN;
+            case INT32:
+            case DATE:
+            case TIME: return TYPE_INT32;
+            case INT64:
+            case TIMESTAMP: return TYPE_INT64;
+            case FLOAT: return TYPE_FLOAT;
+            case DOUBLE: return TYPE_DOUBLE;
+            default: return TYPE_BYTE_ARRAY;
+        }
+    }
+
+    private static int getConvertedType(ColumnarDataType type) {
+        switch (type) {
+            case STRING: return CONVERTED_UTF8;
+            case DECIMAL: return CONVERTED_DECIMAL;
+            case DATE: return CONVERTED_DATE;
+            case TIME: return CONVERTED_TIME_MILLIS;
+            case TIMESTAMP: return CONVERTED_TIMESTAMP_MICROS;
+            default: return -1;
+        }
+    }
+
+    private void write(byte[] bytes) throws IOException {
+        out.write(bytes);
+        position += bytes.length;
+    }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.columnar;
+
+import java.io.IOException;
+
+/**
+ * Raw Snappy block decompressor (no framing).
+ * Snappy is the default Parquet codec so we need at least to be able to read it.
+ */
+final class SnappyDecompressor {
+
+    private SnappyDecompressor() {
+    }
+
+    static byte[] decompress(byte[] input, int offset, int length) throws IOException {
+        int end = offset + length;
+        int pos = offset;
+
+        // Uncompressed length (varint)
+        int outLength = 0;
+        for (int shift = 0; ; shift += 7) {
+            if (pos >= end || shift > 28) {
+                throw new IOException("Bad snappy block header");
+            }
+            int b = input[pos++] & 0xFF;
+            outLength |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                break;
+            }
+        }
+
+        byte[] output = new byte[outLength];
+        int outPos = 0;
+        while (pos < end) {
+            int tag = input[pos++] & 0xFF;
+            int elementType = tag & 0x03;
+            if (elementType == 0) {
+                // Literal
+                int literalLength = tag >>> 2;
+                if (literalLength >= 60) {
+                    int extraBytes = literalLength - 59;
+                    literalLength = 0;
+                    for (int i = 0; i < extraBytes; i++) {
+                        literalLength |= (input[pos++] & 0xFF) << (8 * i);
+                    }
+                }
+                literalLength++;
+                if (pos + literalLength > end || outPos + literalLength > outLength) {
+                    throw new IOException("Corrupted snappy literal");
+                }
+                System.arraycopy(input, pos, output, outPos, literalLength);
+                pos += literalLength;
+                outPos += literalLength;
+            } else {
+                // Copy
+                int copyLength;
+                int copyOffset;
+                if (elementType == 1) {
+                    copyLength = ((tag >>> 2) & 0x07) + 4;
+                    copyOffset = ((tag & 0xE0) << 3) | (input[pos++] & 0xFF);
+                } else if (elementType == 2) {
+                    copyLength = (tag >>> 2) + 1;
+                    copyOffset = (input[pos] & 0xFF) | ((input[pos + 1] & 0xFF) << 8);
+                    pos += 2;
+                } else {
+                    copyLength = (tag >>> 2) + 1;
+                    copyOffset = (input[pos] & 0xFF) | ((input[pos + 1] & 0xFF) << 8) |
+                        ((input[pos + 2] & 0xFF) << 16) | ((input[pos + 3] & 0xFF) << 24);
+                    pos += 4;
+                }
+                if (copyOffset <= 0 || copyOffset > outPos || outPos + copyLength > outLength) {
+                    throw new IOException("Corrupted snappy copy");
+                }
+                // Regions may overlap so copy byte by byte
+                for (int i = 0; i < copyLength; i++) {
+                    output[outPos] = output[outPos - copyOffset];
+                    outPos++;
+                }
+            }
+        }
+        if (outPos != outLength) {
+            throw new IOException("Snappy block length mismatch");
+        }
+        return output;
+    }
+
+}
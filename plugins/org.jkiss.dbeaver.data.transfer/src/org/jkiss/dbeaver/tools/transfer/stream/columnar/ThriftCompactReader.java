@@ -0,0 +1,208 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.columnar;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.jkiss.dbeaver.tools.transfer.stream.columnar.ThriftCompactWriter.*;
+
+/**
+ * Minimal Thrift compact protocol reader.
+ * Reads structs into generic {@link Struct} objects which map field ids to values.
+ */
+public class ThriftCompactReader {
+
+    private final byte[] data;
+    private int position;
+
+    public ThriftCompactReader(@NotNull byte[] data, int offset) {
+        this.data = data;
+        this.position = offset;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * Generic thrift struct.
+     * Integers are stored as Long, strings as byte arrays, lists as List and structs as Struct.
+     */
+    public static class Struct {
+        private final Map<Integer, Object> fields = new HashMap<>();
+
+        public boolean has(int fieldId) {
+            return fields.containsKey(fieldId);
+        }
+
+        public int getInt(int fieldId, int defaultValue) {
+            Object value = fields.get(fieldId);
+            return value instanceof Number ? ((Number) value).intValue() : defaultValue;
+        }
+
+        public long getLong(int fieldId, long defaultValue) {
+            Object value = fields.get(fieldId);
+            return value instanceof Number ? ((Number) value).longValue() : defaultValue;
+        }
+
+        public boolean getBoolean(int fieldId, boolean defaultValue) {
+            Object value = fields.get(fieldId);
+            return value instanceof Boolean ? (Boolean) value : defaultValue;
+        }
+
+        @Nullable
+        public String getString(int fieldId) {
+            Object value = fields.get(fieldId);
+            return value instanceof byte[] ? new String((byte[]) value, StandardCharsets.UTF_8) : null;
+        }
+
+        @Nullable
+        public Struct getStruct(int fieldId) {
+            Object value = fields.get(fieldId);
+            return value instanceof Struct ? (Struct) value : null;
+        }
+
+        @NotNull
+        @SuppressWarnings("unchecked")
+        public <T> List<T> getList(int fieldId) {
+            Object value = fields.get(fieldId);
+            return value instanceof List ? (List<T>) value : Collections.emptyList();
+        }
+    }
+
+    @NotNull
+    public Struct readStruct() throws IOException {
+        Struct struct = new Struct();
+        short lastFieldId = 0;
+        for (;;) {
+            int header = readByte();
+            int type = header & 0x0F;
+            if (type == TYPE_STOP) {
+                break;
+            }
+            int delta = (header >> 4) & 0x0F;
+            short fieldId = delta != 0 ? (short) (lastFieldId + delta) : (short) unzigzag(readVarint());
+            lastFieldId = fieldId;
+            Object value;
+            if (type == TYPE_BOOLEAN_TRUE) {
+                value = Boolean.TRUE;
+            } else if (type == TYPE_BOOLEAN_FALSE) {
+                value = Boolean.FALSE;
+            } else {
+                value = readValue(type);
+            }
+            struct.fields.put((int) fieldId, value);
+        }
+        return struct;
+    }
+
+    private Object readValue(int type) throws IOException {
+        switch (type) {
+            case TYPE_BOOLEAN_TRUE:
+            case TYPE_BOOLEAN_FALSE:
+                // Boolean list elements are stored in separate bytes
+                return readByte() == TYPE_BOOLEAN_TRUE;
+            case TYPE_BYTE:
+                return (long) (byte) readByte();
+            case TYPE_I16:
+            case TYPE_I32:
+            case TYPE_I64:
+                return unzigzag(readVarint());
+            case TYPE_DOUBLE: {
+                long bits = 0;
+                for (int i = 0; i < 8; i++) {
+                    bits |= ((long) readByte()) << (8 * i);
+                }
+                return Double.longBitsToDouble(bits);
+            }
+            case TYPE_BINARY: {
+                int length = (int) readVarint();
+                checkAvailable(length);
+                byte[] bytes = new byte[length];
+                System.arraycopy(data, position, bytes, 0, length);
+                position += length;
+                return bytes;
+            }
+            case TYPE_LIST:
+            case TYPE_SET: {
+                int header = readByte();
+                int size = (header >> 4) & 0x0F;
+                if (size == 15) {
+                    size = (int) readVarint();
+                }
+                int elementType = header & 0x0F;
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(readValue(elementType));
+                }
+                return list;
+            }
+            case TYPE_MAP: {
+                int size = (int) readVarint();
+                Map<Object, Object> map = new HashMap<>();
+                if (size > 0) {
+                    int types = readByte();
+                    for (int i = 0; i < size; i++) {
+                        map.put(readValue((types >> 4) & 0x0F), readValue(types & 0x0F));
+                    }
+                }
+                return map;
+            }
+            case TYPE_STRUCT:
+                return readStruct();
+            default:
+                throw new IOException("Unsupported thrift type: " + type);
+        }
+    }
+
+    private int readByte() throws IOException {
+        checkAvailable(1);
+        return data[position++] & 0xFF;
+    }
+
+    private long readVarint() throws IOException {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IOException("Bad varint");
+    }
+
+    private void checkAvailable(int length) throws IOException {
+        if (position + length > data.length) {
+            throw new IOException("Unexpected end of thrift data");
+        }
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+}
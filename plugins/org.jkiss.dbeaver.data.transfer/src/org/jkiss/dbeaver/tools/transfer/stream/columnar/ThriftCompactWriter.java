@@ -0,0 +1,146 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.columnar;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Minimal Thrift compact protocol writer.
+ * Used to write Parquet metadata structures.
+ */
+public class ThriftCompactWriter {
+
+    static final byte TYPE_STOP = 0;
+    static final byte TYPE_BOOLEAN_TRUE = 1;
+    static final byte TYPE_BOOLEAN_FALSE = 2;
+    static final byte TYPE_BYTE = 3;
+    static final byte TYPE_I16 = 4;
+    static final byte TYPE_I32 = 5;
+    static final byte TYPE_I64 = 6;
+    static final byte TYPE_DOUBLE = 7;
+    static final byte TYPE_BINARY = 8;
+    static final byte TYPE_LIST = 9;
+    static final byte TYPE_SET = 10;
+    static final byte TYPE_MAP = 11;
+    static final byte TYPE_STRUCT = 12;
+
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+    private final Deque<Short> fieldIdStack = new ArrayDeque<>();
+    private short lastFieldId;
+
+    public byte[] toByteArray() {
+        return buffer.toByteArray();
+    }
+
+    public void structBegin() {
+        fieldIdStack.push(lastFieldId);
+        lastFieldId = 0;
+    }
+
+    public void structEnd() {
+        buffer.write(TYPE_STOP);
+        lastFieldId = fieldIdStack.pop();
+    }
+
+    public void fieldBoolean(int fieldId, boolean value) {
+        fieldHeader(fieldId, value ? TYPE_BOOLEAN_TRUE : TYPE_BOOLEAN_FALSE);
+    }
+
+    public void fieldI32(int fieldId, int value) {
+        fieldHeader(fieldId, TYPE_I32);
+        writeVarint(zigzag(value));
+    }
+
+    public void fieldI64(int fieldId, long value) {
+        fieldHeader(fieldId, TYPE_I64);
+        writeVarint(zigzag(value));
+    }
+
+    public void fieldString(int fieldId, String value) {
+        fieldHeader(fieldId, TYPE_BINARY);
+        writeBinary(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Writes struct field header. Must be followed by struct fields and {@link #structEnd()}
+     */
+    public void fieldStruct(int fieldId) {
+        fieldHeader(fieldId, TYPE_STRUCT);
+        structBegin();
+    }
+
+    /**
+     * Writes list field header. Must be followed by list elements
+     */
+    public void fieldList(int fieldId, byte elementType, int size) {
+        fieldHeader(fieldId, TYPE_LIST);
+        listHeader(elementType, size);
+    }
+
+    public void listHeader(byte elementType, int size) {
+        if (size < 15) {
+            buffer.write((size << 4) | elementType);
+        } else {
+            buffer.write(0xF0 | elementType);
+            writeVarint(size);
+        }
+    }
+
+    public void writeI32(int value) {
+        writeVarint(zigzag(value));
+    }
+
+    public void writeString(String value) {
+        writeBinary(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void writeBinary(byte[] bytes) {
+        writeVarint(bytes.length);
+        buffer.write(bytes, 0, bytes.length);
+    }
+
+    private void fieldHeader(int fieldId, byte type) {
+        int delta = fieldId - lastFieldId;
+        if (delta > 0 && delta <= 15) {
+            buffer.write((delta << 4) | type);
+        } else {
+            buffer.write(type);
+            writeVarint(zigzag(fieldId));
+        }
+        lastFieldId = (short) fieldId;
+    }
+
+    private void writeVarint(long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.write((int) value);
+    }
+
+    private static long zigzag(int value) {
+        return ((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+}
@@ -0,0 +1,237 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.exporter;
+
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.DBDContent;
+import org.jkiss.dbeaver.model.exec.DBCResultSet;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.tools.transfer.stream.columnar.ColumnarDataType;
+import org.jkiss.dbeaver.tools.transfer.stream.columnar.ColumnarUtils;
+import org.jkiss.dbeaver.utils.ContentUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Base class for columnar (typed binary) exporters.
+ * Converts row values into normalized column values (see {@link ColumnarUtils}).
+ * Scale of decimal columns without declared precision is taken from the first exported rows:
+ * these rows are buffered and export starts when scale is known.
+ */
+public abstract class ColumnarExporterAbstract extends StreamExporterAbstract {
+
+    private static final int SCALE_PROBE_ROWS = 1000;
+
+    private DBDAttributeBinding[] attributes;
+    private List<ColumnarDataType.Column> columns;
+    private boolean[] observedScale;
+    private List<Object[]> probeRows;
+
+    protected List<ColumnarDataType.Column> getColumns() {
+        return columns;
+    }
+
+    @Override
+    public void exportHeader(DBCSession session) throws DBException, IOException {
+        attributes = getSite().getAttributes();
+        columns = new ArrayList<>(attributes.length);
+        observedScale = new boolean[attributes.length];
+        Set<String> names = new HashSet<>();
+        for (DBDAttributeBinding attribute : attributes) {
+            ColumnarDataType.Column column = ColumnarDataType.makeColumn(attribute);
+            // Column names must be unique
+            String name = column.name;
+            for (int i = 1; !names.add(name); i++) {
+                name = column.name + "_" + i;
+            }
+            if (!name.equals(column.name)) {
+                column = new ColumnarDataType.Column(name, column.type, column.precision, column.scale);
+            }
+            if (column.scale == ColumnarDataType.UNKNOWN_SCALE) {
+                observedScale[columns.size()] = true;
+                probeRows = new ArrayList<>();
+            }
+            columns.add(column);
+        }
+        if (probeRows == null) {
+            startExport(columns);
+        }
+    }
+
+    @Override
+    public void exportRow(DBCSession session, DBCResultSet resultSet, Object[] row) throws DBException, IOException {
+        Object[] values = new Object[columns.size()];
+        for (int i = 0; i < values.length; i++) {
+            ColumnarDataType.Column column = columns.get(i);
+            if (column.scale == ColumnarDataType.UNKNOWN_SCALE) {
+                values[i] = toProbeDecimal(column, row[i]);
+            } else {
+                values[i] = convertValue(session.getProgressMonitor(), i, row[i]);
+            }
+        }
+        if (probeRows != null) {
+            probeRows.add(values);
+            if (probeRows.size() >= SCALE_PROBE_ROWS) {
+                flushProbeRows(session.getProgressMonitor());
+            }
+            return;
+        }
+        exportValues(values);
+    }
+
+    @Override
+    public void exportFooter(DBRProgressMonitor monitor) throws DBException, IOException {
+        if (probeRows != null) {
+            flushProbeRows(monitor);
+        }
+        finishExport();
+    }
+
+    protected abstract void startExport(List<ColumnarDataType.Column> columns) throws IOException;
+
+    protected abstract void exportValues(Object[] values) throws IOException;
+
+    protected abstract void finishExport() throws IOException;
+
+    /**
+     * Resolves decimal columns of unknown scale from buffered rows and starts export.
+     * Column becomes DECIMAL(38, max observed scale) or STRING if values don't fit in 38 digits.
+     */
+    private void flushProbeRows(DBRProgressMonitor monitor) throws DBException, IOException {
+        List<Object[]> rows = probeRows;
+        probeRows = null;
+        for (int i = 0; i < columns.size(); i++) {
+            ColumnarDataType.Column column = columns.get(i);
+            if (column.scale != ColumnarDataType.UNKNOWN_SCALE) {
+                continue;
+            }
+            int scale = 0, integerDigits = 0;
+            for (Object[] row : rows) {
+                if (row[i] != null) {
+                    BigDecimal decimal = ((BigDecimal) row[i]).stripTrailingZeros();
+                    scale = Math.max(scale, decimal.scale());
+                    integerDigits = Math.max(integerDigits, decimal.precision() - decimal.scale());
+                }
+            }
+            if (integerDigits + scale <= ColumnarDataType.MAX_DECIMAL_PRECISION) {
+                column = new ColumnarDataType.Column(column.name, ColumnarDataType.DECIMAL, ColumnarDataType.MAX_DECIMAL_PRECISION, scale);
+            } else {
+                column = new ColumnarDataType.Column(column.name, ColumnarDataType.STRING, 0, 0);
+            }
+            columns.set(i, column);
+            for (Object[] row : rows) {
+                row[i] = convertValue(monitor, i, row[i]);
+            }
+        }
+        startExport(columns);
+        for (Object[] row : rows) {
+            exportValues(row);
+        }
+    }
+
+    private static BigDecimal toProbeDecimal(ColumnarDataType.Column column, Object value) throws DBException {
+        if (DBUtils.isNullValue(value)) {
+            return null;
+        }
+        try {
+            return ColumnarUtils.toDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new DBException("Can't convert value of column '" + column.name + "' to DECIMAL", e);
+        }
+    }
+
+    private Object convertValue(DBRProgressMonitor monitor, int index, Object value) throws DBException {
+        if (DBUtils.isNullValue(value)) {
+            return null;
+        }
+        DBDAttributeBinding attribute = attributes[index];
+        ColumnarDataType.Column column = columns.get(index);
+        try {
+            switch (column.type) {
+                case BOOLEAN:
+                    if (value instanceof Boolean) {
+                        return value;
+                    } else if (value instanceof Number) {
+                        return ((Number) value).intValue() != 0;
+                    }
+                    return Boolean.valueOf(value.toString());
+                case INT32:
+                    return value instanceof Number ? ((Number) value).intValue() : Integer.parseInt(value.toString().trim());
+                case INT64:
+                    return value instanceof Number ? ((Number) value).longValue() : Long.parseLong(value.toString().trim());
+                case FLOAT:
+                    return value instanceof Number ? ((Number) value).floatValue() : Float.parseFloat(value.toString().trim());
+                case DOUBLE:
+                    return value instanceof Number ? ((Number) value).doubleValue() : Double.parseDouble(value.toString().trim());
+                case DECIMAL: {
+                    BigDecimal decimal;
+                    if (observedScale[index]) {
+                        // Scale was taken from the first rows. Don't round values silently
+                        decimal = ColumnarUtils.toDecimal(value).stripTrailingZeros();
+                        if (decimal.scale() > column.scale) {
+                            throw new ArithmeticException("Decimal value " + decimal.toPlainString() + " has more than " + column.scale + " fraction digits");
+                        }
+                        decimal = decimal.setScale(column.scale);
+                    } else {
+                        decimal = ColumnarUtils.toDecimal(value, column.scale);
+                    }
+                    if (decimal.precision() > ColumnarDataType.MAX_DECIMAL_PRECISION) {
+                        throw new ArithmeticException("Decimal value " + decimal + " is too big");
+                    }
+                    return decimal;
+                }
+                case DATE:
+                    return ColumnarUtils.toEpochDays(value);
+                case TIME:
+                    return ColumnarUtils.toMillisOfDay(value);
+                case TIMESTAMP:
+                    return ColumnarUtils.toEpochMicros(value);
+                case BINARY:
+                    if (value instanceof byte[]) {
+                        return value;
+                    } else if (value instanceof DBDContent) {
+                        return ContentUtils.getContentBinaryValue(monitor, (DBDContent) value);
+                    } else if (value instanceof File) {
+                        // LOB was saved in external file
+                        return ((File) value).getAbsolutePath().getBytes(StandardCharsets.UTF_8);
+                    }
+                    return getValueDisplayString(attribute, value).getBytes(StandardCharsets.UTF_8);
+                default:
+                    if (value instanceof String) {
+                        return value;
+                    } else if (value instanceof BigDecimal) {
+                        return ((BigDecimal) value).toPlainString();
+                    } else if (value instanceof DBDContent) {
+                        return ContentUtils.getContentStringValue(monitor, (DBDContent) value);
+                    } else if (value instanceof File) {
+                        return ((File) value).getAbsolutePath();
+                    }
+                    return getValueDisplayString(attribute, value);
+            }
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            throw new DBException("Can't convert value of column '" + column.name + "' to " + column.getTypeName(), e);
+        }
+    }
+
+}
@@ -0,0 +1,71 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.exporter;
+
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.tools.transfer.stream.IStreamDataExporterSite;
+import org.jkiss.dbeaver.tools.transfer.stream.columnar.ArrowStreamWriter;
+import org.jkiss.dbeaver.tools.transfer.stream.columnar.ColumnarDataType;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Apache Arrow IPC stream exporter
+ */
+public class DataExporterArrow extends ColumnarExporterAbstract {
+
+    private static final String PROP_BATCH_SIZE = "batchSize";
+
+    private static final int DEFAULT_BATCH_SIZE = 65536;
+
+    private int batchSize;
+    private ArrowStreamWriter writer;
+
+    @Override
+    public void init(IStreamDataExporterSite site) throws DBException {
+        super.init(site);
+        batchSize = CommonUtils.toInt(site.getProperties().get(PROP_BATCH_SIZE), DEFAULT_BATCH_SIZE);
+        if (batchSize <= 0) {
+            batchSize = DEFAULT_BATCH_SIZE;
+        }
+    }
+
+    @Override
+    protected void startExport(List<ColumnarDataType.Column> columns) throws IOException {
+        writer = new ArrowStreamWriter(getOutputStream(), columns, batchSize);
+        writer.start();
+    }
+
+    @Override
+    protected void exportValues(Object[] values) throws IOException {
+        writer.addRow(values);
+    }
+
+    @Override
+    protected void finishExport() throws IOException {
+        writer.finish();
+    }
+
+    @Override
+    public void dispose() {
+        writer = null;
+        super.dispose();
+    }
+
+}
@@ -0,0 +1,76 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.exporter;
+
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.tools.transfer.stream.IStreamDataExporterSite;
+import org.jkiss.dbeaver.tools.transfer.stream.columnar.ColumnarDataType;
+import org.jkiss.dbeaver.tools.transfer.stream.columnar.ParquetFileWriter;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Apache Parquet exporter
+ */
+public class DataExporterParquet extends ColumnarExporterAbstract {
+
+    private static final String PROP_ROW_GROUP_SIZE = "rowGroupSize";
+    private static final String PROP_COMPRESSION = "compression";
+
+    private static final int DEFAULT_ROW_GROUP_SIZE = 100000;
+
+    private int rowGroupSize;
+    private ParquetFileWriter.Compression compression;
+    private ParquetFileWriter writer;
+
+    @Override
+    public void init(IStreamDataExporterSite site) throws DBException {
+        super.init(site);
+        Map<String, Object> properties = site.getProperties();
+        rowGroupSize = CommonUtils.toInt(properties.get(PROP_ROW_GROUP_SIZE), DEFAULT_ROW_GROUP_SIZE);
+        if (rowGroupSize <= 0) {
+            rowGroupSize = DEFAULT_ROW_GROUP_SIZE;
+        }
+        compression = CommonUtils.valueOf(ParquetFileWriter.Compression.class, CommonUtils.toString(properties.get(PROP_COMPRESSION)), ParquetFileWriter.Compression.none);
+    }
+
+    @Override
+    protected void startExport(List<ColumnarDataType.Column> columns) throws IOException {
+        writer = new ParquetFileWriter(getOutputStream(), columns, compression, rowGroupSize);
+        writer.start();
+    }
+
+    @Override
+    protected void exportValues(Object[] values) throws IOException {
+        writer.addRow(values);
+    }
+
+    @Override
+    protected void finishExport() throws IOException {
+        writer.finish();
+    }
+
+    @Override
+    public void dispose() {
+        writer = null;
+        super.dispose();
+    }
+
+}
@@ -0,0 +1,704 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.importer;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Parallel CSV reader.
+ * File is memory-mapped and split into chunks at record boundaries (quote state at each chunk
+ * start is found by the quote parity of all preceding chunks). Chunks are tokenized by worker jobs
+ * directly from the mapped buffer, strings are created only for the columns enabled by the column filter.
+ * Records are returned in the file order.
+ *
+ * Quote and escape rules follow opencsv parser with default settings (non-strict quotes, leading whitespaces
+ * before quote are ignored): doubled quote and escape sequences are recognized only inside a quoted or non-empty field,
+ * quote in the middle of a field is kept as is, line breaks inside quoted values are returned as LF.
+ * Known differences: lone CR is not a line terminator, quote state isn't carried over to the next record
+ * after malformed records, escaped quote at the start of an unquoted field may break chunk boundaries detection.
+ * Works only for charsets where delimiter, quote, escape and line feed are single ASCII bytes
+ * (see {@link #isSupported(Charset, char, char, char)}).
+ */
+public class CSVParallelReader implements Closeable {
+
+    public static final int DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;
+
+    private static final long WAIT_TIMEOUT = 1000;
+    private static final int SCAN_BUFFER_SIZE = 64 * 1024;
+
+    private static final byte CLASS_DATA = 0;
+    private static final byte CLASS_DELIMITER = 1;
+    private static final byte CLASS_QUOTE = 2;
+    private static final byte CLASS_ESCAPE = 3;
+    private static final byte CLASS_LINE_FEED = 4;
+
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+
+    private static class Chunk {
+        final int index;
+        final long rawStart;
+        boolean quoteParity;
+        boolean inQuotes;
+        boolean escaped;
+        List<String[]> rows;
+        boolean parsed;
+
+        Chunk(int index, long rawStart) {
+            this.index = index;
+            this.rawStart = rawStart;
+        }
+    }
+
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private final long fileSize;
+    private final Charset charset;
+    private final int threadCount;
+    private final byte delimiter;
+    private final byte quote;
+    private final byte escape;
+    private final boolean hasEscape;
+    private final byte[] byteClass = new byte[256];
+    private final long delimiterPattern;
+    private final long quotePattern;
+    private final long escapePattern;
+    private final long lineFeedPattern;
+    private final long dataStart;
+    private final Chunk[] chunks;
+    private final int maxChunksInMemory;
+
+    private boolean[] columnFilter;
+    private List<ChunkReaderJob> readers;
+
+    // Guarded by this
+    private int nextParityChunk;
+    private int parityChunksDone;
+    private int nextParseChunk;
+    private int nextReadChunk;
+    private Throwable readError;
+    private boolean closed;
+
+    // Consumer state
+    private List<String[]> currentRows;
+    private int currentRow;
+
+    public CSVParallelReader(@NotNull File inputFile, @NotNull Charset charset, char delimiter, char quoteChar, char escapeChar, int threadCount, int chunkSize) throws IOException {
+        if (!isSupported(charset, delimiter, quoteChar, escapeChar)) {
+            throw new IOException("Parallel CSV reader doesn't support charset " + charset.name() + " or specified delimiter/quote/escape characters");
+        }
+        this.file = new RandomAccessFile(inputFile, "r");
+        this.channel = file.getChannel();
+        this.fileSize = channel.size();
+        this.charset = charset;
+        this.threadCount = Math.max(1, threadCount);
+        this.delimiter = (byte) delimiter;
+        this.quote = (byte) quoteChar;
+        this.escape = (byte) escapeChar;
+        this.hasEscape = escapeChar != quoteChar;
+
+        byteClass[this.delimiter & 0xFF] = CLASS_DELIMITER;
+        byteClass[this.quote & 0xFF] = CLASS_QUOTE;
+        if (hasEscape) {
+            byteClass[this.escape & 0xFF] = CLASS_ESCAPE;
+        }
+        byteClass['\n'] = CLASS_LINE_FEED;
+        delimiterPattern = ONES * (this.delimiter & 0xFF);
+        quotePattern = ONES * (this.quote & 0xFF);
+        // Without escape char just repeat quote search
+        escapePattern = hasEscape ? ONES * (this.escape & 0xFF) : quotePattern;
+        lineFeedPattern = ONES * '\n';
+
+        dataStart = StandardCharsets.UTF_8.equals(charset) && hasUtf8Bom() ? 3 : 0;
+
+        int step = Math.max(1024, chunkSize);
+        int chunkCount = (int) Math.max(1, (fileSize - dataStart + step - 1) / step);
+        chunks = new Chunk[chunkCount];
+        for (int i = 0; i < chunkCount; i++) {
+            chunks[i] = new Chunk(i, dataStart + (long) i * step);
+        }
+        maxChunksInMemory = this.threadCount * 2;
+    }
+
+    /**
+     * Checks that all special characters are single ASCII bytes in the specified charset
+     */
+    public static boolean isSupported(@NotNull Charset charset, char delimiter, char quoteChar, char escapeChar) {
+        if (!StandardCharsets.UTF_8.equals(charset) && charset.newEncoder().maxBytesPerChar() > 1) {
+            return false;
+        }
+        if (delimiter == quoteChar || delimiter == escapeChar || delimiter == '\n' || delimiter == '\r' ||
+            quoteChar == '\n' || quoteChar == '\r' || escapeChar == '\n' || escapeChar == '\r') {
+            return false;
+        }
+        for (char c : new char[] { delimiter, quoteChar, escapeChar, '\n', '\r' }) {
+            if (c >= 0x80 || !Arrays.equals(String.valueOf(c).getBytes(charset), new byte[] { (byte) c })) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sets flags of columns which values must be read. Values of other columns are returned as nulls.
+     * Must be called before the first {@link #readNext()}.
+     */
+    public void setColumnFilter(@Nullable boolean[] columnFilter) {
+        this.columnFilter = columnFilter;
+    }
+
+    /**
+     * Reads next record.
+     * Empty lines are returned as a single empty value (the same way as opencsv does).
+     *
+     * @return record values or null if end of file reached
+     */
+    @Nullable
+    public String[] readNext() throws IOException {
+        if (readers == null) {
+            startReaders();
+        }
+        while (currentRows == null || currentRow >= currentRows.size()) {
+            currentRows = waitForChunk();
+            currentRow = 0;
+            if (currentRows == null) {
+                return null;
+            }
+        }
+        return currentRows.get(currentRow++);
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            closed = true;
+            notifyAll();
+        }
+        if (readers != null) {
+            for (ChunkReaderJob reader : readers) {
+                reader.cancel();
+                try {
+                    reader.join();
+                } catch (InterruptedException e) {
+                    // ignore
+                }
+            }
+        }
+        file.close();
+    }
+
+    private void startReaders() {
+        readers = new ArrayList<>(threadCount);
+        for (int i = 0; i < Math.min(threadCount, chunks.length); i++) {
+            ChunkReaderJob reader = new ChunkReaderJob(i + 1);
+            readers.add(reader);
+            reader.schedule();
+        }
+    }
+
+    @Nullable
+    private synchronized List<String[]> waitForChunk() throws IOException {
+        if (nextReadChunk >= chunks.length) {
+            return null;
+        }
+        Chunk chunk = chunks[nextReadChunk];
+        while (!chunk.parsed) {
+            if (readError != null) {
+                throw new IOException("Error reading CSV chunk", readError);
+            }
+            if (closed) {
+                return null;
+            }
+            try {
+                wait(WAIT_TIMEOUT);
+            } catch (InterruptedException e) {
+                return null;
+            }
+        }
+        List<String[]> rows = chunk.rows;
+        chunk.rows = null;
+        nextReadChunk++;
+        // Let readers parse more chunks
+        notifyAll();
+        return rows;
+    }
+
+    ///////////////////////////////////////////////////////////////
+    // Chunk claiming
+
+    @Nullable
+    private synchronized Chunk claimParityChunk() {
+        return closed || nextParityChunk >= chunks.length ? null : chunks[nextParityChunk++];
+    }
+
+    private synchronized void finishParityChunk() {
+        parityChunksDone++;
+        if (parityChunksDone == chunks.length) {
+            // Quote state at chunk start is the total parity of all previous chunks
+            boolean inQuotes = false;
+            for (Chunk chunk : chunks) {
+                chunk.inQuotes = inQuotes;
+                inQuotes ^= chunk.quoteParity;
+            }
+            notifyAll();
+        }
+    }
+
+    @Nullable
+    private synchronized Chunk claimParseChunk() {
+        while (!closed && readError == null) {
+            if (nextParseChunk >= chunks.length) {
+                return null;
+            }
+            if (parityChunksDone == chunks.length && nextParseChunk < nextReadChunk + maxChunksInMemory) {
+                return chunks[nextParseChunk++];
+            }
+            try {
+                wait(WAIT_TIMEOUT);
+            } catch (InterruptedException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private synchronized void finishParseChunk(Chunk chunk, List<String[]> rows) {
+        chunk.rows = rows;
+        chunk.parsed = true;
+        notifyAll();
+    }
+
+    private synchronized void setReadError(Throwable error) {
+        if (readError == null) {
+            readError = error;
+        }
+        notifyAll();
+    }
+
+    ///////////////////////////////////////////////////////////////
+    // Scanning
+
+    private boolean hasUtf8Bom() throws IOException {
+        ByteBuffer bom = ByteBuffer.allocate(3);
+        channel.read(bom, 0);
+        return bom.position() == 3 && (bom.get(0) & 0xFF) == 0xEF && (bom.get(1) & 0xFF) == 0xBB && (bom.get(2) & 0xFF) == 0xBF;
+    }
+
+    private long getRawEnd(Chunk chunk) {
+        return chunk.index + 1 < chunks.length ? chunks[chunk.index + 1].rawStart : fileSize;
+    }
+
+    private MappedByteBuffer map(long start, long end) throws IOException {
+        if (end - start > Integer.MAX_VALUE) {
+            throw new IOException("CSV record at offset " + start + " is too long");
+        }
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+
+    /**
+     * Computes quote parity of raw chunk and whether its first byte is escaped.
+     */
+    private void computeParity(Chunk chunk) throws IOException {
+        if (hasEscape && chunk.rawStart > dataStart) {
+            // Odd number of escape chars right before the chunk escapes its first byte
+            int escapeCount = 0;
+            ByteBuffer buffer = ByteBuffer.allocate(1);
+            for (long pos = chunk.rawStart - 1; pos >= dataStart; pos--) {
+                buffer.clear();
+                channel.read(buffer, pos);
+                if (buffer.get(0) != escape) {
+                    break;
+                }
+                escapeCount++;
+            }
+            chunk.escaped = escapeCount % 2 == 1;
+        }
+        long rawEnd = getRawEnd(chunk);
+        if (rawEnd <= chunk.rawStart) {
+            return;
+        }
+        MappedByteBuffer buffer = map(chunk.rawStart, rawEnd);
+        int limit = buffer.limit();
+        boolean parity = false;
+        int start = chunk.escaped && isEscapable(buffer, 0, limit) ? 1 : 0;
+        for (int pos = findQuote(buffer, start, limit); pos < limit; pos = findQuote(buffer, pos + 1, limit)) {
+            if (buffer.get(pos) == quote) {
+                parity = !parity;
+            } else if (isEscapable(buffer, pos + 1, limit)) {
+                // Skip escaped char
+                pos++;
+            }
+        }
+        chunk.quoteParity = parity;
+    }
+
+    /**
+     * Finds start of the first record which begins at or after the raw chunk start.
+     */
+    private long findRecordStart(Chunk chunk) throws IOException {
+        if (chunk.index == 0) {
+            return dataStart;
+        }
+        boolean inQuotes = chunk.inQuotes;
+        boolean escaped = chunk.escaped;
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        long offset = chunk.rawStart;
+        while (offset < fileSize) {
+            buffer.clear();
+            int count = channel.read(buffer, offset);
+            if (count <= 0) {
+                break;
+            }
+            for (int i = 0; i < count; i++) {
+                byte b = buffer.get(i);
+                if (escaped) {
+                    escaped = false;
+                    if (b == quote || b == escape) {
+                        continue;
+                    }
+                }
+                if (b == quote) {
+                    inQuotes = !inQuotes;
+                } else if (hasEscape && b == escape) {
+                    escaped = true;
+                } else if (b == '\n' && !inQuotes) {
+                    return offset + i + 1;
+                }
+            }
+            offset += count;
+        }
+        return fileSize;
+    }
+
+    private List<String[]> parseChunk(DBRProgressMonitor monitor, Chunk chunk, RecordParser parser) throws IOException {
+        long start = findRecordStart(chunk);
+        long end = chunk.index + 1 < chunks.length ? findRecordStart(chunks[chunk.index + 1]) : fileSize;
+        List<String[]> rows = new ArrayList<>();
+        if (end <= start) {
+            return rows;
+        }
+        int limit = parser.setBuffer(map(start, end));
+        for (int pos = 0; pos < limit && !monitor.isCanceled(); ) {
+            pos = parser.parseRecord(pos, limit);
+            rows.add(parser.makeRecord());
+        }
+        parser.setBuffer(null);
+        return rows;
+    }
+
+    /**
+     * Returns position of the first special byte (delimiter, quote, escape or line feed).
+     * Checks 8 bytes at once.
+     */
+    private int skipData(ByteBuffer buffer, int pos, int limit) {
+        while (pos + 8 <= limit) {
+            long word = buffer.getLong(pos);
+            long mask = matchBytes(word, delimiterPattern) | matchBytes(word, quotePattern) |
+                matchBytes(word, escapePattern) | matchBytes(word, lineFeedPattern);
+            if (mask != 0) {
+                // Lowest matched byte is exact (false positives may appear only after a real match)
+                return pos + (Long.numberOfTrailingZeros(mask) >>> 3);
+            }
+            pos += 8;
+        }
+        while (pos < limit && byteClass[buffer.get(pos) & 0xFF] == CLASS_DATA) {
+            pos++;
+        }
+        return pos;
+    }
+
+    /**
+     * Returns position of the first quote or escape byte
+     */
+    private int findQuote(ByteBuffer buffer, int pos, int limit) {
+        while (pos + 8 <= limit) {
+            long word = buffer.getLong(pos);
+            long mask = matchBytes(word, quotePattern) | matchBytes(word, escapePattern);
+            if (mask != 0) {
+                return pos + (Long.numberOfTrailingZeros(mask) >>> 3);
+            }
+            pos += 8;
+        }
+        while (pos < limit) {
+            byte b = buffer.get(pos);
+            if (b == quote || (hasEscape && b == escape)) {
+                break;
+            }
+            pos++;
+        }
+        return pos;
+    }
+
+    private boolean isEscapable(ByteBuffer buffer, int pos, int limit) {
+        if (pos >= limit) {
+            return false;
+        }
+        byte b = buffer.get(pos);
+        return b == quote || (hasEscape && b == escape);
+    }
+
+    private static long matchBytes(long word, long pattern) {
+        long value = word ^ pattern;
+        return (value - ONES) & ~value & HIGH_BITS;
+    }
+
+    /**
+     * Splits records into field slices and materializes field values.
+     * Each reader job has its own parser.
+     */
+    private class RecordParser {
+        private int[] fieldStarts = new int[64];
+        private int[] fieldEnds = new int[64];
+        private boolean[] fieldQuoted = new boolean[64];
+        private int fieldCount;
+        private byte[] valueBuffer = new byte[1024];
+        private ByteBuffer buffer;
+        private ByteBuffer bufferView;
+        private int recordStart;
+
+        int setBuffer(@Nullable ByteBuffer buffer) {
+            this.buffer = buffer;
+            this.bufferView = buffer == null ? null : buffer.duplicate();
+            return buffer == null ? 0 : buffer.limit();
+        }
+
+        /**
+         * Parses one record starting at the specified position.
+         *
+         * @return position of the next record
+         */
+        int parseRecord(int pos, int limit) {
+            fieldCount = 0;
+            recordStart = pos;
+            int fieldStart = pos;
+            boolean inQuotes = false;
+            boolean inField = false;
+            boolean quoted = false;
+            for (;;) {
+                int dataStart = pos;
+                pos = skipData(buffer, pos, limit);
+                if (pos > dataStart) {
+                    inField = true;
+                }
+                if (pos >= limit) {
+                    // Last record without line feed
+                    addField(fieldStart, trimCarriageReturn(fieldStart, limit), quoted);
+                    return limit;
+                }
+                switch (byteClass[buffer.get(pos) & 0xFF]) {
+                    case CLASS_QUOTE:
+                        quoted = true;
+                        if ((inQuotes || inField) && pos + 1 < limit && buffer.get(pos + 1) == quote) {
+                            pos += 2;
+                        } else {
+                            inQuotes = !inQuotes;
+                            pos++;
+                        }
+                        inField = !inField;
+                        break;
+                    case CLASS_ESCAPE:
+                        quoted = true;
+                        pos += (inQuotes || inField) && isEscapable(buffer, pos + 1, limit) ? 2 : 1;
+                        break;
+                    case CLASS_DELIMITER:
+                        if (!inQuotes) {
+                            addField(fieldStart, pos, quoted);
+                            fieldStart = pos + 1;
+                            inField = false;
+                            quoted = false;
+                        } else {
+                            inField = true;
+                        }
+                        pos++;
+                        break;
+                    default:
+                        // Line feed
+                        if (!inQuotes) {
+                            addField(fieldStart, trimCarriageReturn(fieldStart, pos), quoted);
+                            return pos + 1;
+                        }
+                        inField = true;
+                        pos++;
+                        break;
+                }
+            }
+        }
+
+        String[] makeRecord() {
+            String[] record = new String[fieldCount];
+            for (int i = 0; i < fieldCount; i++) {
+                if (columnFilter == null || (i < columnFilter.length && columnFilter[i])) {
+                    record[i] = makeValue(fieldStarts[i], fieldEnds[i], fieldQuoted[i]);
+                }
+            }
+            return record;
+        }
+
+        private int trimCarriageReturn(int start, int end) {
+            return end > start && buffer.get(end - 1) == '\r' ? end - 1 : end;
+        }
+
+        private void addField(int start, int end, boolean quoted) {
+            if (fieldCount == fieldStarts.length) {
+                int newSize = fieldCount * 2;
+                fieldStarts = Arrays.copyOf(fieldStarts, newSize);
+                fieldEnds = Arrays.copyOf(fieldEnds, newSize);
+                fieldQuoted = Arrays.copyOf(fieldQuoted, newSize);
+            }
+            fieldStarts[fieldCount] = start;
+            fieldEnds[fieldCount] = end;
+            fieldQuoted[fieldCount] = quoted;
+            fieldCount++;
+        }
+
+        private String makeValue(int start, int end, boolean quoted) {
+            int length = end - start;
+            if (valueBuffer.length < length) {
+                valueBuffer = new byte[Math.max(length, valueBuffer.length * 2)];
+            }
+            if (!quoted) {
+                bufferView.position(start);
+                bufferView.get(valueBuffer, 0, length);
+                return new String(valueBuffer, 0, length, charset);
+            }
+            // Remove quotes and escapes
+            int valueLength = 0;
+            boolean inQuotes = false;
+            boolean inField = false;
+            for (int pos = start; pos < end; ) {
+                byte b = buffer.get(pos);
+                if (hasEscape && b == escape) {
+                    if ((inQuotes || inField) && isEscapable(buffer, pos + 1, end)) {
+                        valueBuffer[valueLength++] = buffer.get(pos + 1);
+                        pos += 2;
+                    } else {
+                        pos++;
+                    }
+                } else if (b == quote) {
+                    if ((inQuotes || inField) && pos + 1 < end && buffer.get(pos + 1) == quote) {
+                        valueBuffer[valueLength++] = quote;
+                        pos += 2;
+                    } else {
+                        if (isEmbeddedQuote(start, pos, end)) {
+                            if (valueLength > 0 && isAllWhitespace(valueLength)) {
+                                // Discard whitespaces before quote
+                                valueLength = 0;
+                            } else {
+                                valueBuffer[valueLength++] = quote;
+                            }
+                        }
+                        inQuotes = !inQuotes;
+                        pos++;
+                    }
+                    inField = !inField;
+                } else if (b == '\r' && inQuotes && pos + 1 < end && buffer.get(pos + 1) == '\n') {
+                    // opencsv reads physical lines, so CRLF inside quoted value becomes LF
+                    pos++;
+                } else {
+                    valueBuffer[valueLength++] = b;
+                    inField = true;
+                    pos++;
+                }
+            }
+            return new String(valueBuffer, 0, valueLength, charset);
+        }
+
+        /**
+         * Checks that quote is in the middle of a field (opencsv keeps such quotes in value):
+         * it is neither first nor last char of a field or a line and there are at least 3 chars before it in its line.
+         */
+        private boolean isEmbeddedQuote(int fieldStart, int pos, int fieldEnd) {
+            if (pos == fieldStart || pos + 1 >= fieldEnd || buffer.get(pos - 1) == delimiter) {
+                return false;
+            }
+            byte next = buffer.get(pos + 1);
+            if (next == delimiter || next == '\n' || (next == '\r' && pos + 2 < fieldEnd && buffer.get(pos + 2) == '\n')) {
+                return false;
+            }
+            boolean utf8 = StandardCharsets.UTF_8.equals(charset);
+            int charCount = 0;
+            for (int i = pos - 1; i >= recordStart; i--) {
+                byte b = buffer.get(i);
+                if (b == '\n') {
+                    return false;
+                }
+                // Do not count UTF-8 continuation bytes
+                if ((!utf8 || (b & 0xC0) != 0x80) && ++charCount == 3) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean isAllWhitespace(int length) {
+            for (int i = 0; i < length; i++) {
+                if (!Character.isWhitespace((char) (valueBuffer[i] & 0xFF))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private class ChunkReaderJob extends AbstractJob {
+
+        ChunkReaderJob(int number) {
+            super("Read CSV chunks (" + number + ")");
+            setUser(false);
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            try {
+                for (Chunk chunk = claimParityChunk(); chunk != null && !monitor.isCanceled(); chunk = claimParityChunk()) {
+                    computeParity(chunk);
+                    finishParityChunk();
+                }
+                RecordParser parser = new RecordParser();
+                for (Chunk chunk = claimParseChunk(); chunk != null && !monitor.isCanceled(); chunk = claimParseChunk()) {
+                    finishParseChunk(chunk, parseChunk(monitor, chunk, parser));
+                }
+            } catch (Throwable e) {
+                setReadError(e);
+            }
+            return Status.OK_STATUS;
+        }
+    }
+
+}
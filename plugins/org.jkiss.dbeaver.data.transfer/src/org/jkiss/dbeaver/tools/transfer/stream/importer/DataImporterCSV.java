@@ -19,6 +19,7 @@ package org.jkiss.dbeaver.tools.transfer.stream.importer;
 import au.com.bytecode.opencsv.CSVReader;
 import org.jkiss.code.NotNull;
 import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBPDataKind;
 import org.jkiss.dbeaver.model.DBPDataSource;
 import org.jkiss.dbeaver.model.DBUtils;
@@ -33,6 +34,7 @@ import org.jkiss.dbeaver.utils.GeneralUtils;
 import org.jkiss.utils.CommonUtils;
 
 import java.io.*;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -42,6 +44,8 @@ import java.util.Map;
  */
 public class DataImporterCSV extends StreamImporterAbstract {
 
+    private static final Log log = Log.getLog(DataImporterCSV.class);
+
     private static final String PROP_ENCODING = "encoding";
     private static final String PROP_HEADER = "header";
     private static final String PROP_DELIMITER = "delimiter";
@@ -50,12 +54,17 @@ public class DataImporterCSV extends StreamImporterAbstract {
     private static final String PROP_EMPTY_STRING_NULL = "emptyStringNull";
     private static final String PROP_ESCAPE_CHAR = "escapeChar";
     private static final String PROP_TIMESTAMP_FORMAT = "timestampFormat";
+    private static final String PROP_PARALLEL_THREADS = "parallelThreads";
 
     enum HeaderPosition {
         none,
         top,
     }
 
+    private interface LineReader extends Closeable {
+        String[] readNext() throws IOException;
+    }
+
     public DataImporterCSV() {
     }
 
@@ -102,16 +111,62 @@ public class DataImporterCSV extends StreamImporterAbstract {
     }
 
     private CSVReader openCSVReader(Reader reader, Map<String, Object> processorProperties) {
-        String delimiter = StreamTransferUtils.getDelimiterString(processorProperties, PROP_DELIMITER);
+        return new CSVReader(reader, getDelimiter(processorProperties), getQuoteChar(processorProperties), getEscapeChar(processorProperties));
+    }
+
+    private char getDelimiter(Map<String, Object> processorProperties) {
+        return StreamTransferUtils.getDelimiterString(processorProperties, PROP_DELIMITER).charAt(0);
+    }
+
+    private char getQuoteChar(Map<String, Object> processorProperties) {
         String quoteChar = CommonUtils.toString(processorProperties.get(PROP_QUOTE_CHAR));
-        if (CommonUtils.isEmpty(quoteChar)) {
-            quoteChar = "'";
-        }
+        return CommonUtils.isEmpty(quoteChar) ? '\'' : quoteChar.charAt(0);
+    }
+
+    private char getEscapeChar(Map<String, Object> processorProperties) {
         String escapeChar = CommonUtils.toString(processorProperties.get(PROP_ESCAPE_CHAR));
-        if (CommonUtils.isEmpty(escapeChar)) {
-            escapeChar = "\\";
+        return CommonUtils.isEmpty(escapeChar) ? '\\' : escapeChar.charAt(0);
+    }
+
+    private LineReader openLineReader(InputStream inputStream, Map<String, Object> processorProperties, boolean[] mappedColumns) throws IOException {
+        int parallelThreads = CommonUtils.toInt(processorProperties.get(PROP_PARALLEL_THREADS), 1);
+        File inputFile = getSite().getSourceObject().getInputFile();
+        if (parallelThreads > 1 && inputFile != null && inputFile.isFile()) {
+            Charset charset = Charset.forName(CommonUtils.toString(processorProperties.get(PROP_ENCODING), GeneralUtils.UTF8_ENCODING));
+            char delimiter = getDelimiter(processorProperties);
+            char quoteChar = getQuoteChar(processorProperties);
+            char escapeChar = getEscapeChar(processorProperties);
+            if (CSVParallelReader.isSupported(charset, delimiter, quoteChar, escapeChar)) {
+                // Read file directly, input stream is not used
+                CSVParallelReader parallelReader = new CSVParallelReader(
+                    inputFile, charset, delimiter, quoteChar, escapeChar, parallelThreads, CSVParallelReader.DEFAULT_CHUNK_SIZE);
+                parallelReader.setColumnFilter(mappedColumns);
+                return new LineReader() {
+                    @Override
+                    public String[] readNext() throws IOException {
+                        return parallelReader.readNext();
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        parallelReader.close();
+                    }
+                };
+            }
+            log.debug("Parallel CSV import is not supported for encoding " + charset.name() + ". Read file in one thread.");
         }
-        return new CSVReader(reader, delimiter.charAt(0), quoteChar.charAt(0), escapeChar.charAt(0));
+        CSVReader csvReader = openCSVReader(openStreamReader(inputStream, processorProperties), processorProperties);
+        return new LineReader() {
+            @Override
+            public String[] readNext() throws IOException {
+                return csvReader.readNext();
+            }
+
+            @Override
+            public void close() throws IOException {
+                csvReader.close();
+            }
+        };
     }
 
     private InputStreamReader openStreamReader(InputStream inputStream, Map<String, Object> processorProperties) throws UnsupportedEncodingException {
@@ -137,63 +192,61 @@ public class DataImporterCSV extends StreamImporterAbstract {
 
             applyTransformHints(resultSet, consumer, getTimeStampFormat(properties, PROP_TIMESTAMP_FORMAT));
 
-            try (Reader reader = openStreamReader(inputStream, properties)) {
-                try (CSVReader csvReader = openCSVReader(reader, properties)) {
+            try (LineReader csvReader = openLineReader(inputStream, properties, getMappedColumns(resultSet, consumer))) {
 
-                    int maxRows = site.getSettings().getMaxRows();
-                    int targetAttrSize = entityMapping.getStreamColumns().size();
-                    boolean headerRead = false;
-                    for (int lineNum = 0; ; ) {
-                        if (monitor.isCanceled()) {
-                            break;
-                        }
-                        String[] line = csvReader.readNext();
-                        if (line == null) {
-                            break;
-                        }
-                        if (line.length == 0) {
-                            continue;
-                        }
-                        if (headerPosition != HeaderPosition.none && !headerRead) {
-                            // First line is a header
-                            headerRead = true;
-                            continue;
-                        }
-                        if (maxRows > 0 && lineNum >= maxRows) {
-                            break;
-                        }
+                int maxRows = site.getSettings().getMaxRows();
+                int targetAttrSize = entityMapping.getStreamColumns().size();
+                boolean headerRead = false;
+                for (int lineNum = 0; ; ) {
+                    if (monitor.isCanceled()) {
+                        break;
+                    }
+                    String[] line = csvReader.readNext();
+                    if (line == null) {
+                        break;
+                    }
+                    if (line.length == 0) {
+                        continue;
+                    }
+                    if (headerPosition != HeaderPosition.none && !headerRead) {
+                        // First line is a header
+                        headerRead = true;
+                        continue;
+                    }
+                    if (maxRows > 0 && lineNum >= maxRows) {
+                        break;
+                    }
 
-                        if (line.length < targetAttrSize) {
-                            // Stream row may be shorter than header
-                            String[] newLine = new String[targetAttrSize];
-                            System.arraycopy(line, 0, newLine, 0, line.length);
-                            for (int i = line.length; i < targetAttrSize; i++) {
-                                newLine[i] = null;
-                            }
-                            line = newLine;
+                    if (line.length < targetAttrSize) {
+                        // Stream row may be shorter than header
+                        String[] newLine = new String[targetAttrSize];
+                        System.arraycopy(line, 0, newLine, 0, line.length);
+                        for (int i = line.length; i < targetAttrSize; i++) {
+                            newLine[i] = null;
                         }
-                        if (emptyStringNull) {
-                            for (int i = 0; i < line.length; i++) {
-                                if ("".equals(line[i])) {
-                                    line[i] = null;
-                                }
+                        line = newLine;
+                    }
+                    if (emptyStringNull) {
+                        for (int i = 0; i < line.length; i++) {
+                            if ("".equals(line[i])) {
+                                line[i] = null;
                             }
                         }
-                        if (!CommonUtils.isEmpty(nullValueMark)) {
-                            for (int i = 0; i < line.length; i++) {
-                                if (nullValueMark.equals(line[i])) {
-                                    line[i] = null;
-                                }
+                    }
+                    if (!CommonUtils.isEmpty(nullValueMark)) {
+                        for (int i = 0; i < line.length; i++) {
+                            if (nullValueMark.equals(line[i])) {
+                                line[i] = null;
                             }
                         }
+                    }
 
-                        resultSet.setStreamRow(line);
-                        consumer.fetchRow(producerSession, resultSet);
-                        lineNum++;
+                    resultSet.setStreamRow(line);
+                    consumer.fetchRow(producerSession, resultSet);
+                    lineNum++;
 
-                        if (lineNum % 1000 == 0) {
-                            monitor.subTask(String.valueOf(lineNum) + " rows processed");
-                        }
+                    if (lineNum % 1000 == 0) {
+                        monitor.subTask(String.valueOf(lineNum) + " rows processed");
                     }
                 }
             } catch (IOException e) {
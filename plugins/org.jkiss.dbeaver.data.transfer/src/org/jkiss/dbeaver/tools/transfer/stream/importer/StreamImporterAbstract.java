@@ -32,6 +32,7 @@ import org.jkiss.dbeaver.tools.transfer.stream.StreamTransferResultSet;
 import org.jkiss.utils.CommonUtils;
 
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -113,4 +114,32 @@ public abstract class StreamImporterAbstract implements IStreamDataImporter {
         }
     }
 
+    /**
+     * Returns flags of stream columns which are mapped to target attributes.
+     * Returns null if consumer doesn't provide column mappings (all columns must be read then).
+     */
+    @Nullable
+    protected boolean[] getMappedColumns(StreamTransferResultSet resultSet, IDataTransferConsumer consumer) {
+        if (!(consumer instanceof DatabaseTransferConsumer)) {
+            return null;
+        }
+        DatabaseTransferConsumer.ColumnMapping[] columnMappings = ((DatabaseTransferConsumer) consumer).getColumnMappings();
+        if (columnMappings == null) {
+            return null;
+        }
+        List<StreamDataImporterColumnInfo> attributeMappings = resultSet.getAttributeMappings();
+        boolean[] mappedColumns = new boolean[attributeMappings.size()];
+        for (DatabaseTransferConsumer.ColumnMapping cm : columnMappings) {
+            if (cm == null || cm.targetAttr == null || !cm.targetAttr.getMappingType().isValid()) {
+                continue;
+            }
+            for (int i = 0; i < mappedColumns.length; i++) {
+                if (cm.sourceAttr.getName().equals(attributeMappings.get(i).getName())) {
+                    mappedColumns[i] = true;
+                }
+            }
+        }
+        return mappedColumns;
+    }
+
 }
\ No newline at end of file
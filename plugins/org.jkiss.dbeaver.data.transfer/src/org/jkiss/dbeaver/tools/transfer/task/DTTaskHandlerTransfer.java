@@ -108,6 +108,9 @@ public class DTTaskHandlerTransfer implements DBTTaskHandler {
             }
             listener.subTaskFinished(error);
         }
+        for (String statistics : settings.getState().getStatistics()) {
+            log.info(statistics);
+        }
         listener.taskFinished(settings, error);
 
         log.debug("Data transfer completed");
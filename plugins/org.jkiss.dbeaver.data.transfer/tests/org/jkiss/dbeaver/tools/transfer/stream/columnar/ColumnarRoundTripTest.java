@@ -0,0 +1,206 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jkiss.dbeaver.tools.transfer.stream.columnar;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class ColumnarRoundTripTest {
+
+    private static final List<ColumnarDataType.Column> COLUMNS = Arrays.asList(
+        new ColumnarDataType.Column("id", ColumnarDataType.INT32, 0, 0),
+        new ColumnarDataType.Column("total", ColumnarDataType.INT64, 0, 0),
+        new ColumnarDataType.Column("ratio", ColumnarDataType.DOUBLE, 0, 0),
+        new ColumnarDataType.Column("active", ColumnarDataType.BOOLEAN, 0, 0),
+        new ColumnarDataType.Column("name", ColumnarDataType.STRING, 0, 0),
+        new ColumnarDataType.Column("amount", ColumnarDataType.DECIMAL, 12, 3),
+        new ColumnarDataType.Column("huge", ColumnarDataType.DECIMAL, 38, 10),
+        new ColumnarDataType.Column("created", ColumnarDataType.DATE, 0, 0),
+        new ColumnarDataType.Column("updated", ColumnarDataType.TIMESTAMP, 0, 0));
+
+    private enum Format {
+        PARQUET_PLAIN,
+        PARQUET_GZIP,
+        ARROW
+    }
+
+    @Test
+    public void shouldReadWrittenValuesAndNulls() throws Exception {
+        List<Object[]> rows = makeRows(20);
+        for (Format format : Format.values()) {
+            assertRows(format, rows, roundTrip(format, rows, 1000));
+        }
+    }
+
+    @Test
+    public void shouldReadEmptyFile() throws Exception {
+        for (Format format : Format.values()) {
+            ColumnarReader reader = write(format, new ArrayList<>(), 1000);
+            try {
+                List<ColumnarDataType.Column> columns = reader.getColumns();
+                assertEquals(format.name(), COLUMNS.size(), columns.size());
+                for (int i = 0; i < columns.size(); i++) {
+                    assertEquals(format.name(), COLUMNS.get(i).name, columns.get(i).name);
+                    assertEquals(format.name(), COLUMNS.get(i).type, columns.get(i).type);
+                }
+                assertEquals(format.name(), 0, readRows(reader).size());
+            } finally {
+                reader.close();
+            }
+        }
+    }
+
+    @Test
+    public void shouldReadMultipleRowGroups() throws Exception {
+        List<Object[]> rows = makeRows(100);
+        for (Format format : Format.values()) {
+            // Last row group is incomplete
+            assertRows(format, rows, roundTrip(format, rows, 7));
+        }
+    }
+
+    @Test
+    public void shouldReadMultiplePagesInRowGroup() throws Exception {
+        // Parquet pages hold 10000 values
+        List<Object[]> rows = makeRows(25000);
+        for (Format format : Format.values()) {
+            assertRows(format, rows, roundTrip(format, rows, 20000));
+        }
+    }
+
+    @Test
+    public void shouldKeepDecimalPrecision() throws Exception {
+        List<Object[]> rows = new ArrayList<>();
+        for (String value : new String[] {
+            "1234567890123456789012345678.0123456789",
+            "-1234567890123456789012345678.0123456789",
+            "0.0000000001",
+            "0E-10"})
+        {
+            Object[] row = new Object[COLUMNS.size()];
+            row[6] = new BigDecimal(value);
+            rows.add(row);
+        }
+        for (Format format : Format.values()) {
+            assertRows(format, rows, roundTrip(format, rows, 3));
+        }
+    }
+
+    private static List<Object[]> makeRows(int count) {
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Object[] row = new Object[COLUMNS.size()];
+            // Every column gets nulls, at different rows
+            for (int k = 0; k < row.length; k++) {
+                if ((i + k) % 5 == 0) {
+                    continue;
+                }
+                switch (k) {
+                    case 0: row[k] = i - count / 2; break;
+                    case 1: row[k] = (long) i * Integer.MAX_VALUE; break;
+                    case 2: row[k] = i / 3.0; break;
+                    case 3: row[k] = i % 2 == 0; break;
+                    case 4: row[k] = i % 7 == 0 ? "" : "Row é中 " + i; break;
+                    case 5: row[k] = BigDecimal.valueOf(i * 1001L - 5000, 3); break;
+                    case 6: row[k] = new BigDecimal("123456789012345678901234567." + i).setScale(10); break;
+                    case 7: row[k] = i * 100 - 1000; break;
+                    default: row[k] = (i - 10) * 86400000123456L; break;
+                }
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static List<Object[]> roundTrip(Format format, List<Object[]> rows, int rowGroupSize) throws IOException {
+        try (ColumnarReader reader = write(format, rows, rowGroupSize)) {
+            return readRows(reader);
+        }
+    }
+
+    private static ColumnarReader write(Format format, List<Object[]> rows, int rowGroupSize) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (format == Format.ARROW) {
+            ArrowStreamWriter writer = new ArrowStreamWriter(out, COLUMNS, rowGroupSize);
+            writer.start();
+            for (Object[] row : rows) {
+                writer.addRow(row);
+            }
+            writer.finish();
+            return new ArrowStreamReader(new ByteArrayInputStream(out.toByteArray()));
+        }
+        ParquetFileWriter writer = new ParquetFileWriter(
+            out,
+            COLUMNS,
+            format == Format.PARQUET_GZIP ? ParquetFileWriter.Compression.gzip : ParquetFileWriter.Compression.none,
+            rowGroupSize);
+        writer.start();
+        for (Object[] row : rows) {
+            writer.addRow(row);
+        }
+        writer.finish();
+        ParquetFileReader reader = new ParquetFileReader(out.toByteArray());
+        assertEquals(rows.size(), reader.getRowCount());
+        return reader;
+    }
+
+    private static List<Object[]> readRows(ColumnarReader reader) throws IOException {
+        List<Object[]> rows = new ArrayList<>();
+        for (;;) {
+            Object[] row = new Object[reader.getColumns().size()];
+            if (!reader.nextRow(row)) {
+                return rows;
+            }
+            rows.add(row);
+        }
+    }
+
+    private static void assertRows(Format format, List<Object[]> expected, List<Object[]> actual) {
+        assertEquals(format.name(), expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertArrayEquals(format.name() + " row " + i, toReadValues(expected.get(i)), actual.get(i));
+        }
+    }
+
+    /**
+     * Converts normalized values to values returned by readers
+     */
+    private static Object[] toReadValues(Object[] row) {
+        Object[] result = row.clone();
+        if (result[7] != null) {
+            result[7] = ColumnarUtils.fromEpochDays((Integer) result[7]);
+        }
+        if (result[8] != null) {
+            Timestamp timestamp = ColumnarUtils.fromEpochMicros((Long) result[8]);
+            result[8] = timestamp;
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,135 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jkiss.dbeaver.tools.transfer.stream.exporter;
+
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.tools.transfer.stream.IStreamDataExporterSite;
+import org.jkiss.dbeaver.tools.transfer.stream.columnar.ColumnarDataType;
+import org.jkiss.dbeaver.tools.transfer.stream.columnar.ParquetFileReader;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+@RunWith(MockitoJUnitRunner.class)
+public class DataExporterParquetTest {
+
+    @Mock
+    private IStreamDataExporterSite site;
+    @Mock
+    private DBDAttributeBinding attribute;
+    @Mock
+    private DBDValueHandler valueHandler;
+    @Mock
+    private DBCSession session;
+    @Mock
+    private DBRProgressMonitor monitor;
+
+    private ByteArrayOutputStream out;
+
+    @Before
+    public void init() {
+        out = new ByteArrayOutputStream();
+        Mockito.when(site.getProperties()).thenReturn(new HashMap<>());
+        Mockito.when(site.getOutputStream()).thenReturn(out);
+        Mockito.when(site.getAttributes()).thenReturn(new DBDAttributeBinding[] { attribute });
+        Mockito.when(session.getProgressMonitor()).thenReturn(monitor);
+        // NUMERIC without precision and scale
+        Mockito.when(attribute.getName()).thenReturn("amount");
+        Mockito.when(attribute.getDataKind()).thenReturn(DBPDataKind.NUMERIC);
+        Mockito.when(attribute.getValueHandler()).thenReturn(valueHandler);
+        Mockito.doReturn(BigDecimal.class).when(valueHandler).getValueObjectType(attribute);
+    }
+
+    @Test
+    public void shouldExportUnknownPrecisionNumericWithObservedScale() throws Exception {
+        List<Object> values = export(new BigDecimal("1.5"), null, new BigDecimal("-123456789012345678901234.12345"), new BigDecimal("100"));
+
+        ParquetFileReader reader = new ParquetFileReader(out.toByteArray());
+        ColumnarDataType.Column column = reader.getColumns().get(0);
+        assertEquals(ColumnarDataType.DECIMAL, column.type);
+        assertEquals(ColumnarDataType.MAX_DECIMAL_PRECISION, column.precision);
+        assertEquals(5, column.scale);
+        assertEquals(4, values.size());
+        assertEquals(new BigDecimal("1.50000"), values.get(0));
+        assertEquals(null, values.get(1));
+        assertEquals(new BigDecimal("-123456789012345678901234.12345"), values.get(2));
+        assertEquals(new BigDecimal("100.00000"), values.get(3));
+    }
+
+    @Test
+    public void shouldExportNumericAsStringIfDecimalDoesNotFit() throws Exception {
+        List<Object> values = export(new BigDecimal("1.5"), new BigDecimal("12345678901234567890123456789012345678.9"));
+
+        ParquetFileReader reader = new ParquetFileReader(out.toByteArray());
+        assertEquals(ColumnarDataType.STRING, reader.getColumns().get(0).type);
+        assertEquals("1.5", values.get(0));
+        assertEquals("12345678901234567890123456789012345678.9", values.get(1));
+    }
+
+    @Test
+    public void shouldNotRoundValuesAfterScaleIsResolved() throws Exception {
+        Object[] values = new Object[1001];
+        for (int i = 0; i < 1000; i++) {
+            values[i] = BigDecimal.valueOf(i, 1);
+        }
+        values[1000] = new BigDecimal("0.25");
+        try {
+            export(values);
+            fail("Value with bigger scale must not be rounded");
+        } catch (DBException e) {
+            // expected
+        }
+    }
+
+    private List<Object> export(Object... values) throws Exception {
+        DataExporterParquet exporter = new DataExporterParquet();
+        exporter.init(site);
+        exporter.exportHeader(session);
+        for (Object value : values) {
+            exporter.exportRow(session, null, new Object[] { value });
+        }
+        exporter.exportFooter(monitor);
+
+        List<Object> result = new ArrayList<>();
+        try (ParquetFileReader reader = new ParquetFileReader(out.toByteArray())) {
+            Object[] row = new Object[1];
+            while (reader.nextRow(row)) {
+                result.add(row[0]);
+            }
+        }
+        return result;
+    }
+
+}
@@ -73,6 +73,7 @@ public class DiagramObjectCollector {
         boolean showPartitions = settings.isShowPartitions();
         boolean showViews = settings.isShowViews();
 
+        List<DBSEntity> rootEntities = new ArrayList<>();
         for (DBSObject root : roots) {
             if (monitor.isCanceled()) {
                 break;
@@ -89,11 +90,14 @@ public class DiagramObjectCollector {
                     continue;
                 }
                 tables.add((DBSEntity) root);
+                rootEntities.add((DBSEntity) root);
             }
             if (root instanceof DBSObjectContainer) {
                 collectTables(monitor, (DBSObjectContainer) root, tables, showViews, showPartitions);
             }
         }
+        // Explicitly selected tables. Read their attributes and associations at once.
+        DBStructUtils.cacheStructure(monitor, rootEntities, DBSObjectContainer.STRUCT_ATTRIBUTES | DBSObjectContainer.STRUCT_ASSOCIATIONS);
     }
 
     private static void collectTables(
@@ -0,0 +1,303 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.mssql.model;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDValue;
+import org.jkiss.dbeaver.model.edit.DBEPersistAction;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCExecutionSource;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.DBCStatistics;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataManipulator;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.utils.CommonUtils;
+
+import java.lang.reflect.*;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.*;
+
+/**
+ * Bulk data loader based on the Microsoft driver bulk copy API (SQLServerBulkCopy).
+ * Buffered rows are passed to the driver as ISQLServerBulkRecord implemented with a dynamic proxy.
+ * Bulk copy has no SQL form so script generation falls back to regular INSERT statements.
+ * Driver classes are accessed with reflection because they are not available in plugin class path.
+ */
+class SQLServerBulkCopyLoader implements DBSDataManipulator.ExecuteBatch {
+
+    private static final Log log = Log.getLog(SQLServerBulkCopyLoader.class);
+
+    private static final String BULK_COPY_CLASS = "com.microsoft.sqlserver.jdbc.SQLServerBulkCopy";
+    private static final String BULK_RECORD_CLASS = "com.microsoft.sqlserver.jdbc.ISQLServerBulkRecord";
+    private static final String CONNECTION_CLASS = "com.microsoft.sqlserver.jdbc.ISQLServerConnection";
+
+    private final Connection connection;
+    private final Constructor<?> bulkCopyConstructor;
+    private final Class<?> bulkRecordClass;
+    private final Method writeToServerMethod;
+    private final DBSEntity entity;
+    private final String tableName;
+    private final DBSAttributeBase[] attributes;
+    private final DBCExecutionSource source;
+    private final List<Object[]> rows = new ArrayList<>();
+
+    private SQLServerBulkCopyLoader(Connection connection, Constructor<?> bulkCopyConstructor, Class<?> bulkRecordClass, Method writeToServerMethod, DBSEntity entity, DBSAttributeBase[] attributes, DBCExecutionSource source) {
+        this.connection = connection;
+        this.bulkCopyConstructor = bulkCopyConstructor;
+        this.bulkRecordClass = bulkRecordClass;
+        this.writeToServerMethod = writeToServerMethod;
+        this.entity = entity;
+        this.tableName = DBUtils.getObjectFullName(entity, DBPEvaluationContext.DML);
+        this.attributes = attributes;
+        this.source = source;
+    }
+
+    /**
+     * Creates bulk copy loader. Returns null if driver doesn't provide bulk copy API (e.g. jTDS)
+     * or attributes have complex data types.
+     */
+    @Nullable
+    static SQLServerBulkCopyLoader createLoader(@NotNull JDBCSession session, @NotNull DBSEntity entity, @NotNull DBSAttributeBase[] attributes, @NotNull DBCExecutionSource source) throws DBException {
+        for (DBSAttributeBase attribute : attributes) {
+            switch (attribute.getDataKind()) {
+                case BOOLEAN:
+                case NUMERIC:
+                case STRING:
+                case DATETIME:
+                case BINARY:
+                    break;
+                default:
+                    log.debug("Attribute " + attribute.getName() + " has complex type " + attribute.getTypeName() + ", bulk copy can't be used");
+                    return null;
+            }
+        }
+        try {
+            Connection connection = session.getOriginal();
+            ClassLoader driverClassLoader = session.getDataSource().getContainer().getDriver().getClassLoader();
+            Class<?> connectionClass = Class.forName(CONNECTION_CLASS, false, driverClassLoader);
+            if (!connection.isWrapperFor(connectionClass)) {
+                return null;
+            }
+            Connection serverConnection = (Connection) connection.unwrap(connectionClass);
+            Class<?> bulkCopyClass = Class.forName(BULK_COPY_CLASS, false, driverClassLoader);
+            Class<?> bulkRecordClass = Class.forName(BULK_RECORD_CLASS, false, driverClassLoader);
+            Method writeToServerMethod = null;
+            for (Method method : bulkCopyClass.getMethods()) {
+                // Parameter is ISQLServerBulkData in newer drivers and ISQLServerBulkRecord in older ones
+                if (method.getName().equals("writeToServer") && method.getParameterCount() == 1 &&
+                    method.getParameterTypes()[0].isAssignableFrom(bulkRecordClass))
+                {
+                    writeToServerMethod = method;
+                    break;
+                }
+            }
+            if (writeToServerMethod == null) {
+                log.debug("Driver doesn't support bulk copy from records");
+                return null;
+            }
+            return new SQLServerBulkCopyLoader(
+                serverConnection,
+                bulkCopyClass.getConstructor(Connection.class),
+                bulkRecordClass,
+                writeToServerMethod,
+                entity,
+                attributes,
+                source);
+        } catch (ClassNotFoundException | NoSuchMethodException e) {
+            log.debug("Driver doesn't support bulk copy API: " + e.getMessage());
+            return null;
+        } catch (SQLException e) {
+            throw new DBException("Error checking driver bulk copy API", e);
+        }
+    }
+
+    @Override
+    public void add(@NotNull Object[] attributeValues) throws DBCException {
+        if (attributeValues.length != attributes.length) {
+            throw new DBCException("Bad attribute values count: " + attributeValues.length + " (" + attributes.length + " expected)");
+        }
+        // Original values are kept for INSERT script generation, they are converted when rows are sent to the driver
+        rows.add(attributeValues.clone());
+    }
+
+    @NotNull
+    @Override
+    public DBCStatistics execute(@NotNull DBCSession session, Map<String, Object> options) throws DBCException {
+        DBCStatistics statistics = new DBCStatistics();
+        if (rows.isEmpty()) {
+            return statistics;
+        }
+        statistics.setQueryText("Bulk copy of " + rows.size() + " row(s) into " + tableName);
+        statistics.addStatementsCount();
+        long startTime = System.currentTimeMillis();
+        Object bulkCopy = null;
+        try {
+            bulkCopy = bulkCopyConstructor.newInstance(connection);
+            Class<?> bulkCopyClass = bulkCopy.getClass();
+            bulkCopyClass.getMethod("setDestinationTableName", String.class).invoke(bulkCopy, tableName);
+            Method addColumnMapping = bulkCopyClass.getMethod("addColumnMapping", int.class, String.class);
+            for (int i = 0; i < attributes.length; i++) {
+                addColumnMapping.invoke(bulkCopy, i + 1, attributes[i].getName());
+            }
+            Object bulkRecord = Proxy.newProxyInstance(
+                bulkRecordClass.getClassLoader(),
+                new Class[] { bulkRecordClass },
+                new BulkRecordHandler(rows.iterator()));
+            writeToServerMethod.invoke(bulkCopy, bulkRecord);
+            statistics.addRowsUpdated(rows.size());
+        } catch (InvocationTargetException e) {
+            throw new DBCException(e.getTargetException(), session.getExecutionContext());
+        } catch (ReflectiveOperationException e) {
+            throw new DBCException("Error calling bulk copy API", e);
+        } finally {
+            if (bulkCopy != null) {
+                try {
+                    bulkCopy.getClass().getMethod("close").invoke(bulkCopy);
+                } catch (Exception e) {
+                    log.debug("Error closing bulk copy", e);
+                }
+            }
+            rows.clear();
+        }
+        statistics.addExecuteTime(System.currentTimeMillis() - startTime);
+        return statistics;
+    }
+
+    @Override
+    public void generatePersistActions(@NotNull DBCSession session, @NotNull List<DBEPersistAction> actions, Map<String, Object> options) throws DBCException {
+        try {
+            if (rows.isEmpty()) {
+                return;
+            }
+            if (!(entity instanceof DBSDataManipulator)) {
+                throw new DBCException("Table " + tableName + " doesn't support data modification");
+            }
+            try (DBSDataManipulator.ExecuteBatch batch = ((DBSDataManipulator) entity).insertData(session, attributes, null, source)) {
+                for (Object[] row : rows) {
+                    batch.add(row);
+                }
+                batch.generatePersistActions(session, actions, options);
+            }
+        } finally {
+            rows.clear();
+        }
+    }
+
+    @Override
+    public void close() {
+        rows.clear();
+    }
+
+    @NotNull
+    private static Object[] toBulkRow(@NotNull Object[] values) {
+        Object[] row = new Object[values.length];
+        for (int i = 0; i < values.length; i++) {
+            row[i] = toBulkValue(values[i]);
+        }
+        return row;
+    }
+
+    @Nullable
+    private static Object toBulkValue(@Nullable Object value) {
+        if (value instanceof DBDValue) {
+            value = ((DBDValue) value).isNull() ? null : ((DBDValue) value).getRawValue();
+        }
+        if (value instanceof Date && !(value instanceof Timestamp || value instanceof java.sql.Date || value instanceof java.sql.Time)) {
+            value = new Timestamp(((Date) value).getTime());
+        }
+        return value;
+    }
+
+    /**
+     * Provides buffered rows and attributes metadata to the bulk copy
+     */
+    private class BulkRecordHandler implements InvocationHandler {
+
+        private final Iterator<Object[]> rowIterator;
+        private Object[] currentRow;
+
+        BulkRecordHandler(Iterator<Object[]> rowIterator) {
+            this.rowIterator = rowIterator;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            switch (method.getName()) {
+                case "getColumnOrdinals": {
+                    Set<Integer> ordinals = new LinkedHashSet<>();
+                    for (int i = 1; i <= attributes.length; i++) {
+                        ordinals.add(i);
+                    }
+                    return ordinals;
+                }
+                case "getColumnName":
+                    return getAttribute(args).getName();
+                case "getColumnType":
+                    return getAttribute(args).getTypeID();
+                case "getPrecision": {
+                    DBSAttributeBase attribute = getAttribute(args);
+                    switch (attribute.getDataKind()) {
+                        case STRING:
+                        case BINARY:
+                            return attribute.getMaxLength() > 0 ? (int) Math.min(attribute.getMaxLength(), Integer.MAX_VALUE) : Integer.MAX_VALUE;
+                        default:
+                            return CommonUtils.toInt(attribute.getPrecision());
+                    }
+                }
+                case "getScale":
+                    return CommonUtils.toInt(getAttribute(args).getScale());
+                case "isAutoIncrement":
+                    return false;
+                case "next":
+                    currentRow = rowIterator.hasNext() ? toBulkRow(rowIterator.next()) : null;
+                    return currentRow != null;
+                case "getRowData":
+                    return currentRow;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Bulk record of " + tableName;
+                default: {
+                    // Optional API (column metadata setters, date formats) isn't used
+                    Class<?> returnType = method.getReturnType();
+                    if (returnType == boolean.class) {
+                        return false;
+                    } else if (returnType == int.class) {
+                        return 0;
+                    }
+                    return null;
+                }
+            }
+        }
+
+        private DBSAttributeBase getAttribute(Object[] args) {
+            return attributes[(Integer) args[0] - 1];
+        }
+    }
+
+}
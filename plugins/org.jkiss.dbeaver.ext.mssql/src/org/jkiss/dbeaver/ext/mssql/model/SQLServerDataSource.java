@@ -358,6 +358,9 @@ public class SQLServerDataSource extends JDBCDataSource implements DBSInstanceCo
             return adapter.cast(new SQLServerStructureAssistant(this));
         } else if (adapter == DBAServerSessionManager.class) {
             return adapter.cast(new SQLServerSessionManager(this));
+        } else if (adapter == DBSDataBulkLoader.class) {
+            return adapter.cast((DBSDataBulkLoader) (session, entity, attributes, source) ->
+                SQLServerBulkCopyLoader.createLoader((JDBCSession) session, entity, attributes, source));
         }
         return super.getAdapter(adapter);
     }
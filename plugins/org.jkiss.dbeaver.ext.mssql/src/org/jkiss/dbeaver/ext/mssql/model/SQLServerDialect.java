@@ -17,25 +17,37 @@
 package org.jkiss.dbeaver.ext.mssql.model;
 
 import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.ext.mssql.SQLServerConstants;
 import org.jkiss.dbeaver.ext.mssql.SQLServerUtils;
 import org.jkiss.dbeaver.model.DBPDataKind;
 import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.exec.DBCSession;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCDatabaseMetaData;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCPreparedStatement;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCDataSource;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCSQLDialect;
+import org.jkiss.dbeaver.model.sql.SQLFullTextDialect;
+import org.jkiss.dbeaver.model.sql.SQLUtils;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
 import org.jkiss.dbeaver.model.struct.DBSTypedObject;
 import org.jkiss.dbeaver.model.struct.rdb.DBSProcedure;
 import org.jkiss.dbeaver.model.struct.rdb.DBSProcedureParameter;
 import org.jkiss.utils.ArrayUtils;
 import org.jkiss.utils.CommonUtils;
 
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 
-public class SQLServerDialect extends JDBCSQLDialect {
+public class SQLServerDialect extends JDBCSQLDialect implements SQLFullTextDialect {
 
     private static final String[][] TSQL_BEGIN_END_BLOCK = new String[][]{
         /*{
@@ -236,4 +248,44 @@ public class SQLServerDialect extends JDBCSQLDialect {
         sql.append("\nSELECT\t'Return Value' = @return_value\n\n");
         sql.append("GO\n\n");
     }
+
+    @Nullable
+    @Override
+    public String getFullTextSearchCondition(@NotNull DBCSession session, @NotNull DBSEntity entity, @NotNull List<DBSEntityAttribute> attributes, @NotNull String searchString) throws DBException {
+        if (!(entity instanceof SQLServerTableBase)) {
+            return null;
+        }
+        SQLServerTableBase table = (SQLServerTableBase) entity;
+        List<DBSEntityAttribute> indexColumns = new ArrayList<>();
+        try (JDBCSession metaSession = DBUtils.openMetaSession(session.getProgressMonitor(), table, "Read full-text index columns")) {
+            try (JDBCPreparedStatement dbStat = metaSession.prepareStatement(
+                "SELECT c.name FROM " + SQLServerUtils.getSystemTableName(table.getDatabase(), "fulltext_index_columns") + " ic, " +
+                    SQLServerUtils.getSystemTableName(table.getDatabase(), "columns") + " c\n" +
+                    "WHERE ic.object_id=? AND c.object_id=ic.object_id AND c.column_id=ic.column_id")) {
+                dbStat.setLong(1, table.getObjectId());
+                try (JDBCResultSet dbResult = dbStat.executeQuery()) {
+                    while (dbResult.next()) {
+                        DBSEntityAttribute attribute = DBUtils.findObject(attributes, dbResult.getString(1));
+                        if (attribute != null) {
+                            indexColumns.add(attribute);
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new DBException("Error reading full-text index columns", e, table.getDataSource());
+        }
+        if (indexColumns.isEmpty()) {
+            return null;
+        }
+        StringBuilder condition = new StringBuilder("CONTAINS((");
+        for (int i = 0; i < indexColumns.size(); i++) {
+            if (i > 0) condition.append(",");
+            condition.append(DBUtils.getQuotedIdentifier(indexColumns.get(i)));
+        }
+        // Phrase search
+        condition.append("),").append(SQLUtils.quoteString(entity, "\"" + searchString.replace("\"", "") + "\"")).append(")");
+        attributes.removeAll(indexColumns);
+        return condition.toString();
+    }
 }
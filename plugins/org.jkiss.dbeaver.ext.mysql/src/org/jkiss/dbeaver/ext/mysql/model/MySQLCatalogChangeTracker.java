@@ -0,0 +1,122 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.mysql.model;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.ext.mysql.MySQLConstants;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCPreparedStatement;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.impl.jdbc.cache.JDBCCatalogChangeTracker;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.utils.CommonUtils;
+
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * Tracks changes of tables, routines and triggers in cached catalogs.
+ * UPDATE_TIME of tables reflects data changes, so table state is built from CREATE_TIME (changed by table rebuild).
+ * Columns changed in place are detected by per-catalog checksum of all columns, its change refreshes the whole catalog.
+ */
+class MySQLCatalogChangeTracker extends JDBCCatalogChangeTracker<MySQLDataSource> {
+
+    private static final String TYPE_TABLE = "T";
+    private static final String TYPE_COLUMNS = "C";
+    private static final String TYPE_TRIGGER = "G";
+
+    MySQLCatalogChangeTracker(MySQLDataSource dataSource) {
+        super(dataSource);
+    }
+
+    @NotNull
+    @Override
+    protected Map<ObjectKey, String> readCatalogState(@NotNull JDBCSession session) throws SQLException {
+        Map<ObjectKey, String> state = new HashMap<>();
+        List<String> catalogNames = new ArrayList<>();
+        for (MySQLCatalog catalog : dataSource.getCatalogs()) {
+            if (isCachedContainer(catalog.getTableCache(), catalog.getProceduresCache(), catalog.getTriggerCache())) {
+                catalogNames.add(catalog.getName());
+                addTrackedContainer(state, catalog.getName());
+            }
+        }
+        for (List<String> names : splitInList(catalogNames)) {
+            String catalogParams = makeInListParams(names.size());
+            try (JDBCPreparedStatement dbStat = session.prepareStatement(
+                "SELECT TABLE_SCHEMA,'" + TYPE_TABLE + "',TABLE_NAME,CONCAT_WS(':',CREATE_TIME,TABLE_TYPE,TABLE_COMMENT)\n" +
+                "FROM " + MySQLConstants.META_TABLE_TABLES + " WHERE TABLE_SCHEMA IN (" + catalogParams + ")\n" +
+                "UNION ALL\n" +
+                "SELECT TABLE_SCHEMA,'" + TYPE_COLUMNS + "','',CONCAT(COUNT(*),'/',SUM(CRC32(CONCAT_WS('|',TABLE_NAME,COLUMN_NAME,COLUMN_TYPE,IS_NULLABLE,COLUMN_DEFAULT,EXTRA,COLUMN_COMMENT,ORDINAL_POSITION))))\n" +
+                "FROM " + MySQLConstants.META_TABLE_COLUMNS + " WHERE TABLE_SCHEMA IN (" + catalogParams + ") GROUP BY TABLE_SCHEMA\n" +
+                "UNION ALL\n" +
+                "SELECT ROUTINE_SCHEMA,ROUTINE_TYPE,ROUTINE_NAME,LAST_ALTERED\n" +
+                "FROM " + MySQLConstants.META_TABLE_ROUTINES + " WHERE ROUTINE_SCHEMA IN (" + catalogParams + ")\n" +
+                "UNION ALL\n" +
+                "SELECT TRIGGER_SCHEMA,'" + TYPE_TRIGGER + "',TRIGGER_NAME,CRC32(ACTION_STATEMENT)\n" +
+                "FROM " + MySQLConstants.META_TABLE_TRIGGERS + " WHERE TRIGGER_SCHEMA IN (" + catalogParams + ")"))
+            {
+                int paramIndex = 1;
+                for (int i = 0; i < 4; i++) {
+                    for (String catalogName : names) {
+                        dbStat.setString(paramIndex++, catalogName);
+                    }
+                }
+                try (JDBCResultSet dbResult = dbStat.executeQuery()) {
+                    while (dbResult.next()) {
+                        state.put(
+                            new ObjectKey(dbResult.getString(1), CommonUtils.notEmpty(dbResult.getString(2)), CommonUtils.notEmpty(dbResult.getString(3))),
+                            CommonUtils.notEmpty(dbResult.getString(4)));
+                    }
+                }
+            }
+        }
+        return state;
+    }
+
+    @Nullable
+    @Override
+    protected DBSObject findCachedObject(@NotNull ObjectKey key) {
+        MySQLCatalog catalog = dataSource.getCatalog(key.container);
+        if (catalog == null) {
+            return null;
+        }
+        switch (key.type) {
+            case TYPE_TABLE:
+                return catalog.getTableCache().getCachedObject(key.name);
+            case TYPE_COLUMNS:
+                return catalog;
+            case TYPE_TRIGGER:
+                return catalog.getTriggerCache().getCachedObject(key.name);
+            default:
+                // Procedure and function may have the same name
+                for (MySQLProcedure procedure : catalog.getProceduresCache().getCachedObjects()) {
+                    if (procedure.getName().equals(key.name) && procedure.getProcedureType().name().equals(key.type)) {
+                        return procedure;
+                    }
+                }
+                return null;
+        }
+    }
+
+    @Nullable
+    @Override
+    protected DBSObject findCachedContainer(@NotNull String name) {
+        return dataSource.getCatalog(name);
+    }
+
+}
@@ -47,6 +47,8 @@ import org.jkiss.dbeaver.model.net.DBWHandlerConfiguration;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.sql.SQLHelpProvider;
 import org.jkiss.dbeaver.model.sql.SQLState;
+import org.jkiss.dbeaver.model.struct.DBSCatalogChangeTracker;
+import org.jkiss.dbeaver.model.struct.DBSDataBulkLoader;
 import org.jkiss.dbeaver.model.struct.DBSDataType;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.model.struct.DBSObjectFilter;
@@ -81,6 +83,7 @@ public class MySQLDataSource extends JDBCDataSource implements DBPObjectStatisti
     private SQLHelpProvider helpProvider;
     private volatile boolean hasStatistics;
     private boolean containsCheckConstraintTable;
+    private MySQLCatalogChangeTracker catalogChangeTracker;
 
     public MySQLDataSource(DBRProgressMonitor monitor, DBPDataSourceContainer container)
         throws DBException {
@@ -611,6 +614,16 @@ public class MySQLDataSource extends JDBCDataSource implements DBPObjectStatisti
             });
         } else if (adapter == DBCQueryPlanner.class) {
             return adapter.cast(new MySQLPlanAnalyser(this));
+        } else if (adapter == DBSCatalogChangeTracker.class) {
+            synchronized (this) {
+                if (catalogChangeTracker == null) {
+                    catalogChangeTracker = new MySQLCatalogChangeTracker(this);
+                }
+                return adapter.cast(catalogChangeTracker);
+            }
+        } else if (adapter == DBSDataBulkLoader.class) {
+            return adapter.cast((DBSDataBulkLoader) (session, entity, attributes, source) ->
+                MySQLLoadDataLoader.createLoader((JDBCSession) session, entity, attributes));
         }
         return super.getAdapter(adapter);
     }
@@ -18,20 +18,34 @@ package org.jkiss.dbeaver.ext.mysql.model;
 
 import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.ext.mysql.MySQLConstants;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.exec.DBCSession;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCDatabaseMetaData;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCDataSource;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCSQLDialect;
 import org.jkiss.dbeaver.model.impl.sql.BasicSQLDialect;
 import org.jkiss.dbeaver.model.sql.SQLDialect;
+import org.jkiss.dbeaver.model.sql.SQLFullTextDialect;
+import org.jkiss.dbeaver.model.sql.SQLUtils;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+import org.jkiss.dbeaver.model.struct.rdb.DBSTable;
+import org.jkiss.dbeaver.model.struct.rdb.DBSTableIndex;
+import org.jkiss.dbeaver.model.struct.rdb.DBSTableIndexColumn;
 import org.jkiss.utils.ArrayUtils;
+import org.jkiss.utils.CommonUtils;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 
 /**
 * MySQL dialect
 */
-class MySQLDialect extends JDBCSQLDialect {
+class MySQLDialect extends JDBCSQLDialect implements SQLFullTextDialect {
 
     public static final String[] MYSQL_NON_TRANSACTIONAL_KEYWORDS = ArrayUtils.concatArrays(
         BasicSQLDialect.NON_TRANSACTIONAL_KEYWORDS,
@@ -175,4 +189,40 @@ class MySQLDialect extends JDBCSQLDialect {
         return true;
     }
 
+    @Nullable
+    @Override
+    public String getFullTextSearchCondition(@NotNull DBCSession session, @NotNull DBSEntity entity, @NotNull List<DBSEntityAttribute> attributes, @NotNull String searchString) throws DBException {
+        if (!(entity instanceof DBSTable)) {
+            return null;
+        }
+        StringBuilder condition = new StringBuilder();
+        for (DBSTableIndex index : CommonUtils.safeCollection(((DBSTable) entity).getIndexes(session.getProgressMonitor()))) {
+            if (index.getIndexType() != MySQLConstants.INDEX_TYPE_FULLTEXT) {
+                continue;
+            }
+            List<DBSEntityAttribute> indexColumns = new ArrayList<>();
+            for (DBSTableIndexColumn indexColumn : CommonUtils.safeCollection(index.getAttributeReferences(session.getProgressMonitor()))) {
+                indexColumns.add(indexColumn.getAttribute());
+            }
+            // MATCH column list must be the same as in FULLTEXT index
+            if (indexColumns.isEmpty() || !attributes.containsAll(indexColumns)) {
+                continue;
+            }
+            if (condition.length() > 0) {
+                condition.append(" OR ");
+            }
+            condition.append("MATCH(");
+            for (int i = 0; i < indexColumns.size(); i++) {
+                if (i > 0) condition.append(",");
+                condition.append(DBUtils.getQuotedIdentifier(indexColumns.get(i)));
+            }
+            // Phrase search in boolean mode
+            condition.append(") AGAINST (")
+                .append(SQLUtils.quoteString(entity, "\"" + searchString.replace("\"", "") + "\""))
+                .append(" IN BOOLEAN MODE)");
+            attributes.removeAll(indexColumns);
+        }
+        return condition.length() == 0 ? null : condition.toString();
+    }
+
 }
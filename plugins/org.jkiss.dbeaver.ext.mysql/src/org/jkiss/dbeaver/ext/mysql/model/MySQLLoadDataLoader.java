@@ -0,0 +1,264 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.mysql.model;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.connection.DBPConnectionConfiguration;
+import org.jkiss.dbeaver.model.data.DBDValue;
+import org.jkiss.dbeaver.model.edit.DBEPersistAction;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.DBCStatistics;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.impl.edit.SQLDatabasePersistAction;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataManipulator;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk data loader based on LOAD DATA LOCAL INFILE.
+ * Rows are serialized in tab-separated format and passed to the driver as the local file stream.
+ * Driver statement API is accessed with reflection because driver classes are not available in plugin class path.
+ * Local infile must be explicitly enabled in connection properties, otherwise the loader isn't used.
+ */
+class MySQLLoadDataLoader implements DBSDataManipulator.ExecuteBatch {
+
+    private static final Log log = Log.getLog(MySQLLoadDataLoader.class);
+
+    // Statement interfaces of Connector/J 8, Connector/J 5 and MariaDB Connector/J
+    private static final String[] STATEMENT_CLASSES = {
+        "com.mysql.cj.jdbc.JdbcStatement",
+        "com.mysql.jdbc.Statement",
+        "org.mariadb.jdbc.MariaDbStatement"
+    };
+    private static final String[] LOCAL_INFILE_PROPERTIES = {
+        "allowLoadLocalInfile",
+        "allowLocalInfile"
+    };
+
+    private final Connection connection;
+    private final Class<?> statementClass;
+    private final Method setInputStreamMethod;
+    private final String loadQuery;
+    private final DBSAttributeBase[] attributes;
+    private final StringBuilder buffer = new StringBuilder(64 * 1024);
+    private int bufferedRows;
+
+    private MySQLLoadDataLoader(Connection connection, Class<?> statementClass, Method setInputStreamMethod, String loadQuery, DBSAttributeBase[] attributes) {
+        this.connection = connection;
+        this.statementClass = statementClass;
+        this.setInputStreamMethod = setInputStreamMethod;
+        this.loadQuery = loadQuery;
+        this.attributes = attributes;
+    }
+
+    /**
+     * Creates LOAD DATA loader. Returns null if local infile isn't enabled, driver doesn't support
+     * input stream API or attributes have types which can't be loaded from text.
+     */
+    @Nullable
+    static MySQLLoadDataLoader createLoader(@NotNull JDBCSession session, @NotNull DBSEntity entity, @NotNull DBSAttributeBase[] attributes) throws DBException {
+        if (!isLocalInfileEnabled(session)) {
+            log.debug("Local infile is disabled in connection properties, LOAD DATA can't be used");
+            return null;
+        }
+        for (DBSAttributeBase attribute : attributes) {
+            switch (attribute.getDataKind()) {
+                case BOOLEAN:
+                case NUMERIC:
+                case STRING:
+                case DATETIME:
+                    break;
+                default:
+                    // Binary values can't be passed as text without per-column conversion
+                    log.debug("Attribute " + attribute.getName() + " has type " + attribute.getTypeName() + ", LOAD DATA can't be used");
+                    return null;
+            }
+        }
+        Connection connection;
+        Class<?> statementClass = null;
+        Method setInputStreamMethod = null;
+        try {
+            connection = session.getOriginal();
+            ClassLoader driverClassLoader = session.getDataSource().getContainer().getDriver().getClassLoader();
+            try (Statement statement = connection.createStatement()) {
+                for (String className : STATEMENT_CLASSES) {
+                    Class<?> driverClass;
+                    try {
+                        driverClass = Class.forName(className, false, driverClassLoader);
+                    } catch (ClassNotFoundException e) {
+                        continue;
+                    }
+                    if (statement.isWrapperFor(driverClass)) {
+                        statementClass = driverClass;
+                        setInputStreamMethod = driverClass.getMethod("setLocalInfileInputStream", InputStream.class);
+                        break;
+                    }
+                }
+            }
+        } catch (NoSuchMethodException e) {
+            log.debug("Driver doesn't support local infile stream API: " + e.getMessage());
+            return null;
+        } catch (SQLException e) {
+            throw new DBException("Error checking driver statement API", e);
+        }
+        if (setInputStreamMethod == null) {
+            return null;
+        }
+
+        StringBuilder query = new StringBuilder(200);
+        query.append("LOAD DATA LOCAL INFILE 'stream' INTO TABLE ").append(DBUtils.getObjectFullName(entity, DBPEvaluationContext.DML))
+            .append(" CHARACTER SET utf8mb4 FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\' LINES TERMINATED BY '\\n' (");
+        boolean hasAttr = false;
+        for (DBSAttributeBase attribute : attributes) {
+            if (hasAttr) query.append(",");
+            hasAttr = true;
+            query.append(DBUtils.getObjectFullName(session.getDataSource(), attribute, DBPEvaluationContext.DML));
+        }
+        query.append(")");
+
+        return new MySQLLoadDataLoader(connection, statementClass, setInputStreamMethod, query.toString(), attributes);
+    }
+
+    private static boolean isLocalInfileEnabled(@NotNull JDBCSession session) {
+        DBPConnectionConfiguration connectionInfo = session.getDataSource().getContainer().getActualConnectionConfiguration();
+        Map<String, Object> driverProperties = session.getDataSource().getContainer().getDriver().getConnectionProperties();
+        for (String propName : LOCAL_INFILE_PROPERTIES) {
+            String value = connectionInfo.getProperty(propName);
+            if (value == null) {
+                value = CommonUtils.toString(driverProperties.get(propName), null);
+            }
+            if (CommonUtils.toBoolean(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void add(@NotNull Object[] attributeValues) throws DBCException {
+        if (attributeValues.length != attributes.length) {
+            throw new DBCException("Bad attribute values count: " + attributeValues.length + " (" + attributes.length + " expected)");
+        }
+        for (int i = 0; i < attributeValues.length; i++) {
+            if (i > 0) {
+                buffer.append('\t');
+            }
+            appendValue(attributeValues[i]);
+        }
+        buffer.append('\n');
+        bufferedRows++;
+    }
+
+    @NotNull
+    @Override
+    public DBCStatistics execute(@NotNull DBCSession session, Map<String, Object> options) throws DBCException {
+        DBCStatistics statistics = new DBCStatistics();
+        if (bufferedRows == 0) {
+            return statistics;
+        }
+        statistics.setQueryText(loadQuery);
+        statistics.addStatementsCount();
+        long startTime = System.currentTimeMillis();
+        try (Statement statement = connection.createStatement()) {
+            setInputStreamMethod.invoke(
+                statement.unwrap(statementClass),
+                new ByteArrayInputStream(buffer.toString().getBytes(StandardCharsets.UTF_8)));
+            int rowCount = statement.executeUpdate(loadQuery);
+            statistics.addRowsUpdated(rowCount >= 0 ? rowCount : bufferedRows);
+        } catch (InvocationTargetException e) {
+            throw new DBCException(e.getTargetException(), session.getExecutionContext());
+        } catch (IllegalAccessException e) {
+            throw new DBCException("Error calling local infile API", e);
+        } catch (SQLException e) {
+            throw new DBCException(e, session.getExecutionContext());
+        } finally {
+            buffer.setLength(0);
+            bufferedRows = 0;
+        }
+        statistics.addExecuteTime(System.currentTimeMillis() - startTime);
+        return statistics;
+    }
+
+    @Override
+    public void generatePersistActions(@NotNull DBCSession session, @NotNull List<DBEPersistAction> actions, Map<String, Object> options) {
+        actions.add(new SQLDatabasePersistAction("Load rows", loadQuery));
+        buffer.setLength(0);
+        bufferedRows = 0;
+    }
+
+    @Override
+    public void close() {
+        buffer.setLength(0);
+        bufferedRows = 0;
+    }
+
+    private void appendValue(@Nullable Object value) {
+        if (value instanceof DBDValue) {
+            value = ((DBDValue) value).isNull() ? null : ((DBDValue) value).getRawValue();
+        }
+        if (value == null) {
+            buffer.append("\\N");
+            return;
+        }
+        if (value instanceof Boolean) {
+            buffer.append((Boolean) value ? '1' : '0');
+        } else if (value instanceof BigDecimal) {
+            buffer.append(((BigDecimal) value).toPlainString());
+        } else if (value instanceof Number) {
+            buffer.append(value);
+        } else if (value instanceof Date) {
+            // java.sql.Date and java.sql.Time have their own ISO representation
+            buffer.append(value instanceof Timestamp || value instanceof java.sql.Date || value instanceof java.sql.Time ?
+                value.toString() : new Timestamp(((Date) value).getTime()).toString());
+        } else {
+            String strValue = value.toString();
+            for (int i = 0; i < strValue.length(); i++) {
+                char c = strValue.charAt(i);
+                switch (c) {
+                    case '\\': buffer.append("\\\\"); break;
+                    case '\t': buffer.append("\\t"); break;
+                    case '\n': buffer.append("\\n"); break;
+                    case '\r': buffer.append("\\r"); break;
+                    case '\0': buffer.append("\\0"); break;
+                    default: buffer.append(c); break;
+                }
+            }
+        }
+    }
+
+}
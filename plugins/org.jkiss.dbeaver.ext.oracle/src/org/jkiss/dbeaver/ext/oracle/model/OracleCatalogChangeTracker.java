@@ -0,0 +1,113 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.oracle.model;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCPreparedStatement;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.impl.jdbc.cache.JDBCCatalogChangeTracker;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.utils.CommonUtils;
+
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * Tracks changes of objects in cached schemas by LAST_DDL_TIME and STATUS of ALL_OBJECTS.
+ */
+class OracleCatalogChangeTracker extends JDBCCatalogChangeTracker<OracleDataSource> {
+
+    OracleCatalogChangeTracker(OracleDataSource dataSource) {
+        super(dataSource);
+    }
+
+    @NotNull
+    @Override
+    protected Map<ObjectKey, String> readCatalogState(@NotNull JDBCSession session) throws SQLException {
+        Map<ObjectKey, String> state = new HashMap<>();
+        List<String> schemaNames = new ArrayList<>();
+        for (OracleSchema schema : dataSource.schemaCache.getCachedObjects()) {
+            if (isCachedContainer(schema.tableCache, schema.sequenceCache, schema.packageCache, schema.proceduresCache,
+                schema.triggerCache, schema.synonymCache, schema.dataTypeCache))
+            {
+                schemaNames.add(schema.getName());
+                addTrackedContainer(state, schema.getName());
+            }
+        }
+        // Indexes are not tracked: index DDL changes LAST_DDL_TIME of its table
+        for (List<String> names : splitInList(schemaNames)) {
+            try (JDBCPreparedStatement dbStat = session.prepareStatement(
+                "SELECT " + OracleUtils.getSysCatalogHint(dataSource) + " OWNER,OBJECT_TYPE,OBJECT_NAME,TO_CHAR(LAST_DDL_TIME,'YYYYMMDDHH24MISS') || ':' || STATUS\n" +
+                "FROM " + OracleUtils.getAdminAllViewPrefix(session.getProgressMonitor(), dataSource, "OBJECTS") + "\n" +
+                "WHERE OWNER IN (" + makeInListParams(names.size()) + ")\n" +
+                "AND OBJECT_TYPE IN ('TABLE','VIEW','MATERIALIZED VIEW','SEQUENCE','PACKAGE','PACKAGE BODY','PROCEDURE','FUNCTION','TRIGGER','SYNONYM','TYPE')"))
+            {
+                for (int i = 0; i < names.size(); i++) {
+                    dbStat.setString(i + 1, names.get(i));
+                }
+                try (JDBCResultSet dbResult = dbStat.executeQuery()) {
+                    while (dbResult.next()) {
+                        state.put(
+                            new ObjectKey(dbResult.getString(1), dbResult.getString(2), dbResult.getString(3)),
+                            CommonUtils.notEmpty(dbResult.getString(4)));
+                    }
+                }
+            }
+        }
+        return state;
+    }
+
+    @Nullable
+    @Override
+    protected DBSObject findCachedObject(@NotNull ObjectKey key) {
+        OracleSchema schema = dataSource.schemaCache.getCachedObject(key.container);
+        if (schema == null) {
+            return null;
+        }
+        switch (key.type) {
+            case "TABLE":
+            case "VIEW":
+            case "MATERIALIZED VIEW":
+                return schema.tableCache.getCachedObject(key.name);
+            case "SEQUENCE":
+                return schema.sequenceCache.getCachedObject(key.name);
+            case "PACKAGE":
+            case "PACKAGE BODY":
+                return schema.packageCache.getCachedObject(key.name);
+            case "PROCEDURE":
+            case "FUNCTION":
+                return schema.proceduresCache.getCachedObject(key.name);
+            case "TRIGGER":
+                return schema.triggerCache.getCachedObject(key.name);
+            case "SYNONYM":
+                return schema.synonymCache.getCachedObject(key.name);
+            case "TYPE":
+                return schema.dataTypeCache.getCachedObject(key.name);
+            default:
+                return null;
+        }
+    }
+
+    @Nullable
+    @Override
+    protected DBSObject findCachedContainer(@NotNull String name) {
+        return dataSource.schemaCache.getCachedObject(name);
+    }
+
+}
@@ -33,12 +33,14 @@ import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.exec.jdbc.*;
 import org.jkiss.dbeaver.model.exec.plan.DBCQueryPlanner;
 import org.jkiss.dbeaver.model.impl.jdbc.*;
+import org.jkiss.dbeaver.model.impl.jdbc.cache.JDBCMetadataMarkerProvider;
 import org.jkiss.dbeaver.model.impl.jdbc.cache.JDBCObjectCache;
 import org.jkiss.dbeaver.model.impl.jdbc.cache.JDBCStructCache;
 import org.jkiss.dbeaver.model.meta.Association;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.sql.SQLConstants;
 import org.jkiss.dbeaver.model.sql.SQLState;
+import org.jkiss.dbeaver.model.struct.DBSCatalogChangeTracker;
 import org.jkiss.dbeaver.model.struct.DBSDataType;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.model.struct.DBSObjectFilter;
@@ -58,7 +60,7 @@ import java.util.regex.Pattern;
 /**
  * GenericDataSource
  */
-public class OracleDataSource extends JDBCDataSource implements DBPObjectStatisticsCollector, IAdaptable {
+public class OracleDataSource extends JDBCDataSource implements DBPObjectStatisticsCollector, IAdaptable, JDBCMetadataMarkerProvider {
     private static final Log log = Log.getLog(OracleDataSource.class);
 
     final public SchemaCache schemaCache = new SchemaCache();
@@ -76,6 +78,7 @@ public class OracleDataSource extends JDBCDataSource implements DBPObjectStatist
     private boolean useRuleHint;
     private boolean resolveGeometryAsStruct = true;
     private boolean hasStatistics;
+    private OracleCatalogChangeTracker catalogChangeTracker;
 
     private final Map<String, Boolean> availableViews = new HashMap<>();
 
@@ -505,6 +508,13 @@ public class OracleDataSource extends JDBCDataSource implements DBPObjectStatist
             return adapter.cast(new OracleServerSessionManager(this));
         } else if (adapter == DBCQueryPlanner.class) {
             return adapter.cast(new OracleQueryPlanner(this));
+        } else if (adapter == DBSCatalogChangeTracker.class) {
+            synchronized (this) {
+                if (catalogChangeTracker == null) {
+                    catalogChangeTracker = new OracleCatalogChangeTracker(this);
+                }
+                return adapter.cast(catalogChangeTracker);
+            }
         }
         return super.getAdapter(adapter);
     }
@@ -729,6 +739,15 @@ public class OracleDataSource extends JDBCDataSource implements DBPObjectStatist
         return null;
     }
 
+    @Nullable
+    @Override
+    public String readMetadataChangeMarker(@NotNull JDBCSession session) throws SQLException {
+        // Any DDL changes LAST_DDL_TIME, dropped objects change count
+        return JDBCUtils.queryString(session,
+            "SELECT " + OracleUtils.getSysCatalogHint(this) + " COUNT(*) || ':' || TO_CHAR(MAX(LAST_DDL_TIME),'YYYYMMDDHH24MISS') FROM " +
+                OracleUtils.getAdminAllViewPrefix(session.getProgressMonitor(), this, "OBJECTS"));
+    }
+
     ///////////////////////////////////////////////
     // Statistics
 
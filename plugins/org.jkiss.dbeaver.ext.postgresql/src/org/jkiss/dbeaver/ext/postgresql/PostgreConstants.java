@@ -88,6 +88,7 @@ public class PostgreConstants {
     public static final String TYPE_INTERVAL = "interval";
     public static final String TYPE_TIME = "time";
     public static final String TYPE_TIMESTAMP = "timestamp";
+    public static final String TYPE_TSVECTOR = "tsvector";
 
     public static final String HANDLER_SSL = "postgre_ssl";
 
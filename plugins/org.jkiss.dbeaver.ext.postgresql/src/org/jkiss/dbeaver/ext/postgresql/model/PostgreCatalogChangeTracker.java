@@ -0,0 +1,125 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.postgresql.model;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCPreparedStatement;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.impl.jdbc.cache.JDBCCatalogChangeTracker;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.utils.CommonUtils;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tracks changes of tables and functions in cached schemas of the default database.
+ * Object state is built from xmin of its system catalog rows - any DDL updates them.
+ */
+class PostgreCatalogChangeTracker extends JDBCCatalogChangeTracker<PostgreDataSource> {
+
+    private static final String TYPE_RELATION = "R";
+    private static final String TYPE_FUNCTION = "F";
+
+    PostgreCatalogChangeTracker(PostgreDataSource dataSource) {
+        super(dataSource);
+    }
+
+    @NotNull
+    @Override
+    protected Map<ObjectKey, String> readCatalogState(@NotNull JDBCSession session) throws SQLException {
+        Map<ObjectKey, String> state = new HashMap<>();
+        List<String> schemaNames = new ArrayList<>();
+        for (PostgreSchema schema : getDatabase().schemaCache.getCachedObjects()) {
+            if (isCachedContainer(schema.getTableCache(), schema.getProceduresCache())) {
+                schemaNames.add(schema.getName());
+                addTrackedContainer(state, schema.getName());
+            }
+        }
+        for (List<String> names : splitInList(schemaNames)) {
+            String schemaParams = makeInListParams(names.size());
+            StringBuilder sql = new StringBuilder();
+            sql.append("SELECT n.nspname,'").append(TYPE_RELATION).append("',c.relname,c.xmin::text");
+            for (String[] catalog : new String[][] {
+                { "pg_attribute", "attrelid" }, { "pg_attrdef", "adrelid" }, { "pg_index", "indrelid" },
+                { "pg_constraint", "conrelid" }, { "pg_trigger", "tgrelid" }, { "pg_description", "objoid" } })
+            {
+                sql.append("\n|| ':' || coalesce((SELECT count(*) || '/' || max(x.xmin::text::bigint) FROM pg_catalog.")
+                    .append(catalog[0]).append(" x WHERE x.").append(catalog[1]).append("=c.oid),'')");
+            }
+            sql.append("\nFROM pg_catalog.pg_class c JOIN pg_catalog.pg_namespace n ON n.oid=c.relnamespace")
+                .append("\nWHERE c.relkind IN ('r','p','v','m','f','S') AND n.nspname IN (").append(schemaParams).append(")")
+                .append("\nUNION ALL")
+                .append("\nSELECT n.nspname,'").append(TYPE_FUNCTION).append("',p.oid::text,p.xmin::text")
+                .append("\nFROM pg_catalog.pg_proc p JOIN pg_catalog.pg_namespace n ON n.oid=p.pronamespace")
+                .append("\nWHERE n.nspname IN (").append(schemaParams).append(")");
+
+            try (JDBCPreparedStatement dbStat = session.prepareStatement(sql.toString())) {
+                int paramIndex = 1;
+                for (int i = 0; i < 2; i++) {
+                    for (String schemaName : names) {
+                        dbStat.setString(paramIndex++, schemaName);
+                    }
+                }
+                try (JDBCResultSet dbResult = dbStat.executeQuery()) {
+                    while (dbResult.next()) {
+                        state.put(
+                            new ObjectKey(dbResult.getString(1), dbResult.getString(2), dbResult.getString(3)),
+                            CommonUtils.notEmpty(dbResult.getString(4)));
+                    }
+                }
+            }
+        }
+        return state;
+    }
+
+    @Nullable
+    @Override
+    protected DBSObject findCachedObject(@NotNull ObjectKey key) {
+        PostgreSchema schema = getDatabase().schemaCache.getCachedObject(key.container);
+        if (schema == null) {
+            return null;
+        }
+        if (TYPE_RELATION.equals(key.type)) {
+            return schema.getTableCache().getCachedObject(key.name);
+        } else if (TYPE_FUNCTION.equals(key.type)) {
+            long procId = CommonUtils.toLong(key.name);
+            for (PostgreProcedure procedure : schema.getProceduresCache().getCachedObjects()) {
+                if (procedure.getObjectId() == procId) {
+                    return procedure;
+                }
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    @Override
+    protected DBSObject findCachedContainer(@NotNull String name) {
+        return getDatabase().schemaCache.getCachedObject(name);
+    }
+
+    private PostgreDatabase getDatabase() {
+        return dataSource.getDefaultInstance();
+    }
+
+}
@@ -25,6 +25,7 @@ import org.jkiss.dbeaver.ModelPreferences;
 import org.jkiss.dbeaver.ext.postgresql.PostgreConstants;
 import org.jkiss.dbeaver.ext.postgresql.PostgreDataSourceProvider;
 import org.jkiss.dbeaver.ext.postgresql.PostgreUtils;
+import org.jkiss.dbeaver.ext.postgresql.model.data.PostgreCopyLoader;
 import org.jkiss.dbeaver.ext.postgresql.model.impls.PostgreServerPostgreSQL;
 import org.jkiss.dbeaver.ext.postgresql.model.impls.PostgreServerType;
 import org.jkiss.dbeaver.ext.postgresql.model.jdbc.PostgreJdbcFactory;
@@ -39,6 +40,7 @@ import org.jkiss.dbeaver.model.exec.jdbc.*;
 import org.jkiss.dbeaver.model.exec.plan.DBCQueryPlanner;
 import org.jkiss.dbeaver.model.impl.AsyncServerOutputReader;
 import org.jkiss.dbeaver.model.impl.jdbc.*;
+import org.jkiss.dbeaver.model.impl.jdbc.cache.JDBCMetadataMarkerProvider;
 import org.jkiss.dbeaver.model.impl.jdbc.cache.JDBCObjectLookupCache;
 import org.jkiss.dbeaver.model.impl.sql.QueryTransformerLimit;
 import org.jkiss.dbeaver.model.net.DBWHandlerConfiguration;
@@ -61,7 +63,7 @@ import java.util.regex.Pattern;
 /**
  * PostgreDataSource
  */
-public class PostgreDataSource extends JDBCDataSource implements DBSInstanceContainer, IAdaptable, DBPObjectStatisticsCollector {
+public class PostgreDataSource extends JDBCDataSource implements DBSInstanceContainer, IAdaptable, DBPObjectStatisticsCollector, JDBCMetadataMarkerProvider {
 
     private static final Log log = Log.getLog(PostgreDataSource.class);
 
@@ -71,6 +73,7 @@ public class PostgreDataSource extends JDBCDataSource implements DBSInstanceCont
     private String serverVersion;
 
     private volatile boolean hasStatistics;
+    private PostgreCatalogChangeTracker catalogChangeTracker;
 
     public PostgreDataSource(DBRProgressMonitor monitor, DBPDataSourceContainer container)
         throws DBException
@@ -365,6 +368,16 @@ public class PostgreDataSource extends JDBCDataSource implements DBSInstanceCont
             return adapter.cast(new PostgreSessionManager(this));
         } else if (adapter == DBCQueryPlanner.class) {
             return adapter.cast(new PostgreQueryPlaner(this));
+        } else if (adapter == DBSDataBulkLoader.class && getServerType().supportsCopyFromStdIn()) {
+            return adapter.cast((DBSDataBulkLoader) (session, entity, attributes, source) ->
+                PostgreCopyLoader.createLoader((JDBCSession) session, entity, attributes));
+        } else if (adapter == DBSCatalogChangeTracker.class) {
+            synchronized (this) {
+                if (catalogChangeTracker == null) {
+                    catalogChangeTracker = new PostgreCatalogChangeTracker(this);
+                }
+                return adapter.cast(catalogChangeTracker);
+            }
         }
         return super.getAdapter(adapter);
     }
@@ -579,6 +592,21 @@ public class PostgreDataSource extends JDBCDataSource implements DBSInstanceCont
         }
     }
 
+    @Nullable
+    @Override
+    public String readMetadataChangeMarker(@NotNull JDBCSession session) throws SQLException {
+        if (CommonUtils.toBoolean(getContainer().getActualConnectionConfiguration().getProviderProperty(PostgreConstants.PROP_SHOW_NON_DEFAULT_DB))) {
+            // Catalogs of other databases can't be checked from this connection
+            return null;
+        }
+        // Each DDL changes xmin of system catalog rows, dropped rows change count
+        StringBuilder query = new StringBuilder("SELECT ''");
+        for (String catalog : new String[] { "pg_namespace", "pg_class", "pg_attribute", "pg_index", "pg_constraint", "pg_proc", "pg_type", "pg_trigger" }) {
+            query.append("\n|| (SELECT count(*) || '/' || coalesce(max(xmin::text::bigint), 0) || ':' FROM pg_catalog.").append(catalog).append(")");
+        }
+        return JDBCUtils.queryString(session, query.toString());
+    }
+
     private final Pattern ERROR_POSITION_PATTERN = Pattern.compile("\\n\\s*\\p{L}+\\s*: ([0-9]+)");
 
     @Nullable
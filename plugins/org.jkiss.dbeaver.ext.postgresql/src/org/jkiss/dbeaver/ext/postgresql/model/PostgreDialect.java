@@ -26,26 +26,33 @@ import org.jkiss.dbeaver.model.DBPDataKind;
 import org.jkiss.dbeaver.model.DBPDataSource;
 import org.jkiss.dbeaver.model.DBPDataSourceContainer;
 import org.jkiss.dbeaver.model.DBPKeywordType;
+import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.data.DBDBinaryFormatter;
+import org.jkiss.dbeaver.model.exec.DBCSession;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCDatabaseMetaData;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCDataSource;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCSQLDialect;
 import org.jkiss.dbeaver.model.impl.sql.BasicSQLDialect;
 import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
 import org.jkiss.dbeaver.model.sql.SQLDialect;
+import org.jkiss.dbeaver.model.sql.SQLFullTextDialect;
+import org.jkiss.dbeaver.model.sql.SQLUtils;
 import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
 import org.jkiss.dbeaver.model.struct.DBSTypedObject;
 import org.jkiss.dbeaver.model.text.parser.TPRule;
 import org.jkiss.dbeaver.model.text.parser.TPRuleProvider;
 import org.jkiss.utils.ArrayUtils;
 
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 
 /**
  * PostgreSQL dialect
  */
-public class PostgreDialect extends JDBCSQLDialect implements TPRuleProvider {
+public class PostgreDialect extends JDBCSQLDialect implements TPRuleProvider, SQLFullTextDialect {
 
     public static final String[] POSTGRE_NON_TRANSACTIONAL_KEYWORDS = ArrayUtils.concatArrays(
         BasicSQLDialect.NON_TRANSACTIONAL_KEYWORDS,
@@ -865,4 +872,24 @@ public class PostgreDialect extends JDBCSQLDialect implements TPRuleProvider {
             rules.add(new PostgreDollarQuoteRule(dataSource, position == RulePosition.PARTITION));
         }
     }
+
+    @Nullable
+    @Override
+    public String getFullTextSearchCondition(@NotNull DBCSession session, @NotNull DBSEntity entity, @NotNull List<DBSEntityAttribute> attributes, @NotNull String searchString) {
+        // Only tsvector columns. Text columns may be covered by expression indexes but they can't be matched reliably.
+        StringBuilder condition = new StringBuilder();
+        for (Iterator<DBSEntityAttribute> iter = attributes.iterator(); iter.hasNext(); ) {
+            DBSEntityAttribute attribute = iter.next();
+            if (!PostgreConstants.TYPE_TSVECTOR.equals(attribute.getTypeName())) {
+                continue;
+            }
+            if (condition.length() > 0) {
+                condition.append(" OR ");
+            }
+            condition.append(DBUtils.getQuotedIdentifier(attribute))
+                .append(" @@ plainto_tsquery(").append(SQLUtils.quoteString(entity, searchString)).append(")");
+            iter.remove();
+        }
+        return condition.length() == 0 ? null : condition.toString();
+    }
 }
@@ -132,6 +132,9 @@ public interface PostgreServerExtension
 
     boolean supportsDatabaseSize();
 
+    // True if server supports COPY ... FROM STDIN (used for bulk data load)
+    boolean supportsCopyFromStdIn();
+
     boolean isAlterTableAtomic();
 
     boolean supportsSuperusers();
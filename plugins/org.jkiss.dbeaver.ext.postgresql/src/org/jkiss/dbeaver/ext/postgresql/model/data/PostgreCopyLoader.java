@@ -0,0 +1,216 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.postgresql.model.data;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDValue;
+import org.jkiss.dbeaver.model.edit.DBEPersistAction;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.DBCStatistics;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.impl.edit.SQLDatabasePersistAction;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataManipulator;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk data loader based on COPY ... FROM STDIN.
+ * Rows are serialized in CSV format and sent with the driver's CopyManager.
+ * CopyManager is accessed with reflection because driver classes are not available in plugin class path.
+ */
+public class PostgreCopyLoader implements DBSDataManipulator.ExecuteBatch {
+
+    private static final Log log = Log.getLog(PostgreCopyLoader.class);
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final Object copyManager;
+    private final Method copyInMethod;
+    private final String copyQuery;
+    private final DBSAttributeBase[] attributes;
+    private final StringBuilder buffer = new StringBuilder(64 * 1024);
+    private int bufferedRows;
+
+    private PostgreCopyLoader(Object copyManager, Method copyInMethod, String copyQuery, DBSAttributeBase[] attributes) {
+        this.copyManager = copyManager;
+        this.copyInMethod = copyInMethod;
+        this.copyQuery = copyQuery;
+        this.attributes = attributes;
+    }
+
+    /**
+     * Creates COPY loader. Returns null if driver doesn't provide CopyManager or attributes have complex data types.
+     */
+    @Nullable
+    public static PostgreCopyLoader createLoader(@NotNull JDBCSession session, @NotNull DBSEntity entity, @NotNull DBSAttributeBase[] attributes) throws DBException {
+        for (DBSAttributeBase attribute : attributes) {
+            switch (attribute.getDataKind()) {
+                case BOOLEAN:
+                case NUMERIC:
+                case STRING:
+                case DATETIME:
+                case BINARY:
+                    break;
+                default:
+                    log.debug("Attribute " + attribute.getName() + " has complex type " + attribute.getTypeName() + ", COPY can't be used");
+                    return null;
+            }
+        }
+        Object copyManager;
+        Method copyInMethod;
+        try {
+            Connection connection = session.getOriginal();
+            ClassLoader driverClassLoader = session.getDataSource().getContainer().getDriver().getClassLoader();
+            Class<?> pgConnectionClass = Class.forName("org.postgresql.PGConnection", false, driverClassLoader);
+            if (!connection.isWrapperFor(pgConnectionClass)) {
+                return null;
+            }
+            Object pgConnection = connection.unwrap(pgConnectionClass);
+            copyManager = pgConnectionClass.getMethod("getCopyAPI").invoke(pgConnection);
+            copyInMethod = copyManager.getClass().getMethod("copyIn", String.class, Reader.class);
+        } catch (ClassNotFoundException | NoSuchMethodException e) {
+            log.debug("Driver doesn't support CopyManager API: " + e.getMessage());
+            return null;
+        } catch (InvocationTargetException e) {
+            throw new DBException("Error obtaining CopyManager", e.getTargetException());
+        } catch (SQLException | IllegalAccessException e) {
+            throw new DBException("Error obtaining CopyManager", e);
+        }
+
+        StringBuilder query = new StringBuilder(200);
+        query.append("COPY ").append(DBUtils.getObjectFullName(entity, DBPEvaluationContext.DML)).append(" (");
+        boolean hasAttr = false;
+        for (DBSAttributeBase attribute : attributes) {
+            if (hasAttr) query.append(",");
+            hasAttr = true;
+            query.append(DBUtils.getObjectFullName(session.getDataSource(), attribute, DBPEvaluationContext.DML));
+        }
+        query.append(") FROM STDIN WITH CSV");
+
+        return new PostgreCopyLoader(copyManager, copyInMethod, query.toString(), attributes);
+    }
+
+    @Override
+    public void add(@NotNull Object[] attributeValues) throws DBCException {
+        if (attributeValues.length != attributes.length) {
+            throw new DBCException("Bad attribute values count: " + attributeValues.length + " (" + attributes.length + " expected)");
+        }
+        for (int i = 0; i < attributeValues.length; i++) {
+            if (i > 0) {
+                buffer.append(',');
+            }
+            appendValue(attributeValues[i]);
+        }
+        buffer.append('\n');
+        bufferedRows++;
+    }
+
+    @NotNull
+    @Override
+    public DBCStatistics execute(@NotNull DBCSession session, Map<String, Object> options) throws DBCException {
+        DBCStatistics statistics = new DBCStatistics();
+        if (bufferedRows == 0) {
+            return statistics;
+        }
+        statistics.setQueryText(copyQuery);
+        statistics.addStatementsCount();
+        long startTime = System.currentTimeMillis();
+        try {
+            Object rowCount = copyInMethod.invoke(copyManager, copyQuery, new StringReader(buffer.toString()));
+            statistics.addRowsUpdated(rowCount instanceof Number ? ((Number) rowCount).longValue() : bufferedRows);
+        } catch (InvocationTargetException e) {
+            throw new DBCException(e.getTargetException(), session.getExecutionContext());
+        } catch (IllegalAccessException e) {
+            throw new DBCException("Error calling CopyManager", e);
+        } finally {
+            buffer.setLength(0);
+            bufferedRows = 0;
+        }
+        statistics.addExecuteTime(System.currentTimeMillis() - startTime);
+        return statistics;
+    }
+
+    @Override
+    public void generatePersistActions(@NotNull DBCSession session, @NotNull List<DBEPersistAction> actions, Map<String, Object> options) {
+        actions.add(new SQLDatabasePersistAction("Copy rows", copyQuery + ";\n" + buffer + "\\."));
+        buffer.setLength(0);
+        bufferedRows = 0;
+    }
+
+    @Override
+    public void close() {
+        buffer.setLength(0);
+        bufferedRows = 0;
+    }
+
+    private void appendValue(@Nullable Object value) {
+        if (value instanceof DBDValue) {
+            value = ((DBDValue) value).isNull() ? null : ((DBDValue) value).getRawValue();
+        }
+        if (value == null) {
+            // Unquoted empty value means NULL
+            return;
+        }
+        if (value instanceof Boolean) {
+            buffer.append((Boolean) value ? 't' : 'f');
+        } else if (value instanceof BigDecimal) {
+            buffer.append(((BigDecimal) value).toPlainString());
+        } else if (value instanceof Number) {
+            buffer.append(value);
+        } else if (value instanceof byte[]) {
+            byte[] bytes = (byte[]) value;
+            buffer.append("\\x");
+            for (byte b : bytes) {
+                buffer.append(HEX_DIGITS[(b >> 4) & 0xF]).append(HEX_DIGITS[b & 0xF]);
+            }
+        } else if (value instanceof Date) {
+            // java.sql.Date and java.sql.Time have their own ISO representation
+            buffer.append(value instanceof Timestamp || value instanceof java.sql.Date || value instanceof java.sql.Time ?
+                value.toString() : new Timestamp(((Date) value).getTime()).toString());
+        } else {
+            String strValue = value.toString();
+            buffer.append('"');
+            for (int i = 0; i < strValue.length(); i++) {
+                char c = strValue.charAt(i);
+                if (c == '"') {
+                    buffer.append('"');
+                }
+                buffer.append(c);
+            }
+            buffer.append('"');
+        }
+    }
+
+}
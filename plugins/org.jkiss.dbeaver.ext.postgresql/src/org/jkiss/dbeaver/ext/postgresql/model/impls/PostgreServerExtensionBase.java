@@ -437,6 +437,11 @@ public abstract class PostgreServerExtensionBase implements PostgreServerExtensi
         return false;
     }
 
+    @Override
+    public boolean supportsCopyFromStdIn() {
+        return false;
+    }
+
     @Override
     public boolean isAlterTableAtomic() {
         return false;
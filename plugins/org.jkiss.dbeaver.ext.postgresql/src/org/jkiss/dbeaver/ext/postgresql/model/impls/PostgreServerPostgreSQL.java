@@ -53,4 +53,9 @@ public class PostgreServerPostgreSQL extends PostgreServerExtensionBase {
     public boolean supportsDatabaseSize() {
         return true;
     }
+
+    @Override
+    public boolean supportsCopyFromStdIn() {
+        return true;
+    }
 }
@@ -0,0 +1,191 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jkiss.dbeaver.ext.postgresql.model;
+
+import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.app.DBPDataSourceRegistry;
+import org.jkiss.dbeaver.model.app.DBPProject;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCStatement;
+import org.jkiss.dbeaver.model.impl.PersistentMetadataStorage;
+import org.jkiss.dbeaver.model.impl.jdbc.cache.JDBCMetadataSnapshot;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.rdb.DBSProcedureParameterKind;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.io.*;
+import java.sql.Array;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Loads procedure from result set replayed by metadata snapshot
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class PostgreProcedureSnapshotTest {
+
+    private static final String[] COLUMNS = {
+        "oid", "proname", "proowner", "prolang", "procost", "prorows",
+        "proallargtypes", "proargnames", "proargmodes", "proargtypes", "prorettype", "prosrc", "description" };
+    private static final int[] TYPES = {
+        Types.BIGINT, Types.VARCHAR, Types.BIGINT, Types.BIGINT, Types.REAL, Types.REAL,
+        Types.ARRAY, Types.ARRAY, Types.ARRAY, Types.OTHER, Types.BIGINT, Types.VARCHAR, Types.VARCHAR };
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Mock
+    DBRProgressMonitor monitor;
+    @Mock
+    PostgreDataSource mockDataSource;
+    @Mock
+    DBPDataSourceContainer mockDataSourceContainer;
+    @Mock
+    DBPPreferenceStore mockPreferenceStore;
+    @Mock
+    DBPProject mockProject;
+    @Mock
+    DBPDataSourceRegistry mockRegistry;
+    @Mock
+    PostgreServerExtension mockPostgreServer;
+    @Mock
+    PostgreDatabase mockDatabase;
+    @Mock
+    PostgreSchema mockSchema;
+    @Mock
+    PostgreDataType mockIntType;
+    @Mock
+    PostgreDataType mockTextType;
+    @Mock
+    JDBCSession mockSession;
+    @Mock
+    JDBCStatement mockStatement;
+    @Mock
+    JDBCResultSet mockResults;
+    @Mock
+    ResultSetMetaData mockMetaData;
+
+    @Before
+    public void setUp() throws Exception {
+        Mockito.when(mockDataSource.getContainer()).thenReturn(mockDataSourceContainer);
+        Mockito.when(mockDataSource.getServerType()).thenReturn(mockPostgreServer);
+        Mockito.when(mockDataSourceContainer.getId()).thenReturn("postgres-snapshot-test");
+        Mockito.when(mockDataSourceContainer.getName()).thenReturn("postgres-snapshot-test");
+        Mockito.when(mockDataSourceContainer.getPreferenceStore()).thenReturn(mockPreferenceStore);
+        Mockito.when(mockDataSourceContainer.getProject()).thenReturn(mockProject);
+        Mockito.when(mockDataSourceContainer.getRegistry()).thenReturn(mockRegistry);
+        Mockito.when(mockPreferenceStore.getBoolean(ModelPreferences.META_PERSISTENT_CACHE)).thenReturn(true);
+        Mockito.when(mockProject.getMetadataFolder(true)).thenReturn(tempFolder.getRoot());
+
+        Mockito.when(mockSchema.getName()).thenReturn("public");
+        Mockito.when(mockSchema.getDatabase()).thenReturn(mockDatabase);
+        Mockito.when(mockSchema.getDataSource()).thenReturn(mockDataSource);
+        Mockito.when(mockIntType.getName()).thenReturn("int4");
+        Mockito.when(mockTextType.getName()).thenReturn("text");
+        Mockito.when(mockDatabase.getDataType(Mockito.any(), Mockito.eq(23L))).thenReturn(mockIntType);
+        Mockito.when(mockDatabase.getDataType(Mockito.any(), Mockito.eq(25L))).thenReturn(mockTextType);
+
+        Mockito.when(mockSession.getDataSource()).thenReturn(mockDataSource);
+        Mockito.when(mockSession.getProgressMonitor()).thenReturn(monitor);
+        Mockito.when(mockStatement.getQueryString()).thenReturn("SELECT p.* FROM pg_catalog.pg_proc p WHERE p.pronamespace=?");
+        Mockito.when(mockStatement.getResultSet()).thenReturn(mockResults);
+
+        // Driver returns typed arrays: oid[] as Long[], name[] and char[] as String[]
+        Mockito.when(mockResults.getMetaData()).thenReturn(mockMetaData);
+        Mockito.when(mockMetaData.getColumnCount()).thenReturn(COLUMNS.length);
+        for (int i = 0; i < COLUMNS.length; i++) {
+            Mockito.when(mockMetaData.getColumnLabel(i + 1)).thenReturn(COLUMNS[i]);
+            Mockito.when(mockMetaData.getColumnType(i + 1)).thenReturn(TYPES[i]);
+        }
+        Mockito.when(mockResults.next()).thenReturn(true, false);
+        Mockito.when(mockResults.getLong(1)).thenReturn(16384L);
+        Mockito.when(mockResults.getString(2)).thenReturn("split_name");
+        Mockito.when(mockResults.getLong(3)).thenReturn(10L);
+        Mockito.when(mockResults.getLong(4)).thenReturn(13L);
+        Mockito.when(mockResults.getDouble(5)).thenReturn(100.0);
+        Mockito.when(mockResults.getDouble(6)).thenReturn(0.0);
+        mockArray(7, new Long[] { 25L, 23L });
+        mockArray(8, new String[] { "full_name", "name_length" });
+        mockArray(9, new String[] { "i", "o" });
+        Mockito.when(mockResults.getString(10)).thenReturn("25");
+        Mockito.when(mockResults.getLong(11)).thenReturn(23L);
+        Mockito.when(mockResults.getString(12)).thenReturn("SELECT length(full_name)");
+        Mockito.when(mockResults.getString(13)).thenReturn("Splits name");
+    }
+
+    private void mockArray(int index, Object elements) throws SQLException {
+        Array array = Mockito.mock(Array.class);
+        Mockito.when(array.getArray()).thenReturn(elements);
+        Mockito.when(mockResults.getArray(index)).thenReturn(array);
+    }
+
+    @Test
+    public void loadProcedure_whenReadFromSnapshot_thenArgumentsAreLoaded() throws Exception {
+        JDBCResultSet dbResult = JDBCMetadataSnapshot.executeCacheStatement(mockSession, this, mockSchema, null, mockStatement);
+        Assert.assertNotNull(dbResult);
+        Assert.assertNotSame("Result set must be replayed from snapshot", mockResults, dbResult);
+        Assert.assertNotNull(dbResult.getMetaData());
+        Assert.assertEquals(COLUMNS.length, dbResult.getMetaData().getColumnCount());
+        Assert.assertEquals("proallargtypes", dbResult.getMetaData().getColumnLabel(7));
+        Assert.assertSame(dbResult, dbResult.getOriginal());
+
+        Assert.assertTrue(dbResult.next());
+        PostgreProcedure procedure = new PostgreProcedure(monitor, mockSchema, dbResult);
+        Assert.assertFalse(dbResult.next());
+
+        Assert.assertEquals("split_name", procedure.getName());
+        Assert.assertEquals("split_name(text)", procedure.getOverloadedName());
+        List<PostgreProcedureParameter> parameters = procedure.getParameters(monitor);
+        Assert.assertEquals(2, parameters.size());
+        Assert.assertEquals("full_name", parameters.get(0).getName());
+        Assert.assertEquals(DBSProcedureParameterKind.IN, parameters.get(0).getParameterKind());
+        Assert.assertSame(mockTextType, parameters.get(0).getParameterType());
+        Assert.assertEquals("name_length", parameters.get(1).getName());
+        Assert.assertEquals(DBSProcedureParameterKind.OUT, parameters.get(1).getParameterKind());
+        Assert.assertSame(mockIntType, parameters.get(1).getParameterType());
+    }
+
+    @Test
+    public void saveArrays_whenReadFromFile_thenElementTypeIsKept() throws Exception {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(buffer)) {
+            PersistentMetadataStorage.writeValue(out, new Long[] { 25L, null, 23L });
+            PersistentMetadataStorage.writeValue(out, new String[] { "i", "o" });
+            PersistentMetadataStorage.writeValue(out, new short[] { 1, 2 });
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(buffer.toByteArray()))) {
+            Assert.assertArrayEquals(new Long[] { 25L, null, 23L }, (Long[]) PersistentMetadataStorage.readValue(in));
+            Assert.assertArrayEquals(new String[] { "i", "o" }, (String[]) PersistentMetadataStorage.readValue(in));
+            Assert.assertArrayEquals(new short[] { 1, 2 }, (short[]) PersistentMetadataStorage.readValue(in));
+        }
+    }
+
+}
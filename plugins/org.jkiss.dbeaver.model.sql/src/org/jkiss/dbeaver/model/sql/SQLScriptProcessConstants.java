@@ -22,5 +22,6 @@ package org.jkiss.dbeaver.model.sql;
 public interface SQLScriptProcessConstants {
 
     String PRAGMA_EXPORT = "export";
+    String PRAGMA_PARALLEL = "parallel";
 
 }
@@ -0,0 +1,58 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.sql.commands;
+
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.sql.SQLControlCommand;
+import org.jkiss.dbeaver.model.sql.SQLControlCommandHandler;
+import org.jkiss.dbeaver.model.sql.SQLScriptContext;
+import org.jkiss.dbeaver.model.sql.SQLScriptProcessConstants;
+import org.jkiss.utils.CommonUtils;
+
+/**
+ * Control command handler.
+ * Sets number of isolated connections used to execute following queries: @parallel 4.
+ * Setting stays in effect for all following queries of the script (other control commands split them into
+ * separate parallel blocks). Empty parameter, 1 or "off" turns parallel execution off.
+ */
+public class SQLCommandParallel implements SQLControlCommandHandler {
+
+    @Override
+    public boolean handleCommand(SQLControlCommand command, SQLScriptContext scriptContext) throws DBException {
+        String parameter = CommonUtils.notEmpty(command.getParameter()).trim();
+        if (parameter.isEmpty() || parameter.equalsIgnoreCase("off")) {
+            scriptContext.getPragmas().remove(SQLScriptProcessConstants.PRAGMA_PARALLEL);
+            return true;
+        }
+        int degree;
+        try {
+            degree = Integer.parseInt(parameter);
+        } catch (NumberFormatException e) {
+            throw new DBException("Bad parallel degree: " + parameter);
+        }
+        if (degree < 1) {
+            throw new DBException("Parallel degree must be positive: " + degree);
+        }
+        if (degree == 1) {
+            scriptContext.getPragmas().remove(SQLScriptProcessConstants.PRAGMA_PARALLEL);
+        } else {
+            scriptContext.getPragmas().put(SQLScriptProcessConstants.PRAGMA_PARALLEL, degree);
+        }
+        return true;
+    }
+
+}
@@ -56,11 +56,13 @@ public class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgres
     private static final String ALL_COLUMNS_PATTERN = "*";
     private static final String MATCH_ANY_PATTERN = "%";
     public static final int MAX_ATTRIBUTE_VALUE_PROPOSALS = 20;
+    private static final int MAX_ASSISTANT_PROPOSALS = 100;
 
     private final SQLCompletionRequest request;
     private DBRProgressMonitor monitor;
 
-    private final List<SQLCompletionProposalBase> proposals = new ArrayList<>();
+    // Proposals may be read by UI before search is finished
+    private final List<SQLCompletionProposalBase> proposals = Collections.synchronizedList(new ArrayList<>());
     private boolean searchFinished = false;
 
     public SQLCompletionAnalyzer(SQLCompletionRequest request) {
@@ -80,6 +82,16 @@ public class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgres
         return proposals;
     }
 
+    /**
+     * Returns copy of proposals found so far. Can be called while analyzer is running.
+     * Proposals are filtered the same way as final proposals.
+     */
+    public List<SQLCompletionProposalBase> getProposalsSnapshot() {
+        List<SQLCompletionProposalBase> snapshot = new ArrayList<>(proposals);
+        filterProposals(snapshot, request.getContext().getDataSource());
+        return snapshot;
+    }
+
     public boolean isSearchFinished() {
         return searchFinished;
     }
@@ -353,7 +365,7 @@ public class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgres
                 }
             }
         }
-        filterProposals(dataSource);
+        filterProposals(proposals, dataSource);
     }
 
     private void makeProceduresProposals(DBPDataSource dataSource, String wordPart, boolean exec) throws DBException {
@@ -413,7 +425,7 @@ public class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgres
         }
     }
 
-    private void filterProposals(DBPDataSource dataSource) {
+    private void filterProposals(List<SQLCompletionProposalBase> proposals, DBPDataSource dataSource) {
 
         // Remove duplications
         final Set<String> proposalMap = new HashSet<>(proposals.size());
@@ -880,8 +892,12 @@ public class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgres
                     }
                 }
             }
+            Collection<? extends DBSObject> candidates = children;
+            if (!allObjects && !CommonUtils.isEmpty(startPart) && dataSource != null && !request.getContext().isSearchInsideNames()) {
+                candidates = SQLCompletionCache.getInstance().findChildrenByPrefix(parent, children, startPart);
+            }
             StringBuilder combinedMatch = new StringBuilder();
-            for (DBSObject child : children) {
+            for (DBSObject child : candidates) {
                 if (DBUtils.isHiddenObject(child)) {
                     // Skip hidden
                     continue;
@@ -966,14 +982,36 @@ public class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgres
         String objectName,
         @NotNull Map<String, Object> params) throws DBException
     {
-        Collection<DBSObjectReference> references = assistant.findObjectsByMask(
-            monitor,
-            request.getContext().getExecutionContext(),
-            rootSC,
-            objectTypes == null ? assistant.getAutoCompleteObjectTypes() : objectTypes,
-            makeObjectNameMask(request.getWordDetector().removeQuotes(objectName)),
-            request.getWordDetector().isQuoted(objectName),
-            request.getContext().isSearchGlobally(), 100);
+        DBCExecutionContext executionContext = request.getContext().getExecutionContext();
+        if (objectTypes == null) {
+            objectTypes = assistant.getAutoCompleteObjectTypes();
+        }
+        String namePart = request.getWordDetector().removeQuotes(objectName);
+        boolean caseSensitive = request.getWordDetector().isQuoted(objectName);
+        boolean searchInside = request.getContext().isSearchInsideNames();
+        StringBuilder searchOptions = new StringBuilder();
+        searchOptions.append(request.getContext().isSearchGlobally()).append(':').append(searchInside);
+        for (DBSObjectType objectType : objectTypes) {
+            searchOptions.append(':').append(objectType.getTypeName());
+        }
+        SQLCompletionCache.ReferencesKey cacheKey = new SQLCompletionCache.ReferencesKey(
+            rootSC != null ? rootSC : executionContext,
+            searchOptions.toString(),
+            caseSensitive);
+        List<DBSObjectReference> references = SQLCompletionCache.getInstance().findReferences(cacheKey, namePart, searchInside);
+        if (references == null) {
+            references = assistant.findObjectsByMask(
+                monitor,
+                executionContext,
+                rootSC,
+                objectTypes,
+                makeObjectNameMask(namePart),
+                caseSensitive,
+                request.getContext().isSearchGlobally(), MAX_ASSISTANT_PROPOSALS);
+            if (!monitor.isCanceled()) {
+                SQLCompletionCache.getInstance().cacheReferences(cacheKey, namePart, references, references.size() >= MAX_ASSISTANT_PROPOSALS);
+            }
+        }
         for (DBSObjectReference reference : references) {
             proposals.add(
                 makeProposalsFromObject(
@@ -0,0 +1,273 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.sql.completion;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.model.struct.DBSObjectReference;
+import org.jkiss.utils.CommonUtils;
+
+import java.lang.ref.WeakReference;
+import java.util.*;
+
+/**
+ * Completion lookup cache.
+ *
+ * Keeps name indexes of container children and structure assistant results per (container, name prefix).
+ * Assistant results of shorter prefix are narrowed locally if they were not truncated.
+ * Both caches are bounded, assistant results expire to pick up metadata changes.
+ * Containers and their children aren't held by the cache, entries of released or disconnected containers are dropped.
+ */
+class SQLCompletionCache {
+
+    private static final int MAX_INDEXES = 32;
+    private static final int MAX_REFERENCE_LISTS = 128;
+    private static final long REFERENCES_TTL = 60 * 1000;
+
+    private static final SQLCompletionCache instance = new SQLCompletionCache();
+
+    static SQLCompletionCache getInstance() {
+        return instance;
+    }
+
+    private final Map<IndexKey, IndexEntry> indexes = new LinkedHashMap<IndexKey, IndexEntry>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<IndexKey, IndexEntry> eldest) {
+            return size() > MAX_INDEXES;
+        }
+    };
+    private final Map<ReferencesKey, ReferencesEntry> references = new LinkedHashMap<ReferencesKey, ReferencesEntry>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ReferencesKey, ReferencesEntry> eldest) {
+            return size() > MAX_REFERENCE_LISTS;
+        }
+    };
+
+    private SQLCompletionCache() {
+    }
+
+    /**
+     * Returns children which may match specified prefix.
+     * Index is built when the same children list is requested the second time (cached lists are immutable),
+     * so containers which create a new list for each call are just scanned.
+     * @param prefix name prefix in upper case
+     */
+    @NotNull
+    Collection<? extends DBSObject> findChildrenByPrefix(@NotNull Object parent, @NotNull Collection<? extends DBSObject> children, @NotNull String prefix) {
+        if (!(children instanceof List)) {
+            return children;
+        }
+        SQLCompletionNameIndex index;
+        synchronized (indexes) {
+            purgeIndexes();
+            IndexKey key = new IndexKey(parent);
+            if (!key.isValid()) {
+                return children;
+            }
+            IndexEntry entry = indexes.get(key);
+            if (entry == null || entry.children.get() != children) {
+                indexes.put(key, new IndexEntry(children));
+                return children;
+            }
+            if (entry.index == null) {
+                entry.index = new SQLCompletionNameIndex((List<? extends DBSObject>) children);
+            }
+            index = entry.index;
+        }
+        return index.findByPrefix((List<? extends DBSObject>) children, prefix);
+    }
+
+    /**
+     * Returns cached assistant search results or null if search must be performed.
+     */
+    @Nullable
+    List<DBSObjectReference> findReferences(@NotNull ReferencesKey key, @NotNull String namePart, boolean searchInside) {
+        long currentTime = System.currentTimeMillis();
+        synchronized (references) {
+            purgeReferences(currentTime);
+            for (int length = namePart.length(); length >= 0; length--) {
+                ReferencesEntry entry = references.get(key.withPrefix(namePart.substring(0, length)));
+                if (entry == null || currentTime - entry.createTime > REFERENCES_TTL) {
+                    continue;
+                }
+                if (length == namePart.length()) {
+                    return entry.references;
+                }
+                if (entry.truncated || key.caseSensitive) {
+                    // Can't narrow
+                    return null;
+                }
+                // Narrow results of the shorter prefix
+                List<DBSObjectReference> result = new ArrayList<>();
+                for (DBSObjectReference reference : entry.references) {
+                    String name = CommonUtils.notEmpty(reference.getName());
+                    if (searchInside ?
+                        name.toUpperCase(Locale.ENGLISH).contains(namePart.toUpperCase(Locale.ENGLISH)) :
+                        CommonUtils.startsWithIgnoreCase(name, namePart))
+                    {
+                        result.add(reference);
+                    }
+                }
+                return result;
+            }
+        }
+        return null;
+    }
+
+    void cacheReferences(@NotNull ReferencesKey key, @NotNull String namePart, @NotNull List<DBSObjectReference> result, boolean truncated) {
+        synchronized (references) {
+            purgeReferences(System.currentTimeMillis());
+            references.put(key.withPrefix(namePart), new ReferencesEntry(result, truncated));
+        }
+    }
+
+    /**
+     * Removes indexes of containers which were released or disconnected
+     */
+    private void purgeIndexes() {
+        indexes.entrySet().removeIf(entry -> !entry.getKey().isValid() || entry.getValue().children.get() == null);
+    }
+
+    /**
+     * Removes expired results and results of containers which were released or disconnected
+     */
+    private void purgeReferences(long currentTime) {
+        references.entrySet().removeIf(entry ->
+            currentTime - entry.getValue().createTime > REFERENCES_TTL || !entry.getKey().isValid());
+    }
+
+    /**
+     * Checks that container is still alive and connected
+     */
+    private static boolean isValidContainer(WeakReference<Object> container) {
+        Object object = container.get();
+        if (object == null) {
+            return false;
+        }
+        if (object instanceof DBSObject) {
+            DBPDataSource dataSource = ((DBSObject) object).getDataSource();
+            return dataSource != null && dataSource.getContainer().isConnected();
+        }
+        return true;
+    }
+
+    /**
+     * Children index key. Container is compared by identity and isn't held by the key.
+     */
+    private static class IndexKey {
+        private final WeakReference<Object> container;
+        private final int containerHash;
+
+        IndexKey(Object container) {
+            this.container = new WeakReference<>(container);
+            this.containerHash = System.identityHashCode(container);
+        }
+
+        boolean isValid() {
+            return isValidContainer(container);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof IndexKey)) {
+                return false;
+            }
+            Object object = container.get();
+            return object != null && object == ((IndexKey) obj).container.get();
+        }
+
+        @Override
+        public int hashCode() {
+            return containerHash;
+        }
+    }
+
+    /**
+     * Name index of children list. Index keeps names only, children are passed on lookup.
+     */
+    private static class IndexEntry {
+        private final WeakReference<Collection<? extends DBSObject>> children;
+        private SQLCompletionNameIndex index;
+
+        IndexEntry(Collection<? extends DBSObject> children) {
+            this.children = new WeakReference<>(children);
+        }
+    }
+
+    private static class ReferencesEntry {
+        private final List<DBSObjectReference> references;
+        private final boolean truncated;
+        private final long createTime = System.currentTimeMillis();
+
+        ReferencesEntry(List<DBSObjectReference> references, boolean truncated) {
+            this.references = references;
+            this.truncated = truncated;
+        }
+    }
+
+    /**
+     * Assistant search key. Container is compared by identity and isn't held by the key.
+     */
+    static class ReferencesKey {
+        private final WeakReference<Object> container;
+        private final int containerHash;
+        private final String searchOptions;
+        private final boolean caseSensitive;
+        private final String prefix;
+
+        ReferencesKey(@NotNull Object container, @NotNull String searchOptions, boolean caseSensitive) {
+            this(new WeakReference<>(container), System.identityHashCode(container), searchOptions, caseSensitive, null);
+        }
+
+        private ReferencesKey(WeakReference<Object> container, int containerHash, String searchOptions, boolean caseSensitive, String prefix) {
+            this.container = container;
+            this.containerHash = containerHash;
+            this.searchOptions = searchOptions;
+            this.caseSensitive = caseSensitive;
+            this.prefix = prefix;
+        }
+
+        ReferencesKey withPrefix(String prefix) {
+            return new ReferencesKey(container, containerHash, searchOptions, caseSensitive, prefix);
+        }
+
+        boolean isValid() {
+            return isValidContainer(container);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof ReferencesKey)) {
+                return false;
+            }
+            ReferencesKey key = (ReferencesKey) obj;
+            Object object = container.get();
+            return object != null && object == key.container.get() &&
+                caseSensitive == key.caseSensitive &&
+                searchOptions.equals(key.searchOptions) &&
+                CommonUtils.equalObjects(prefix, key.prefix);
+        }
+
+        @Override
+        public int hashCode() {
+            return containerHash + searchOptions.hashCode() + (prefix == null ? 0 : prefix.hashCode());
+        }
+    }
+
+}
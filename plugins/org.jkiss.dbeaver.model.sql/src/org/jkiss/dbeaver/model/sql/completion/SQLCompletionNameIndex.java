@@ -0,0 +1,105 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.sql.completion;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+
+import java.util.*;
+
+/**
+ * Prefix index of object names.
+ * Names are kept sorted in upper case, so names with the same prefix form a continuous range.
+ * Found objects are returned in the original order. Virtual objects are always returned (their children are searched).
+ * Index doesn't hold objects, lookups are performed in the same list which was indexed.
+ */
+class SQLCompletionNameIndex {
+
+    private final int size;
+    private final String[] names;
+    private final int[] positions;
+    private final int[] virtualPositions;
+
+    SQLCompletionNameIndex(@NotNull List<? extends DBSObject> objects) {
+        this.size = objects.size();
+        Integer[] order = new Integer[objects.size()];
+        String[] upperNames = new String[objects.size()];
+        List<Integer> virtualList = new ArrayList<>();
+        for (int i = 0; i < objects.size(); i++) {
+            DBSObject object = objects.get(i);
+            order[i] = i;
+            upperNames[i] = object.getName() == null ? "" : object.getName().toUpperCase(Locale.ENGLISH);
+            if (DBUtils.isVirtualObject(object)) {
+                virtualList.add(i);
+            }
+        }
+        Arrays.sort(order, Comparator.comparing(i -> upperNames[i]));
+        this.names = new String[order.length];
+        this.positions = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            names[i] = upperNames[order[i]];
+            positions[i] = order[i];
+        }
+        this.virtualPositions = new int[virtualList.size()];
+        for (int i = 0; i < virtualPositions.length; i++) {
+            virtualPositions[i] = virtualList.get(i);
+        }
+    }
+
+    /**
+     * Finds objects which names start with specified prefix
+     * @param objects indexed objects
+     * @param prefix name prefix in upper case
+     */
+    @NotNull
+    List<DBSObject> findByPrefix(@NotNull List<? extends DBSObject> objects, @NotNull String prefix) {
+        if (objects.size() != size) {
+            throw new IllegalArgumentException("Objects list doesn't match the index");
+        }
+        int first = findFirst(prefix);
+        int last = first;
+        while (last < names.length && names[last].startsWith(prefix)) {
+            last++;
+        }
+        int[] found = new int[last - first + virtualPositions.length];
+        System.arraycopy(positions, first, found, 0, last - first);
+        System.arraycopy(virtualPositions, 0, found, last - first, virtualPositions.length);
+        Arrays.sort(found);
+        List<DBSObject> result = new ArrayList<>(found.length);
+        for (int i = 0; i < found.length; i++) {
+            if (i == 0 || found[i] != found[i - 1]) {
+                result.add(objects.get(found[i]));
+            }
+        }
+        return result;
+    }
+
+    private int findFirst(String prefix) {
+        int low = 0, high = names.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (names[mid].compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+}
@@ -23,24 +23,37 @@ import org.jkiss.dbeaver.model.DBFetchProgress;
 import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.data.DBDDataReceiver;
 import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCStatement;
 import org.jkiss.dbeaver.model.impl.AbstractExecutionSource;
 import org.jkiss.dbeaver.model.qm.QMUtils;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.sql.*;
 import org.jkiss.dbeaver.model.sql.data.SQLQueryDataContainer;
+import org.jkiss.dbeaver.model.sql.parser.SQLScriptStreamParser;
 import org.jkiss.dbeaver.utils.RuntimeUtils;
+import org.jkiss.utils.CommonUtils;
 
 import java.lang.reflect.InvocationTargetException;
+import java.sql.BatchUpdateException;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.regex.Pattern;
 
 /**
  * SQLScriptProcessor
  */
 public class SQLScriptProcessor {
     private static final String STAT_LOG_PREFIX = "-----------------> ";
+    // INSERT ... RETURNING and INSERT ... OUTPUT return rows which can't be read from batch
+    private static final Pattern RETURNING_PATTERN = Pattern.compile("\\b(RETURNING|OUTPUT)\\b", Pattern.CASE_INSENSITIVE);
 
     private final DBCExecutionContext executionContext;
     private final List<SQLScriptElement> queries;
+    private final SQLScriptStreamParser scriptParser;
     private final SQLScriptContext scriptContext;
     private final DBDDataReceiver dataReceiver;
     private final Log log;
@@ -53,6 +66,7 @@ public class SQLScriptProcessor {
     private long fetchFlags;
     private SQLScriptCommitType commitType = SQLScriptCommitType.AUTOCOMMIT;
     private SQLScriptErrorHandling errorHandling = SQLScriptErrorHandling.STOP_ROLLBACK;
+    private int batchSize;
 
     public SQLScriptProcessor(
         @NotNull DBCExecutionContext executionContext,
@@ -60,8 +74,32 @@ public class SQLScriptProcessor {
         @NotNull SQLScriptContext scriptContext,
         @NotNull DBDDataReceiver dataReceiver,
         @NotNull Log log) {
+        this(executionContext, queries, null, scriptContext, dataReceiver, log);
+    }
+
+    /**
+     * Executes queries as they are parsed from the script stream.
+     * Progress is not reported by the processor - script reader is supposed to do it.
+     */
+    public SQLScriptProcessor(
+        @NotNull DBCExecutionContext executionContext,
+        @NotNull SQLScriptStreamParser scriptParser,
+        @NotNull SQLScriptContext scriptContext,
+        @NotNull DBDDataReceiver dataReceiver,
+        @NotNull Log log) {
+        this(executionContext, null, scriptParser, scriptContext, dataReceiver, log);
+    }
+
+    private SQLScriptProcessor(
+        DBCExecutionContext executionContext,
+        List<SQLScriptElement> queries,
+        SQLScriptStreamParser scriptParser,
+        SQLScriptContext scriptContext,
+        DBDDataReceiver dataReceiver,
+        Log log) {
         this.executionContext = executionContext;
         this.queries = queries;
+        this.scriptParser = scriptParser;
         this.scriptContext = scriptContext;
         this.dataReceiver = dataReceiver;
         this.log = log;
@@ -91,6 +129,18 @@ public class SQLScriptProcessor {
         this.errorHandling = errorHandling;
     }
 
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Sequential plain INSERT queries (which return no rows) are executed in JDBC batches of this size.
+     * Batches are not used if errors are ignored (failed query can't be skipped in batch).
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
     public void runScript(DBRProgressMonitor monitor) throws DBCException {
         RuntimeUtils.setThreadName("SQL script execution");
         statistics = new DBCStatistics();
@@ -108,14 +158,36 @@ public class SQLScriptProcessor {
                     txnManager.setAutoCommit(monitor, newAutoCommit);
                 }
 
-                monitor.beginTask("Execute queries (" + queries.size() + ")", queries.size());
+                if (queries != null) {
+                    monitor.beginTask("Execute queries (" + queries.size() + ")", queries.size());
+                }
 
-                for (SQLScriptElement query : queries) {
+                Iterator<SQLScriptElement> queryIterator = queries == null ? null : queries.iterator();
+                List<SQLQuery> batchQueries = new ArrayList<>();
+                for (;;) {
                     if (monitor.isCanceled()) {
                         break;
                     }
+                    SQLScriptElement query;
+                    if (queryIterator != null) {
+                        query = queryIterator.hasNext() ? queryIterator.next() : null;
+                    } else {
+                        query = scriptParser.nextQuery();
+                    }
+                    if (query == null) {
+                        break;
+                    }
                     // Execute query
-                    boolean runNext = executeSingleQuery(session, query);
+                    boolean runNext;
+                    if (isBatchQuery(query)) {
+                        batchQueries.add((SQLQuery) query);
+                        runNext = batchQueries.size() < batchSize || executeBatch(session, batchQueries);
+                    } else {
+                        runNext = batchQueries.isEmpty() || executeBatch(session, batchQueries);
+                        if (runNext) {
+                            runNext = executeSingleQuery(session, query);
+                        }
+                    }
                     if (!runNext) {
                         if (lastError == null) {
                             // Execution cancel
@@ -129,9 +201,18 @@ public class SQLScriptProcessor {
                         }
                     }
 
-                    monitor.worked(1);
+                    if (queries != null) {
+                        monitor.worked(1);
+                    }
+                }
+                if (!batchQueries.isEmpty() && lastError == null && !monitor.isCanceled()) {
+                    if (!executeBatch(session, batchQueries)) {
+                        log.error(lastError);
+                    }
+                }
+                if (queries != null) {
+                    monitor.done();
                 }
-                monitor.done();
 
                 // Commit data
                 if (txnManager != null && txnManager.isSupportsTransactions() && !oldAutoCommit && commitType != SQLScriptCommitType.AUTOCOMMIT) {
@@ -209,6 +290,82 @@ public class SQLScriptProcessor {
         return lastError == null || errorHandling == SQLScriptErrorHandling.IGNORE;
     }
 
+    private boolean isBatchQuery(@NotNull SQLScriptElement element) {
+        if (batchSize <= 1 || errorHandling == SQLScriptErrorHandling.IGNORE || !(element instanceof SQLQuery)) {
+            return false;
+        }
+        SQLQuery query = (SQLQuery) element;
+        return CommonUtils.isEmpty(query.getParameters()) &&
+            SQLConstants.KEYWORD_INSERT.equalsIgnoreCase(
+                SQLUtils.getFirstKeyword(SQLUtils.getDialectFromDataSource(executionContext.getDataSource()), query.getText())) &&
+            !RETURNING_PATTERN.matcher(query.getText()).find();
+    }
+
+    private boolean executeBatch(@NotNull DBCSession session, @NotNull List<SQLQuery> batchQueries) {
+        lastError = null;
+        try {
+            if (!(session instanceof JDBCSession)) {
+                // Batches of different queries are supported by JDBC statements only
+                for (SQLQuery query : batchQueries) {
+                    if (!executeSingleQuery(session, query)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            statistics.reset();
+            statistics.setQueryText(batchQueries.get(0).getText());
+            long execStartTime = System.currentTimeMillis();
+            log.debug(STAT_LOG_PREFIX + "Execute batch of " + batchQueries.size() + " queries");
+            try (JDBCStatement dbStat = ((JDBCSession) session).createStatement()) {
+                for (SQLQuery query : batchQueries) {
+                    dbStat.addBatch(query.getText());
+                }
+                int[] updateCounts = dbStat.executeBatch();
+                statistics.addExecuteTime(System.currentTimeMillis() - execStartTime);
+                for (int updateCount : updateCounts) {
+                    statistics.addStatementsCount();
+                    if (updateCount > 0) {
+                        statistics.addRowsUpdated(updateCount);
+                    }
+                }
+            } catch (BatchUpdateException e) {
+                int failedIndex = getFailedBatchQuery(e.getUpdateCounts(), batchQueries.size());
+                if (failedIndex < 0) {
+                    lastError = new DBCException("Batch of " + batchQueries.size() + " queries failed", e, executionContext);
+                } else {
+                    SQLQuery failedQuery = batchQueries.get(failedIndex);
+                    statistics.setQueryText(failedQuery.getText());
+                    lastError = new DBCException("Query failed:\n" + failedQuery.getText(), e, executionContext);
+                }
+            } catch (SQLException e) {
+                lastError = new DBCException(e, executionContext);
+            }
+            log.debug(STAT_LOG_PREFIX + "Time: " + RuntimeUtils.formatExecutionTime(statistics.getExecuteTime()) +
+                (statistics.getRowsUpdated() >= 0 ? ", updated " + statistics.getRowsUpdated() + " row(s)" : ""));
+        } finally {
+            batchQueries.clear();
+        }
+        return lastError == null;
+    }
+
+    /**
+     * Returns index of the failed batch query or -1 if driver didn't report it.
+     * Drivers either stop on the first error (and return counts of executed queries only)
+     * or continue and mark failed queries with EXECUTE_FAILED.
+     */
+    private static int getFailedBatchQuery(int[] updateCounts, int batchSize) {
+        if (updateCounts == null) {
+            return -1;
+        }
+        for (int i = 0; i < updateCounts.length; i++) {
+            if (updateCounts[i] == Statement.EXECUTE_FAILED) {
+                return i;
+            }
+        }
+        return updateCounts.length < batchSize ? updateCounts.length : -1;
+    }
+
     private void executeStatement(@NotNull DBCSession session, SQLQuery sqlQuery, long startTime) throws DBCException {
         SQLQueryDataContainer dataContainer = new SQLQueryDataContainer(() -> executionContext, sqlQuery, scriptContext, log);
         DBCExecutionSource source = new AbstractExecutionSource(dataContainer, session.getExecutionContext(), this, sqlQuery);
@@ -30,6 +30,15 @@ import java.util.List;
 import java.util.Map;
 
 public abstract class SQLGenerator<OBJECT> extends DBRRunnableWithResult<String> {
+
+    /**
+     * Receives generated SQL while generation is in progress.
+     * Parts come in the order of generator objects, their concatenation is the generator result.
+     */
+    public interface PartialResultListener {
+        void onPartialResult(String sqlPart);
+    }
+
     protected List<OBJECT> objects;
     private boolean fullyQualifiedNames = true;
     private boolean compactSQL = false;
@@ -38,11 +47,19 @@ public abstract class SQLGenerator<OBJECT> extends DBRRunnableWithResult<String>
     private boolean showFullDdl = false;
 
     private Map<String, Object> generatorOptions = new LinkedHashMap<>();
+    private volatile PartialResultListener partialResultListener;
 
     public void initGenerator(List<OBJECT> objects) {
         this.objects = objects;
     }
 
+    /**
+     * Reads generator input which is accessible only in UI thread (e.g. current selection).
+     * Called in UI thread before generator is run in background.
+     */
+    public void prepareGenerator() {
+    }
+
     public List<OBJECT> getObjects() {
         return objects;
     }
@@ -100,6 +117,17 @@ public abstract class SQLGenerator<OBJECT> extends DBRRunnableWithResult<String>
         }
     }
 
+    public void setPartialResultListener(PartialResultListener partialResultListener) {
+        this.partialResultListener = partialResultListener;
+    }
+
+    protected void firePartialResult(String sqlPart) {
+        PartialResultListener listener = this.partialResultListener;
+        if (listener != null && !sqlPart.isEmpty()) {
+            listener.onPartialResult(sqlPart);
+        }
+    }
+
     protected String getLineSeparator() {
         return compactSQL ? " " : "\n";
     }
@@ -128,7 +156,9 @@ public abstract class SQLGenerator<OBJECT> extends DBRRunnableWithResult<String>
         StringBuilder sql = new StringBuilder(100);
         try {
             for (OBJECT object : objects) {
+                int partStart = sql.length();
                 generateSQL(monitor, sql, object);
+                firePartialResult(sql.substring(partStart));
             }
         } catch (DBException e) {
             throw new InvocationTargetException(e);
@@ -16,12 +16,16 @@
  */
 package org.jkiss.dbeaver.model.sql.generator;
 
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.model.DBPScriptObject;
 import org.jkiss.dbeaver.model.DBPScriptObjectExt;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.sql.SQLConstants;
 import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.model.struct.DBSObjectContainer;
 import org.jkiss.dbeaver.model.struct.DBStructUtils;
 import org.jkiss.dbeaver.model.struct.rdb.DBSTable;
 import org.jkiss.utils.CommonUtils;
@@ -31,9 +35,18 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 public class SQLGeneratorDDL extends SQLGenerator<DBPScriptObject> {
 
+    // Maximum number of objects which DDL is generated at once
+    private static final int MAX_GENERATOR_JOBS = 4;
+
+    private interface DDLPart {
+        String generateDDL(DBRProgressMonitor monitor) throws DBException;
+    }
+
     @Override
     public void run(DBRProgressMonitor monitor) throws InvocationTargetException, InterruptedException {
         boolean allTables = true;
@@ -46,20 +59,106 @@ public class SQLGeneratorDDL extends SQLGenerator<DBPScriptObject> {
                 tableList.add((DBSTable) object);
             }
         }
+        List<DDLPart> parts = new ArrayList<>();
         if (!allTables) {
-            super.run(monitor);
+            List<DBSObject> objectList = new ArrayList<>();
+            for (DBPScriptObject object : objects) {
+                if (object instanceof DBSObject) {
+                    objectList.add((DBSObject) object);
+                }
+            }
+            // Catalog data is prefetched before generation so DDL of different objects is mostly rendered from cache
+            DBStructUtils.cacheStructure(monitor, objectList, DBSObjectContainer.STRUCT_ATTRIBUTES | DBSObjectContainer.STRUCT_ASSOCIATIONS);
+            for (DBPScriptObject object : objects) {
+                parts.add(partMonitor -> {
+                    StringBuilder sql = new StringBuilder();
+                    generateSQL(partMonitor, sql, object);
+                    return sql.toString();
+                });
+            }
+            result = generateParts(monitor, parts, "\n");
             return;
         }
 
-        StringBuilder sql = new StringBuilder(100);
         Map<String, Object> options = new HashMap<>();
         addOptions(options);
         try {
-            DBStructUtils.generateTableListDDL(monitor, sql, tableList, options, false);
+            for (DBStructUtils.TableDDLPart<DBSTable> tablePart : DBStructUtils.getTableListDDLParts(monitor, tableList, options)) {
+                parts.add(partMonitor -> tablePart.generateDDL(partMonitor, false));
+            }
         } catch (DBException e) {
             throw new InvocationTargetException(e);
         }
-        result = sql.toString().trim();
+        result = generateParts(monitor, parts, "").trim();
+    }
+
+    /**
+     * Generates DDL parts in parallel. Parts are appended to the result (and passed to partial result listener)
+     * in their original order.
+     */
+    private String generateParts(DBRProgressMonitor monitor, List<DDLPart> parts, String partSeparator) throws InvocationTargetException, InterruptedException {
+        // Each slot receives part DDL or generation error
+        AtomicReferenceArray<Object> partResults = new AtomicReferenceArray<>(parts.size());
+        AtomicInteger nextPart = new AtomicInteger();
+        Object partLock = new Object();
+
+        List<AbstractJob> generatorJobs = new ArrayList<>();
+        int jobCount = Math.min(MAX_GENERATOR_JOBS, parts.size());
+        for (int i = 0; i < jobCount; i++) {
+            AbstractJob job = new AbstractJob("Generate DDL") {
+                @Override
+                protected IStatus run(DBRProgressMonitor jobMonitor) {
+                    for (int index = nextPart.getAndIncrement(); index < parts.size() && !jobMonitor.isCanceled(); index = nextPart.getAndIncrement()) {
+                        Object partResult;
+                        try {
+                            partResult = parts.get(index).generateDDL(jobMonitor);
+                        } catch (Throwable e) {
+                            partResult = e;
+                        }
+                        partResults.set(index, partResult);
+                        synchronized (partLock) {
+                            partLock.notifyAll();
+                        }
+                    }
+                    return Status.OK_STATUS;
+                }
+            };
+            job.setUser(false);
+            job.setSystem(true);
+            generatorJobs.add(job);
+            job.schedule();
+        }
+
+        StringBuilder sql = new StringBuilder(100);
+        monitor.beginTask("Generate DDL", parts.size());
+        try {
+            for (int i = 0; i < parts.size(); i++) {
+                Object partResult;
+                synchronized (partLock) {
+                    while ((partResult = partResults.get(i)) == null) {
+                        if (monitor.isCanceled()) {
+                            throw new InterruptedException();
+                        }
+                        partLock.wait(100);
+                    }
+                }
+                if (partResult instanceof DBException) {
+                    throw new InvocationTargetException((DBException) partResult);
+                } else if (partResult instanceof Throwable) {
+                    throw new InvocationTargetException(new DBException("Error generating DDL", (Throwable) partResult));
+                }
+                String partSQL = (i > 0 ? partSeparator : "") + partResult;
+                sql.append(partSQL);
+                firePartialResult(partSQL);
+                monitor.worked(1);
+            }
+        } finally {
+            for (AbstractJob job : generatorJobs) {
+                job.cancel();
+            }
+            monitor.done();
+        }
+        return sql.toString();
     }
 
     @Override
@@ -44,6 +44,7 @@ public class SQLParserContext {
     @NotNull
     private final IDocument document;
     private TPRuleBasedScanner scanner;
+    private SQLScriptStatementIndex statementIndex;
 
     public SQLParserContext(@NotNull DBPContextProvider contextProvider, @NotNull SQLSyntaxManager syntaxManager, @NotNull SQLRuleManager ruleManager, @NotNull IDocument document) {
         this.contextProvider = contextProvider;
@@ -92,6 +93,28 @@ public class SQLParserContext {
             dataSource.getContainer().getPreferenceStore();
     }
 
+    @Nullable
+    public SQLScriptStatementIndex getStatementIndex() {
+        return statementIndex;
+    }
+
+    /**
+     * Enables incremental statement boundary index of the document.
+     * Context must be disposed after that.
+     */
+    public void enableStatementIndex() {
+        if (statementIndex == null) {
+            statementIndex = new SQLScriptStatementIndex(this);
+        }
+    }
+
+    public void dispose() {
+        if (statementIndex != null) {
+            statementIndex.dispose();
+            statementIndex = null;
+        }
+    }
+
     void startScriptEvaluation() {
         getScanner().startEval();
     }
@@ -375,6 +375,8 @@ public class SQLScriptParser
         boolean useBlankLines = syntaxManager.isBlankLineDelimiter();
         final String[] statementDelimiters = syntaxManager.getStatementDelimiters();
         int lastPos = currentPos >= docLength ? docLength - 1 : currentPos;
+        // Blank line delimiters are not indexed. Query bounds are found by empty lines in this case.
+        SQLScriptStatementIndex statementIndex = useBlankLines ? null : context.getStatementIndex();
 
         try {
             int originalPosLine = document.getLineOfOffset(currentPos);
@@ -392,48 +394,49 @@ public class SQLScriptParser
                 }
             }
 
-            int lineOffset = document.getLineOffset(currentLine);
-            int firstLine = currentLine;
-            while (firstLine > 0) {
-                if (useBlankLines) {
-                    if (TextUtils.isEmptyLine(document, firstLine) &&
-                        isDefaultPartition(partitioner, document.getLineOffset(firstLine))) {
-                        break;
-                    }
-                }
-                if (currentLine == firstLine) {
-                    for (String delim : statementDelimiters) {
-                        if (Character.isLetterOrDigit(delim.charAt(0))) {
-                            // Skip literal delimiters
-                            continue;
+            if (statementIndex == null) {
+                int firstLine = currentLine;
+                while (firstLine > 0) {
+                    if (useBlankLines) {
+                        if (TextUtils.isEmptyLine(document, firstLine) &&
+                            isDefaultPartition(partitioner, document.getLineOffset(firstLine))) {
+                            break;
                         }
-                        final int offset = TextUtils.getOffsetOf(document, firstLine, delim);
-                        if (offset >= 0 ) {
-                            int delimOffset = document.getLineOffset(firstLine) + offset + delim.length();
-                            if (isDefaultPartition(partitioner, delimOffset)) {
-                                if (currentPos > startPos) {
-                                    if (docLength > delimOffset) {
-                                        boolean hasValuableChars = false;
-                                        for (int i = delimOffset; i <= lastPos; i++) {
-                                            if (!Character.isWhitespace(document.getChar(i))) {
-                                                hasValuableChars = true;
+                    }
+                    if (currentLine == firstLine) {
+                        for (String delim : statementDelimiters) {
+                            if (Character.isLetterOrDigit(delim.charAt(0))) {
+                                // Skip literal delimiters
+                                continue;
+                            }
+                            final int offset = TextUtils.getOffsetOf(document, firstLine, delim);
+                            if (offset >= 0 ) {
+                                int delimOffset = document.getLineOffset(firstLine) + offset + delim.length();
+                                if (isDefaultPartition(partitioner, delimOffset)) {
+                                    if (currentPos > startPos) {
+                                        if (docLength > delimOffset) {
+                                            boolean hasValuableChars = false;
+                                            for (int i = delimOffset; i <= lastPos; i++) {
+                                                if (!Character.isWhitespace(document.getChar(i))) {
+                                                    hasValuableChars = true;
+                                                    break;
+                                                }
+                                            }
+                                            if (hasValuableChars) {
+                                                startPos = delimOffset;
                                                 break;
                                             }
                                         }
-                                        if (hasValuableChars) {
-                                            startPos = delimOffset;
-                                            break;
-                                        }
                                     }
                                 }
                             }
                         }
                     }
+                    firstLine--;
+                }
+                if (startPos == 0) {
+                    startPos = document.getLineOffset(firstLine);
                 }
-                firstLine--;
-            }
-            if (startPos == 0) {
-                startPos = document.getLineOffset(firstLine);
             }
 
             /*if (currentLine != originalPosLine) {
@@ -467,6 +470,11 @@ public class SQLScriptParser
                 }
             }
 
+            if (statementIndex != null) {
+                // Parse from the nearest statement boundary instead of the document start
+                startPos = statementIndex.getStatementRestartOffset(Math.max(currentPos, 0));
+            }
+
         } catch (BadLocationException e) {
             log.warn(e);
         }
@@ -0,0 +1,182 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jkiss.dbeaver.model.sql.parser;
+
+import org.eclipse.jface.text.DocumentEvent;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentListener;
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.sql.SQLScriptElement;
+import org.jkiss.utils.CommonUtils;
+
+import java.util.Arrays;
+
+/**
+ * Statement boundary index of SQL document.
+ * Keeps end offsets of script statements, i.e. offsets from which the next statement parse starts.
+ *
+ * Statements are parsed lazily (only up to the requested offset). On document change only the damaged region
+ * is invalidated: statements after it are kept as candidates and re-attached once re-parse reaches one of their
+ * boundaries (statement parse doesn't depend on the text before its start).
+ * Candidates left by different changes are separate chains: re-attach stops at the end of the matched chain
+ * and parse continues until it reaches the next one.
+ */
+public class SQLScriptStatementIndex implements IDocumentListener {
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final SQLParserContext context;
+
+    // Statement ends verified against current document text
+    private int[] ends = new int[INITIAL_CAPACITY];
+    private int count;
+    private boolean complete;
+
+    // Statement ends parsed before the last changes (already shifted to current offsets).
+    // tailLinked[i] is true if tailEnds[i] is the next statement end after tailEnds[i - 1]
+    private int[] tailEnds = new int[0];
+    private boolean[] tailLinked = new boolean[0];
+    private int tailPos;
+    private int tailCount;
+
+    // Offset of the document change which is in progress (between document events), -1 if there is no change
+    private int pendingChangeOffset = -1;
+
+    SQLScriptStatementIndex(@NotNull SQLParserContext context) {
+        this.context = context;
+        context.getDocument().addDocumentListener(this);
+    }
+
+    public void dispose() {
+        context.getDocument().removeDocumentListener(this);
+    }
+
+    /**
+     * Returns offset from which statement at specified position may be parsed -
+     * the end of the last statement which ends before this position.
+     */
+    public synchronized int getStatementRestartOffset(int offset) {
+        if (pendingChangeOffset >= 0) {
+            // Document text is being changed (e.g. parse runs in background while user types).
+            // Don't parse it, use only statements which are not affected by the change.
+            int index = Math.min(findFirstEnd(ends, 0, count, offset), getValidCount(pendingChangeOffset));
+            return index == 0 ? 0 : ends[index - 1];
+        }
+        parseUntil(offset);
+        int index = findFirstEnd(ends, 0, count, offset);
+        return index == 0 ? 0 : ends[index - 1];
+    }
+
+    @Override
+    public synchronized void documentAboutToBeChanged(DocumentEvent event) {
+        pendingChangeOffset = event.getOffset();
+    }
+
+    @Override
+    public synchronized void documentChanged(DocumentEvent event) {
+        pendingChangeOffset = -1;
+        int changeOffset = event.getOffset();
+        int removedEnd = changeOffset + event.getLength();
+        int delta = CommonUtils.notEmpty(event.getText()).length() - event.getLength();
+
+        // Statements which end after the changed region are the restart candidates
+        int keepFrom = findFirstEnd(ends, 0, count, removedEnd);
+        int tailKeepFrom = findFirstEnd(tailEnds, tailPos, tailCount, removedEnd);
+        int newTailLength = (count - keepFrom) + (tailCount - tailKeepFrom);
+        int[] newTail = new int[newTailLength];
+        boolean[] newLinked = new boolean[newTailLength];
+        int newTailCount = 0;
+        for (int i = keepFrom; i < count; i++) {
+            newLinked[newTailCount] = i > keepFrom;
+            newTail[newTailCount++] = ends[i] + delta;
+        }
+        for (int i = tailKeepFrom; i < tailCount; i++) {
+            // Verified ends and previous candidates are different chains
+            newLinked[newTailCount] = i > tailKeepFrom && tailLinked[i];
+            newTail[newTailCount++] = tailEnds[i] + delta;
+        }
+        tailEnds = newTail;
+        tailLinked = newLinked;
+        tailPos = 0;
+        tailCount = newTailCount;
+
+        count = getValidCount(changeOffset);
+        complete = false;
+    }
+
+    /**
+     * Number of statements which are not affected by the change at specified offset.
+     * Statement which ends at change offset is damaged. The previous one is damaged too as tokens may look ahead.
+     */
+    private int getValidCount(int changeOffset) {
+        return Math.max(0, findFirstEnd(ends, 0, count, changeOffset) - 1);
+    }
+
+    private void parseUntil(int offset) {
+        IDocument document = context.getDocument();
+        int docLength = document.getLength();
+        while (!complete && (count == 0 || ends[count - 1] < offset)) {
+            int parseOffset = count == 0 ? 0 : ends[count - 1];
+            SQLScriptElement element = parseOffset >= docLength ? null :
+                SQLScriptParser.parseQuery(context, parseOffset, docLength, parseOffset, true, false);
+            int end = element == null ? parseOffset : element.getOffset() + element.getLength();
+            if (end <= parseOffset) {
+                complete = true;
+                tailPos = tailCount = 0;
+                break;
+            }
+            addEnd(end);
+
+            int tailIndex = findFirstEnd(tailEnds, tailPos, tailCount, end);
+            if (tailIndex < tailCount && tailEnds[tailIndex] == end) {
+                // Back in sync with the previous parse. Re-attach the rest of its chain
+                tailIndex++;
+                while (tailIndex < tailCount && tailLinked[tailIndex]) {
+                    addEnd(tailEnds[tailIndex++]);
+                }
+            }
+            tailPos = tailIndex;
+            if (tailPos >= tailCount) {
+                tailPos = tailCount = 0;
+            }
+        }
+    }
+    private void addEnd(int end) {
+        if (count == ends.length) {
+            ends = Arrays.copyOf(ends, ends.length * 2);
+        }
+        ends[count++] = end;
+    }
+
+    /**
+     * Binary search of the first end which is greater or equal to offset
+     */
+    private static int findFirstEnd(int[] array, int from, int to, int offset) {
+        int low = from, high = to;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (array[mid] < offset) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+}
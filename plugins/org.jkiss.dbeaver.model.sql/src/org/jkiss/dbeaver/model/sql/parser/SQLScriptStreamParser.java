@@ -0,0 +1,176 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jkiss.dbeaver.model.sql.parser;
+
+import org.eclipse.jface.text.Document;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.model.DBPContextProvider;
+import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
+import org.jkiss.dbeaver.model.sql.SQLQuery;
+import org.jkiss.dbeaver.model.sql.SQLScriptElement;
+import org.jkiss.dbeaver.model.sql.SQLSyntaxManager;
+import org.jkiss.dbeaver.model.sql.parser.rules.SQLDelimiterRule;
+import org.jkiss.dbeaver.model.text.parser.TPRule;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Splits SQL script stream into queries without reading the whole script into memory.
+ *
+ * Script is parsed by windows with the regular script parser rules. The last query of each window may continue
+ * in the next one, so it is parsed again together with the next window. Window grows only if a single query
+ * doesn't fit in it. Delimiter redefined in the script (e.g. DELIMITER ;;) is carried to the next window.
+ */
+public class SQLScriptStreamParser {
+
+    private static final int WINDOW_SIZE = 1024 * 1024;
+
+    private final DBPContextProvider contextProvider;
+    private final SQLSyntaxManager syntaxManager;
+    private final SQLRuleManager ruleManager;
+    private final Reader reader;
+    private final int windowSize;
+    @Nullable
+    private final SQLDelimiterRule delimiterRule;
+
+    private final StringBuilder buffer = new StringBuilder();
+    private final char[] readBuffer = new char[8192];
+    private final Deque<SQLScriptElement> queries = new ArrayDeque<>();
+    private char[][] delimiters;
+    private boolean eof;
+
+    public SQLScriptStreamParser(@NotNull DBCExecutionContext executionContext, @NotNull Reader reader) {
+        this(executionContext, reader, WINDOW_SIZE);
+    }
+
+    SQLScriptStreamParser(@NotNull DBCExecutionContext executionContext, @NotNull Reader reader, int windowSize) {
+        this.contextProvider = () -> executionContext;
+        this.syntaxManager = new SQLSyntaxManager();
+        this.syntaxManager.init(executionContext.getDataSource());
+        this.ruleManager = new SQLRuleManager(syntaxManager);
+        this.ruleManager.loadRules(executionContext.getDataSource(), false);
+        this.reader = reader;
+        this.windowSize = windowSize;
+        this.delimiterRule = findDelimiterRule(ruleManager);
+    }
+
+    /**
+     * Returns next script query or null if the end of script was reached.
+     * Query offsets are relative to the parse window, not to the script start.
+     */
+    @Nullable
+    public SQLScriptElement nextQuery() throws IOException {
+        while (queries.isEmpty()) {
+            if (eof && buffer.length() == 0) {
+                return null;
+            }
+            parseWindow();
+        }
+        return queries.poll();
+    }
+
+    private void parseWindow() throws IOException {
+        for (int size = windowSize; ; size = buffer.length() + windowSize) {
+            fillBuffer(size);
+            if (buffer.length() == 0) {
+                return;
+            }
+            Document document = new Document(buffer.toString());
+            SQLParserContext parserContext = new SQLParserContext(contextProvider, syntaxManager, ruleManager, document);
+            List<SQLScriptElement> windowQueries = new ArrayList<>();
+            // Delimiters which are in effect after each parsed query
+            List<char[][]> windowDelimiters = new ArrayList<>();
+
+            parserContext.startScriptEvaluation();
+            try {
+                if (delimiterRule != null && delimiters != null) {
+                    delimiterRule.setDelimiters(delimiters);
+                }
+                for (int queryOffset = 0; ; ) {
+                    SQLScriptElement query = SQLScriptParser.parseQuery(
+                        parserContext, queryOffset, document.getLength(), queryOffset, true, false);
+                    if (query == null) {
+                        break;
+                    }
+                    windowQueries.add(query);
+                    windowDelimiters.add(delimiterRule == null ? null : delimiterRule.getDelimiters());
+                    queryOffset = query.getOffset() + query.getLength();
+                }
+            } finally {
+                parserContext.endScriptEvaluation();
+            }
+
+            if (eof) {
+                addQueries(parserContext, windowQueries);
+                buffer.setLength(0);
+                return;
+            }
+            if (windowQueries.size() > 1) {
+                // The last query may be incomplete - parse it again with the next window.
+                // Blocks never cross query bounds so only delimiter has to be carried to the next window.
+                windowQueries.remove(windowQueries.size() - 1);
+                SQLScriptElement lastQuery = windowQueries.get(windowQueries.size() - 1);
+                delimiters = windowDelimiters.get(windowQueries.size() - 1);
+                addQueries(parserContext, windowQueries);
+                buffer.delete(0, lastQuery.getOffset() + lastQuery.getLength());
+                return;
+            }
+        }
+    }
+
+    private void addQueries(SQLParserContext parserContext, List<SQLScriptElement> windowQueries) {
+        if (parserContext.getPreferenceStore().getBoolean(ModelPreferences.SQL_PARAMETERS_ENABLED)) {
+            for (SQLScriptElement element : windowQueries) {
+                if (element instanceof SQLQuery) {
+                    SQLQuery query = (SQLQuery) element;
+                    query.setParameters(SQLScriptParser.parseParameters(parserContext, query.getOffset(), query.getLength()));
+                }
+            }
+        }
+        queries.addAll(windowQueries);
+    }
+
+    private void fillBuffer(int size) throws IOException {
+        while (!eof && buffer.length() < size) {
+            int count = reader.read(readBuffer, 0, Math.min(readBuffer.length, size - buffer.length()));
+            if (count < 0) {
+                eof = true;
+            } else {
+                buffer.append(readBuffer, 0, count);
+            }
+        }
+    }
+
+    @Nullable
+    private static SQLDelimiterRule findDelimiterRule(SQLRuleManager ruleManager) {
+        for (TPRule rule : ruleManager.getAllRules()) {
+            if (rule instanceof SQLDelimiterRule) {
+                return (SQLDelimiterRule) rule;
+            }
+        }
+        return null;
+    }
+
+}
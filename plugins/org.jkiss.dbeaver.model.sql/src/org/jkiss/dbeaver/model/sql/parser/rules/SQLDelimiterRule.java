@@ -51,6 +51,18 @@ public class SQLDelimiterRule implements TPRule {
         return delimiters;
     }
 
+    /**
+     * Restores delimiters previously obtained with {@link #getDelimiters()}.
+     */
+    public void setDelimiters(char[][] delimiters) {
+        int maxLength = 0;
+        for (char[] delim : delimiters) {
+            maxLength = Math.max(maxLength, delim.length);
+        }
+        this.delimiters = delimiters;
+        this.buffer = new char[maxLength];
+    }
+
     @Override
     public TPToken evaluate(TPCharacterScanner scanner) {
         for (int i = 0; ; i++) {
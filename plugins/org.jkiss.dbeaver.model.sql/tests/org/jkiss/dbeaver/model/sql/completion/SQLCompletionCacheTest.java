@@ -0,0 +1,182 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jkiss.dbeaver.model.sql.completion;
+
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.sql.completion.SQLCompletionNameIndexTest.TestObject;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.model.struct.DBSObjectReference;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SQLCompletionCacheTest {
+
+    @Mock
+    private DBPDataSource dataSource;
+    @Mock
+    private DBPDataSourceContainer dataSourceContainer;
+
+    private final SQLCompletionCache cache = SQLCompletionCache.getInstance();
+
+    @Before
+    public void init() {
+        Mockito.when(dataSource.getContainer()).thenReturn(dataSourceContainer);
+        Mockito.when(dataSourceContainer.isConnected()).thenReturn(true);
+    }
+
+    @Test
+    public void shouldIndexChildrenRequestedAgain() {
+        DBSObject parent = new TestObject("schema", false, dataSource);
+        List<DBSObject> children = children("orders", "customers", "order_items");
+
+        // First request just registers the list
+        assertSame(children, cache.findChildrenByPrefix(parent, children, "ORDER"));
+        assertEquals(Arrays.asList(children.get(0), children.get(2)), cache.findChildrenByPrefix(parent, children, "ORDER"));
+        assertEquals(Collections.singletonList(children.get(1)), cache.findChildrenByPrefix(parent, children, "CUST"));
+    }
+
+    @Test
+    public void shouldNotUseIndexOfOtherList() {
+        DBSObject parent = new TestObject("schema", false, dataSource);
+        List<DBSObject> children = children("orders", "customers");
+        cache.findChildrenByPrefix(parent, children, "ORDER");
+        cache.findChildrenByPrefix(parent, children, "ORDER");
+
+        // Container returned new children list (e.g. after refresh)
+        List<DBSObject> newChildren = children("orders", "order_items");
+        assertSame(newChildren, cache.findChildrenByPrefix(parent, newChildren, "ORDER"));
+        assertEquals(newChildren, cache.findChildrenByPrefix(parent, newChildren, "ORDER"));
+        // Not a list
+        Set<DBSObject> childrenSet = new LinkedHashSet<>(children);
+        assertSame(childrenSet, cache.findChildrenByPrefix(parent, childrenSet, "ORDER"));
+    }
+
+    @Test
+    public void shouldDropIndexOfDisconnectedContainer() {
+        DBSObject parent = new TestObject("schema", false, dataSource);
+        List<DBSObject> children = children("orders", "customers");
+        cache.findChildrenByPrefix(parent, children, "ORDER");
+
+        Mockito.when(dataSourceContainer.isConnected()).thenReturn(false);
+        assertSame(children, cache.findChildrenByPrefix(parent, children, "ORDER"));
+        Mockito.when(dataSourceContainer.isConnected()).thenReturn(true);
+        // Index is built again
+        assertSame(children, cache.findChildrenByPrefix(parent, children, "ORDER"));
+        assertEquals(Collections.singletonList(children.get(0)), cache.findChildrenByPrefix(parent, children, "ORDER"));
+    }
+
+    @Test
+    public void shouldNarrowResultsOfShorterPrefix() {
+        SQLCompletionCache.ReferencesKey key = new SQLCompletionCache.ReferencesKey(new Object(), "options", false);
+        List<DBSObjectReference> references = references("ORDERS", "order_items", "OWNERS");
+        assertNull(cache.findReferences(key, "O", false));
+        cache.cacheReferences(key, "O", references, false);
+
+        assertSame(references, cache.findReferences(key, "O", false));
+        assertEquals(Arrays.asList(references.get(0), references.get(1)), cache.findReferences(key, "Ord", false));
+        assertEquals(Collections.singletonList(references.get(1)), cache.findReferences(key, "ORDER_", false));
+        assertEquals(Collections.emptyList(), cache.findReferences(key, "OX", false));
+    }
+
+    @Test
+    public void shouldNarrowResultsOfSearchInsideNames() {
+        SQLCompletionCache.ReferencesKey key = new SQLCompletionCache.ReferencesKey(new Object(), "options", false);
+        List<DBSObjectReference> references = references("ORDERS", "order_items", "OWNERS");
+        cache.cacheReferences(key, "R", references, false);
+
+        assertEquals(Arrays.asList(references.get(0), references.get(1)), cache.findReferences(key, "RD", true));
+        assertEquals(Collections.singletonList(references.get(1)), cache.findReferences(key, "RDER_", true));
+    }
+
+    @Test
+    public void shouldNotNarrowTruncatedResults() {
+        SQLCompletionCache.ReferencesKey key = new SQLCompletionCache.ReferencesKey(new Object(), "options", false);
+        List<DBSObjectReference> references = references("ORDERS", "OWNERS");
+        cache.cacheReferences(key, "O", references, true);
+
+        // Truncated results are returned for the same prefix only
+        assertSame(references, cache.findReferences(key, "O", false));
+        assertNull(cache.findReferences(key, "OR", false));
+
+        // Longer prefix search is cached separately
+        List<DBSObjectReference> longerReferences = references("ORDERS");
+        cache.cacheReferences(key, "OR", longerReferences, false);
+        assertSame(longerReferences, cache.findReferences(key, "OR", false));
+        assertEquals(longerReferences, cache.findReferences(key, "ORD", false));
+    }
+
+    @Test
+    public void shouldNotNarrowCaseSensitiveResults() {
+        SQLCompletionCache.ReferencesKey key = new SQLCompletionCache.ReferencesKey(new Object(), "options", true);
+        cache.cacheReferences(key, "O", references("ORDERS", "Orders"), false);
+
+        assertNull(cache.findReferences(key, "Or", false));
+    }
+
+    @Test
+    public void shouldSeparateResultsOfDifferentKeys() {
+        Object container = new Object();
+        SQLCompletionCache.ReferencesKey key = new SQLCompletionCache.ReferencesKey(container, "options", false);
+        cache.cacheReferences(key, "O", references("ORDERS"), false);
+
+        assertNull(cache.findReferences(new SQLCompletionCache.ReferencesKey(new Object(), "options", false), "O", false));
+        assertNull(cache.findReferences(new SQLCompletionCache.ReferencesKey(container, "other", false), "O", false));
+        assertNotNull(cache.findReferences(new SQLCompletionCache.ReferencesKey(container, "options", false), "O", false));
+    }
+
+    @Test
+    public void shouldDropResultsOfDisconnectedContainer() {
+        DBSObject container = new TestObject("schema", false, dataSource);
+        SQLCompletionCache.ReferencesKey key = new SQLCompletionCache.ReferencesKey(container, "options", false);
+        cache.cacheReferences(key, "O", references("ORDERS"), false);
+
+        Mockito.when(dataSourceContainer.isConnected()).thenReturn(false);
+        assertNull(cache.findReferences(key, "O", false));
+        Mockito.when(dataSourceContainer.isConnected()).thenReturn(true);
+        assertNull(cache.findReferences(key, "O", false));
+    }
+
+    private static List<DBSObject> children(String... names) {
+        List<DBSObject> children = new ArrayList<>();
+        for (String name : names) {
+            children.add(new TestObject(name, false));
+        }
+        return children;
+    }
+
+    private static List<DBSObjectReference> references(String... names) {
+        List<DBSObjectReference> references = new ArrayList<>();
+        for (String name : names) {
+            DBSObjectReference reference = Mockito.mock(DBSObjectReference.class);
+            Mockito.when(reference.getName()).thenReturn(name);
+            references.add(reference);
+        }
+        return references;
+    }
+
+}
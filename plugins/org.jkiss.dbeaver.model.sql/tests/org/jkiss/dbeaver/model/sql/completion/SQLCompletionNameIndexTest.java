@@ -0,0 +1,163 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jkiss.dbeaver.model.sql.completion;
+
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPVirtualObject;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class SQLCompletionNameIndexTest {
+
+    @Test
+    public void shouldFindPrefixRangeInOriginalOrder() {
+        List<DBSObject> objects = objects("orders", "Customers", "order_items", "CUSTOMER", "accounts", "ORDERS_ARCHIVE", "zones");
+        SQLCompletionNameIndex index = new SQLCompletionNameIndex(objects);
+
+        assertEquals(names("orders", "order_items", "ORDERS_ARCHIVE"), names(index.findByPrefix(objects, "ORDER")));
+        assertEquals(names("orders", "ORDERS_ARCHIVE"), names(index.findByPrefix(objects, "ORDERS")));
+        assertEquals(names("Customers", "CUSTOMER"), names(index.findByPrefix(objects, "CUSTOMER")));
+        // Range at the start and at the end of sorted names
+        assertEquals(names("accounts"), names(index.findByPrefix(objects, "A")));
+        assertEquals(names("zones"), names(index.findByPrefix(objects, "Z")));
+        // Empty prefix matches everything
+        assertEquals(names(objects), names(index.findByPrefix(objects, "")));
+    }
+
+    @Test
+    public void shouldReturnNothingIfPrefixDoesNotMatch() {
+        List<DBSObject> objects = objects("b", "d");
+        SQLCompletionNameIndex index = new SQLCompletionNameIndex(objects);
+
+        assertEquals(Collections.emptyList(), index.findByPrefix(objects, "A"));
+        assertEquals(Collections.emptyList(), index.findByPrefix(objects, "C"));
+        assertEquals(Collections.emptyList(), index.findByPrefix(objects, "E"));
+        assertEquals(Collections.emptyList(), index.findByPrefix(objects, "BB"));
+    }
+
+    @Test
+    public void shouldKeepDuplicateNames() {
+        List<DBSObject> objects = objects("t", "T", "t2", "t");
+        SQLCompletionNameIndex index = new SQLCompletionNameIndex(objects);
+
+        assertEquals(objects, index.findByPrefix(objects, "T"));
+        assertEquals(names("t2"), names(index.findByPrefix(objects, "T2")));
+    }
+
+    @Test
+    public void shouldMergeVirtualObjects() {
+        List<DBSObject> objects = new ArrayList<>();
+        objects.add(new TestObject("users", false));
+        objects.add(new TestObject("virtual_b", true));
+        objects.add(new TestObject("accounts", false));
+        objects.add(new TestObject("user_roles", false));
+        objects.add(new TestObject("users_virtual", true));
+        SQLCompletionNameIndex index = new SQLCompletionNameIndex(objects);
+
+        // Virtual objects are returned for any prefix, without duplicates and in the original order
+        assertEquals(names("users", "virtual_b", "user_roles", "users_virtual"), names(index.findByPrefix(objects, "USER")));
+        assertEquals(names("virtual_b", "accounts", "users_virtual"), names(index.findByPrefix(objects, "ACC")));
+        assertEquals(names("virtual_b", "users_virtual"), names(index.findByPrefix(objects, "X")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectOtherList() {
+        List<DBSObject> objects = objects("a", "b");
+        SQLCompletionNameIndex index = new SQLCompletionNameIndex(objects);
+        index.findByPrefix(objects("a"), "A");
+    }
+
+    private static List<DBSObject> objects(String... names) {
+        List<DBSObject> objects = new ArrayList<>();
+        for (String name : names) {
+            objects.add(new TestObject(name, false));
+        }
+        return objects;
+    }
+
+    private static List<String> names(String... names) {
+        return Arrays.asList(names);
+    }
+
+    private static List<String> names(List<? extends DBSObject> objects) {
+        List<String> names = new ArrayList<>();
+        for (DBSObject object : objects) {
+            names.add(object.getName());
+        }
+        return names;
+    }
+
+    static class TestObject implements DBSObject, DBPVirtualObject {
+        private final String name;
+        private final boolean virtual;
+        private final DBPDataSource dataSource;
+
+        TestObject(String name, boolean virtual) {
+            this(name, virtual, null);
+        }
+
+        TestObject(String name, boolean virtual, DBPDataSource dataSource) {
+            this.name = name;
+            this.virtual = virtual;
+            this.dataSource = dataSource;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String getDescription() {
+            return null;
+        }
+
+        @Override
+        public boolean isPersisted() {
+            return true;
+        }
+
+        @Override
+        public DBSObject getParentObject() {
+            return null;
+        }
+
+        @Override
+        public DBPDataSource getDataSource() {
+            return dataSource;
+        }
+
+        @Override
+        public boolean isVirtual() {
+            return virtual;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+}
@@ -0,0 +1,347 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jkiss.dbeaver.model.sql.parser;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.DocumentEvent;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
+import org.jkiss.dbeaver.model.impl.sql.BasicSQLDialect;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
+import org.jkiss.dbeaver.model.sql.SQLScriptElement;
+import org.jkiss.dbeaver.model.sql.SQLSyntaxManager;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compares statement index and index based query extraction with the full script parse after document changes
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class SQLScriptStatementIndexTest {
+
+    private static final String SCRIPT =
+        "SELECT 1;\n" +
+        "SELECT 'a;b' FROM t1;\n" +
+        "/* comment; with delimiter */\n" +
+        "SELECT 3;\n" +
+        "SELECT 4; SELECT 5;\n" +
+        "SELECT 6";
+
+    private static final String[] RANDOM_FRAGMENTS = {
+        "SELECT 1", "FROM t", ";", ";", "'", "/*", "*/", "--", "\n", " ", "x", "\"", "(", ")"
+    };
+
+    @Mock
+    private DBCExecutionContext executionContext;
+    @Mock
+    private DBPDataSource dataSource;
+    @Mock
+    private DBPDataSourceContainer dataSourceContainer;
+    @Mock
+    private DBPPreferenceStore preferenceStore;
+
+    private Document document;
+    private SQLParserContext context;
+    private SQLScriptStatementIndex index;
+
+    @Before
+    public void init() {
+        Mockito.when(executionContext.getDataSource()).thenReturn(dataSource);
+        Mockito.when(dataSource.getContainer()).thenReturn(dataSourceContainer);
+        Mockito.when(dataSource.getSQLDialect()).thenReturn(new BasicSQLDialect());
+        Mockito.when(dataSourceContainer.getPreferenceStore()).thenReturn(preferenceStore);
+        Mockito.when(preferenceStore.getString(Mockito.anyString())).thenReturn("");
+
+        document = new Document(SCRIPT);
+        context = createContext(document);
+        context.enableStatementIndex();
+        index = context.getStatementIndex();
+    }
+
+    @After
+    public void dispose() {
+        context.dispose();
+    }
+
+    @Test
+    public void shouldMatchFullParse() throws Exception {
+        assertTrue(parseEnds(document.get()).size() > 5);
+        assertIndex();
+        assertExtraction();
+    }
+
+    @Test
+    public void shouldUpdateAfterInsertion() throws Exception {
+        assertIndex();
+        replace(SCRIPT.indexOf("SELECT 3") + 7, 0, "3 + 1, 'x'");
+        assertIndex();
+        assertExtraction();
+    }
+
+    @Test
+    public void shouldUpdateAfterDeletion() throws Exception {
+        assertIndex();
+        String statement = "SELECT 4; ";
+        replace(SCRIPT.indexOf(statement), statement.length(), "");
+        assertIndex();
+        assertExtraction();
+    }
+
+    @Test
+    public void shouldMergeStatementsWhenDelimiterIsRemoved() throws Exception {
+        assertIndex();
+        int delimiterOffset = SCRIPT.indexOf("SELECT 3") + 8;
+        replace(delimiterOffset, 1, "");
+        assertIndex();
+        assertExtraction();
+        // Delimiter is replaced with other character
+        replace(SCRIPT.indexOf("SELECT 1") + 8, 1, ",");
+        assertIndex();
+        assertExtraction();
+    }
+
+    @Test
+    public void shouldSplitStatementWhenDelimiterIsInserted() throws Exception {
+        assertIndex();
+        replace(SCRIPT.indexOf(" FROM t1"), 0, ";");
+        assertIndex();
+        assertExtraction();
+        // Statement with doubled delimiter
+        replace(document.get().indexOf("SELECT 6") - 1, 0, ";");
+        assertIndex();
+        assertExtraction();
+    }
+
+    @Test
+    public void shouldUpdateAfterEditsInsideString() throws Exception {
+        assertIndex();
+        int quoteOffset = SCRIPT.indexOf("b'") + 1;
+        // Delimiter inside string doesn't split the statement
+        replace(quoteOffset, 0, ";;");
+        assertIndex();
+        assertExtraction();
+        // Unclosed string consumes all following statements
+        replace(quoteOffset + 2, 1, "");
+        assertIndex();
+        assertExtraction();
+        // String is closed again, following statements are restored
+        replace(quoteOffset + 2, 0, "'");
+        assertIndex();
+        assertExtraction();
+    }
+
+    @Test
+    public void shouldUpdateAfterEditsInsideBlockComment() throws Exception {
+        assertIndex();
+        int commentEnd = SCRIPT.indexOf("*/");
+        replace(commentEnd, 0, "; SELECT 2;");
+        assertIndex();
+        assertExtraction();
+        // Unclosed comment hides all following statements
+        replace(commentEnd + 11, 2, "");
+        assertIndex();
+        assertExtraction();
+        replace(commentEnd + 11, 0, "*/");
+        assertIndex();
+        assertExtraction();
+        // Comment is opened in the first statement
+        replace(SCRIPT.indexOf("SELECT 1") + 7, 0, "/*");
+        assertIndex();
+        assertExtraction();
+    }
+
+    @Test
+    public void shouldReparsePreviousStatement() throws Exception {
+        assertIndex();
+        // Change at the end offset of statement: statement which ends there is damaged
+        int firstEnd = parseEnds(document.get()).get(0);
+        replace(firstEnd, 0, "0");
+        assertIndex();
+        assertExtraction();
+        // Change at the start of the next statement: previous statement is re-parsed too
+        int secondStart = document.get().indexOf("SELECT 'a");
+        replace(secondStart, 0, "x");
+        assertIndex();
+        assertExtraction();
+        replace(secondStart, 1, "");
+        assertIndex();
+        assertExtraction();
+    }
+
+    @Test
+    public void shouldNotReattachUnverifiedCandidates() throws Exception {
+        assertIndex();
+        // First change is only partially re-parsed
+        replace(SCRIPT.indexOf("SELECT 1") + 7, 0, "'");
+        index.getStatementRestartOffset(SCRIPT.indexOf("SELECT 3"));
+        // Second change restores statement boundaries before the first one
+        replace(SCRIPT.indexOf("SELECT 1") + 7, 1, "");
+        replace(0, 0, "SELECT 0;\n");
+        index.getStatementRestartOffset(document.getLength() / 2);
+        replace(document.getLength(), 0, ";\nSELECT 7;");
+        assertIndex();
+        assertExtraction();
+    }
+
+    @Test
+    public void shouldMatchFullParseAfterRandomEdits() throws Exception {
+        Random random = new Random(12345);
+        for (int i = 0; i < 500; i++) {
+            int length = document.getLength();
+            int offset = random.nextInt(length + 1);
+            if (random.nextInt(3) == 0 && offset < length) {
+                replace(offset, Math.min(1 + random.nextInt(10), length - offset), "");
+            } else {
+                replace(offset, 0, RANDOM_FRAGMENTS[random.nextInt(RANDOM_FRAGMENTS.length)]);
+            }
+            // Lazy parse of the document part
+            if (random.nextBoolean()) {
+                int position = random.nextInt(document.getLength() + 1);
+                assertEquals("Edit " + i, getExpectedRestartOffset(parseEnds(document.get()), position), index.getStatementRestartOffset(position));
+            }
+            if (i % 25 == 0) {
+                assertIndex();
+            }
+        }
+        assertIndex();
+    }
+
+    @Test
+    public void shouldNotParseDuringDocumentChange() throws Exception {
+        assertIndex();
+        int changeOffset = SCRIPT.indexOf("SELECT 4");
+        // Query arrives between document events (e.g. from background parse)
+        index.documentAboutToBeChanged(new DocumentEvent(document, changeOffset, 0, "'"));
+        int restartOffset = index.getStatementRestartOffset(document.getLength());
+        assertTrue(restartOffset < changeOffset);
+        assertEquals(getExpectedRestartOffset(parseEnds(document.get()), restartOffset + 1), restartOffset);
+
+        replace(changeOffset, 0, "'");
+        assertIndex();
+        assertExtraction();
+    }
+
+    @Test
+    public void shouldMatchFullParseWithQueriesFromOtherThread() throws Exception {
+        Object lock = new Object();
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Thread parser = new Thread(() -> {
+            Random random = new Random(1);
+            try {
+                for (int i = 0; i < 2000; i++) {
+                    synchronized (lock) {
+                        index.getStatementRestartOffset(random.nextInt(document.getLength() + 1));
+                    }
+                    Thread.yield();
+                }
+            } catch (Throwable e) {
+                error.set(e);
+            }
+        });
+        parser.start();
+        Random random = new Random(2);
+        for (int i = 0; i < 300; i++) {
+            synchronized (lock) {
+                int offset = random.nextInt(document.getLength() + 1);
+                if (random.nextBoolean() && offset < document.getLength()) {
+                    document.replace(offset, 1, "");
+                } else {
+                    document.replace(offset, 0, RANDOM_FRAGMENTS[random.nextInt(RANDOM_FRAGMENTS.length)]);
+                }
+            }
+            Thread.yield();
+        }
+        parser.join();
+        if (error.get() != null) {
+            throw new AssertionError("Background parse failed", error.get());
+        }
+        assertIndex();
+    }
+
+    private SQLParserContext createContext(Document document) {
+        SQLSyntaxManager syntaxManager = new SQLSyntaxManager();
+        syntaxManager.init(dataSource);
+        SQLRuleManager ruleManager = new SQLRuleManager(syntaxManager);
+        ruleManager.loadRules(dataSource, false);
+        return new SQLParserContext(() -> executionContext, syntaxManager, ruleManager, document);
+    }
+
+    private void replace(int offset, int length, String text) throws BadLocationException {
+        document.replace(offset, length, text);
+    }
+
+    /**
+     * Statement ends of the full script parse
+     */
+    private List<Integer> parseEnds(String text) {
+        List<Integer> ends = new ArrayList<>();
+        SQLParserContext parseContext = createContext(new Document(text));
+        for (SQLScriptElement element : SQLScriptParser.extractScriptQueries(parseContext, 0, text.length(), true, false, false)) {
+            ends.add(element.getOffset() + element.getLength());
+        }
+        return ends;
+    }
+
+    private static int getExpectedRestartOffset(List<Integer> ends, int offset) {
+        int result = 0;
+        for (int end : ends) {
+            if (end < offset) {
+                result = end;
+            }
+        }
+        return result;
+    }
+
+    private void assertIndex() {
+        String text = document.get();
+        List<Integer> ends = parseEnds(text);
+        for (int offset = 0; offset <= text.length(); offset++) {
+            assertEquals("Restart offset of " + offset + " in:\n" + text, getExpectedRestartOffset(ends, offset), index.getStatementRestartOffset(offset));
+        }
+    }
+
+    private void assertExtraction() {
+        String text = document.get();
+        SQLParserContext parseContext = createContext(new Document(text));
+        for (SQLScriptElement expected : SQLScriptParser.extractScriptQueries(parseContext, 0, text.length(), true, false, false)) {
+            if (expected.getLength() < 2) {
+                continue;
+            }
+            SQLScriptElement actual = SQLScriptParser.extractQueryAtPos(context, expected.getOffset() + 1);
+            assertNotNull("Query at " + expected.getOffset() + " in:\n" + text, actual);
+            assertEquals("Query at " + expected.getOffset() + " in:\n" + text, expected.getText(), actual.getText());
+        }
+    }
+
+}
@@ -0,0 +1,112 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jkiss.dbeaver.model.sql.parser;
+
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
+import org.jkiss.dbeaver.model.impl.sql.BasicSQLDialect;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
+import org.jkiss.dbeaver.model.sql.SQLControlCommand;
+import org.jkiss.dbeaver.model.sql.SQLScriptElement;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SQLScriptStreamParserTest {
+
+    private static final String ROUTINE_SCRIPT =
+        "DELIMITER $$\n" +
+        "CREATE PROCEDURE test_proc()\n" +
+        "BEGIN\n" +
+        "  SELECT 1;\n" +
+        "  SELECT 2;\n" +
+        "END$$\n" +
+        "DELIMITER ;\n" +
+        "SELECT 3;\n" +
+        "SELECT 4;\n";
+
+    @Mock
+    private DBCExecutionContext executionContext;
+    @Mock
+    private DBPDataSource dataSource;
+    @Mock
+    private DBPDataSourceContainer dataSourceContainer;
+    @Mock
+    private DBPPreferenceStore preferenceStore;
+
+    @Before
+    public void init() {
+        Mockito.when(executionContext.getDataSource()).thenReturn(dataSource);
+        Mockito.when(dataSource.getContainer()).thenReturn(dataSourceContainer);
+        Mockito.when(dataSource.getSQLDialect()).thenReturn(new BasicSQLDialect() {
+            @Override
+            public String getScriptDelimiterRedefiner() {
+                return "DELIMITER";
+            }
+        });
+        Mockito.when(dataSourceContainer.getPreferenceStore()).thenReturn(preferenceStore);
+        Mockito.when(preferenceStore.getString(Mockito.anyString())).thenReturn("");
+    }
+
+    @Test
+    public void shouldKeepRedefinedDelimiterForRoutineAcrossWindows() throws Exception {
+        // Window is much smaller than the routine body
+        List<SQLScriptElement> queries = parse(ROUTINE_SCRIPT, 20);
+
+        assertEquals(5, queries.size());
+        assertTrue(queries.get(0) instanceof SQLControlCommand);
+        assertEquals("CREATE PROCEDURE test_proc()\nBEGIN\n  SELECT 1;\n  SELECT 2;\nEND", queries.get(1).getText());
+        assertTrue(queries.get(2) instanceof SQLControlCommand);
+        assertEquals("SELECT 3", queries.get(3).getText());
+        assertEquals("SELECT 4", queries.get(4).getText());
+    }
+
+    @Test
+    public void shouldSplitLikeWholeScript() throws Exception {
+        List<SQLScriptElement> expected = parse(ROUTINE_SCRIPT, ROUTINE_SCRIPT.length() * 2);
+        for (int windowSize = 1; windowSize < ROUTINE_SCRIPT.length(); windowSize++) {
+            List<SQLScriptElement> queries = parse(ROUTINE_SCRIPT, windowSize);
+            assertEquals(expected.size(), queries.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).getText(), queries.get(i).getText());
+            }
+        }
+    }
+
+    private List<SQLScriptElement> parse(String script, int windowSize) throws Exception {
+        SQLScriptStreamParser parser = new SQLScriptStreamParser(executionContext, new StringReader(script), windowSize);
+        List<SQLScriptElement> queries = new ArrayList<>();
+        for (SQLScriptElement query = parser.nextQuery(); query != null; query = parser.nextQuery()) {
+            queries.add(query);
+        }
+        return queries;
+    }
+
+}
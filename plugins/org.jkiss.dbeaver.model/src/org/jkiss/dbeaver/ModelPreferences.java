@@ -66,6 +66,10 @@ public final class ModelPreferences
     public static final String META_SEPARATE_CONNECTION = "database.meta.separate.connection"; //$NON-NLS-1$
     public static final String META_CASE_SENSITIVE = "database.meta.casesensitive"; //$NON-NLS-1$
     public static final String META_USE_SERVER_SIDE_FILTERS = "database.meta.server.side.filters"; //$NON-NLS-1$
+    public static final String META_PERSISTENT_CACHE = "database.meta.persistent.cache"; //$NON-NLS-1$
+    public static final String META_SEARCH_INDEX = "database.meta.search.index"; //$NON-NLS-1$
+    public static final String META_CHANGE_TRACKING = "database.meta.change.tracking"; //$NON-NLS-1$
+    public static final String META_CHANGE_TRACKING_INTERVAL = "database.meta.change.tracking.interval"; //$NON-NLS-1$
 
     public static final String META_CLIENT_NAME_DISABLE = "database.meta.client.name.disable"; //$NON-NLS-1$
     public static final String META_CLIENT_NAME_OVERRIDE = "database.meta.client.name.override"; //$NON-NLS-1$
@@ -183,6 +187,10 @@ public final class ModelPreferences
         PrefUtils.setDefaultPreferenceValue(store, META_SEPARATE_CONNECTION, true);
         PrefUtils.setDefaultPreferenceValue(store, META_CASE_SENSITIVE, false);
         PrefUtils.setDefaultPreferenceValue(store, META_USE_SERVER_SIDE_FILTERS, true);
+        PrefUtils.setDefaultPreferenceValue(store, META_PERSISTENT_CACHE, false);
+        PrefUtils.setDefaultPreferenceValue(store, META_SEARCH_INDEX, false);
+        PrefUtils.setDefaultPreferenceValue(store, META_CHANGE_TRACKING, false);
+        PrefUtils.setDefaultPreferenceValue(store, META_CHANGE_TRACKING_INTERVAL, 30);
 
         PrefUtils.setDefaultPreferenceValue(store, META_CLIENT_NAME_DISABLE, false);
         PrefUtils.setDefaultPreferenceValue(store, META_CLIENT_NAME_OVERRIDE, false);
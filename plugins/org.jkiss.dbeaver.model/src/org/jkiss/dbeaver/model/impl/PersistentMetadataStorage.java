@@ -0,0 +1,434 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.DBPEvent;
+import org.jkiss.dbeaver.model.DBPEventListener;
+import org.jkiss.dbeaver.model.app.DBPDataSourceRegistry;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.*;
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.function.Function;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Data source metadata saved in the project metadata folder (metadata snapshots, search indexes).
+ *
+ * Storages are kept per data source container and storage type.
+ * Storage is released when its container is disconnected (contents are saved and read again after connect)
+ * or deleted (file is deleted too). Storages must not keep strong references on data sources,
+ * because disconnect isn't always reported to registry listeners.
+ * File is written in background, via temporary file.
+ */
+public abstract class PersistentMetadataStorage {
+
+    private static final Log log = Log.getLog(PersistentMetadataStorage.class);
+
+    private static final long SAVE_DELAY = 2000;
+
+    private static final byte VALUE_NULL = 0;
+    private static final byte VALUE_STRING = 1;
+    private static final byte VALUE_INT = 2;
+    private static final byte VALUE_LONG = 3;
+    private static final byte VALUE_DOUBLE = 4;
+    private static final byte VALUE_DECIMAL = 5;
+    private static final byte VALUE_BOOLEAN = 6;
+    private static final byte VALUE_DATE = 7;
+    private static final byte VALUE_TIME = 8;
+    private static final byte VALUE_TIMESTAMP = 9;
+    private static final byte VALUE_BYTES = 10;
+    private static final byte VALUE_ARRAY = 11;
+
+    // Array component types which are saved as is. Arrays of other types are read as Object[].
+    private static final Map<String, Class<?>> ARRAY_COMPONENT_TYPES = new HashMap<>();
+
+    static {
+        for (Class<?> type : new Class<?>[] {
+            Object.class, String.class, Integer.class, Long.class, Short.class, Byte.class, Double.class, Float.class,
+            BigDecimal.class, Boolean.class, Character.class, java.util.Date.class, java.sql.Date.class, Time.class, Timestamp.class,
+            byte[].class, int.class, long.class, short.class, byte.class, double.class, float.class, boolean.class, char.class })
+        {
+            ARRAY_COMPONENT_TYPES.put(type.getName(), type);
+        }
+    }
+
+    private static final Map<String, PersistentMetadataStorage> storages = new HashMap<>();
+    private static final Set<DBPDataSourceRegistry> registries = Collections.newSetFromMap(new WeakHashMap<>());
+    private static final DBPEventListener registryListener = PersistentMetadataStorage::handleRegistryEvent;
+
+    /**
+     * Writes storage contents captured by {@link #prepareContents()}
+     */
+    protected interface ContentsWriter {
+        void writeContents(DataOutputStream out) throws IOException;
+    }
+
+    protected final DBPDataSourceContainer container;
+    private final String storageName;
+    private final File file;
+    private final int fileMagic;
+    private final int fileVersion;
+
+    // Guarded by this
+    private SaveJob saveJob;
+    private boolean released;
+
+    protected PersistentMetadataStorage(@NotNull DBPDataSourceContainer container, @NotNull String folderName, @NotNull String storageName, int fileMagic, int fileVersion) {
+        this.container = container;
+        this.storageName = storageName;
+        this.file = new File(new File(container.getProject().getMetadataFolder(true), folderName), CommonUtils.escapeFileName(container.getId()) + ".dat");
+        this.fileMagic = fileMagic;
+        this.fileVersion = fileVersion;
+    }
+
+    /**
+     * Returns storage of the container. Creates new storage if there is no storage or it was released.
+     */
+    @NotNull
+    protected static <T extends PersistentMetadataStorage> T getStorage(@NotNull DBPDataSourceContainer container, @NotNull Class<T> type, @NotNull Function<DBPDataSourceContainer, T> factory) {
+        String key = type.getName() + "|" + container.getId();
+        PersistentMetadataStorage storage;
+        DBPDataSourceRegistry registry = null;
+        synchronized (storages) {
+            storage = storages.get(key);
+            if (storage == null) {
+                storage = factory.apply(container);
+                storages.put(key, storage);
+                if (registries.add(container.getRegistry())) {
+                    registry = container.getRegistry();
+                }
+            }
+        }
+        if (registry != null) {
+            registry.addDataSourceListener(registryListener);
+        }
+        return type.cast(storage);
+    }
+
+    private static void handleRegistryEvent(DBPEvent event) {
+        if (!(event.getObject() instanceof DBPDataSourceContainer)) {
+            return;
+        }
+        DBPDataSourceContainer eventContainer = (DBPDataSourceContainer) event.getObject();
+        boolean deleted = event.getAction() == DBPEvent.Action.OBJECT_REMOVE;
+        boolean disconnected = event.getAction() == DBPEvent.Action.OBJECT_UPDATE &&
+            Boolean.FALSE.equals(event.getEnabled()) && !eventContainer.isConnected();
+        if (!deleted && !disconnected) {
+            return;
+        }
+        List<PersistentMetadataStorage> releasedStorages = new ArrayList<>();
+        synchronized (storages) {
+            for (Iterator<PersistentMetadataStorage> iter = storages.values().iterator(); iter.hasNext(); ) {
+                PersistentMetadataStorage storage = iter.next();
+                if (storage.container == eventContainer) {
+                    iter.remove();
+                    releasedStorages.add(storage);
+                }
+            }
+        }
+        for (PersistentMetadataStorage storage : releasedStorages) {
+            storage.release(deleted);
+        }
+    }
+
+    private void release(boolean deleted) {
+        synchronized (this) {
+            released = true;
+            if (saveJob != null) {
+                saveJob.cancel();
+            }
+        }
+        dispose();
+        if (deleted) {
+            deleteFile();
+        } else {
+            // Saved synchronously, so new storage of reconnected container reads actual file
+            save();
+        }
+    }
+
+    protected synchronized boolean isReleased() {
+        return released;
+    }
+
+    /**
+     * Called when storage is released. Implementations should stop their background jobs.
+     */
+    protected void dispose() {
+    }
+
+    /**
+     * Reads file contents (after header)
+     */
+    protected abstract void readContents(@NotNull DataInputStream in) throws IOException;
+
+    /**
+     * Captures storage contents which have to be saved.
+     * @return null if nothing was changed
+     */
+    @Nullable
+    protected abstract ContentsWriter prepareContents();
+
+    /**
+     * Reads storage file.
+     * @return true if file was read
+     */
+    protected boolean loadFile() {
+        if (!file.exists()) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new InflaterInputStream(new FileInputStream(file))))) {
+            if (in.readInt() != fileMagic || in.readInt() != fileVersion) {
+                log.debug("Unsupported " + storageName + " format: " + file.getAbsolutePath());
+                return false;
+            }
+            readContents(in);
+            return true;
+        } catch (IOException e) {
+            log.debug("Error reading " + storageName + " " + file.getAbsolutePath(), e);
+            return false;
+        }
+    }
+
+    protected void deleteFile() {
+        if (file.exists() && !file.delete()) {
+            log.debug("Can't delete " + storageName + " " + file.getAbsolutePath());
+        }
+    }
+
+    protected synchronized void scheduleSave() {
+        if (released) {
+            return;
+        }
+        if (saveJob == null) {
+            saveJob = new SaveJob();
+        }
+        saveJob.schedule(SAVE_DELAY);
+    }
+
+    private void save() {
+        ContentsWriter writer = prepareContents();
+        if (writer == null) {
+            return;
+        }
+        File folder = file.getParentFile();
+        if (!folder.exists() && !folder.mkdirs()) {
+            log.debug("Can't create " + storageName + " folder " + folder.getAbsolutePath());
+            return;
+        }
+        File tempFile = new File(folder, file.getName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new DeflaterOutputStream(new FileOutputStream(tempFile))))) {
+            out.writeInt(fileMagic);
+            out.writeInt(fileVersion);
+            writer.writeContents(out);
+        } catch (IOException e) {
+            log.debug("Error writing " + storageName + " " + tempFile.getAbsolutePath(), e);
+            return;
+        }
+        deleteFile();
+        if (!tempFile.renameTo(file)) {
+            log.debug("Can't rename " + storageName + " " + tempFile.getAbsolutePath());
+        }
+    }
+
+    private class SaveJob extends AbstractJob {
+        SaveJob() {
+            super("Save " + storageName + " of '" + container.getName() + "'");
+            setUser(false);
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            if (!isReleased()) {
+                save();
+            }
+            return Status.OK_STATUS;
+        }
+    }
+
+    ////////////////////////////////////////////////////////
+    // Values
+
+    public static void writeString(@NotNull DataOutputStream out, @NotNull String str) throws IOException {
+        byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    @NotNull
+    public static String readString(@NotNull DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Checks that arrays with this component type are read with the same type.
+     */
+    public static boolean isSupportedArrayComponent(@NotNull Class<?> type) {
+        return ARRAY_COMPONENT_TYPES.get(type.getName()) == type;
+    }
+
+    /**
+     * Writes simple value (string, number, boolean, date/time, bytes) or array of simple values.
+     * Other values are written as strings.
+     */
+    public static void writeValue(@NotNull DataOutputStream out, @Nullable Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(VALUE_NULL);
+        } else if (value instanceof String) {
+            out.writeByte(VALUE_STRING);
+            writeString(out, (String) value);
+        } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            out.writeByte(VALUE_INT);
+            out.writeInt(((Number) value).intValue());
+        } else if (value instanceof Long) {
+            out.writeByte(VALUE_LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Double || value instanceof Float) {
+            out.writeByte(VALUE_DOUBLE);
+            out.writeDouble(((Number) value).doubleValue());
+        } else if (value instanceof BigDecimal) {
+            out.writeByte(VALUE_DECIMAL);
+            writeString(out, ((BigDecimal) value).toPlainString());
+        } else if (value instanceof Boolean) {
+            out.writeByte(VALUE_BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof Timestamp) {
+            out.writeByte(VALUE_TIMESTAMP);
+            out.writeLong(((Timestamp) value).getTime());
+            out.writeInt(((Timestamp) value).getNanos());
+        } else if (value instanceof Time) {
+            out.writeByte(VALUE_TIME);
+            out.writeLong(((Time) value).getTime());
+        } else if (value instanceof java.util.Date) {
+            out.writeByte(VALUE_DATE);
+            out.writeLong(((java.util.Date) value).getTime());
+        } else if (value instanceof byte[]) {
+            out.writeByte(VALUE_BYTES);
+            out.writeInt(((byte[]) value).length);
+            out.write((byte[]) value);
+        } else if (value.getClass().isArray()) {
+            Class<?> componentType = value.getClass().getComponentType();
+            out.writeByte(VALUE_ARRAY);
+            writeString(out, isSupportedArrayComponent(componentType) ? componentType.getName() : Object.class.getName());
+            int length = Array.getLength(value);
+            out.writeInt(length);
+            for (int i = 0; i < length; i++) {
+                writeValue(out, Array.get(value, i));
+            }
+        } else {
+            out.writeByte(VALUE_STRING);
+            writeString(out, value.toString());
+        }
+    }
+
+    @Nullable
+    public static Object readValue(@NotNull DataInputStream in) throws IOException {
+        byte valueType = in.readByte();
+        switch (valueType) {
+            case VALUE_NULL:
+                return null;
+            case VALUE_STRING:
+                return readString(in);
+            case VALUE_INT:
+                return in.readInt();
+            case VALUE_LONG:
+                return in.readLong();
+            case VALUE_DOUBLE:
+                return in.readDouble();
+            case VALUE_DECIMAL:
+                return new BigDecimal(readString(in));
+            case VALUE_BOOLEAN:
+                return in.readBoolean();
+            case VALUE_DATE:
+                return new java.sql.Date(in.readLong());
+            case VALUE_TIME:
+                return new Time(in.readLong());
+            case VALUE_TIMESTAMP: {
+                Timestamp timestamp = new Timestamp(in.readLong());
+                timestamp.setNanos(in.readInt());
+                return timestamp;
+            }
+            case VALUE_BYTES: {
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                return bytes;
+            }
+            case VALUE_ARRAY: {
+                Class<?> componentType = ARRAY_COMPONENT_TYPES.getOrDefault(readString(in), Object.class);
+                Object array = Array.newInstance(componentType, in.readInt());
+                for (int i = 0, length = Array.getLength(array); i < length; i++) {
+                    Object item = toComponentValue(readValue(in), componentType);
+                    if (item != null) {
+                        try {
+                            Array.set(array, i, item);
+                        } catch (IllegalArgumentException e) {
+                            throw new IOException("Bad " + componentType.getName() + " array element: " + item, e);
+                        }
+                    }
+                }
+                return array;
+            }
+            default:
+                throw new IOException("Bad value type: " + valueType);
+        }
+    }
+
+    /**
+     * Converts read value to array component type (values of some types are written as wider types)
+     */
+    @Nullable
+    private static Object toComponentValue(@Nullable Object value, @NotNull Class<?> type) {
+        if (value instanceof Number) {
+            Number number = (Number) value;
+            if (type == Short.class || type == short.class) {
+                return number.shortValue();
+            } else if (type == Byte.class || type == byte.class) {
+                return number.byteValue();
+            } else if (type == Float.class || type == float.class) {
+                return number.floatValue();
+            } else if (type == Integer.class || type == int.class) {
+                return number.intValue();
+            } else if (type == Long.class || type == long.class) {
+                return number.longValue();
+            } else if (type == Double.class || type == double.class) {
+                return number.doubleValue();
+            }
+        } else if (value instanceof String && ((String) value).length() == 1 && (type == Character.class || type == char.class)) {
+            return ((String) value).charAt(0);
+        }
+        return value;
+    }
+
+}
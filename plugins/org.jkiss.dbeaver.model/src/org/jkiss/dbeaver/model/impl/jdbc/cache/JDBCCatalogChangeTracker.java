@@ -0,0 +1,202 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.cache;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.impl.jdbc.JDBCDataSource;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSCatalogChangeTracker;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.model.struct.cache.AbstractObjectCache;
+
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * Catalog change tracker which compares per-object catalog state (e.g. last DDL time) with the previous one.
+ * If data source provides metadata change marker (see {@link JDBCMetadataMarkerProvider}) then object state is read
+ * only after marker change.
+ */
+public abstract class JDBCCatalogChangeTracker<DATASOURCE extends JDBCDataSource> implements DBSCatalogChangeTracker {
+
+    // Some databases (e.g. Oracle) limit number of IN list expressions
+    protected static final int MAX_IN_LIST_SIZE = 1000;
+
+    /**
+     * Catalog object identity
+     */
+    protected static final class ObjectKey {
+        public final String container;
+        public final String type;
+        public final String name;
+
+        public ObjectKey(@NotNull String container, @NotNull String type, @NotNull String name) {
+            this.container = container;
+            this.type = type;
+            this.name = name;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof ObjectKey)) {
+                return false;
+            }
+            ObjectKey key = (ObjectKey) obj;
+            return container.equals(key.container) && type.equals(key.type) && name.equals(key.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return container.hashCode() * 31 + type.hashCode() * 7 + name.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return container + "." + name + " (" + type + ")";
+        }
+    }
+
+    protected final DATASOURCE dataSource;
+    private String marker;
+    private Map<ObjectKey, String> state;
+
+    protected JDBCCatalogChangeTracker(DATASOURCE dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @NotNull
+    @Override
+    public synchronized Collection<DBSObject> readChangedObjects(@NotNull DBRProgressMonitor monitor) throws DBException {
+        Map<ObjectKey, String> prevState = this.state;
+        Map<ObjectKey, String> newState;
+        try (JDBCSession session = DBUtils.openMetaSession(monitor, dataSource, "Read catalog changes")) {
+            String newMarker = null;
+            if (dataSource instanceof JDBCMetadataMarkerProvider) {
+                newMarker = ((JDBCMetadataMarkerProvider) dataSource).readMetadataChangeMarker(session);
+                if (prevState != null && newMarker != null && newMarker.equals(marker)) {
+                    return Collections.emptyList();
+                }
+            }
+            newState = readCatalogState(session);
+            this.marker = newMarker;
+            this.state = newState;
+        } catch (SQLException e) {
+            throw new DBException(e, dataSource);
+        }
+        if (prevState == null) {
+            return Collections.emptyList();
+        }
+
+        Set<DBSObject> changedObjects = new LinkedHashSet<>();
+        Set<String> changedContainers = new LinkedHashSet<>();
+        for (Map.Entry<ObjectKey, String> entry : newState.entrySet()) {
+            ObjectKey key = entry.getKey();
+            String prevObjectState = prevState.get(key);
+            if (prevObjectState == null) {
+                // Created
+                if (isTrackedContainer(prevState, key.container)) {
+                    changedContainers.add(key.container);
+                }
+            } else if (!prevObjectState.equals(entry.getValue())) {
+                DBSObject object = findCachedObject(key);
+                if (object != null) {
+                    changedObjects.add(object);
+                }
+            }
+        }
+        for (ObjectKey key : prevState.keySet()) {
+            if (!newState.containsKey(key)) {
+                // Dropped
+                if (isTrackedContainer(newState, key.container)) {
+                    changedContainers.add(key.container);
+                }
+            }
+        }
+        for (String containerName : changedContainers) {
+            DBSObject container = findCachedContainer(containerName);
+            if (container != null) {
+                changedObjects.add(container);
+            }
+        }
+        return changedObjects;
+    }
+
+    /**
+     * Adds container to the state. Objects are compared only in containers which were tracked by both checks -
+     * contents of containers cached after the previous check are not treated as created objects.
+     */
+    protected static void addTrackedContainer(@NotNull Map<ObjectKey, String> state, @NotNull String container) {
+        state.put(new ObjectKey(container, "", ""), "");
+    }
+
+    /**
+     * Checks that some of container contents is cached. Contents of other containers aren't tracked.
+     */
+    protected static boolean isCachedContainer(@NotNull AbstractObjectCache<?, ?>... caches) {
+        for (AbstractObjectCache<?, ?> cache : caches) {
+            if (cache.isFullyCached() || cache.getCacheSize() > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Splits container names into IN lists of allowed size
+     */
+    @NotNull
+    protected static List<List<String>> splitInList(@NotNull List<String> names) {
+        List<List<String>> result = new ArrayList<>();
+        for (int i = 0; i < names.size(); i += MAX_IN_LIST_SIZE) {
+            result.add(names.subList(i, Math.min(names.size(), i + MAX_IN_LIST_SIZE)));
+        }
+        return result;
+    }
+
+    @NotNull
+    protected static String makeInListParams(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+
+    private static boolean isTrackedContainer(@NotNull Map<ObjectKey, String> state, @NotNull String container) {
+        return state.containsKey(new ObjectKey(container, "", ""));
+    }
+
+    /**
+     * Reads state of catalog objects. State of object must change after any DDL which changes object metadata.
+     * Usually only objects of cached containers are read (see {@link #addTrackedContainer}).
+     */
+    @NotNull
+    protected abstract Map<ObjectKey, String> readCatalogState(@NotNull JDBCSession session) throws SQLException, DBException;
+
+    /**
+     * Finds object in caches. Must not read anything from database.
+     */
+    @Nullable
+    protected abstract DBSObject findCachedObject(@NotNull ObjectKey key);
+
+    /**
+     * Finds container in caches. Must not read anything from database.
+     */
+    @Nullable
+    protected abstract DBSObject findCachedContainer(@NotNull String name);
+
+}
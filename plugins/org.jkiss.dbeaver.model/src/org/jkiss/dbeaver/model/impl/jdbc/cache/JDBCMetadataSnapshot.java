@@ -0,0 +1,523 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.cache;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCStatement;
+import org.jkiss.dbeaver.model.impl.PersistentMetadataStorage;
+import org.jkiss.dbeaver.model.impl.jdbc.exec.JDBCPreparedStatementImpl;
+import org.jkiss.dbeaver.model.navigator.DBNDatabaseNode;
+import org.jkiss.dbeaver.model.navigator.DBNModel;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.math.BigDecimal;
+import java.sql.*;
+import java.util.*;
+
+/**
+ * Persistent snapshot of metadata queries results.
+ *
+ * Result sets read by JDBC metadata caches are saved on disk (in the project metadata folder).
+ * After restart each cache reads its first result set from the snapshot, so navigator is filled
+ * without waiting for the database. Snapshot is revalidated in background: if catalog change marker
+ * (see {@link JDBCMetadataMarkerProvider}) differs from the saved one then snapshot is dropped and
+ * data source navigator node is refreshed.
+ * Each snapshot entry is used at most once per connection, all further cache reloads read the database.
+ * Snapshot is released (and saved) after disconnect.
+ */
+public class JDBCMetadataSnapshot extends PersistentMetadataStorage {
+
+    private static final Log log = Log.getLog(JDBCMetadataSnapshot.class);
+
+    private static final String SNAPSHOT_FOLDER = "metadata-cache";
+    private static final int FILE_MAGIC = 0x44424D53;
+    private static final int FILE_VERSION = 2;
+
+    /**
+     * Saved result set
+     */
+    static class Entry {
+        final String[] labels;
+        final int[] types;
+        final List<Object[]> rows;
+        private Map<String, Integer> columnIndexes;
+
+        Entry(String[] labels, int[] types, List<Object[]> rows) {
+            this.labels = labels;
+            this.types = types;
+            this.rows = rows;
+        }
+
+        @Nullable
+        synchronized Integer getColumnIndex(String label) {
+            if (columnIndexes == null) {
+                columnIndexes = new HashMap<>();
+                for (int i = labels.length; i-- > 0; ) {
+                    columnIndexes.put(labels[i].toUpperCase(Locale.ENGLISH), i);
+                }
+            }
+            return columnIndexes.get(label.toUpperCase(Locale.ENGLISH));
+        }
+    }
+
+    // Guarded by this
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    // Entries loaded from file which weren't validated yet
+    private final Set<String> fileKeys = new HashSet<>();
+    private final Set<String> usedKeys = new HashSet<>();
+    private boolean fileEntriesUsed;
+    private String marker;
+    // Connection the snapshot was opened for. Data source isn't referenced after disconnect.
+    private WeakReference<DBPDataSource> dataSourceRef;
+    private boolean loaded;
+    private boolean disabled;
+    private boolean dirty;
+    private long openTime;
+    private boolean firstLoadReported;
+
+    private JDBCMetadataSnapshot(DBPDataSourceContainer container) {
+        super(container, SNAPSHOT_FOLDER, "metadata snapshot", FILE_MAGIC, FILE_VERSION);
+    }
+
+    /**
+     * Executes cache statement and returns its result set.
+     * If persistent snapshot is enabled then result set is read from snapshot (first time per connection)
+     * or saved in snapshot.
+     *
+     * @param cache     metadata cache
+     * @param owner     cache owner
+     * @param forObject object which children are read (for structure caches)
+     */
+    @Nullable
+    public static JDBCResultSet executeCacheStatement(
+        @NotNull JDBCSession session,
+        @NotNull Object cache,
+        @NotNull DBSObject owner,
+        @Nullable DBSObject forObject,
+        @NotNull JDBCStatement dbStat) throws SQLException
+    {
+        JDBCMetadataSnapshot snapshot = getSnapshot(session.getDataSource());
+        if (snapshot == null) {
+            dbStat.executeStatement();
+            return dbStat.getResultSet();
+        }
+        return snapshot.executeStatement(session, makeEntryKey(cache, owner, forObject, dbStat), dbStat);
+    }
+
+    @Nullable
+    private static JDBCMetadataSnapshot getSnapshot(@NotNull DBPDataSource dataSource) {
+        if (!(dataSource instanceof JDBCMetadataMarkerProvider)) {
+            return null;
+        }
+        DBPDataSourceContainer container = dataSource.getContainer();
+        if (!container.getPreferenceStore().getBoolean(ModelPreferences.META_PERSISTENT_CACHE)) {
+            return null;
+        }
+        JDBCMetadataSnapshot snapshot = getStorage(container, JDBCMetadataSnapshot.class, JDBCMetadataSnapshot::new);
+        return snapshot.open(dataSource) ? snapshot : null;
+    }
+
+    private static String makeEntryKey(Object cache, DBSObject owner, @Nullable DBSObject forObject, JDBCStatement dbStat) {
+        // Prepared statements parameters depend on owner and child objects. Formatted query also contains
+        // parameters values if they were saved by query manager.
+        String query = dbStat instanceof JDBCPreparedStatementImpl ?
+            ((JDBCPreparedStatementImpl) dbStat).getFormattedQuery() : dbStat.getQueryString();
+        return cache.getClass().getName() + "|" + DBUtils.getObjectFullId(owner) + "|" +
+            (forObject == null ? "" : DBUtils.getObjectFullId(forObject)) + "|" + query;
+    }
+
+    /**
+     * Loads snapshot file and starts validation for a new connection
+     */
+    private synchronized boolean open(DBPDataSource dataSource) {
+        if (disabled) {
+            return false;
+        }
+        if (getDataSource() != dataSource) {
+            this.dataSourceRef = new WeakReference<>(dataSource);
+            this.usedKeys.clear();
+            this.openTime = System.currentTimeMillis();
+            this.firstLoadReported = false;
+            if (!loaded) {
+                loaded = true;
+                load();
+            }
+            new ValidateJob(dataSource).schedule();
+        }
+        return true;
+    }
+
+    @Nullable
+    private DBPDataSource getDataSource() {
+        return dataSourceRef == null ? null : dataSourceRef.get();
+    }
+
+    @Override
+    protected synchronized void dispose() {
+        dataSourceRef = null;
+    }
+
+    private JDBCResultSet executeStatement(JDBCSession session, String key, JDBCStatement dbStat) throws SQLException {
+        Entry entry;
+        synchronized (this) {
+            entry = usedKeys.add(key) ? entries.get(key) : null;
+            if (entry != null) {
+                if (fileKeys.contains(key)) {
+                    fileEntriesUsed = true;
+                }
+                if (!firstLoadReported) {
+                    firstLoadReported = true;
+                    log.debug("Metadata of '" + container.getName() + "' read from snapshot in " + (System.currentTimeMillis() - openTime) + "ms");
+                }
+            }
+        }
+        if (entry != null) {
+            return new JDBCMetadataResultSet(session, dbStat, entry);
+        }
+        dbStat.executeStatement();
+        JDBCResultSet dbResult = dbStat.getResultSet();
+        if (dbResult == null) {
+            return null;
+        }
+        entry = readEntry(session, dbResult);
+        if (entry == null) {
+            // Can't save this result set
+            return dbResult;
+        }
+        dbResult.close();
+        if (!session.getProgressMonitor().isCanceled()) {
+            synchronized (this) {
+                entries.put(key, entry);
+                fileKeys.remove(key);
+                scheduleSave();
+            }
+        }
+        return new JDBCMetadataResultSet(session, dbStat, entry);
+    }
+
+    @Nullable
+    private static Entry readEntry(JDBCSession session, JDBCResultSet dbResult) throws SQLException {
+        ResultSetMetaData metaData = dbResult.getMetaData();
+        if (metaData == null) {
+            return null;
+        }
+        int columnCount = metaData.getColumnCount();
+        String[] labels = new String[columnCount];
+        int[] types = new int[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            labels[i] = metaData.getColumnLabel(i + 1);
+            types[i] = metaData.getColumnType(i + 1);
+            if (!isSupportedType(types[i])) {
+                return null;
+            }
+        }
+        List<Object[]> rows = new ArrayList<>();
+        while (dbResult.next()) {
+            if (session.getProgressMonitor().isCanceled()) {
+                break;
+            }
+            Object[] row = new Object[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                row[i] = readValue(dbResult, i + 1, types[i]);
+            }
+            rows.add(row);
+        }
+        return new Entry(labels, types, rows);
+    }
+
+    private static boolean isSupportedType(int type) {
+        switch (type) {
+            case Types.CLOB:
+            case Types.NCLOB:
+            case Types.BLOB:
+            case Types.STRUCT:
+            case Types.REF:
+            case Types.REF_CURSOR:
+            case Types.JAVA_OBJECT:
+            case Types.DATALINK:
+            case Types.ROWID:
+            case Types.SQLXML:
+                return false;
+            default:
+                return true;
+        }
+    }
+
+    @Nullable
+    private static Object readValue(JDBCResultSet dbResult, int index, int type) throws SQLException {
+        Object value;
+        switch (type) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+                value = dbResult.getInt(index);
+                break;
+            case Types.BIGINT:
+                value = dbResult.getLong(index);
+                break;
+            case Types.REAL:
+            case Types.FLOAT:
+            case Types.DOUBLE:
+                value = dbResult.getDouble(index);
+                break;
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+                value = dbResult.getBigDecimal(index);
+                break;
+            case Types.BIT:
+            case Types.BOOLEAN:
+                value = dbResult.getBoolean(index);
+                break;
+            case Types.DATE:
+                value = dbResult.getDate(index);
+                break;
+            case Types.TIME:
+            case Types.TIME_WITH_TIMEZONE:
+                value = dbResult.getTime(index);
+                break;
+            case Types.TIMESTAMP:
+            case Types.TIMESTAMP_WITH_TIMEZONE:
+                value = dbResult.getTimestamp(index);
+                break;
+            case Types.BINARY:
+            case Types.VARBINARY:
+            case Types.LONGVARBINARY:
+                value = dbResult.getBytes(index);
+                break;
+            case Types.ARRAY:
+                Array array = dbResult.getArray(index);
+                value = array == null ? null : toPersistentValue(array.getArray());
+                break;
+            default:
+                value = dbResult.getString(index);
+                break;
+        }
+        return dbResult.wasNull() ? null : value;
+    }
+
+    @Nullable
+    private static Object toPersistentValue(@Nullable Object value) {
+        if (value == null || value instanceof String || value instanceof Integer || value instanceof Long ||
+            value instanceof Double || value instanceof BigDecimal || value instanceof Boolean ||
+            value instanceof java.util.Date || value instanceof byte[])
+        {
+            return value;
+        } else if (value instanceof Short || value instanceof Byte) {
+            return ((Number) value).intValue();
+        } else if (value instanceof Float) {
+            return ((Number) value).doubleValue();
+        } else if (value.getClass().isArray()) {
+            return toPersistentArray(value);
+        }
+        return value.toString();
+    }
+
+    /**
+     * Copies array keeping its component type (drivers return typed arrays, e.g. Long[] for int8[] and oid[]).
+     * Arrays of custom types are converted to string arrays.
+     */
+    private static Object toPersistentArray(Object array) {
+        Class<?> componentType = array.getClass().getComponentType();
+        Class<?> resultType = isSupportedArrayComponent(componentType) ? componentType :
+            (componentType.isArray() ? Object.class : String.class);
+        int length = java.lang.reflect.Array.getLength(array);
+        Object result = java.lang.reflect.Array.newInstance(resultType, length);
+        for (int i = 0; i < length; i++) {
+            Object item = java.lang.reflect.Array.get(array, i);
+            if (resultType == Object.class) {
+                item = toPersistentValue(item);
+            } else if (resultType == String.class && item != null) {
+                item = item.toString();
+            }
+            if (item != null) {
+                java.lang.reflect.Array.set(result, i, item);
+            }
+        }
+        return result;
+    }
+
+    ////////////////////////////////////////////////////////
+    // Validation
+
+    private void validate(DBRProgressMonitor monitor, DBPDataSource dataSource) {
+        String newMarker;
+        try (JDBCSession session = DBUtils.openMetaSession(monitor, dataSource, "Read metadata change marker")) {
+            newMarker = ((JDBCMetadataMarkerProvider) dataSource).readMetadataChangeMarker(session);
+        } catch (Exception e) {
+            log.debug("Error reading metadata change marker of '" + container.getName() + "'", e);
+            newMarker = null;
+        }
+        boolean refresh;
+        synchronized (this) {
+            if (getDataSource() != dataSource) {
+                return;
+            }
+            if (CommonUtils.equalObjects(marker, newMarker)) {
+                fileKeys.clear();
+                if (dirty) {
+                    scheduleSave();
+                }
+                return;
+            }
+            // Entries read after connect are actual, drop only entries loaded from file
+            refresh = fileEntriesUsed;
+            entries.keySet().removeAll(fileKeys);
+            fileKeys.clear();
+            fileEntriesUsed = false;
+            if (newMarker == null) {
+                // Changes can't be detected - do not use snapshot
+                disabled = true;
+                entries.clear();
+                deleteFile();
+            } else {
+                if (marker != null) {
+                    log.debug("Metadata of '" + container.getName() + "' was changed. Snapshot is invalidated.");
+                }
+                marker = newMarker;
+                dirty = true;
+                scheduleSave();
+            }
+        }
+        if (refresh) {
+            DBNModel navigatorModel = DBWorkbench.getPlatform().getNavigatorModel();
+            DBNDatabaseNode node = navigatorModel == null ? null : navigatorModel.getNodeByObject(container);
+            if (node != null) {
+                try {
+                    node.refreshNode(monitor, this);
+                } catch (Exception e) {
+                    log.error("Error refreshing '" + container.getName() + "' metadata", e);
+                }
+            }
+        }
+    }
+
+    private class ValidateJob extends AbstractJob {
+        private final DBPDataSource dataSource;
+
+        ValidateJob(DBPDataSource dataSource) {
+            super("Validate metadata snapshot of '" + container.getName() + "'");
+            this.dataSource = dataSource;
+            setUser(false);
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            validate(monitor, dataSource);
+            return Status.OK_STATUS;
+        }
+    }
+
+    ////////////////////////////////////////////////////////
+    // Persistence
+
+    @Override
+    protected synchronized void scheduleSave() {
+        if (marker == null) {
+            // Not validated yet. Marker must be saved with entries.
+            dirty = true;
+            return;
+        }
+        super.scheduleSave();
+    }
+
+    private void load() {
+        long startTime = System.currentTimeMillis();
+        if (loadFile()) {
+            log.debug("Metadata snapshot of '" + container.getName() + "' loaded (" + entries.size() + " entries) in " + (System.currentTimeMillis() - startTime) + "ms");
+        }
+    }
+
+    @Override
+    protected void readContents(@NotNull DataInputStream in) throws IOException {
+        String savedMarker = readString(in);
+        Map<String, Entry> savedEntries = new LinkedHashMap<>();
+        for (int entryCount = in.readInt(); entryCount > 0; entryCount--) {
+            String key = readString(in);
+            int columnCount = in.readInt();
+            String[] labels = new String[columnCount];
+            int[] types = new int[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                labels[i] = readString(in);
+                types[i] = in.readInt();
+            }
+            int rowCount = in.readInt();
+            List<Object[]> rows = new ArrayList<>(rowCount);
+            for (int r = 0; r < rowCount; r++) {
+                Object[] row = new Object[columnCount];
+                for (int i = 0; i < columnCount; i++) {
+                    row[i] = readValue(in);
+                }
+                rows.add(row);
+            }
+            savedEntries.put(key, new Entry(labels, types, rows));
+        }
+        synchronized (this) {
+            marker = savedMarker;
+            entries.putAll(savedEntries);
+            fileKeys.addAll(savedEntries.keySet());
+        }
+    }
+
+    @Nullable
+    @Override
+    protected synchronized ContentsWriter prepareContents() {
+        if (!dirty || disabled || marker == null) {
+            return null;
+        }
+        String savedMarker = marker;
+        List<Map.Entry<String, Entry>> savedEntries = new ArrayList<>(entries.entrySet());
+        dirty = false;
+        return out -> {
+            writeString(out, savedMarker);
+            out.writeInt(savedEntries.size());
+            for (Map.Entry<String, Entry> me : savedEntries) {
+                Entry entry = me.getValue();
+                writeString(out, me.getKey());
+                out.writeInt(entry.labels.length);
+                for (int i = 0; i < entry.labels.length; i++) {
+                    writeString(out, entry.labels[i]);
+                    out.writeInt(entry.types[i]);
+                }
+                out.writeInt(entry.rows.size());
+                for (Object[] row : entry.rows) {
+                    for (Object value : row) {
+                        writeValue(out, value);
+                    }
+                }
+            }
+        };
+    }
+
+}
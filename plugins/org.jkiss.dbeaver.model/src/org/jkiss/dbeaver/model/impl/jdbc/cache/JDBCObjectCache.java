@@ -85,12 +85,24 @@ public abstract class JDBCObjectCache<OWNER extends DBSObject, OBJECT extends DB
         return getCachedObject(name);
     }
 
-    protected synchronized void loadObjects(DBRProgressMonitor monitor, OWNER owner)
+    protected void loadObjects(DBRProgressMonitor monitor, OWNER owner)
         throws DBException
     {
         if (isFullyCached() || monitor.isCanceled()) {
             return;
         }
+        // Readers do not lock the cache, only concurrent loads wait for each other
+        synchronized (this) {
+            if (isFullyCached() || monitor.isCanceled()) {
+                return;
+            }
+            readObjects(monitor, owner);
+        }
+    }
+
+    private void readObjects(DBRProgressMonitor monitor, OWNER owner)
+        throws DBException
+    {
 
         List<OBJECT> tmpObjectList = new ArrayList<>();
 
@@ -103,8 +115,7 @@ public abstract class JDBCObjectCache<OWNER extends DBSObject, OBJECT extends DB
                 try (JDBCStatement dbStat = prepareObjectsStatement(session, owner)) {
                     monitor.subTask("Load " + getCacheName());
                     dbStat.setFetchSize(DBConstants.METADATA_FETCH_SIZE);
-                    dbStat.executeStatement();
-                    JDBCResultSet dbResult = dbStat.getResultSet();
+                    JDBCResultSet dbResult = JDBCMetadataSnapshot.executeCacheStatement(session, this, owner, null, dbStat);
                     if (dbResult != null) {
                         try {
                             while (dbResult.next()) {
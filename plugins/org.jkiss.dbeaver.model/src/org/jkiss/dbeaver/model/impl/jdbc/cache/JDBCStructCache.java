@@ -47,9 +47,13 @@ public abstract class JDBCStructCache<OWNER extends DBSObject, OBJECT extends DB
 {
     private static final Log log = Log.getLog(JDBCStructCache.class);
 
+    private static final int CHILDREN_LOAD_LOCKS = 16;
+
     private final Object objectNameColumn;
     private volatile boolean childrenCached = false;
     private final Map<OBJECT, SimpleObjectCache<OBJECT, CHILD>> childrenCache = new IdentityHashMap<>();
+    // Children of different objects are loaded in parallel
+    private final Object[] childrenLoadLocks = new Object[CHILDREN_LOAD_LOCKS];
 
     abstract protected JDBCStatement prepareChildrenStatement(@NotNull JDBCSession session, @NotNull OWNER owner, @Nullable OBJECT forObject)
         throws SQLException;
@@ -60,6 +64,9 @@ public abstract class JDBCStructCache<OWNER extends DBSObject, OBJECT extends DB
     protected JDBCStructCache(Object objectNameColumn)
     {
         this.objectNameColumn = objectNameColumn;
+        for (int i = 0; i < childrenLoadLocks.length; i++) {
+            childrenLoadLocks[i] = new Object();
+        }
     }
 
     /**
@@ -72,12 +79,31 @@ public abstract class JDBCStructCache<OWNER extends DBSObject, OBJECT extends DB
      * @throws org.jkiss.dbeaver.DBException
      *             on error
      */
-    public synchronized void loadChildren(DBRProgressMonitor monitor, OWNER owner, @Nullable final OBJECT forObject) throws DBException
+    public void loadChildren(DBRProgressMonitor monitor, OWNER owner, @Nullable final OBJECT forObject) throws DBException
     {
-        if ((forObject == null && this.childrenCached)
-            || (forObject != null && (!forObject.isPersisted() || isChildrenCached(forObject))) || monitor.isCanceled()) {
+        if (isChildrenLoaded(forObject) || monitor.isCanceled()) {
             return;
         }
+        // Loading of all children locks the whole cache (as objects loading does).
+        // Loading of children of a single object locks only this object's stripe.
+        Object loadLock = forObject == null ?
+            this :
+            childrenLoadLocks[(System.identityHashCode(forObject) & Integer.MAX_VALUE) % childrenLoadLocks.length];
+        synchronized (loadLock) {
+            if (isChildrenLoaded(forObject) || monitor.isCanceled()) {
+                return;
+            }
+            readChildren(monitor, owner, forObject);
+        }
+    }
+
+    private boolean isChildrenLoaded(@Nullable OBJECT forObject) {
+        return (forObject == null && this.childrenCached)
+            || (forObject != null && (!forObject.isPersisted() || isChildrenCached(forObject)));
+    }
+
+    private void readChildren(DBRProgressMonitor monitor, OWNER owner, @Nullable final OBJECT forObject) throws DBException
+    {
         if (forObject == null) {
             // If we have some child objects read before that - do not clear them.
             // We have to reuse them because there could be some references in cached model
@@ -95,8 +121,7 @@ public abstract class JDBCStructCache<OWNER extends DBSObject, OBJECT extends DB
             // Load columns
             try (JDBCStatement dbStat = prepareChildrenStatement(session, owner, forObject)) {
                 dbStat.setFetchSize(DBConstants.METADATA_FETCH_SIZE);
-                dbStat.executeStatement();
-                JDBCResultSet dbResult = dbStat.getResultSet();
+                JDBCResultSet dbResult = JDBCMetadataSnapshot.executeCacheStatement(session, this, owner, forObject, dbStat);
                 if (dbResult != null) {
                     try {
                         while (dbResult.next()) {
@@ -146,11 +171,8 @@ public abstract class JDBCStructCache<OWNER extends DBSObject, OBJECT extends DB
 
                         // All children are read. Now assign them to parents
                         for (Map.Entry<OBJECT, List<CHILD>> colEntry : objectMap.entrySet()) {
-                            if (!isChildrenCached(colEntry.getKey())) {
-                                // isChildrenCached may return true if the same cache was read in other thread
-                                // just skip
-                                cacheChildren(colEntry.getKey(), colEntry.getValue());
-                            }
+                            // Children may be already read in other thread - just skip them
+                            cacheChildrenIfAbsent(colEntry.getKey(), colEntry.getValue());
                         }
                         if (forObject == null) {
                             if (objectMap.isEmpty()) {
@@ -159,14 +181,14 @@ public abstract class JDBCStructCache<OWNER extends DBSObject, OBJECT extends DB
                             } else {
                                 // Now set empty column list for other tables
                                 for (OBJECT tmpObject : getAllObjects(monitor, owner)) {
-                                    if (!isChildrenCached(tmpObject) && !objectMap.containsKey(tmpObject)) {
-                                        cacheChildren(tmpObject, new ArrayList<>());
+                                    if (!objectMap.containsKey(tmpObject)) {
+                                        cacheChildrenIfAbsent(tmpObject, new ArrayList<>());
                                     }
                                 }
                                 this.childrenCached = true;
                             }
                         } else if (!objectMap.containsKey(forObject)) {
-                            cacheChildren(forObject, new ArrayList<>());
+                            cacheChildrenIfAbsent(forObject, new ArrayList<>());
                         }
                     } finally {
                         dbResult.close();
@@ -256,6 +278,15 @@ public abstract class JDBCStructCache<OWNER extends DBSObject, OBJECT extends DB
         }
     }
 
+    private void cacheChildrenIfAbsent(OBJECT parent, List<CHILD> children)
+    {
+        synchronized (childrenCache) {
+            if (!childrenCache.containsKey(parent)) {
+                cacheChildren(parent, children);
+            }
+        }
+    }
+
     protected void cacheChildren(OBJECT parent, List<CHILD> children)
     {
         synchronized (childrenCache) {
@@ -0,0 +1,680 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.struct;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
+import org.jkiss.dbeaver.model.impl.PersistentMetadataStorage;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.*;
+import org.jkiss.dbeaver.model.struct.rdb.DBSProcedureContainer;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Local metadata search index.
+ *
+ * Keeps names, descriptions and types of objects supported by the data source structure assistant
+ * (tables, columns, procedures, etc).
+ * Names and descriptions are indexed by character trigrams, so name mask lookups don't scan the whole index
+ * and don't query the database.
+ * The index is built and periodically rebuilt by a background job. Objects are read from the database
+ * with the structure assistant (one query per schema), so server-side changes are seen and metadata caches
+ * aren't filled. Index is searchable only after the first build is finished (or after saved index is loaded),
+ * a build in progress doesn't replace the previous index.
+ * The index is saved in the project metadata folder.
+ */
+public class MetadataSearchIndex extends PersistentMetadataStorage {
+
+    private static final Log log = Log.getLog(MetadataSearchIndex.class);
+
+    private static final String INDEX_FOLDER = "metadata-index";
+    private static final int FILE_MAGIC = 0x44424D49;
+    private static final int FILE_VERSION = 2;
+    private static final long REFRESH_PERIOD = 10 * 60 * 1000L;
+    private static final int MAX_CONTAINER_DEPTH = 3;
+    private static final int MAX_CONTAINER_OBJECTS = 1000000;
+
+    /**
+     * Indexed object
+     */
+    private static class Entry {
+        // Names of parent containers and the object itself. Column path includes table name.
+        final String[] path;
+        final String typeName;
+        final String description;
+
+        Entry(String[] path, String typeName, String description) {
+            this.path = path;
+            this.typeName = typeName;
+            this.description = description;
+        }
+
+        String getName() {
+            return path[path.length - 1];
+        }
+    }
+
+    /**
+     * Immutable searchable state. Replaced as a whole after index build.
+     */
+    private static class Snapshot {
+        final Entry[] entries;
+        // Names of indexed object types
+        final Set<String> typeNames;
+        final Map<Integer, int[]> nameGrams;
+        final Map<Integer, int[]> descriptionGrams;
+
+        Snapshot(Entry[] entries, Set<String> typeNames) {
+            this.entries = entries;
+            this.typeNames = typeNames;
+            this.nameGrams = buildGramIndex(entries, false);
+            this.descriptionGrams = buildGramIndex(entries, true);
+        }
+    }
+
+    private volatile Snapshot snapshot;
+    // Guarded by this
+    private final Map<String, List<Entry>> segments = new LinkedHashMap<>();
+    private final Set<String> typeNames = new LinkedHashSet<>();
+    // Connection the index was refreshed for. Data source isn't referenced after disconnect.
+    private WeakReference<DBPDataSource> dataSourceRef;
+    private boolean loaded;
+    private boolean dirty;
+    private long refreshTime;
+    private RefreshJob refreshJob;
+
+    private MetadataSearchIndex(DBPDataSourceContainer container) {
+        super(container, INDEX_FOLDER, "metadata index", FILE_MAGIC, FILE_VERSION);
+    }
+
+    /**
+     * Searches objects in the local index.
+     * Schedules index refresh if it is outdated or if this is a new connection.
+     *
+     * @param parentObject     search only in this container
+     * @param objectNameMask   name mask (SQL LIKE syntax)
+     * @param searchComments   match mask with object descriptions too
+     * @return found references or null if index is disabled, isn't built yet or doesn't contain some of requested types.
+     * Caller should search in the database then.
+     */
+    @Nullable
+    public static List<DBSObjectReference> findObjectsByMask(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBPDataSource dataSource,
+        @NotNull DBSStructureAssistant<?> structureAssistant,
+        @Nullable DBSObject parentObject,
+        @NotNull DBSObjectType[] objectTypes,
+        @NotNull String objectNameMask,
+        boolean caseSensitive,
+        boolean searchComments,
+        int maxResults)
+    {
+        MetadataSearchIndex index = getIndex(dataSource);
+        if (index == null) {
+            return null;
+        }
+        index.refreshIfNeeded(dataSource, structureAssistant);
+        Snapshot snapshot = index.snapshot;
+        if (snapshot == null || snapshot.entries.length == 0) {
+            return null;
+        }
+        for (DBSObjectType type : objectTypes) {
+            if (!snapshot.typeNames.contains(type.getTypeName())) {
+                return null;
+            }
+        }
+        return index.search(monitor, dataSource, snapshot, parentObject, objectTypes, objectNameMask, caseSensitive, searchComments, maxResults);
+    }
+
+    @Nullable
+    private static MetadataSearchIndex getIndex(@NotNull DBPDataSource dataSource) {
+        DBPDataSourceContainer container = dataSource.getContainer();
+        if (!container.getPreferenceStore().getBoolean(ModelPreferences.META_SEARCH_INDEX)) {
+            return null;
+        }
+        MetadataSearchIndex index = getStorage(container, MetadataSearchIndex.class, MetadataSearchIndex::new);
+        synchronized (index) {
+            if (!index.loaded) {
+                index.loaded = true;
+                index.load();
+            }
+        }
+        return index;
+    }
+
+    private synchronized void refreshIfNeeded(DBPDataSource dataSource, DBSStructureAssistant<?> structureAssistant) {
+        if (refreshJob != null || isReleased()) {
+            return;
+        }
+        DBPDataSource curDataSource = dataSourceRef == null ? null : dataSourceRef.get();
+        if (curDataSource != dataSource || System.currentTimeMillis() - refreshTime > REFRESH_PERIOD) {
+            this.dataSourceRef = new WeakReference<>(dataSource);
+            refreshJob = new RefreshJob(dataSource, structureAssistant);
+            refreshJob.schedule();
+        }
+    }
+
+    @Override
+    protected synchronized void dispose() {
+        dataSourceRef = null;
+        if (refreshJob != null) {
+            refreshJob.cancel();
+        }
+    }
+
+    ////////////////////////////////////////////////////////
+    // Search
+
+    private List<DBSObjectReference> search(
+        DBRProgressMonitor monitor,
+        DBPDataSource dataSource,
+        Snapshot snapshot,
+        DBSObject parentObject,
+        DBSObjectType[] objectTypes,
+        String objectNameMask,
+        boolean caseSensitive,
+        boolean searchComments,
+        int maxResults)
+    {
+        Map<String, DBSObjectType> typeMap = new HashMap<>();
+        for (DBSObjectType type : objectTypes) {
+            typeMap.put(type.getTypeName(), type);
+        }
+        String[] parentPath = parentObject == null || parentObject instanceof DBPDataSource || parentObject instanceof DBPDataSourceContainer ?
+            null : getObjectPath(parentObject);
+        Pattern pattern = Pattern.compile(makeMaskRegex(objectNameMask), caseSensitive ? 0 : Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+
+        Set<Integer> candidates = new TreeSet<>();
+        boolean scanAll = !collectCandidates(snapshot.nameGrams, objectNameMask, candidates);
+        if (searchComments && !scanAll) {
+            scanAll = !collectCandidates(snapshot.descriptionGrams, objectNameMask, candidates);
+        }
+
+        List<DBSObjectReference> result = new ArrayList<>();
+        Map<String, DBSObject> resolvedContainers = new HashMap<>();
+        int count = scanAll ? snapshot.entries.length : candidates.size();
+        Iterator<Integer> candidateIterator = candidates.iterator();
+        for (int i = 0; i < count && result.size() < maxResults && !monitor.isCanceled(); i++) {
+            Entry entry = snapshot.entries[scanAll ? i : candidateIterator.next()];
+            DBSObjectType type = typeMap.get(entry.typeName);
+            if (type == null || (parentPath != null && !isParentPath(parentPath, entry.path))) {
+                continue;
+            }
+            if (!pattern.matcher(entry.getName()).matches() &&
+                !(searchComments && entry.description != null && pattern.matcher(entry.description).matches()))
+            {
+                continue;
+            }
+            DBSObject parent = resolveContainer(monitor, dataSource, entry.path, resolvedContainers);
+            if (parent != null) {
+                result.add(new IndexedObjectReference(entry, parent, type));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Collects entries which contain all trigrams of mask literal parts.
+     * @return false if mask has no trigrams and the whole index must be scanned
+     */
+    private static boolean collectCandidates(Map<Integer, int[]> gramIndex, String mask, Set<Integer> candidates) {
+        int[] found = null;
+        for (String part : mask.toLowerCase(Locale.ENGLISH).split("[%_]")) {
+            for (int i = 0; i + 3 <= part.length(); i++) {
+                int[] posting = gramIndex.get(makeGram(part, i));
+                if (posting == null) {
+                    return true;
+                }
+                found = found == null ? posting : intersect(found, posting);
+                if (found.length == 0) {
+                    return true;
+                }
+            }
+        }
+        if (found == null) {
+            return false;
+        }
+        for (int id : found) {
+            candidates.add(id);
+        }
+        return true;
+    }
+
+    private static int[] intersect(int[] list1, int[] list2) {
+        int[] result = new int[Math.min(list1.length, list2.length)];
+        int pos = 0;
+        for (int i = 0, k = 0; i < list1.length && k < list2.length; ) {
+            if (list1[i] == list2[k]) {
+                result[pos++] = list1[i];
+                i++;
+                k++;
+            } else if (list1[i] < list2[k]) {
+                i++;
+            } else {
+                k++;
+            }
+        }
+        return Arrays.copyOf(result, pos);
+    }
+
+    private static String makeMaskRegex(String mask) {
+        StringBuilder regex = new StringBuilder();
+        StringBuilder literal = new StringBuilder();
+        for (int i = 0; i < mask.length(); i++) {
+            char c = mask.charAt(i);
+            if (c == '%' || c == '_') {
+                if (literal.length() > 0) {
+                    regex.append(Pattern.quote(literal.toString()));
+                    literal.setLength(0);
+                }
+                regex.append(c == '%' ? ".*" : ".");
+            } else {
+                literal.append(c);
+            }
+        }
+        if (literal.length() > 0) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+        return regex.toString();
+    }
+
+    private static boolean isParentPath(String[] parentPath, String[] path) {
+        if (parentPath.length >= path.length) {
+            return false;
+        }
+        for (int i = 0; i < parentPath.length; i++) {
+            if (!parentPath[i].equals(path[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Nullable
+    private static DBSObject resolveContainer(DBRProgressMonitor monitor, DBPDataSource dataSource, String[] path, Map<String, DBSObject> resolved) {
+        String key = String.join("\n", Arrays.asList(path).subList(0, path.length - 1));
+        if (resolved.containsKey(key)) {
+            return resolved.get(key);
+        }
+        DBSObject object = dataSource;
+        try {
+            for (int i = 0; i < path.length - 1 && object != null; i++) {
+                if (object instanceof DBSObjectContainer) {
+                    object = ((DBSObjectContainer) object).getChild(monitor, path[i]);
+                } else {
+                    object = null;
+                }
+            }
+        } catch (DBException e) {
+            log.debug("Error resolving indexed object container", e);
+            object = null;
+        }
+        resolved.put(key, object);
+        return object;
+    }
+
+    private static String[] getObjectPath(DBSObject object) {
+        List<String> path = new ArrayList<>();
+        for (DBSObject parent = object; parent != null && !(parent instanceof DBPDataSource); parent = parent.getParentObject()) {
+            path.add(0, parent.getName());
+        }
+        return path.toArray(new String[0]);
+    }
+
+    ////////////////////////////////////////////////////////
+    // Trigram index
+
+    private static int makeGram(String str, int offset) {
+        return (str.charAt(offset) * 31 + str.charAt(offset + 1)) * 31 + str.charAt(offset + 2);
+    }
+
+    private static String getIndexedText(Entry entry, boolean description) {
+        if (description) {
+            if (entry.description == null) {
+                return null;
+            }
+            return entry.description.toLowerCase(Locale.ENGLISH);
+        }
+        return entry.getName().toLowerCase(Locale.ENGLISH);
+    }
+
+    private static Map<Integer, int[]> buildGramIndex(Entry[] entries, boolean description) {
+        // Count postings first to allocate exact arrays
+        Map<Integer, int[]> counts = new HashMap<>();
+        Set<Integer> entryGrams = new HashSet<>();
+        for (Entry entry : entries) {
+            String text = getIndexedText(entry, description);
+            if (text == null) {
+                continue;
+            }
+            entryGrams.clear();
+            for (int i = 0; i + 3 <= text.length(); i++) {
+                if (entryGrams.add(makeGram(text, i))) {
+                    counts.computeIfAbsent(makeGram(text, i), k -> new int[1])[0]++;
+                }
+            }
+        }
+        Map<Integer, int[]> index = new HashMap<>(counts.size());
+        for (Map.Entry<Integer, int[]> count : counts.entrySet()) {
+            index.put(count.getKey(), new int[count.getValue()[0]]);
+            count.getValue()[0] = 0;
+        }
+        for (int id = 0; id < entries.length; id++) {
+            String text = getIndexedText(entries[id], description);
+            if (text == null) {
+                continue;
+            }
+            entryGrams.clear();
+            for (int i = 0; i + 3 <= text.length(); i++) {
+                int gram = makeGram(text, i);
+                if (entryGrams.add(gram)) {
+                    int[] pos = counts.get(gram);
+                    index.get(gram)[pos[0]++] = id;
+                }
+            }
+        }
+        return index;
+    }
+
+    private void publishSnapshot() {
+        List<Entry> allEntries = new ArrayList<>();
+        Set<String> indexedTypes;
+        synchronized (this) {
+            for (List<Entry> segment : segments.values()) {
+                allEntries.addAll(segment);
+            }
+            indexedTypes = new HashSet<>(typeNames);
+        }
+        snapshot = new Snapshot(allEntries.toArray(new Entry[0]), indexedTypes);
+    }
+
+    ////////////////////////////////////////////////////////
+    // Index build
+
+    private void refresh(DBRProgressMonitor monitor, DBPDataSource dataSource, DBSStructureAssistant<?> structureAssistant) {
+        if (!(dataSource instanceof DBSObjectContainer)) {
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+        IndexBuilder builder = new IndexBuilder(monitor, dataSource, structureAssistant);
+        try {
+            builder.indexContainer((DBSObjectContainer) dataSource, new String[0], 0);
+        } catch (DBException e) {
+            log.debug("Error indexing '" + container.getName() + "' metadata", e);
+            return;
+        }
+        if (monitor.isCanceled() || isReleased()) {
+            return;
+        }
+        synchronized (this) {
+            // Replace the whole index. Segments of containers which failed to read are kept.
+            segments.keySet().retainAll(builder.visitedSegments);
+            segments.putAll(builder.segments);
+            typeNames.clear();
+            for (DBSObjectType type : builder.objectTypes) {
+                typeNames.add(type.getTypeName());
+            }
+            refreshTime = System.currentTimeMillis();
+            dirty = true;
+        }
+        publishSnapshot();
+        scheduleSave();
+        log.debug("Metadata index of '" + container.getName() + "' refreshed (" + snapshot.entries.length + " objects) in " + (System.currentTimeMillis() - startTime) + "ms");
+    }
+
+    private static class IndexBuilder {
+        private final DBRProgressMonitor monitor;
+        private final DBPDataSource dataSource;
+        private final DBSStructureAssistant<DBCExecutionContext> structureAssistant;
+        private final DBSObjectType[] objectTypes;
+        private final boolean showSystem;
+        private final Set<String> visitedSegments = new HashSet<>();
+        private final Map<String, List<Entry>> segments = new LinkedHashMap<>();
+
+        @SuppressWarnings("unchecked")
+        IndexBuilder(DBRProgressMonitor monitor, DBPDataSource dataSource, DBSStructureAssistant<?> structureAssistant) {
+            this.monitor = monitor;
+            this.dataSource = dataSource;
+            this.structureAssistant = (DBSStructureAssistant<DBCExecutionContext>) structureAssistant;
+            this.objectTypes = structureAssistant.getSupportedObjectTypes();
+            this.showSystem = dataSource.getContainer().getNavigatorSettings().isShowSystemObjects();
+        }
+
+        /**
+         * Walks catalogs and schemas (they are cached anyway) and reads objects of leaf containers
+         * with the structure assistant. Tables and other objects are not loaded in metadata caches.
+         */
+        void indexContainer(DBSObjectContainer objectContainer, String[] path, int depth) throws DBException {
+            if (monitor.isCanceled()) {
+                return;
+            }
+            Class<? extends DBSObject> childType = objectContainer.getPrimaryChildType(monitor);
+            if (childType != null && DBSObjectContainer.class.isAssignableFrom(childType) &&
+                !DBSEntity.class.isAssignableFrom(childType) && depth < MAX_CONTAINER_DEPTH)
+            {
+                Collection<? extends DBSObject> children = objectContainer.getChildren(monitor);
+                if (children != null) {
+                    for (DBSObject child : children) {
+                        if (child instanceof DBSObjectContainer && isIndexed(child)) {
+                            indexContainer((DBSObjectContainer) child, makePath(path, child.getName()), depth + 1);
+                        }
+                    }
+                }
+                return;
+            }
+            String segmentKey = String.join("\n", path);
+            visitedSegments.add(segmentKey);
+            DBCExecutionContext executionContext = DBUtils.getDefaultContext(objectContainer, true);
+            if (executionContext == null) {
+                return;
+            }
+            monitor.subTask("Index " + DBUtils.getObjectFullName(objectContainer, DBPEvaluationContext.UI));
+            List<DBSObjectReference> references;
+            try {
+                references = structureAssistant.findObjectsByMask(
+                    monitor,
+                    executionContext,
+                    objectContainer == dataSource ? null : objectContainer,
+                    objectTypes,
+                    "%",
+                    false,
+                    objectContainer == dataSource,
+                    MAX_CONTAINER_OBJECTS);
+            } catch (DBException e) {
+                // Previously indexed objects of this container are kept
+                log.debug("Error indexing " + objectContainer.getName(), e);
+                return;
+            }
+            if (monitor.isCanceled()) {
+                return;
+            }
+            List<Entry> entries = new ArrayList<>(references.size());
+            for (DBSObjectReference reference : references) {
+                DBSObjectType type = reference.getObjectType();
+                DBSObject referenceContainer = reference.getContainer();
+                if (type == null || reference.getName() == null || referenceContainer == null) {
+                    continue;
+                }
+                entries.add(new Entry(
+                    makePath(getObjectPath(referenceContainer), reference.getName()),
+                    type.getTypeName(),
+                    CommonUtils.isEmpty(reference.getObjectDescription()) ? null : reference.getObjectDescription()));
+            }
+            segments.put(segmentKey, entries);
+        }
+
+        private boolean isIndexed(DBSObject object) {
+            return object != null && object.getName() != null &&
+                !DBUtils.isHiddenObject(object) &&
+                (showSystem || !DBUtils.isSystemObject(object));
+        }
+    }
+
+    private static String[] makePath(String[] path, String name) {
+        String[] result = Arrays.copyOf(path, path.length + 1);
+        result[path.length] = name;
+        return result;
+    }
+
+    private class RefreshJob extends AbstractJob {
+        private final DBPDataSource dataSource;
+        private final DBSStructureAssistant<?> structureAssistant;
+
+        RefreshJob(DBPDataSource dataSource, DBSStructureAssistant<?> structureAssistant) {
+            super("Refresh metadata index of '" + container.getName() + "'");
+            this.dataSource = dataSource;
+            this.structureAssistant = structureAssistant;
+            setUser(false);
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            try {
+                refresh(monitor, dataSource, structureAssistant);
+            } catch (Exception e) {
+                log.debug("Error refreshing '" + container.getName() + "' metadata index", e);
+            } finally {
+                synchronized (MetadataSearchIndex.this) {
+                    refreshJob = null;
+                }
+            }
+            return Status.OK_STATUS;
+        }
+    }
+
+    ////////////////////////////////////////////////////////
+    // Persistence
+
+    private void load() {
+        long startTime = System.currentTimeMillis();
+        if (loadFile()) {
+            // Saved index is a finished build, it is searchable until it is refreshed after connect
+            publishSnapshot();
+            log.debug("Metadata index of '" + container.getName() + "' loaded (" + snapshot.entries.length + " objects) in " + (System.currentTimeMillis() - startTime) + "ms");
+        }
+    }
+
+    @Override
+    protected void readContents(@NotNull DataInputStream in) throws IOException {
+        long savedTime = in.readLong();
+        Set<String> savedTypes = new LinkedHashSet<>();
+        for (int typeCount = in.readInt(); typeCount > 0; typeCount--) {
+            savedTypes.add(readString(in));
+        }
+        Map<String, List<Entry>> savedSegments = new LinkedHashMap<>();
+        for (int segmentCount = in.readInt(); segmentCount > 0; segmentCount--) {
+            String segmentKey = readString(in);
+            int entryCount = in.readInt();
+            List<Entry> entries = new ArrayList<>(entryCount);
+            for (int i = 0; i < entryCount; i++) {
+                String[] path = new String[in.readInt()];
+                for (int k = 0; k < path.length; k++) {
+                    path[k] = readString(in);
+                }
+                String typeName = readString(in);
+                String description = in.readBoolean() ? readString(in) : null;
+                entries.add(new Entry(path, typeName, description));
+            }
+            savedSegments.put(segmentKey, entries);
+        }
+        synchronized (this) {
+            // Saved index must be refreshed after connect anyway
+            refreshTime = savedTime;
+            typeNames.addAll(savedTypes);
+            segments.putAll(savedSegments);
+        }
+    }
+
+    @Nullable
+    @Override
+    protected synchronized ContentsWriter prepareContents() {
+        if (!dirty) {
+            return null;
+        }
+        long savedTime = refreshTime;
+        List<String> savedTypes = new ArrayList<>(typeNames);
+        List<Map.Entry<String, List<Entry>>> savedSegments = new ArrayList<>(segments.entrySet());
+        dirty = false;
+        return out -> {
+            out.writeLong(savedTime);
+            out.writeInt(savedTypes.size());
+            for (String typeName : savedTypes) {
+                writeString(out, typeName);
+            }
+            out.writeInt(savedSegments.size());
+            for (Map.Entry<String, List<Entry>> segment : savedSegments) {
+                writeString(out, segment.getKey());
+                out.writeInt(segment.getValue().size());
+                for (Entry entry : segment.getValue()) {
+                    out.writeInt(entry.path.length);
+                    for (String name : entry.path) {
+                        writeString(out, name);
+                    }
+                    writeString(out, entry.typeName);
+                    out.writeBoolean(entry.description != null);
+                    if (entry.description != null) {
+                        writeString(out, entry.description);
+                    }
+                }
+            }
+        };
+    }
+
+    private static class IndexedObjectReference extends AbstractObjectReference {
+
+        IndexedObjectReference(Entry entry, DBSObject container, DBSObjectType type) {
+            super(entry.getName(), container, entry.description, type.getTypeClass(), type);
+        }
+
+        @Override
+        public DBSObject resolveObject(DBRProgressMonitor monitor) throws DBException {
+            DBSObject container = getContainer();
+            DBSObject object = null;
+            if (container instanceof DBSEntity) {
+                object = ((DBSEntity) container).getAttribute(monitor, getName());
+            } else if (container instanceof DBSObjectContainer) {
+                object = ((DBSObjectContainer) container).getChild(monitor, getName());
+                if (object == null && container instanceof DBSProcedureContainer) {
+                    object = ((DBSProcedureContainer) container).getProcedure(monitor, getName());
+                }
+            }
+            if (object == null) {
+                throw new DBException("Object '" + getName() + "' not found in '" + container.getName() + "'");
+            }
+            return object;
+        }
+    }
+
+}
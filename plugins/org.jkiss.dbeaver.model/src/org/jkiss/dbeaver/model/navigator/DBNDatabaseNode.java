@@ -554,6 +554,17 @@ public abstract class DBNDatabaseNode extends DBNNode implements DBSWrapper, DBP
             return false;
         }
 
+        // Index old children by name. Folders may contain hundreds of thousands of items,
+        // so refresh must not compare each old child with each new object.
+        final Map<String, List<DBNDatabaseNode>> oldChildren = oldList == null ? null : new HashMap<>();
+        if (oldList != null) {
+            for (DBNDatabaseNode oldChild : oldList) {
+                if (oldChild.getMeta() == meta) {
+                    oldChildren.computeIfAbsent(getUniqueNodeKey(oldChild.getObject()), k -> new ArrayList<>(1)).add(oldChild);
+                }
+            }
+        }
+
         for (Object childItem : itemList) {
             if (childItem == null) {
                 continue;
@@ -580,10 +591,11 @@ public abstract class DBNDatabaseNode extends DBNNode implements DBSWrapper, DBP
             }
             DBSObject object = (DBSObject) childItem;
             boolean added = false;
-            if (oldList != null) {
+            List<DBNDatabaseNode> oldCandidates = oldChildren == null ? null : oldChildren.get(getUniqueNodeKey(object));
+            if (oldCandidates != null) {
                 // Check that new object is a replacement of old one
-                for (DBNDatabaseNode oldChild : oldList) {
-                    if (oldChild.getMeta() == meta && equalObjects(oldChild.getObject(), object)) {
+                for (DBNDatabaseNode oldChild : oldCandidates) {
+                    if (equalObjects(oldChild.getObject(), object)) {
                         oldChild.reloadObject(monitor, object);
 
                         if (oldChild.hasChildren(false) && !oldChild.needsInitialization()) {
@@ -609,16 +621,25 @@ public abstract class DBNDatabaseNode extends DBNNode implements DBSWrapper, DBP
 
         if (oldList != null) {
             // Now remove all non-existing items
+            final Map<String, List<DBSObject>> newObjects = new HashMap<>();
+            for (Object childItem : itemList) {
+                if (childItem instanceof DBSObject) {
+                    newObjects.computeIfAbsent(getUniqueNodeKey((DBSObject) childItem), k -> new ArrayList<>(1)).add((DBSObject) childItem);
+                }
+            }
             for (DBNDatabaseNode oldChild : oldList) {
                 if (oldChild.getMeta() != meta) {
                     // Wrong type
                     continue;
                 }
                 boolean found = false;
-                for (Object childItem : itemList) {
-                    if (childItem instanceof DBSObject && equalObjects(oldChild.getObject(), (DBSObject) childItem)) {
-                        found = true;
-                        break;
+                List<DBSObject> newCandidates = newObjects.get(getUniqueNodeKey(oldChild.getObject()));
+                if (newCandidates != null) {
+                    for (DBSObject childItem : newCandidates) {
+                        if (equalObjects(oldChild.getObject(), childItem)) {
+                            found = true;
+                            break;
+                        }
                     }
                 }
                 if (!found) {
@@ -751,6 +772,10 @@ public abstract class DBNDatabaseNode extends DBNNode implements DBSWrapper, DBP
         }
     }
 
+    private static String getUniqueNodeKey(DBSObject object) {
+        return object == null ? null : DBUtils.getObjectUniqueName(object);
+    }
+
     private static boolean equalObjects(DBSObject object1, DBSObject object2) {
         if (object1 == object2) {
             return true;
@@ -43,9 +43,7 @@ import org.jkiss.utils.ArrayUtils;
 import org.jkiss.utils.CommonUtils;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.function.Function;
 
 /**
@@ -80,7 +78,7 @@ public class DBNModel implements IResourceChangeListener {
     private final List<INavigatorListener> listeners = new ArrayList<>();
     private transient INavigatorListener[] listenersCopy = null;
     private final transient List<DBNEvent> eventCache = new ArrayList<>();
-    private final Map<DBSObject, Object> nodeMap = new HashMap<>();
+    private final DBNNodeIndex nodeIndex = new DBNNodeIndex();
     private final List<Function<DBNNode, Boolean>> nodeFilters = new ArrayList<>();
 
     /**
@@ -125,9 +123,8 @@ public class DBNModel implements IResourceChangeListener {
 
         if (root != null) {
             this.root.dispose(false);
-            synchronized (nodeMap) {
-                this.nodeMap.clear();
-            }
+            log.debug("Navigator node index: " + nodeIndex);
+            this.nodeIndex.clear();
             this.root = null;
         }
         synchronized (this.listeners) {
@@ -146,6 +143,15 @@ public class DBNModel implements IResourceChangeListener {
         return root;
     }
 
+    /**
+     * Object to node index. Provides index statistics.
+     */
+    @NotNull
+    public DBNNodeIndex getNodeIndex()
+    {
+        return nodeIndex;
+    }
+
     @Nullable
     public DBNDatabaseNode findNode(DBSObject object)
     {
@@ -162,35 +168,10 @@ public class DBNModel implements IResourceChangeListener {
         if (object instanceof DBNDatabaseNode) {
             return (DBNDatabaseNode)object;
         }
-        object = DBUtils.getPublicObjectContainer(object);
-
-        Object obj;
-        synchronized (nodeMap) {
-            obj = nodeMap.get(object);
-        }
-        if (obj == null) {
+        if (object == null) {
             return null;
-        } else if (obj instanceof DBNDatabaseNode) {
-            return (DBNDatabaseNode)obj;
-        } else if (obj instanceof List) {
-            @SuppressWarnings("unchecked")
-            List<DBNDatabaseNode> nodeList = (List<DBNDatabaseNode>) obj;
-            if (nodeList.isEmpty()) {
-                return null;
-            }
-            if (nodeList.size() > 1) {
-                for (DBNDatabaseNode node : nodeList) {
-                    if (node instanceof DBNDatabaseItem && !((DBNDatabaseItem)node).getMeta().isVirtual()) {
-                        return node;
-                    }
-                }
-            }
-            // Get just first one
-            return nodeList.get(0);
-        } else {
-            // Never be here
-           throw new IllegalStateException();
         }
+        return nodeIndex.getNode(DBUtils.getPublicObjectContainer(object));
 /*
         if (node == null) {
             log.warn("Can't find tree node for object " + object.getName() + " (" + object.getClass().getName() + ")");
@@ -481,24 +462,7 @@ public class DBNModel implements IResourceChangeListener {
 
     void addNode(DBNDatabaseNode node, boolean reflect)
     {
-        synchronized (nodeMap) {
-            Object obj = nodeMap.get(node.getObject());
-            if (obj == null) {
-                // New node
-                nodeMap.put(node.getObject(), node);
-            } else if (obj instanceof DBNNode) {
-                // Second node - make a list
-                List<DBNNode> nodeList = new ArrayList<>(2);
-                nodeList.add((DBNNode)obj);
-                nodeList.add(node);
-                nodeMap.put(node.getObject(), nodeList);
-            } else if (obj instanceof List) {
-                // Multiple nodes
-                @SuppressWarnings("unchecked")
-                List<DBNNode> nodeList = (List<DBNNode>) obj;
-                nodeList.add(node);
-            }
-        }
+        nodeIndex.addNode(node);
         if (reflect) {
             this.fireNodeEvent(new DBNEvent(this, DBNEvent.Action.ADD, DBNEvent.NodeChange.LOAD, node));
         }
@@ -506,30 +470,7 @@ public class DBNModel implements IResourceChangeListener {
 
     void removeNode(DBNDatabaseNode node, boolean reflect)
     {
-        boolean badNode = false;
-        synchronized (nodeMap) {
-            Object obj = nodeMap.get(node.getObject());
-            if (obj == null) {
-                // No found
-                badNode = true;
-            } else if (obj instanceof DBNNode) {
-                // Just remove it
-                if (nodeMap.remove(node.getObject()) != node) {
-                    badNode = true;
-                }
-            } else if (obj instanceof List) {
-                // Multiple nodes
-                @SuppressWarnings("unchecked")
-                List<DBNNode> nodeList = (List<DBNNode>) obj;
-                if (!nodeList.remove(node)) {
-                    badNode = true;
-                }
-                if (nodeList.isEmpty()) {
-                    nodeMap.remove(node.getObject());
-                }
-            }
-        }
-        if (badNode) {
+        if (!nodeIndex.removeNode(node)) {
             log.warn("Remove unregistered meta node object " + node.getNodeName());
         } else {
             if (reflect) {
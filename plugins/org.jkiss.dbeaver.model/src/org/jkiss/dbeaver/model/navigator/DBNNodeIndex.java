@@ -0,0 +1,239 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.navigator;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Object to navigator node index.
+ *
+ * Lookups do not lock. Updates lock only the hash bin of the updated object, so node creation/disposal
+ * in one subtree doesn't block lookups and updates in others.
+ * Nodes are referenced weakly: nodes of subtrees which were dropped without proper dispose are purged from the index
+ * after garbage collection.
+ */
+public final class DBNNodeIndex {
+
+    private static class NodeReference extends WeakReference<DBNDatabaseNode> {
+        final DBSObject object;
+
+        NodeReference(DBNDatabaseNode node, DBSObject object, ReferenceQueue<DBNDatabaseNode> queue) {
+            super(node, queue);
+            this.object = object;
+        }
+    }
+
+    // Most objects have one node so value is a small copy-on-write array
+    private final ConcurrentHashMap<DBSObject, NodeReference[]> nodeMap = new ConcurrentHashMap<>(256);
+    private final ReferenceQueue<DBNDatabaseNode> collectedNodes = new ReferenceQueue<>();
+
+    private final LongAdder nodeCount = new LongAdder();
+    private final LongAdder collectedCount = new LongAdder();
+    private final LongAdder lookupCount = new LongAdder();
+    private final LongAdder lookupTime = new LongAdder();
+    private final AtomicLong maxLookupTime = new AtomicLong();
+
+    DBNNodeIndex() {
+    }
+
+    void addNode(@NotNull DBNDatabaseNode node) {
+        purgeCollectedNodes();
+        DBSObject object = node.getObject();
+        if (object == null) {
+            return;
+        }
+        NodeReference reference = new NodeReference(node, object, collectedNodes);
+        nodeMap.compute(object, (key, references) -> {
+            if (references == null) {
+                return new NodeReference[] { reference };
+            }
+            NodeReference[] result = removeReferences(references, null, null);
+            NodeReference[] newReferences = new NodeReference[result.length + 1];
+            System.arraycopy(result, 0, newReferences, 0, result.length);
+            newReferences[result.length] = reference;
+            return newReferences;
+        });
+        nodeCount.increment();
+    }
+
+    /**
+     * Removes node from index
+     * @return false if node wasn't registered
+     */
+    boolean removeNode(@NotNull DBNDatabaseNode node) {
+        purgeCollectedNodes();
+        DBSObject object = node.getObject();
+        if (object == null) {
+            return false;
+        }
+        boolean[] removed = new boolean[1];
+        nodeMap.computeIfPresent(object, (key, references) -> {
+            NodeReference[] result = removeReferences(references, node, removed);
+            return result.length == 0 ? null : result;
+        });
+        return removed[0];
+    }
+
+    /**
+     * Returns node of specified object. If there are multiple nodes then the first non-virtual item node is preferred.
+     */
+    @Nullable
+    DBNDatabaseNode getNode(@NotNull DBSObject object) {
+        long startTime = System.nanoTime();
+        NodeReference[] references = nodeMap.get(object);
+        DBNDatabaseNode result = null;
+        if (references != null) {
+            if (references.length == 1) {
+                result = references[0].get();
+            } else {
+                for (NodeReference reference : references) {
+                    DBNDatabaseNode node = reference.get();
+                    if (node == null) {
+                        continue;
+                    }
+                    if (result == null) {
+                        // Get just first one
+                        result = node;
+                    }
+                    if (node instanceof DBNDatabaseItem && !((DBNDatabaseItem) node).getMeta().isVirtual()) {
+                        result = node;
+                        break;
+                    }
+                }
+            }
+        }
+        long time = System.nanoTime() - startTime;
+        lookupCount.increment();
+        lookupTime.add(time);
+        if (time > maxLookupTime.get()) {
+            maxLookupTime.accumulateAndGet(time, Math::max);
+        }
+        return result;
+    }
+
+    void clear() {
+        nodeMap.clear();
+        nodeCount.reset();
+        while (collectedNodes.poll() != null) {
+            // Just drain the queue
+        }
+    }
+
+    /**
+     * Number of indexed nodes
+     */
+    public long getNodeCount() {
+        return nodeCount.sum();
+    }
+
+    /**
+     * Number of objects which have nodes
+     */
+    public int getObjectCount() {
+        return nodeMap.size();
+    }
+
+    /**
+     * Number of nodes which were garbage collected without being removed from index
+     */
+    public long getCollectedCount() {
+        return collectedCount.sum();
+    }
+
+    public long getLookupCount() {
+        return lookupCount.sum();
+    }
+
+    /**
+     * Average lookup time in nanoseconds
+     */
+    public long getAverageLookupTime() {
+        long count = lookupCount.sum();
+        return count == 0 ? 0 : lookupTime.sum() / count;
+    }
+
+    /**
+     * Max lookup time in nanoseconds
+     */
+    public long getMaxLookupTime() {
+        return maxLookupTime.get();
+    }
+
+    @Override
+    public String toString() {
+        return "Nodes: " + getNodeCount() +
+            ", objects: " + getObjectCount() +
+            ", collected: " + getCollectedCount() +
+            ", lookups: " + getLookupCount() +
+            ", avg lookup: " + getAverageLookupTime() + "ns" +
+            ", max lookup: " + getMaxLookupTime() + "ns";
+    }
+
+    private void purgeCollectedNodes() {
+        for (Reference<? extends DBNDatabaseNode> ref = collectedNodes.poll(); ref != null; ref = collectedNodes.poll()) {
+            NodeReference collected = (NodeReference) ref;
+            nodeMap.computeIfPresent(collected.object, (key, references) -> {
+                NodeReference[] result = removeReferences(references, null, null);
+                return result.length == 0 ? null : result;
+            });
+        }
+    }
+
+    /**
+     * Removes references to the specified node and references to collected nodes.
+     * Removed references are excluded from node count.
+     */
+    private NodeReference[] removeReferences(NodeReference[] references, @Nullable DBNDatabaseNode node, @Nullable boolean[] nodeRemoved) {
+        NodeReference[] result = null;
+        int pos = 0;
+        for (int i = 0; i < references.length; i++) {
+            NodeReference reference = references[i];
+            DBNDatabaseNode refNode = reference.get();
+            if (refNode != null && refNode != node) {
+                if (result != null) {
+                    result[pos] = reference;
+                }
+                pos++;
+                continue;
+            }
+            if (refNode == null) {
+                collectedCount.increment();
+            } else if (nodeRemoved != null) {
+                nodeRemoved[0] = true;
+            }
+            nodeCount.decrement();
+            if (result == null) {
+                result = new NodeReference[references.length - 1];
+                System.arraycopy(references, 0, result, 0, i);
+            }
+        }
+        if (result == null) {
+            return references;
+        }
+        return pos == result.length ? result : Arrays.copyOf(result, pos);
+    }
+}
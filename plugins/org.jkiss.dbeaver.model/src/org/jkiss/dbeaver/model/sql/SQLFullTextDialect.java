@@ -0,0 +1,48 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jkiss.dbeaver.model.sql;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+
+import java.util.List;
+
+/**
+ * SQL dialect with native full-text search predicates.
+ */
+public interface SQLFullTextDialect {
+
+    /**
+     * Makes full-text search condition for the specified string attributes.
+     * Attributes covered by the condition are removed from the attributes list.
+     * Full-text search matches words (not substrings) so it is used only when user asks for it.
+     *
+     * @return condition or null if full-text search isn't available for these attributes
+     */
+    @Nullable
+    String getFullTextSearchCondition(
+        @NotNull DBCSession session,
+        @NotNull DBSEntity entity,
+        @NotNull List<DBSEntityAttribute> attributes,
+        @NotNull String searchString) throws DBException;
+
+}
@@ -17,6 +17,11 @@
 
 package org.jkiss.dbeaver.model.sql;
 
+import net.sf.jsqlparser.expression.Function;
+import net.sf.jsqlparser.expression.NextValExpression;
+import net.sf.jsqlparser.expression.TimeKeyExpression;
+import net.sf.jsqlparser.expression.UserVariable;
+import net.sf.jsqlparser.schema.Column;
 import net.sf.jsqlparser.schema.Database;
 import net.sf.jsqlparser.schema.Table;
 import net.sf.jsqlparser.statement.Statement;
@@ -29,6 +34,7 @@ import net.sf.jsqlparser.statement.drop.Drop;
 import net.sf.jsqlparser.statement.insert.Insert;
 import net.sf.jsqlparser.statement.select.*;
 import net.sf.jsqlparser.statement.update.Update;
+import net.sf.jsqlparser.util.TablesNamesFinder;
 import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
@@ -39,9 +45,7 @@ import org.jkiss.dbeaver.model.exec.DBCEntityMetaData;
 import org.jkiss.dbeaver.model.sql.parser.SQLSemanticProcessor;
 import org.jkiss.utils.CommonUtils;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -52,6 +56,17 @@ public class SQLQuery implements SQLScriptElement {
 
     private static final Pattern QUERY_TITLE_PATTERN = Pattern.compile("(?:--|/\\*)\\s*(?:NAME|TITLE)\\s*:\\s*(.+)\\s*", Pattern.CASE_INSENSITIVE);
 
+    // Functions which results depend on arguments only (lower case)
+    private static final Set<String> DETERMINISTIC_FUNCTIONS = new HashSet<>(Arrays.asList(
+        "count", "sum", "avg", "min", "max", "stddev", "variance", "string_agg", "group_concat", "listagg", "array_agg",
+        "upper", "lower", "initcap", "length", "char_length", "character_length", "octet_length", "substring", "substr",
+        "trim", "ltrim", "rtrim", "lpad", "rpad", "left", "right", "replace", "concat", "position", "instr", "reverse",
+        "abs", "round", "trunc", "truncate", "floor", "ceil", "ceiling", "mod", "power", "sqrt", "sign", "exp", "ln", "log",
+        "coalesce", "nullif", "nvl", "nvl2", "ifnull", "isnull", "greatest", "least", "decode"));
+    // Keywords and pseudo columns with volatile values (lower case)
+    private static final Set<String> VOLATILE_COLUMNS = new HashSet<>(Arrays.asList(
+        "current_date", "current_time", "current_timestamp", "localtime", "localtimestamp", "sysdate", "systimestamp"));
+
     @Nullable
     private final DBPDataSource dataSource;
     @NotNull
@@ -354,6 +369,42 @@ public class SQLQuery implements SQLScriptElement {
         return resultsMaxRows;
     }
 
+    /**
+     * Checks whether query may modify data or structure.
+     * Only parsed SELECT statements without INTO and FOR UPDATE clauses
+     * in all their parts (set operations, sub-selects, WITH items) are considered read-only.
+     */
+    public boolean isModifying() {
+        SelectChecker checker = checkSelect();
+        return checker == null || checker.modifying;
+    }
+
+    /**
+     * Checks whether query is read-only and its results depend on data only.
+     * Calls of functions which are not known as deterministic (e.g. nextval(), now(), random() or user functions),
+     * current date/time keywords, sequence values and variables make results volatile.
+     */
+    public boolean isDeterministic() {
+        SelectChecker checker = checkSelect();
+        return checker != null && !checker.modifying && !checker.volatileResults;
+    }
+
+    @Nullable
+    private SelectChecker checkSelect() {
+        parseQuery();
+        if (!(statement instanceof Select)) {
+            return null;
+        }
+        SelectChecker checker = new SelectChecker();
+        try {
+            checker.getTableList(statement);
+        } catch (Exception e) {
+            // Some parts of the query are not supported
+            return null;
+        }
+        return checker;
+    }
+
     public boolean isDeleteUpdateDangerous() {
         parseQuery();
         if (statement == null) {
@@ -435,4 +486,53 @@ public class SQLQuery implements SQLScriptElement {
     public boolean equals(Object obj) {
         return obj instanceof SQLQuery && text.equals(((SQLQuery) obj).text);
     }
+
+    /**
+     * Visits all parts of SELECT statement and looks for clauses which may modify data or make results volatile
+     */
+    private static class SelectChecker extends TablesNamesFinder {
+        private boolean modifying;
+        private boolean volatileResults;
+
+        @Override
+        public void visit(PlainSelect plainSelect) {
+            if (!CommonUtils.isEmpty(plainSelect.getIntoTables()) || plainSelect.isForUpdate()) {
+                modifying = true;
+            }
+            super.visit(plainSelect);
+        }
+
+        @Override
+        public void visit(Function function) {
+            // Other functions may return different results or have side effects
+            String name = function.getName();
+            if (name == null || !DETERMINISTIC_FUNCTIONS.contains(name.toLowerCase(Locale.ENGLISH))) {
+                volatileResults = true;
+            }
+            super.visit(function);
+        }
+
+        @Override
+        public void visit(TimeKeyExpression timeKeyExpression) {
+            volatileResults = true;
+        }
+
+        @Override
+        public void visit(Column tableColumn) {
+            if (tableColumn.getTable() == null && VOLATILE_COLUMNS.contains(tableColumn.getColumnName().toLowerCase(Locale.ENGLISH))) {
+                volatileResults = true;
+            }
+            super.visit(tableColumn);
+        }
+
+        @Override
+        public void visit(NextValExpression nextVal) {
+            volatileResults = true;
+        }
+
+        @Override
+        public void visit(UserVariable var) {
+            volatileResults = true;
+        }
+    }
 }
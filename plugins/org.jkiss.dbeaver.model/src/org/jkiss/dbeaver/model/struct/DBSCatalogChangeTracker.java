@@ -0,0 +1,40 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.struct;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+
+import java.util.Collection;
+
+/**
+ * Detects catalog objects changed by other sessions.
+ * Data source returns the same tracker instance (via getAdapter) while it is connected - tracker keeps
+ * catalog state read by the previous check.
+ */
+public interface DBSCatalogChangeTracker {
+
+    /**
+     * Compares catalog state with the state read by the previous call. The first call just reads the state.
+     * Only objects which are already cached are returned. If objects were created or dropped then their cached
+     * container is returned.
+     */
+    @NotNull
+    Collection<DBSObject> readChangedObjects(@NotNull DBRProgressMonitor monitor) throws DBException;
+
+}
@@ -0,0 +1,45 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.struct;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.exec.DBCExecutionSource;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+
+/**
+ * Data bulk loader.
+ * Provided as data source adapter by data sources which support native bulk load protocols (COPY, LOAD DATA, bulk copy API).
+ * Bulk load is much faster than INSERT statements but it doesn't return generated keys and may skip some server-side checks.
+ */
+public interface DBSDataBulkLoader {
+
+    /**
+     * Creates bulk load batch for specified table.
+     * Batch is used exactly like batch returned by {@link DBSDataManipulator#insertData}.
+     * @return new batch or null if bulk load can't be used for this table or attributes
+     */
+    @Nullable
+    DBSDataManipulator.ExecuteBatch createBulkLoad(
+        @NotNull DBCSession session,
+        @NotNull DBSEntity entity,
+        @NotNull DBSAttributeBase[] attributes,
+        @NotNull DBCExecutionSource source)
+        throws DBException;
+
+}
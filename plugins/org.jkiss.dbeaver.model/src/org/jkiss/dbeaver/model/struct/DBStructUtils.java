@@ -43,6 +43,11 @@ public final class DBStructUtils {
 
     private static final Log log = Log.getLog(DBStructUtils.class);
 
+    // Minimal number of container's objects which makes whole container structure prefetch reasonable
+    private static final int STRUCTURE_PREFETCH_MIN_OBJECTS = 5;
+    // Minimal share (percents) of container's children. Whole structure of big schemas isn't read for a few tables.
+    private static final int STRUCTURE_PREFETCH_MIN_PERCENT = 20;
+
     public static String generateTableDDL(@NotNull DBRProgressMonitor monitor, @NotNull DBSEntity table, Map<String, Object> options, boolean addComments) throws DBException {
         final DBERegistry editorsRegistry = table.getDataSource().getContainer().getPlatform().getEditorsRegistry();
         final SQLObjectEditor entityEditor = editorsRegistry.getObjectManager(table.getClass(), SQLObjectEditor.class);
@@ -77,17 +82,99 @@ public final class DBStructUtils {
         return generateTableDDL(monitor, table, options, addComments);
     }
 
+    /**
+     * Prefetches structure of containers which own specified objects.
+     * Container structure (attributes, constraints, indexes and foreign keys of all its entities) is read with a
+     * fixed number of catalog queries. Containers where requested objects are just a few or make a small part
+     * of container children are skipped - these objects will read their metadata on demand.
+     * Prefetch errors are not fatal.
+     */
+    public static void cacheStructure(@NotNull DBRProgressMonitor monitor, @NotNull Collection<? extends DBSObject> objects, int scope) {
+        Map<DBSObjectContainer, Integer> containers = new LinkedHashMap<>();
+        for (DBSObject object : objects) {
+            DBSObject parent = DBUtils.getPublicObject(object.getParentObject());
+            if (parent instanceof DBSObjectContainer) {
+                containers.merge((DBSObjectContainer) parent, 1, Integer::sum);
+            }
+        }
+        for (Map.Entry<DBSObjectContainer, Integer> entry : containers.entrySet()) {
+            if (monitor.isCanceled()) {
+                break;
+            }
+            int objectCount = entry.getValue();
+            if (objectCount < STRUCTURE_PREFETCH_MIN_OBJECTS) {
+                continue;
+            }
+            DBSObjectContainer container = entry.getKey();
+            try {
+                // Children are already read (requested objects belong to them)
+                Collection<? extends DBSObject> children = container.getChildren(monitor);
+                if (children != null && (long) objectCount * 100 < (long) children.size() * STRUCTURE_PREFETCH_MIN_PERCENT) {
+                    continue;
+                }
+                monitor.subTask("Read " + DBUtils.getObjectFullName(container, DBPEvaluationContext.UI) + " structure");
+                container.cacheStructure(monitor, scope);
+            } catch (DBException e) {
+                log.debug("Error reading " + container.getName() + " structure", e);
+            }
+        }
+    }
+
+    /**
+     * DDL of one table in the table list script
+     */
+    public static class TableDDLPart<T extends DBSEntity> {
+        private final T table;
+        private final Map<String, Object> options;
+        private final String comment;
+
+        TableDDLPart(T table, Map<String, Object> options, String comment) {
+            this.table = table;
+            this.options = options;
+            this.comment = comment;
+        }
+
+        public T getTable() {
+            return table;
+        }
+
+        /**
+         * Generates part DDL with leading object name comment.
+         * Parts do not depend on each other and may be generated in parallel.
+         */
+        public String generateDDL(@NotNull DBRProgressMonitor monitor, boolean addComments) throws DBException {
+            StringBuilder sql = new StringBuilder();
+            sql.append(getObjectNameComment(table, comment));
+            addDDLLine(sql, DBStructUtils.getTableDDL(monitor, table, options, addComments));
+            return sql.toString();
+        }
+    }
+
     public static <T extends DBSEntity> void generateTableListDDL(@NotNull DBRProgressMonitor monitor, @NotNull StringBuilder sql, @NotNull Collection<T> tablesOrViews, Map<String, Object> options, boolean addComments) throws DBException {
+        for (TableDDLPart<T> part : getTableListDDLParts(monitor, tablesOrViews, options)) {
+            sql.append(part.generateDDL(monitor, addComments));
+        }
+        monitor.done();
+    }
+
+    /**
+     * Splits table list script into parts in the order of table dependencies.
+     * Structure of all tables is read before.
+     */
+    public static <T extends DBSEntity> List<TableDDLPart<T>> getTableListDDLParts(@NotNull DBRProgressMonitor monitor, @NotNull Collection<T> tablesOrViews, Map<String, Object> options) throws DBException {
+        // Read all tables metadata at once, DDL generation and sorting below read it table by table
+        cacheStructure(monitor, tablesOrViews, DBSObjectContainer.STRUCT_ATTRIBUTES | DBSObjectContainer.STRUCT_ASSOCIATIONS);
+
         List<T> goodTableList = new ArrayList<>();
         List<T> cycleTableList = new ArrayList<>();
         List<T> viewList = new ArrayList<>();
 
         DBStructUtils.sortTableList(monitor, tablesOrViews, goodTableList, cycleTableList, viewList);
 
+        List<TableDDLPart<T>> parts = new ArrayList<>();
         // Good tables: generate full DDL
         for (T table : goodTableList) {
-            sql.append(getObjectNameComment(table, "definition"));
-            addDDLLine(sql, DBStructUtils.getTableDDL(monitor, table, options, addComments));
+            parts.add(new TableDDLPart<>(table, options, "definition"));
         }
         {
             // Cycle tables: generate CREATE TABLE and CREATE FOREIGN KEY separately
@@ -107,29 +194,25 @@ public final class DBStructUtils {
             Map<String, Object> optionsNoFK = new HashMap<>(options);
             optionsNoFK.put(DBPScriptObject.OPTION_DDL_SKIP_FOREIGN_KEYS, true);
             for (T table : goodCycleTableList) {
-                sql.append(getObjectNameComment(table, "definition"));
-                addDDLLine(sql, DBStructUtils.getTableDDL(monitor, table, optionsNoFK, addComments));
+                parts.add(new TableDDLPart<>(table, optionsNoFK, "definition"));
             }
             Map<String, Object> optionsOnlyFK = new HashMap<>(options);
             optionsOnlyFK.put(DBPScriptObject.OPTION_DDL_ONLY_FOREIGN_KEYS, true);
             for (T table : goodCycleTableList) {
-                sql.append(getObjectNameComment(table, "foreign keys"));
-                addDDLLine(sql, DBStructUtils.getTableDDL(monitor, table, optionsOnlyFK, addComments));
+                parts.add(new TableDDLPart<>(table, optionsOnlyFK, "foreign keys"));
             }
 
             // the rest - tables which can't split their DDL
             for (T table : cycleTableList) {
-                sql.append(getObjectNameComment(table, "definition"));
-                addDDLLine(sql, DBStructUtils.getTableDDL(monitor, table, options, addComments));
+                parts.add(new TableDDLPart<>(table, options, "definition"));
             }
         }
         // Views: generate them after all tables.
         // TODO: find view dependencies and generate them in right order
         for (T table : viewList) {
-            sql.append(getObjectNameComment(table, "source"));
-            addDDLLine(sql, DBStructUtils.getTableDDL(monitor, table, options, addComments));
+            parts.add(new TableDDLPart<>(table, options, "source"));
         }
-        monitor.done();
+        return parts;
     }
 
     private static String getObjectNameComment(DBSObject object, String comment) {
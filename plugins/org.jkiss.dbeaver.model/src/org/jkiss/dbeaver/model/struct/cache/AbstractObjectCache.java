@@ -30,17 +30,25 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Various objects cache
+ * Various objects cache.
+ *
+ * Cache is read-mostly: readers never lock on loaders and see immutable snapshot of the object list.
+ * Modifications are made in a private copy of the list which is published on the next read
+ * (so a series of modifications copies the list only once).
  */
 public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extends DBSObject>
     implements DBSObjectCache<OWNER, OBJECT>
 {
     private static final Log log = Log.getLog(AbstractObjectCache.class);
 
-    private List<OBJECT> objectList;
-    private Map<String, OBJECT> objectMap;
+    // Published list. Never modified by cache.
+    private volatile List<OBJECT> objectList;
+    // List which is modified by cache (guarded by cacheSync). Becomes published on read.
+    private List<OBJECT> modifiedList;
+    private volatile Map<String, OBJECT> objectMap;
     protected volatile boolean fullCache = false;
     protected volatile boolean caseSensitive = true;
 
@@ -74,8 +82,13 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
     @Override
     public List<OBJECT> getCachedObjects()
     {
+        List<OBJECT> list = this.objectList;
+        if (list != null) {
+            return list;
+        }
         synchronized (cacheSync) {
-            return objectList == null ? Collections.<OBJECT>emptyList() : objectList;
+            list = publishList();
+            return list == null ? Collections.<OBJECT>emptyList() : list;
         }
     }
 
@@ -95,30 +108,38 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
     @Override
     public OBJECT getCachedObject(@NotNull String name)
     {
-        synchronized (cacheSync) {
-            return objectList == null || name == null ? null : getObjectMap().get(caseSensitive ? name : name.toUpperCase());
+        if (name == null) {
+            return null;
+        }
+        Map<String, OBJECT> map = this.objectMap;
+        if (map == null) {
+            synchronized (cacheSync) {
+                map = getObjectMap();
+            }
+            if (map == null) {
+                return null;
+            }
         }
+        return map.get(caseSensitive ? name : name.toUpperCase());
     }
 
     public int getCacheSize() {
-        synchronized (cacheSync) {
-            return objectList == null ? 0 : objectList.size();
-        }
+        return getCachedObjects().size();
     }
 
     @Override
     public void cacheObject(@NotNull OBJECT object)
     {
         synchronized (cacheSync) {
-            if (this.objectList == null) {
-                this.objectList = new ArrayList<>();
-            }
+            List<OBJECT> list = getModifiedList(true);
             detectCaseSensitivity(object);
-            this.objectList.add(object);
+            list.add(object);
             if (this.objectMap != null) {
                 String name = getObjectName(object);
-                checkDuplicateName(name, object);
-                this.objectMap.put(name, object);
+                if (name != null) {
+                    checkDuplicateName(this.objectMap, name, object);
+                    this.objectMap.put(name, object);
+                }
             }
         }
     }
@@ -127,12 +148,11 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
     public void removeObject(@NotNull OBJECT object, boolean resetFullCache)
     {
         synchronized (cacheSync) {
-            if (this.objectList != null) {
+            List<OBJECT> list = getModifiedList(false);
+            if (list != null) {
                 detectCaseSensitivity(object);
-                this.objectList.remove(object);
-                if (this.objectMap != null) {
-                    this.objectMap.remove(getObjectName(object));
-                }
+                list.remove(object);
+                removeFromMap(object);
             }
             if (resetFullCache) {
                 fullCache = false;
@@ -173,6 +193,7 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
     {
         synchronized (cacheSync) {
             this.objectList = null;
+            this.modifiedList = null;
             this.objectMap = null;
             this.fullCache = false;
         }
@@ -182,6 +203,7 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
     {
         synchronized (cacheSync) {
             this.objectList = objects;
+            this.modifiedList = null;
             this.objectMap = null;
             this.fullCache = true;
         }
@@ -203,44 +225,84 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
      */
     protected void mergeCache(List<OBJECT> objects)
     {
+        List<OBJECT> oldObjects;
         synchronized (cacheSync) {
-            if (this.objectList != null) {
-                // Merge lists
-                objects = new ArrayList<>(objects);
-                for (int i = 0; i < objects.size(); i++) {
-                    OBJECT newObject = objects.get(i);
-                    String newObjectName = getObjectName(newObject);
-                    for (int k = 0; k < objectList.size(); k++) {
-                        OBJECT oldObject = objectList.get(k);
-                        String oldObjectName = getObjectName(oldObject);
-                        if (newObjectName.equals(oldObjectName)) {
-                            objects.set(i, oldObject);
-                            break;
-                        }
-                    }
+            oldObjects = publishList();
+        }
+        // Merge out of cache lock, readers use old list meanwhile
+        if (oldObjects != null) {
+            Map<String, OBJECT> oldObjectMap = new HashMap<>(oldObjects.size());
+            for (OBJECT oldObject : oldObjects) {
+                oldObjectMap.putIfAbsent(getObjectName(oldObject), oldObject);
+            }
+            objects = new ArrayList<>(objects);
+            for (int i = 0; i < objects.size(); i++) {
+                OBJECT oldObject = oldObjectMap.get(getObjectName(objects.get(i)));
+                if (oldObject != null) {
+                    objects.set(i, oldObject);
                 }
             }
         }
         setCache(objects);
     }
 
+    /**
+     * Makes modified list visible for readers. Must be called under cacheSync.
+     * @return current objects list or null if cache is empty
+     */
+    @Nullable
+    private List<OBJECT> publishList()
+    {
+        if (this.modifiedList != null) {
+            this.objectList = this.modifiedList;
+            this.modifiedList = null;
+        }
+        return this.objectList;
+    }
+
+    /**
+     * Returns list for modification. Published list is copied. Must be called under cacheSync.
+     */
+    private List<OBJECT> getModifiedList(boolean create)
+    {
+        if (this.modifiedList == null) {
+            List<OBJECT> list = this.objectList;
+            if (list == null && !create) {
+                return null;
+            }
+            this.modifiedList = list == null ? new ArrayList<>() : new ArrayList<>(list);
+            this.objectList = null;
+        }
+        return this.modifiedList;
+    }
+
+    /**
+     * Returns name map. Builds it if needed. Must be called under cacheSync.
+     */
+    @Nullable
     private Map<String, OBJECT> getObjectMap()
     {
-        synchronized (cacheSync) {
-            if (this.objectMap == null) {
-                this.objectMap = new HashMap<>();
-                for (OBJECT object : objectList) {
-                    String name = getObjectName(object);
-                    checkDuplicateName(name, object);
-                    this.objectMap.put(name, object);
+        if (this.objectMap == null) {
+            List<OBJECT> list = this.modifiedList != null ? this.modifiedList : this.objectList;
+            if (list == null) {
+                return null;
+            }
+            Map<String, OBJECT> map = new ConcurrentHashMap<>();
+            for (OBJECT object : list) {
+                String name = getObjectName(object);
+                if (name == null) {
+                    continue;
                 }
+                checkDuplicateName(map, name, object);
+                map.put(name, object);
             }
-            return this.objectMap;
+            this.objectMap = map;
         }
+        return this.objectMap;
     }
 
-    private void checkDuplicateName(String name, OBJECT object) {
-        if (this.objectMap.containsKey(name)) {
+    private void checkDuplicateName(Map<String, OBJECT> map, String name, OBJECT object) {
+        if (map.containsKey(name)) {
             log.debug("Duplicate object name '" + name + "' in cache " + this.getClass().getSimpleName() + ". Last value: " + DBUtils.getObjectFullName(object, DBPEvaluationContext.DDL));
         }
     }
@@ -266,24 +328,29 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
 
     public void clearChildrenOf(DBSObject parent) {
         synchronized (cacheSync) {
-            if (objectList == null) {
+            List<OBJECT> list = publishList();
+            if (list == null) {
                 return;
             }
-            for (int i = 0; i < objectList.size(); ) {
-                OBJECT object = objectList.get(i);
+            for (OBJECT object : list) {
                 if (object.getParentObject() == parent) {
-                    this.objectList.remove(object);
-                    if (this.objectMap != null) {
-                        this.objectMap.remove(getObjectName(object));
-                    }
+                    getModifiedList(false).remove(object);
+                    removeFromMap(object);
                     fullCache = false;
-                } else {
-                    i++;
                 }
             }
         }
     }
 
+    private void removeFromMap(OBJECT object) {
+        if (this.objectMap != null) {
+            String name = getObjectName(object);
+            if (name != null) {
+                this.objectMap.remove(name);
+            }
+        }
+    }
+
     @NotNull
     protected String getObjectName(@NotNull OBJECT object) {
         String name;
@@ -350,8 +417,11 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
         }
     }
 
+    /**
+     * Iterates over current cache snapshot. Removes objects from cache.
+     */
     protected class CacheIterator implements Iterator<OBJECT> {
-        private Iterator<OBJECT> listIterator = objectList.iterator();
+        private Iterator<OBJECT> listIterator = getCachedObjects().iterator();
         private OBJECT curObject;
         public CacheIterator()
         {
@@ -372,9 +442,12 @@ public abstract class AbstractObjectCache<OWNER extends DBSObject, OBJECT extend
         @Override
         public void remove()
         {
-            listIterator.remove();
-            if (objectMap != null) {
-                objectMap.remove(getObjectName(curObject));
+            synchronized (cacheSync) {
+                List<OBJECT> list = getModifiedList(false);
+                if (list != null) {
+                    list.remove(curObject);
+                }
+                removeFromMap(curObject);
             }
         }
     }
@@ -29,6 +29,8 @@ public class ProgressStreamReader extends InputStream {
     private final DBRProgressMonitor monitor;
     private final InputStream original;
     private final long streamLength;
+    // Progress is reported in kilobytes for streams which don't fit into int
+    private final int unitShift;
     private long totalRead;
 
     public ProgressStreamReader(DBRProgressMonitor monitor, String task, InputStream original, long streamLength)
@@ -36,9 +38,10 @@ public class ProgressStreamReader extends InputStream {
         this.monitor = monitor;
         this.original = original;
         this.streamLength = streamLength;
+        this.unitShift = streamLength > Integer.MAX_VALUE ? 10 : 0;
         this.totalRead = 0;
 
-        monitor.beginTask(task, (int)streamLength);
+        monitor.beginTask(task, (int)(streamLength >> unitShift));
     }
 
     @Override
@@ -88,7 +91,14 @@ public class ProgressStreamReader extends InputStream {
 
     private void showProgress(long length)
     {
+        if (length <= 0) {
+            return;
+        }
+        long prevUnits = totalRead >> unitShift;
         totalRead += length;
-        monitor.worked((int)length);
+        int units = (int) ((totalRead >> unitShift) - prevUnits);
+        if (units > 0) {
+            monitor.worked(units);
+        }
     }
 }
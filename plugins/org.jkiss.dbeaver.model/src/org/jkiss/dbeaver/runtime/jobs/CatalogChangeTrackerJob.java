@@ -0,0 +1,166 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.runtime.jobs;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.DBPRefreshableObject;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.app.DBPDataSourceRegistry;
+import org.jkiss.dbeaver.model.app.DBPPlatform;
+import org.jkiss.dbeaver.model.app.DBPProject;
+import org.jkiss.dbeaver.model.navigator.DBNDatabaseNode;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSCatalogChangeTracker;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+
+import java.util.*;
+
+/**
+ * Periodically checks connected data sources for catalog changes made by other sessions
+ * and refreshes changed objects (see {@link DBSCatalogChangeTracker}).
+ */
+public class CatalogChangeTrackerJob extends AbstractJob
+{
+    private static final int MONITOR_INTERVAL = 5000; // once per 5 seconds
+
+    private static final Log log = Log.getLog(CatalogChangeTrackerJob.class);
+
+    private final DBPPlatform platform;
+    private final Map<DBPDataSource, Long> checkCache = new WeakHashMap<>();
+    private final Set<DBPDataSource> checkInProgress = new HashSet<>();
+
+    public CatalogChangeTrackerJob(DBPPlatform platform)
+    {
+        super("Catalog change tracker");
+        setUser(false);
+        setSystem(true);
+        this.platform = platform;
+    }
+
+    @Override
+    protected IStatus run(DBRProgressMonitor monitor)
+    {
+        if (platform.isShuttingDown()) {
+            return Status.OK_STATUS;
+        }
+        for (DBPProject project : platform.getWorkspace().getProjects()) {
+            if (project.isOpen() && project.isRegistryLoaded()) {
+                DBPDataSourceRegistry dataSourceRegistry = project.getDataSourceRegistry();
+                for (DBPDataSourceContainer ds : dataSourceRegistry.getDataSources()) {
+                    checkDataSource(ds);
+                }
+            }
+        }
+        if (!platform.isShuttingDown()) {
+            scheduleMonitor();
+        }
+        return Status.OK_STATUS;
+    }
+
+    private void checkDataSource(DBPDataSourceContainer container) {
+        if (!container.isConnected()) {
+            return;
+        }
+        DBPPreferenceStore store = container.getPreferenceStore();
+        if (!store.getBoolean(ModelPreferences.META_CHANGE_TRACKING)) {
+            return;
+        }
+        DBPDataSource dataSource = container.getDataSource();
+        if (dataSource == null) {
+            return;
+        }
+        DBSCatalogChangeTracker tracker = DBUtils.getAdapter(DBSCatalogChangeTracker.class, dataSource);
+        if (tracker == null) {
+            return;
+        }
+        long checkInterval = Math.max(store.getInt(ModelPreferences.META_CHANGE_TRACKING_INTERVAL), 1) * 1000L;
+        synchronized (this) {
+            if (checkInProgress.contains(dataSource)) {
+                return;
+            }
+            Long lastCheckTime = checkCache.get(dataSource);
+            if (lastCheckTime != null && System.currentTimeMillis() - lastCheckTime < checkInterval) {
+                return;
+            }
+            checkInProgress.add(dataSource);
+        }
+        new CheckJob(dataSource, tracker).schedule();
+    }
+
+    public void scheduleMonitor() {
+        schedule(MONITOR_INTERVAL);
+    }
+
+    private class CheckJob extends AbstractJob {
+        private final DBPDataSource dataSource;
+        private final DBSCatalogChangeTracker tracker;
+
+        CheckJob(DBPDataSource dataSource, DBSCatalogChangeTracker tracker) {
+            super("Check catalog changes (" + dataSource.getContainer().getName() + ")");
+            setUser(false);
+            setSystem(true);
+            this.dataSource = dataSource;
+            this.tracker = tracker;
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            try {
+                Collection<DBSObject> changedObjects = tracker.readChangedObjects(monitor);
+                if (!changedObjects.isEmpty()) {
+                    log.debug("Catalog changes detected in '" + dataSource.getContainer().getName() + "': " + changedObjects.size() + " object(s)");
+                }
+                for (DBSObject object : changedObjects) {
+                    if (monitor.isCanceled() || !dataSource.getContainer().isConnected()) {
+                        break;
+                    }
+                    refreshObject(monitor, object);
+                }
+            } catch (Exception e) {
+                log.debug("Error checking catalog changes of '" + dataSource.getContainer().getName() + "'", e);
+            } finally {
+                synchronized (CatalogChangeTrackerJob.this) {
+                    checkCache.put(dataSource, System.currentTimeMillis());
+                    checkInProgress.remove(dataSource);
+                }
+            }
+            return Status.OK_STATUS;
+        }
+
+        private void refreshObject(DBRProgressMonitor monitor, DBSObject object) {
+            try {
+                DBNDatabaseNode node = platform.getNavigatorModel().getNodeByObject(object);
+                if (node != null) {
+                    // Refreshes object caches and navigator children
+                    node.refreshNode(monitor, CatalogChangeTrackerJob.this);
+                } else if (object instanceof DBPRefreshableObject) {
+                    ((DBPRefreshableObject) object).refreshObject(monitor);
+                }
+            } catch (Exception e) {
+                log.debug("Error refreshing changed object '" + object.getName() + "'", e);
+            }
+        }
+    }
+
+}
@@ -37,6 +37,7 @@ import org.jkiss.dbeaver.registry.driver.DriverDescriptor;
 import org.jkiss.dbeaver.registry.formatter.DataFormatterRegistry;
 import org.jkiss.dbeaver.registry.language.PlatformLanguageRegistry;
 import org.jkiss.dbeaver.runtime.IPluginService;
+import org.jkiss.dbeaver.runtime.jobs.CatalogChangeTrackerJob;
 import org.jkiss.dbeaver.runtime.jobs.KeepAliveListenerJob;
 import org.jkiss.dbeaver.utils.RuntimeUtils;
 import org.jkiss.utils.CommonUtils;
@@ -106,6 +107,8 @@ public abstract class BasePlatformImpl implements DBPPlatform, DBPPlatformLangua
 
         // Keep-alive job
         new KeepAliveListenerJob(this).scheduleMonitor();
+        // Catalog changes tracking job
+        new CatalogChangeTrackerJob(this).scheduleMonitor();
     }
 
     public synchronized void dispose() {
@@ -33,6 +33,7 @@ import org.jkiss.dbeaver.runtime.ui.DBPPlatformUI;
 import org.jkiss.dbeaver.tasks.ui.internal.TaskUIMessages;
 import org.jkiss.dbeaver.ui.UIUtils;
 import org.jkiss.dbeaver.utils.RuntimeUtils;
+import org.jkiss.utils.CommonUtils;
 
 import java.lang.reflect.InvocationTargetException;
 
@@ -59,6 +60,14 @@ public class TaskProcessorUI implements DBRRunnableContext, DBTTaskExecutionList
         return true;
     }
 
+    /**
+     * Additional information shown in the final message (e.g. task statistics)
+     */
+    @Nullable
+    protected String getFinalMessageDetails() {
+        return null;
+    }
+
     @NotNull
     public DBTTask getTask() {
         return task;
@@ -92,11 +101,12 @@ public class TaskProcessorUI implements DBRRunnableContext, DBTTaskExecutionList
                     completeMessage, !hasErrors ? IStatus.INFO : IStatus.ERROR);
             }
             if (isShowFinalMessage() && !hasErrors) {
+                String details = getFinalMessageDetails();
                 // Show message box
                 DBeaverNotifications.showNotification(
                     "task",
                     this.task.getName(),
-                    completeMessage,
+                    CommonUtils.isEmpty(details) ? completeMessage : completeMessage + "\n" + details,
                     DBPMessageType.INFORMATION,
                     null);
             } else if (error != null) {
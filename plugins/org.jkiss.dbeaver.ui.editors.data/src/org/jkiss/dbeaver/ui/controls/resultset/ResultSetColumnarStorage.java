@@ -0,0 +1,533 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.DBUtils;
+
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.*;
+
+/**
+ * Columnar row storage.
+ * Keeps numeric, temporal and boolean columns in primitive arrays (with null bitmap)
+ * and dictionary-encodes strings. Column type is detected by the first non-null value.
+ * If some value doesn't fit column type then column falls back to plain object array.
+ */
+public class ResultSetColumnarStorage implements ResultSetRowStorage {
+
+    private static final int INITIAL_CAPACITY = 100;
+    // Do not dictionary-encode columns with too many distinct values
+    private static final int MAX_DICTIONARY_SIZE = 1 << 16;
+
+    // Rough JVM object sizes (compressed oops)
+    private static final int OBJECT_HEADER_SIZE = 16;
+    private static final int REFERENCE_SIZE = 4;
+
+    private final Column[] columns;
+    private int rowCount;
+    private int capacity;
+
+    public ResultSetColumnarStorage(int columnCount) {
+        this.columns = new Column[columnCount];
+        this.capacity = INITIAL_CAPACITY;
+    }
+
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int appendRows(@NotNull List<Object[]> rows) {
+        int firstRow = rowCount;
+        ensureCapacity(rowCount + rows.size());
+        for (Object[] row : rows) {
+            for (int i = 0; i < columns.length; i++) {
+                setValue(rowCount, i, i < row.length ? row[i] : null);
+            }
+            rowCount++;
+        }
+        return firstRow;
+    }
+
+    @Nullable
+    @Override
+    public Object getValue(int row, int column) {
+        if (column < 0 || column >= columns.length) {
+            return null;
+        }
+        Column col = columns[column];
+        return col == null ? null : col.get(row);
+    }
+
+    @Override
+    public void setValue(int row, int column, @Nullable Object value) {
+        Column col = columns[column];
+        if (col == null) {
+            if (value == null) {
+                return;
+            }
+            col = createColumn(value, capacity);
+            // All previous rows are nulls
+            col.setNulls(Math.max(rowCount, row + 1));
+            columns[column] = col;
+        }
+        if (!col.set(row, value)) {
+            // Value type doesn't match column type - switch to plain objects
+            ObjectColumn objectColumn = new ObjectColumn(capacity);
+            for (int i = 0; i < rowCount; i++) {
+                objectColumn.set(i, col.get(i));
+            }
+            objectColumn.set(row, value);
+            columns[column] = objectColumn;
+        }
+    }
+
+    @NotNull
+    @Override
+    public Object[] getRowValues(int row) {
+        Object[] values = new Object[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            values[i] = getValue(row, i);
+        }
+        return values;
+    }
+
+    @Override
+    public void releaseRow(int row) {
+        for (Column col : columns) {
+            if (col instanceof ObjectColumn) {
+                DBUtils.releaseValue(col.get(row));
+            }
+        }
+    }
+
+    @Override
+    public long getMemoryUsage() {
+        long size = OBJECT_HEADER_SIZE + (long) REFERENCE_SIZE * columns.length;
+        for (Column col : columns) {
+            if (col != null) {
+                size += col.getMemoryUsage();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Estimated heap size per row (in bytes)
+     */
+    public long getMemoryPerRow() {
+        return rowCount == 0 ? 0 : getMemoryUsage() / rowCount;
+    }
+
+    @Override
+    public void dispose() {
+        // Nothing to release. Values are released by rows.
+    }
+
+    private void ensureCapacity(int newSize) {
+        if (newSize <= capacity) {
+            return;
+        }
+        int newCapacity = Math.max(newSize, capacity + (capacity >> 1));
+        for (Column col : columns) {
+            if (col != null) {
+                col.grow(newCapacity);
+            }
+        }
+        capacity = newCapacity;
+    }
+
+    @NotNull
+    private static Column createColumn(@NotNull Object value, int capacity) {
+        Class<?> valueClass = value.getClass();
+        if (valueClass == Integer.class || valueClass == Long.class || valueClass == Short.class || valueClass == Byte.class) {
+            return new LongColumn(valueClass, capacity);
+        } else if (valueClass == Double.class || valueClass == Float.class) {
+            return new DoubleColumn(valueClass, capacity);
+        } else if (valueClass == Boolean.class) {
+            return new BooleanColumn();
+        } else if (valueClass == Timestamp.class || valueClass == java.util.Date.class || valueClass == java.sql.Date.class || valueClass == Time.class) {
+            return new DateColumn(valueClass, capacity);
+        } else if (valueClass == String.class) {
+            return new StringColumn(capacity);
+        } else {
+            return new ObjectColumn(capacity);
+        }
+    }
+
+    private static long arraySize(int length, int elementSize) {
+        return OBJECT_HEADER_SIZE + (long) length * elementSize;
+    }
+
+    private static abstract class Column {
+        // Null bitmap. Not used by object columns.
+        BitSet nulls = new BitSet();
+
+        abstract Object get(int row);
+
+        /**
+         * @return false if value can't be stored in this column
+         */
+        abstract boolean set(int row, Object value);
+
+        abstract void grow(int capacity);
+
+        abstract long getMemoryUsage();
+
+        void setNulls(int count) {
+            nulls.set(0, count);
+        }
+
+        long getNullsMemoryUsage() {
+            return OBJECT_HEADER_SIZE + nulls.size() / 8;
+        }
+    }
+
+    private static class LongColumn extends Column {
+        private final Class<?> valueClass;
+        private long[] values;
+
+        LongColumn(Class<?> valueClass, int capacity) {
+            this.valueClass = valueClass;
+            this.values = new long[capacity];
+        }
+
+        @Override
+        Object get(int row) {
+            if (nulls.get(row)) {
+                return null;
+            }
+            long value = values[row];
+            if (valueClass == Integer.class) {
+                return (int) value;
+            } else if (valueClass == Short.class) {
+                return (short) value;
+            } else if (valueClass == Byte.class) {
+                return (byte) value;
+            }
+            return value;
+        }
+
+        @Override
+        boolean set(int row, Object value) {
+            if (value == null) {
+                nulls.set(row);
+                return true;
+            }
+            if (value.getClass() != valueClass) {
+                return false;
+            }
+            nulls.clear(row);
+            values[row] = ((Number) value).longValue();
+            return true;
+        }
+
+        @Override
+        void grow(int capacity) {
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        long getMemoryUsage() {
+            return arraySize(values.length, 8) + getNullsMemoryUsage();
+        }
+    }
+
+    private static class DoubleColumn extends Column {
+        private final Class<?> valueClass;
+        private double[] values;
+
+        DoubleColumn(Class<?> valueClass, int capacity) {
+            this.valueClass = valueClass;
+            this.values = new double[capacity];
+        }
+
+        @Override
+        Object get(int row) {
+            if (nulls.get(row)) {
+                return null;
+            }
+            double value = values[row];
+            return valueClass == Float.class ? (Object) (float) value : (Object) value;
+        }
+
+        @Override
+        boolean set(int row, Object value) {
+            if (value == null) {
+                nulls.set(row);
+                return true;
+            }
+            if (value.getClass() != valueClass) {
+                return false;
+            }
+            nulls.clear(row);
+            values[row] = ((Number) value).doubleValue();
+            return true;
+        }
+
+        @Override
+        void grow(int capacity) {
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        long getMemoryUsage() {
+            return arraySize(values.length, 8) + getNullsMemoryUsage();
+        }
+    }
+
+    private static class BooleanColumn extends Column {
+        private final BitSet values = new BitSet();
+
+        @Override
+        Object get(int row) {
+            return nulls.get(row) ? null : values.get(row);
+        }
+
+        @Override
+        boolean set(int row, Object value) {
+            if (value == null) {
+                nulls.set(row);
+                return true;
+            }
+            if (!(value instanceof Boolean)) {
+                return false;
+            }
+            nulls.clear(row);
+            values.set(row, (Boolean) value);
+            return true;
+        }
+
+        @Override
+        void grow(int capacity) {
+            // Bit set grows automatically
+        }
+
+        @Override
+        long getMemoryUsage() {
+            return OBJECT_HEADER_SIZE + values.size() / 8 + getNullsMemoryUsage();
+        }
+    }
+
+    /**
+     * Dates are stored as epoch millis. Timestamps also keep nanos.
+     */
+    private static class DateColumn extends Column {
+        private final Class<?> valueClass;
+        private long[] millis;
+        @Nullable
+        private int[] nanos;
+
+        DateColumn(Class<?> valueClass, int capacity) {
+            this.valueClass = valueClass;
+            this.millis = new long[capacity];
+            if (valueClass == Timestamp.class) {
+                this.nanos = new int[capacity];
+            }
+        }
+
+        @Override
+        Object get(int row) {
+            if (nulls.get(row)) {
+                return null;
+            }
+            long time = millis[row];
+            if (valueClass == Timestamp.class) {
+                Timestamp ts = new Timestamp(time);
+                ts.setNanos(nanos[row]);
+                return ts;
+            } else if (valueClass == java.sql.Date.class) {
+                return new java.sql.Date(time);
+            } else if (valueClass == Time.class) {
+                return new Time(time);
+            }
+            return new java.util.Date(time);
+        }
+
+        @Override
+        boolean set(int row, Object value) {
+            if (value == null) {
+                nulls.set(row);
+                return true;
+            }
+            if (value.getClass() != valueClass) {
+                return false;
+            }
+            nulls.clear(row);
+            millis[row] = ((java.util.Date) value).getTime();
+            if (nanos != null) {
+                nanos[row] = ((Timestamp) value).getNanos();
+            }
+            return true;
+        }
+
+        @Override
+        void grow(int capacity) {
+            millis = Arrays.copyOf(millis, capacity);
+            if (nanos != null) {
+                nanos = Arrays.copyOf(nanos, capacity);
+            }
+        }
+
+        @Override
+        long getMemoryUsage() {
+            return arraySize(millis.length, 8) + (nanos == null ? 0 : arraySize(nanos.length, 4)) + getNullsMemoryUsage();
+        }
+    }
+
+    /**
+     * Dictionary-encoded strings. Code 0 means null.
+     */
+    private static class StringColumn extends Column {
+        private final Map<String, Integer> dictionaryIndex = new HashMap<>();
+        private final List<String> dictionary = new ArrayList<>();
+        private long dictionaryChars;
+        private int[] codes;
+
+        StringColumn(int capacity) {
+            this.codes = new int[capacity];
+            this.dictionary.add(null);
+        }
+
+        @Override
+        Object get(int row) {
+            return dictionary.get(codes[row]);
+        }
+
+        @Override
+        boolean set(int row, Object value) {
+            if (value == null) {
+                codes[row] = 0;
+                return true;
+            }
+            if (!(value instanceof String)) {
+                return false;
+            }
+            Integer code = dictionaryIndex.get(value);
+            if (code == null) {
+                if (dictionary.size() >= MAX_DICTIONARY_SIZE) {
+                    // Too many distinct values. Dictionary is useless.
+                    return false;
+                }
+                code = dictionary.size();
+                dictionary.add((String) value);
+                dictionaryIndex.put((String) value, code);
+                dictionaryChars += ((String) value).length();
+            }
+            codes[row] = code;
+            return true;
+        }
+
+        @Override
+        void grow(int capacity) {
+            codes = Arrays.copyOf(codes, capacity);
+        }
+
+        @Override
+        void setNulls(int count) {
+            // Nulls are encoded with zero code
+        }
+
+        @Override
+        long getMemoryUsage() {
+            // Each dictionary entry: string object, its char array and hash map entry
+            long dictionarySize = dictionary.size() * (long) (OBJECT_HEADER_SIZE * 4 + REFERENCE_SIZE * 3) + dictionaryChars * 2;
+            return arraySize(codes.length, 4) + dictionarySize;
+        }
+    }
+
+    private static class ObjectColumn extends Column {
+        private Object[] values;
+
+        ObjectColumn(int capacity) {
+            this.values = new Object[capacity];
+        }
+
+        @Override
+        Object get(int row) {
+            return values[row];
+        }
+
+        @Override
+        boolean set(int row, Object value) {
+            values[row] = value;
+            return true;
+        }
+
+        @Override
+        void grow(int capacity) {
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        long getMemoryUsage() {
+            long size = arraySize(values.length, REFERENCE_SIZE);
+            for (Object value : values) {
+                if (value != null) {
+                    size += ResultSetColumnarStorage.getValueMemoryUsage(value);
+                }
+            }
+            return size;
+        }
+
+        @Override
+        void setNulls(int count) {
+            // Nulls are stored as is
+        }
+    }
+
+    /**
+     * Estimated heap size of boxed value
+     */
+    public static long getValueMemoryUsage(@Nullable Object value) {
+        if (value == null) {
+            return 0;
+        } else if (value instanceof String) {
+            return OBJECT_HEADER_SIZE * 2 + ((String) value).length() * 2L;
+        } else if (value instanceof Timestamp) {
+            return OBJECT_HEADER_SIZE + 16;
+        } else if (value instanceof java.util.Date) {
+            return OBJECT_HEADER_SIZE + 8;
+        } else if (value instanceof byte[]) {
+            return arraySize(((byte[]) value).length, 1);
+        } else if (value instanceof Integer || value instanceof Float || value instanceof Short || value instanceof Byte || value instanceof Boolean) {
+            return OBJECT_HEADER_SIZE;
+        } else {
+            return OBJECT_HEADER_SIZE + 8;
+        }
+    }
+
+    /**
+     * Estimated heap size of plain (Object[] based) row
+     */
+    public static long getRowMemoryUsage(@NotNull Object[] values) {
+        long size = arraySize(values.length, REFERENCE_SIZE);
+        for (Object value : values) {
+            size += getValueMemoryUsage(value);
+        }
+        return size;
+    }
+
+}
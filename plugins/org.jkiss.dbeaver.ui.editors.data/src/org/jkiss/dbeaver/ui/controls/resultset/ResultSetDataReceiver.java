@@ -24,6 +24,8 @@ import org.jkiss.dbeaver.model.data.DBDDataReceiver;
 import org.jkiss.dbeaver.model.data.DBDDataReceiverInteractive;
 import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.impl.data.DBDValueError;
+import org.jkiss.dbeaver.model.impl.local.LocalResultSetMeta;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
 import org.jkiss.dbeaver.model.struct.DBSDataContainer;
@@ -42,14 +44,22 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
 
     private static final Log log = Log.getLog(ResultSetDataReceiver.class);
 
+    private static final int FLUSH_PAGE_COUNT = 10;
+
     private ResultSetViewer resultSetViewer;
     private int columnsCount;
+    private List<DBCAttributeMetaData> rsAttributes;
     private DBDAttributeBinding[] metaColumns;
     private List<Object[]> rows = new ArrayList<>();
     private boolean hasMoreData;
     private boolean nextSegmentRead;
     private long offset;
     private long maxRows;
+    private long fetchedRowCount;
+    // If positive then rows are pushed into the viewer by chunks of this size during next segment read.
+    // Used with paged row storage to avoid keeping all fetched rows on heap.
+    private int flushRowCount;
+    private boolean resetOldRows;
 
     private boolean paused;
 
@@ -59,6 +69,8 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
     private List<Throwable> errorList = new ArrayList<>();
     private int focusRow;
     private DBSDataContainer targetDataContainer;
+    // If set then fetched rows are saved in query results cache
+    private ResultSetQueryCache.QueryKey cacheKey;
 
     ResultSetDataReceiver(ResultSetViewer resultSetViewer) {
         this.resultSetViewer = resultSetViewer;
@@ -88,6 +100,10 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
         return errorList;
     }
 
+    void setCacheKey(ResultSetQueryCache.QueryKey cacheKey) {
+        this.cacheKey = cacheKey;
+    }
+
     @Override
     public void fetchStart(DBCSession session, final DBCResultSet resultSet, long offset, long maxRows)
         throws DBCException {
@@ -95,15 +111,26 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
         this.rows.clear();
         this.offset = offset;
         this.maxRows = maxRows;
-
+        this.fetchedRowCount = 0;
+        this.flushRowCount = 0;
+
+        if (nextSegmentRead) {
+            DBPPreferenceStore preferenceStore = getDataContainer().getDataSource().getContainer().getPreferenceStore();
+            resetOldRows = preferenceStore.getBoolean(ModelPreferences.RESULT_SET_REREAD_ON_SCROLLING);
+            if (preferenceStore.getBoolean(ResultSetPreferences.RESULT_SET_PAGED_STORAGE)) {
+                flushRowCount = FLUSH_PAGE_COUNT * ResultSetPagedStorage.DEFAULT_PAGE_SIZE;
+            }
+        }
         if (!nextSegmentRead) {
+            resultSetViewer.getModel().getStatus().setCacheTime(0);
+
             // Get columns metadata
             DBCResultSetMetaData metaData = resultSet.getMeta();
             if (metaData == null) {
                 throw new DBCException("Null resultset metadata");
             }
 
-            List<DBCAttributeMetaData> rsAttributes = metaData.getAttributes();
+            rsAttributes = metaData.getAttributes();
             columnsCount = rsAttributes.size();
 
             // Extract column info
@@ -149,41 +176,83 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
             }
         }
         rows.add(row);
+        fetchedRowCount++;
+        if (flushRowCount > 0 && rows.size() >= flushRowCount) {
+            appendData(rows, resetOldRows);
+            resetOldRows = false;
+            rows = new ArrayList<>();
+        }
     }
 
     @Override
     public void fetchEnd(DBCSession session, final DBCResultSet resultSet) {
         if (!nextSegmentRead) {
-            try {
-                // Read locators' metadata
-                DBSEntity entity = null;
-                DBSDataContainer dataContainer = getDataContainer();
-                if (dataContainer instanceof DBSEntity) {
-                    entity = (DBSEntity) dataContainer;
-                }
-                DBExecUtils.bindAttributes(session, entity, resultSet, metaColumns, rows);
-            } catch (Throwable e) {
-                errorList.add(e);
+            bindAttributes(session, resultSet);
+            if (cacheKey != null && flushRowCount == 0 && errorList.isEmpty()) {
+                ResultSetQueryCache.getInstance().putResult(cacheKey, rsAttributes, rows, maxRows);
             }
         }
 
+        pushData(session.getProgressMonitor(), resultSet);
+    }
+
+    /**
+     * Shows cached rows instead of result set fetch
+     * @return number of rows or -1 if next segment is read
+     */
+    long fetchCachedResult(DBCSession session, DBCResultSet resultSet, ResultSetQueryCache.CachedResult cachedResult) {
+        if (nextSegmentRead) {
+            return -1;
+        }
+        this.errorList.clear();
+        this.offset = 0;
+        this.maxRows = cachedResult.getMaxRows();
+        this.flushRowCount = 0;
+
+        // Bindings are mutable (entity attributes, row identifiers, nested bindings), so each viewer gets its own
+        rsAttributes = cachedResult.getAttributes();
+        columnsCount = rsAttributes.size();
+        metaColumns = DBUtils.getAttributeBindings(session, getDataContainer(), new LocalResultSetMeta(rsAttributes));
+        resultSetViewer.setMetaData(resultSet, metaColumns);
+        resultSetViewer.getModel().getStatus().setCacheTime(cachedResult.getCacheTime());
+
+        rows = cachedResult.copyRows();
+        fetchedRowCount = rows.size();
+        bindAttributes(session, resultSet);
+        pushData(session.getProgressMonitor(), resultSet);
+        return fetchedRowCount;
+    }
+
+    private void bindAttributes(DBCSession session, DBCResultSet resultSet) {
+        try {
+            // Read locators' metadata
+            DBSEntity entity = null;
+            DBSDataContainer dataContainer = getDataContainer();
+            if (dataContainer instanceof DBSEntity) {
+                entity = (DBSEntity) dataContainer;
+            }
+            DBExecUtils.bindAttributes(session, entity, resultSet, metaColumns, rows);
+        } catch (Throwable e) {
+            errorList.add(e);
+        }
+    }
+
+    private void pushData(DBRProgressMonitor monitor, DBCResultSet resultSet) {
         final List<Object[]> tmpRows = rows;
 
         final boolean nextSegmentRead = this.nextSegmentRead;
 
         // Push data into viewer
-        DBRProgressMonitor monitor = session.getProgressMonitor();
         monitor.beginTask("Populate data", 1);
         if (!nextSegmentRead) {
             monitor.subTask("Set data");
             resultSetViewer.setData(tmpRows, focusRow);
         } else {
             monitor.subTask("Append data");
-            boolean resetOldRows = getDataContainer().getDataSource().getContainer().getPreferenceStore().getBoolean(ModelPreferences.RESULT_SET_REREAD_ON_SCROLLING);
-            resultSetViewer.appendData(tmpRows, resetOldRows);
+            appendData(tmpRows, resetOldRows);
         }
         // Check for more data
-        hasMoreData = maxRows > 0 && tmpRows.size() >= maxRows;
+        hasMoreData = maxRows > 0 && fetchedRowCount >= maxRows;
         monitor.done();
 
         UIUtils.asyncExec(() -> {
@@ -199,6 +268,11 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
         });
     }
 
+    private void appendData(List<Object[]> tmpRows, boolean resetOldRows) {
+        // Model rows are read by UI thread, so they are appended in UI thread too
+        UIUtils.syncExec(() -> resultSetViewer.appendData(tmpRows, resetOldRows));
+    }
+
     private DBSDataContainer getDataContainer() {
         return targetDataContainer != null ? targetDataContainer : resultSetViewer.getDataContainer();
     }
@@ -206,6 +280,7 @@ class ResultSetDataReceiver implements DBDDataReceiver, DBDDataReceiverInteracti
     @Override
     public void close() {
         nextSegmentRead = false;
+        cacheKey = null;
 
         attrErrors.clear();
         rows = new ArrayList<>();
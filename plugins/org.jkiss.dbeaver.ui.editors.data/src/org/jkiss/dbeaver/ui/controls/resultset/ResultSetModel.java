@@ -29,6 +29,7 @@ import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.data.*;
 import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.exec.trace.DBCTrace;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
 import org.jkiss.dbeaver.model.struct.*;
 import org.jkiss.dbeaver.model.virtual.DBVColorOverride;
 import org.jkiss.dbeaver.model.virtual.DBVEntity;
@@ -58,6 +59,9 @@ public class ResultSetModel {
 
     // Data
     private List<ResultSetRow> curRows = new ArrayList<>();
+    // Storage of fetched rows. Null if rows keep values in plain arrays.
+    @Nullable
+    private ResultSetRowStorage rowStorage;
     private Long totalRowCount = null;
     private int changesCount = 0;
     private volatile boolean hasData = false;
@@ -68,6 +72,7 @@ public class ResultSetModel {
     private Map<DBDAttributeBinding, List<AttributeColorSettings>> colorMapping = new HashMap<>();
 
     private DBCStatistics statistics;
+    private final ResultSetStatus status = new ResultSetStatus();
     private DBCTrace trace;
     private transient boolean metadataChanged;
     private transient boolean metadataDynamic;
@@ -335,9 +340,13 @@ public class ResultSetModel {
         return curRows;
     }
 
+    /**
+     * Returns row values without detaching row from row storage.
+     * Result must not be modified.
+     */
     @NotNull
     public Object[] getRowData(int index) {
-        return curRows.get(index).values;
+        return curRows.get(index).peekValues();
     }
 
     @NotNull
@@ -355,7 +364,24 @@ public class ResultSetModel {
 
     @Nullable
     public Object getCellValue(@NotNull DBDAttributeBinding attribute, @NotNull ResultSetRow row) {
-        return DBUtils.getAttributeValue(attribute, attributes, row.values);
+        if (row.hasStorage() && attribute.getLevel() == 0 && !attribute.isCustom()) {
+            // Fast path: do not materialize whole row
+            return row.getValue(attribute.getOrdinalPosition());
+        }
+        return DBUtils.getAttributeValue(attribute, attributes, row.peekValues());
+    }
+
+    /**
+     * Returns estimated heap size of a single row of row storage.
+     * Returns -1 if row storage is not used.
+     */
+    public long getMemoryPerRow() {
+        ResultSetRowStorage storage = this.rowStorage;
+        if (storage == null) {
+            return -1;
+        }
+        int rowCount = storage.getRowCount();
+        return rowCount == 0 ? 0 : storage.getMemoryUsage() / rowCount;
     }
 
     /**
@@ -378,7 +404,7 @@ public class ResultSetModel {
         } else {
             rootIndex = attr.getTopParent().getOrdinalPosition();
         }
-        Object rootValue = row.values[rootIndex];
+        Object rootValue = row.getValue(rootIndex);
         Object ownerValue = depth > 0 ? rootValue : null;
         {
             // Obtain owner value and create all intermediate values
@@ -484,7 +510,7 @@ public class ResultSetModel {
                     e.printStackTrace();
                 }
             } else {
-                row.values[rootIndex] = value;
+                row.setValue(rootIndex, value);
             }
             return true;
         }
@@ -784,22 +810,64 @@ public class ResultSetModel {
     void appendData(@NotNull List<Object[]> rows, boolean resetOldRows) {
         if (resetOldRows) {
             curRows.clear();
+            disposeRowStorage();
+            rowStorage = createRowStorage();
         }
         int rowCount = rows.size();
         int firstRowNum = curRows.size();
         List<ResultSetRow> newRows = new ArrayList<>(rowCount);
-        for (int i = 0; i < rowCount; i++) {
-            newRows.add(
-                new ResultSetRow(firstRowNum + i, rows.get(i)));
+        if (rowStorage != null) {
+            int firstStorageIndex = rowStorage.appendRows(rows);
+            for (int i = 0; i < rowCount; i++) {
+                newRows.add(
+                    new ResultSetRow(firstRowNum + i, rowStorage, firstStorageIndex + i));
+            }
+        } else {
+            for (int i = 0; i < rowCount; i++) {
+                newRows.add(
+                    new ResultSetRow(firstRowNum + i, rows.get(i)));
+            }
         }
         curRows.addAll(newRows);
 
         updateRowColors(resetOldRows, newRows);
     }
 
+    @Nullable
+    private ResultSetRowStorage createRowStorage() {
+        if (attributes.length == 0) {
+            return null;
+        }
+        for (DBDAttributeBinding attr : attributes) {
+            if (!CommonUtils.isEmpty(attr.getNestedBindings())) {
+                // Complex values are accessed through the root value. Keep them in plain rows.
+                return null;
+            }
+        }
+        DBPPreferenceStore preferenceStore = attributes[0].getDataSource().getContainer().getPreferenceStore();
+        if (preferenceStore.getBoolean(ResultSetPreferences.RESULT_SET_PAGED_STORAGE)) {
+            return new ResultSetPagedStorage(
+                attributes.length,
+                ResultSetPagedStorage.DEFAULT_PAGE_SIZE,
+                preferenceStore.getInt(ResultSetPreferences.RESULT_SET_PAGED_STORAGE_WINDOW));
+        }
+        if (preferenceStore.getBoolean(ResultSetPreferences.RESULT_SET_COLUMNAR_STORAGE)) {
+            return new ResultSetColumnarStorage(attributes.length);
+        }
+        return null;
+    }
+
+    private void disposeRowStorage() {
+        if (rowStorage != null) {
+            rowStorage.dispose();
+            rowStorage = null;
+        }
+    }
+
     void clearData() {
         // Refresh all rows
         this.curRows = new ArrayList<>();
+        disposeRowStorage();
         this.totalRowCount = null;
         this.singleSourceEntity = null;
 
@@ -889,6 +957,9 @@ public class ResultSetModel {
 
     void releaseAllData() {
         final List<ResultSetRow> oldRows = curRows;
+        final ResultSetRowStorage oldStorage = rowStorage;
+        // Storage will be disposed after rows release
+        rowStorage = null;
         // Cleanup in separate job.
         // Sometimes model cleanup takes much time (e.g. freeing LOB values)
         // So let's do it in separate job to avoid UI locking
@@ -896,6 +967,9 @@ public class ResultSetModel {
             for (ResultSetRow row : oldRows) {
                 row.release();
             }
+            if (oldStorage != null) {
+                oldStorage.dispose();
+            }
         }, "Release values", 5000);
     }
 
@@ -1027,31 +1101,72 @@ public class ResultSetModel {
         if (hasOrdering) {
             // Sort locally
             final List<DBDAttributeConstraint> orderConstraints = dataFilter.getOrderConstraints();
-            curRows.sort((row1, row2) -> {
-                int result = 0;
-                for (DBDAttributeConstraint co : orderConstraints) {
-                    final DBDAttributeBinding binding = getAttributeBinding(co.getAttribute());
-                    if (binding == null) {
-                        continue;
-                    }
-                    Object cell1 = getCellValue(binding, row1);
-                    Object cell2 = getCellValue(binding, row2);
-                    result = DBUtils.compareDataValues(cell1, cell2);
-                    if (co.isOrderDescending()) {
-                        result = -result;
-                    }
-                    if (result != 0) {
-                        break;
+            if (rowStorage instanceof ResultSetPagedStorage) {
+                // Read sort keys sequentially. Otherwise comparator would swap pages in and out for each comparison.
+                sortRowsByKeys(orderConstraints);
+            } else {
+                curRows.sort((row1, row2) -> {
+                    int result = 0;
+                    for (DBDAttributeConstraint co : orderConstraints) {
+                        final DBDAttributeBinding binding = getAttributeBinding(co.getAttribute());
+                        if (binding == null) {
+                            continue;
+                        }
+                        Object cell1 = getCellValue(binding, row1);
+                        Object cell2 = getCellValue(binding, row2);
+                        result = DBUtils.compareDataValues(cell1, cell2);
+                        if (co.isOrderDescending()) {
+                            result = -result;
+                        }
+                        if (result != 0) {
+                            break;
+                        }
                     }
-                }
-                return result;
-            });
+                    return result;
+                });
+            }
         }
         for (int i = 0; i < curRows.size(); i++) {
             curRows.get(i).setVisualNumber(i);
         }
     }
 
+    private void sortRowsByKeys(List<DBDAttributeConstraint> orderConstraints) {
+        List<DBDAttributeBinding> sortBindings = new ArrayList<>();
+        List<Boolean> sortDescending = new ArrayList<>();
+        for (DBDAttributeConstraint co : orderConstraints) {
+            final DBDAttributeBinding binding = getAttributeBinding(co.getAttribute());
+            if (binding != null) {
+                sortBindings.add(binding);
+                sortDescending.add(co.isOrderDescending());
+            }
+        }
+        // Rows are in original order here so storage is read sequentially
+        final Map<ResultSetRow, Object[]> sortKeys = new IdentityHashMap<>(curRows.size());
+        for (ResultSetRow row : curRows) {
+            Object[] key = new Object[sortBindings.size()];
+            for (int i = 0; i < key.length; i++) {
+                key[i] = getCellValue(sortBindings.get(i), row);
+            }
+            sortKeys.put(row, key);
+        }
+        curRows.sort((row1, row2) -> {
+            Object[] key1 = sortKeys.get(row1);
+            Object[] key2 = sortKeys.get(row2);
+            int result = 0;
+            for (int i = 0; i < key1.length; i++) {
+                result = DBUtils.compareDataValues(key1[i], key2[i]);
+                if (sortDescending.get(i)) {
+                    result = -result;
+                }
+                if (result != 0) {
+                    break;
+                }
+            }
+            return result;
+        });
+    }
+
     private void fillVisibleAttributes() {
         this.visibleAttributes.clear();
 
@@ -1091,6 +1206,11 @@ public class ResultSetModel {
         this.statistics = statistics;
     }
 
+    @NotNull
+    public ResultSetStatus getStatus() {
+        return status;
+    }
+
     public DBCTrace getTrace() {
         return trace;
     }
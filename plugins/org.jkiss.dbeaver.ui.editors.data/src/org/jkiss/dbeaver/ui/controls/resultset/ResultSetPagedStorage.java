@@ -0,0 +1,447 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
+import org.jkiss.dbeaver.utils.ContentUtils;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.*;
+
+/**
+ * Paged row storage.
+ * Keeps a fixed number of row pages in memory. Least recently used pages are written
+ * to a temporary file and read back when rows are accessed again.
+ * Pages with values which can't be serialized (LOBs, complex values) are never swapped out.
+ */
+class ResultSetPagedStorage implements ResultSetRowStorage {
+
+    private static final Log log = Log.getLog(ResultSetPagedStorage.class);
+
+    static final int DEFAULT_PAGE_SIZE = 1000;
+
+    private static final String TEMP_FILE_NAME = "resultset-pages";
+
+    private static final byte TYPE_NULL = 0;
+    private static final byte TYPE_INT = 1;
+    private static final byte TYPE_LONG = 2;
+    private static final byte TYPE_SHORT = 3;
+    private static final byte TYPE_BYTE = 4;
+    private static final byte TYPE_DOUBLE = 5;
+    private static final byte TYPE_FLOAT = 6;
+    private static final byte TYPE_BOOLEAN = 7;
+    private static final byte TYPE_STRING = 8;
+    private static final byte TYPE_BIG_DECIMAL = 9;
+    private static final byte TYPE_BIG_INTEGER = 10;
+    private static final byte TYPE_TIMESTAMP = 11;
+    private static final byte TYPE_DATE = 12;
+    private static final byte TYPE_SQL_DATE = 13;
+    private static final byte TYPE_TIME = 14;
+    private static final byte TYPE_BINARY = 15;
+
+    private static class Page {
+        // Null if page is swapped out
+        @Nullable
+        Object[][] rows;
+        int rowCount;
+        // Position in swap file. -1 if page was never written.
+        long fileOffset = -1;
+        int fileLength;
+        // Size of file region reserved for this page
+        int fileCapacity;
+        // Page was modified after it was written
+        boolean dirty;
+        // Page contains values which can't be swapped out
+        boolean pinned;
+    }
+
+    private final int columnCount;
+    private final int pageSize;
+    private final int maxLoadedPages;
+    private final List<Page> pages = new ArrayList<>();
+    // Loaded pages in access order
+    private final LinkedHashMap<Page, Boolean> loadedPages = new LinkedHashMap<>(16, 0.75f, true);
+    private int rowCount;
+
+    private File swapFile;
+    private RandomAccessFile swapAccess;
+    private boolean swapFailed;
+
+    ResultSetPagedStorage(int columnCount, int pageSize, int maxRowsInMemory) {
+        this.columnCount = columnCount;
+        this.pageSize = Math.max(pageSize, 1);
+        this.maxLoadedPages = Math.max(maxRowsInMemory / this.pageSize, 2);
+    }
+
+    @Override
+    public synchronized int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Number of pages currently swapped out
+     */
+    public synchronized int getSwappedPageCount() {
+        return pages.size() - loadedPages.size();
+    }
+
+    @Override
+    public synchronized int appendRows(@NotNull List<Object[]> rows) {
+        int firstRow = rowCount;
+        for (Object[] row : rows) {
+            Page page = pages.isEmpty() ? null : pages.get(pages.size() - 1);
+            if (page == null || page.rowCount >= pageSize) {
+                page = new Page();
+                page.rows = new Object[pageSize][];
+                pages.add(page);
+                loadedPages.put(page, Boolean.TRUE);
+                evictPages();
+            } else {
+                loadPage(page);
+            }
+            page.rows[page.rowCount++] = row;
+            page.dirty = true;
+            if (!page.pinned && !isSerializable(row)) {
+                page.pinned = true;
+            }
+            rowCount++;
+        }
+        return firstRow;
+    }
+
+    @Nullable
+    @Override
+    public synchronized Object getValue(int row, int column) {
+        Object[] values = getRow(row);
+        return values == null || column < 0 || column >= values.length ? null : values[column];
+    }
+
+    @Override
+    public synchronized void setValue(int row, int column, @Nullable Object value) {
+        Object[] values = getRow(row);
+        if (values == null) {
+            return;
+        }
+        Page page = pages.get(row / pageSize);
+        values[column] = value;
+        page.dirty = true;
+        if (!page.pinned && !isSerializable(value)) {
+            page.pinned = true;
+        }
+    }
+
+    @NotNull
+    @Override
+    public synchronized Object[] getRowValues(int row) {
+        Object[] values = getRow(row);
+        return values == null ? new Object[columnCount] : Arrays.copyOf(values, values.length);
+    }
+
+    @Override
+    public synchronized void releaseRow(int row) {
+        // Only pinned pages may contain values which need to be released. They are always in memory.
+        if (row < 0 || row >= rowCount) {
+            return;
+        }
+        Page page = pages.get(row / pageSize);
+        if (page.rows != null) {
+            Object[] values = page.rows[row % pageSize];
+            if (values != null) {
+                for (Object value : values) {
+                    DBUtils.releaseValue(value);
+                }
+            }
+        }
+    }
+
+    @Override
+    public synchronized long getMemoryUsage() {
+        long size = 0;
+        for (Page page : loadedPages.keySet()) {
+            Object[][] rows = page.rows;
+            if (rows == null) {
+                continue;
+            }
+            for (int i = 0; i < page.rowCount; i++) {
+                size += ResultSetColumnarStorage.getRowMemoryUsage(rows[i]);
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public synchronized void dispose() {
+        rowCount = 0;
+        pages.clear();
+        loadedPages.clear();
+        if (swapAccess != null) {
+            try {
+                swapAccess.close();
+            } catch (IOException e) {
+                log.debug("Error closing resultset swap file", e);
+            }
+            swapAccess = null;
+        }
+        if (swapFile != null) {
+            ContentUtils.deleteTempFile(swapFile);
+            swapFile = null;
+        }
+    }
+
+    @Nullable
+    private Object[] getRow(int row) {
+        if (row < 0 || row >= rowCount) {
+            return null;
+        }
+        Page page = pages.get(row / pageSize);
+        if (!loadPage(page)) {
+            return null;
+        }
+        Object[] values = page.rows[row % pageSize];
+        evictPages();
+        return values;
+    }
+
+    private boolean loadPage(Page page) {
+        if (page.rows != null) {
+            // Update access order
+            loadedPages.get(page);
+            return true;
+        }
+        if (swapAccess == null) {
+            // Storage was disposed
+            return false;
+        }
+        try {
+            byte[] buffer = new byte[page.fileLength];
+            swapAccess.seek(page.fileOffset);
+            swapAccess.readFully(buffer);
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(buffer));
+            Object[][] rows = new Object[pageSize][];
+            for (int i = 0; i < page.rowCount; i++) {
+                Object[] values = new Object[in.readShort()];
+                for (int k = 0; k < values.length; k++) {
+                    values[k] = readValue(in);
+                }
+                rows[i] = values;
+            }
+            page.rows = rows;
+            page.dirty = false;
+            loadedPages.put(page, Boolean.TRUE);
+            return true;
+        } catch (IOException e) {
+            log.error("Error reading resultset page from swap file", e);
+            return false;
+        }
+    }
+
+    private void evictPages() {
+        if (swapFailed || loadedPages.size() <= maxLoadedPages) {
+            return;
+        }
+        Page lastPage = pages.get(pages.size() - 1);
+        for (Iterator<Page> iter = loadedPages.keySet().iterator(); iter.hasNext() && loadedPages.size() > maxLoadedPages; ) {
+            Page page = iter.next();
+            if (page.pinned || page == lastPage) {
+                continue;
+            }
+            if (page.dirty || page.fileOffset < 0) {
+                try {
+                    writePage(page);
+                } catch (IOException e) {
+                    log.error("Error writing resultset page to swap file. Keep all rows in memory.", e);
+                    swapFailed = true;
+                    return;
+                }
+            }
+            page.rows = null;
+            iter.remove();
+        }
+    }
+
+    private void writePage(Page page) throws IOException {
+        if (swapAccess == null) {
+            swapFile = ContentUtils.createTempContentFile(new VoidProgressMonitor(), DBWorkbench.getPlatform(), TEMP_FILE_NAME);
+            swapAccess = new RandomAccessFile(swapFile, "rw");
+        }
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(buffer);
+        Object[][] rows = page.rows;
+        assert rows != null;
+        for (int i = 0; i < page.rowCount; i++) {
+            Object[] values = rows[i];
+            out.writeShort(values.length);
+            for (Object value : values) {
+                writeValue(out, value);
+            }
+        }
+        out.flush();
+        int length = buffer.size();
+        if (page.fileOffset < 0 || length > page.fileCapacity) {
+            // Reserve page region at the end of file. Leave some space for value changes
+            // so modified pages are overwritten in place.
+            page.fileOffset = swapAccess.length();
+            page.fileCapacity = length + length / 4;
+            swapAccess.setLength(page.fileOffset + page.fileCapacity);
+        }
+        swapAccess.seek(page.fileOffset);
+        swapAccess.write(buffer.toByteArray());
+        page.fileLength = length;
+        page.dirty = false;
+    }
+
+    private static boolean isSerializable(Object[] row) {
+        for (Object value : row) {
+            if (!isSerializable(value)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isSerializable(@Nullable Object value) {
+        if (value == null) {
+            return true;
+        }
+        Class<?> valueClass = value.getClass();
+        return valueClass == Integer.class || valueClass == Long.class || valueClass == Short.class || valueClass == Byte.class ||
+            valueClass == Double.class || valueClass == Float.class || valueClass == Boolean.class || valueClass == String.class ||
+            valueClass == BigDecimal.class || valueClass == BigInteger.class ||
+            valueClass == Timestamp.class || valueClass == java.util.Date.class || valueClass == java.sql.Date.class || valueClass == Time.class ||
+            valueClass == byte[].class;
+    }
+
+    private static void writeValue(DataOutputStream out, @Nullable Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(TYPE_NULL);
+        } else if (value instanceof Integer) {
+            out.writeByte(TYPE_INT);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(TYPE_LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Short) {
+            out.writeByte(TYPE_SHORT);
+            out.writeShort((Short) value);
+        } else if (value instanceof Byte) {
+            out.writeByte(TYPE_BYTE);
+            out.writeByte((Byte) value);
+        } else if (value instanceof Double) {
+            out.writeByte(TYPE_DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof Float) {
+            out.writeByte(TYPE_FLOAT);
+            out.writeFloat((Float) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte(TYPE_BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof String) {
+            out.writeByte(TYPE_STRING);
+            writeBytes(out, ((String) value).getBytes(StandardCharsets.UTF_8));
+        } else if (value instanceof BigDecimal) {
+            out.writeByte(TYPE_BIG_DECIMAL);
+            writeBytes(out, value.toString().getBytes(StandardCharsets.UTF_8));
+        } else if (value instanceof BigInteger) {
+            out.writeByte(TYPE_BIG_INTEGER);
+            writeBytes(out, ((BigInteger) value).toByteArray());
+        } else if (value instanceof Timestamp) {
+            out.writeByte(TYPE_TIMESTAMP);
+            out.writeLong(((Timestamp) value).getTime());
+            out.writeInt(((Timestamp) value).getNanos());
+        } else if (value instanceof java.sql.Date) {
+            out.writeByte(TYPE_SQL_DATE);
+            out.writeLong(((java.sql.Date) value).getTime());
+        } else if (value instanceof Time) {
+            out.writeByte(TYPE_TIME);
+            out.writeLong(((Time) value).getTime());
+        } else if (value instanceof java.util.Date) {
+            out.writeByte(TYPE_DATE);
+            out.writeLong(((java.util.Date) value).getTime());
+        } else if (value instanceof byte[]) {
+            out.writeByte(TYPE_BINARY);
+            writeBytes(out, (byte[]) value);
+        } else {
+            throw new IOException("Value of type " + value.getClass().getName() + " can't be written in swap file");
+        }
+    }
+
+    @Nullable
+    private static Object readValue(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case TYPE_NULL:
+                return null;
+            case TYPE_INT:
+                return in.readInt();
+            case TYPE_LONG:
+                return in.readLong();
+            case TYPE_SHORT:
+                return in.readShort();
+            case TYPE_BYTE:
+                return in.readByte();
+            case TYPE_DOUBLE:
+                return in.readDouble();
+            case TYPE_FLOAT:
+                return in.readFloat();
+            case TYPE_BOOLEAN:
+                return in.readBoolean();
+            case TYPE_STRING:
+                return new String(readBytes(in), StandardCharsets.UTF_8);
+            case TYPE_BIG_DECIMAL:
+                return new BigDecimal(new String(readBytes(in), StandardCharsets.UTF_8));
+            case TYPE_BIG_INTEGER:
+                return new BigInteger(readBytes(in));
+            case TYPE_TIMESTAMP: {
+                Timestamp ts = new Timestamp(in.readLong());
+                ts.setNanos(in.readInt());
+                return ts;
+            }
+            case TYPE_SQL_DATE:
+                return new java.sql.Date(in.readLong());
+            case TYPE_TIME:
+                return new Time(in.readLong());
+            case TYPE_DATE:
+                return new java.util.Date(in.readLong());
+            case TYPE_BINARY:
+                return readBytes(in);
+            default:
+                throw new IOException("Bad value type in swap file: " + type);
+        }
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+}
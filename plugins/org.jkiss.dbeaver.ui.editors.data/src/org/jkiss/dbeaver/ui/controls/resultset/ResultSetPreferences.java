@@ -67,6 +67,12 @@ public final class ResultSetPreferences {
     public static final String RESULT_SET_PRESENTATION = "resultset.presentation.active"; //$NON-NLS-1$
     public static final String RESULT_SET_STRING_USE_CONTENT_EDITOR = "resultset.string.use.content.editor"; //$NON-NLS-1$
     public static final String RESULT_SET_USE_NAVIGATOR_FILTERS = "resultset.filter.use.navigator"; //$NON-NLS-1$
+    public static final String RESULT_SET_COLUMNAR_STORAGE = "resultset.storage.columnar"; //$NON-NLS-1$
+    public static final String RESULT_SET_PAGED_STORAGE = "resultset.storage.paged"; //$NON-NLS-1$
+    public static final String RESULT_SET_PAGED_STORAGE_WINDOW = "resultset.storage.paged.window"; //$NON-NLS-1$
+    public static final String RESULT_SET_QUERY_CACHE = "resultset.query.cache"; //$NON-NLS-1$
+    public static final String RESULT_SET_QUERY_CACHE_TTL = "resultset.query.cache.ttl"; //$NON-NLS-1$
+    public static final String RESULT_SET_QUERY_CACHE_SIZE = "resultset.query.cache.size"; //$NON-NLS-1$
 
     public static final String RESULT_SET_SHOW_ERRORS_IN_DIALOG = "resultset.show.errorDialog"; //$NON-NLS-1$
 
@@ -0,0 +1,412 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.data.DBDDataReceiver;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
+import org.jkiss.dbeaver.model.qm.QMUtils;
+import org.jkiss.dbeaver.model.sql.SQLDialect;
+import org.jkiss.dbeaver.model.sql.SQLQuery;
+import org.jkiss.dbeaver.model.sql.SQLQueryParameter;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.runtime.qm.DefaultExecutionHandler;
+import org.jkiss.utils.ArrayUtils;
+import org.jkiss.utils.CommonUtils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.temporal.TemporalAccessor;
+import java.util.*;
+
+/**
+ * Client-side cache of read-only query results.
+ *
+ * Results are keyed by execution context, its default catalog/schema, query text (with normalized whitespaces),
+ * parameter values, fetch range and data source generation. Cache size is limited by the total number of cached rows.
+ * Only results of deterministic SELECT queries (without volatile function calls, variables, etc) are cached, values are copied.
+ * Results with LOBs or other mutable values which can't be copied are never cached.
+ * Attribute bindings are mutable too, so only result set attributes metadata (which isn't changed after fetch) is kept
+ * and bindings are built again for each fetch from cache.
+ *
+ * Data source generation is incremented (and all its results are invalidated) by every modifying statement
+ * (DML, DDL, SELECT INTO or FOR UPDATE) and transaction commit or rollback reported to the query manager:
+ * SQL editor, result set edits, data transfer, etc.
+ * Results fetched while generation was changed are not cached.
+ */
+public class ResultSetQueryCache {
+
+    private static final Set<Class<?>> IMMUTABLE_TYPES = new HashSet<>(Arrays.asList(
+        String.class, Boolean.class, Character.class,
+        Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class,
+        BigInteger.class, BigDecimal.class));
+    private static final Object NOT_CACHEABLE = new Object();
+
+    private static final ResultSetQueryCache instance = new ResultSetQueryCache();
+
+    public static ResultSetQueryCache getInstance() {
+        return instance;
+    }
+
+    public static class QueryKey {
+        private final String containerId;
+        private final long contextId;
+        private final String catalogName;
+        private final String schemaName;
+        private final String queryText;
+        private final List<String> parameters;
+        private final long offset;
+        private final long maxRows;
+        private final long generation;
+        private final long ttl;
+        private final long maxSize;
+
+        private QueryKey(DBCExecutionContext context, String queryText, List<String> parameters, long offset, long maxRows, long generation, long ttl, long maxSize) {
+            DBCExecutionContextDefaults contextDefaults = context.getContextDefaults();
+            this.containerId = context.getDataSource().getContainer().getId();
+            this.contextId = context.getContextId();
+            this.catalogName = contextDefaults == null ? null : getObjectName(contextDefaults.getDefaultCatalog());
+            this.schemaName = contextDefaults == null ? null : getObjectName(contextDefaults.getDefaultSchema());
+            this.queryText = queryText;
+            this.parameters = parameters;
+            this.offset = offset;
+            this.maxRows = maxRows;
+            this.generation = generation;
+            this.ttl = ttl;
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof QueryKey)) {
+                return false;
+            }
+            QueryKey key = (QueryKey) obj;
+            return contextId == key.contextId &&
+                offset == key.offset &&
+                maxRows == key.maxRows &&
+                generation == key.generation &&
+                containerId.equals(key.containerId) &&
+                CommonUtils.equalObjects(catalogName, key.catalogName) &&
+                CommonUtils.equalObjects(schemaName, key.schemaName) &&
+                queryText.equals(key.queryText) &&
+                parameters.equals(key.parameters);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(containerId, contextId, catalogName, schemaName, queryText, parameters, offset, maxRows, generation);
+        }
+
+        private static String getObjectName(DBSObject object) {
+            return object == null ? null : object.getName();
+        }
+    }
+
+    public static class CachedResult {
+        private final List<DBCAttributeMetaData> attributes;
+        private final List<Object[]> rows;
+        private final long maxRows;
+        private final long cacheTime;
+
+        private CachedResult(List<DBCAttributeMetaData> attributes, List<Object[]> rows, long maxRows) {
+            this.attributes = attributes;
+            this.rows = rows;
+            this.maxRows = maxRows;
+            this.cacheTime = System.currentTimeMillis();
+        }
+
+        List<DBCAttributeMetaData> getAttributes() {
+            return attributes;
+        }
+
+        long getMaxRows() {
+            return maxRows;
+        }
+
+        long getCacheTime() {
+            return cacheTime;
+        }
+
+        List<Object[]> copyRows() {
+            List<Object[]> copy = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                copy.add(copyRow(row));
+            }
+            return copy;
+        }
+    }
+
+    private final LinkedHashMap<QueryKey, CachedResult> results = new LinkedHashMap<>(16, 0.75f, true);
+    // Data source generations (by data source container ID)
+    private final Map<String, Long> generations = new HashMap<>();
+    private long totalRows;
+
+    private ResultSetQueryCache() {
+        QMUtils.registerHandler(new CacheInvalidator());
+    }
+
+    /**
+     * Makes cache key for the query. Returns null if query results can't be cached.
+     */
+    @Nullable
+    public QueryKey makeQueryKey(@NotNull DBCExecutionContext context, @NotNull SQLQuery query, long offset, long maxRows) {
+        if (!isCacheEnabled(context) || !query.isDeterministic()) {
+            return null;
+        }
+        DBPPreferenceStore preferenceStore = context.getDataSource().getContainer().getPreferenceStore();
+        long ttl = preferenceStore.getInt(ResultSetPreferences.RESULT_SET_QUERY_CACHE_TTL) * 1000L;
+        long maxSize = preferenceStore.getInt(ResultSetPreferences.RESULT_SET_QUERY_CACHE_SIZE);
+        if (ttl <= 0 || maxSize <= 0) {
+            return null;
+        }
+        List<String> parameters = new ArrayList<>();
+        List<SQLQueryParameter> queryParameters = query.getParameters();
+        if (queryParameters != null) {
+            for (SQLQueryParameter parameter : queryParameters) {
+                parameters.add(parameter.getName() + "=" + parameter.getValue());
+            }
+        }
+        long generation;
+        synchronized (results) {
+            generation = getGeneration(context.getDataSource().getContainer().getId());
+        }
+        return new QueryKey(context, normalizeQueryText(context.getDataSource().getSQLDialect(), query.getText()), parameters, offset, maxRows, generation, ttl, maxSize);
+    }
+
+    /**
+     * Feeds cached result into the data receiver.
+     * @return number of rows or -1 if there is no cached result
+     */
+    public long fetchCachedResult(@NotNull DBCSession session, @NotNull DBDDataReceiver dataReceiver, @NotNull DBCResultSet resultSet, @NotNull QueryKey key) {
+        if (!(dataReceiver instanceof ResultSetDataReceiver)) {
+            return -1;
+        }
+        CachedResult result;
+        synchronized (results) {
+            result = results.get(key);
+            if (result == null) {
+                return -1;
+            }
+            if (result.cacheTime + key.ttl < System.currentTimeMillis()) {
+                removeResult(key);
+                return -1;
+            }
+        }
+        ResultSetDataReceiver receiver = (ResultSetDataReceiver) dataReceiver;
+        long rowCount = receiver.fetchCachedResult(session, resultSet, result);
+        if (rowCount >= 0) {
+            receiver.close();
+        }
+        return rowCount;
+    }
+
+    /**
+     * Saves results fetched by the data receiver in cache
+     */
+    public void captureResult(@NotNull DBDDataReceiver dataReceiver, @NotNull QueryKey key) {
+        if (dataReceiver instanceof ResultSetDataReceiver) {
+            ((ResultSetDataReceiver) dataReceiver).setCacheKey(key);
+        }
+    }
+
+    public void remove(@NotNull QueryKey key) {
+        synchronized (results) {
+            removeResult(key);
+        }
+    }
+
+    /**
+     * Removes all cached results of the execution context data source
+     */
+    public void invalidate(@NotNull DBCExecutionContext context) {
+        String containerId = context.getDataSource().getContainer().getId();
+        synchronized (results) {
+            generations.put(containerId, getGeneration(containerId) + 1);
+            for (Iterator<Map.Entry<QueryKey, CachedResult>> iter = results.entrySet().iterator(); iter.hasNext(); ) {
+                Map.Entry<QueryKey, CachedResult> entry = iter.next();
+                if (entry.getKey().containerId.equals(containerId)) {
+                    totalRows -= entry.getValue().rows.size();
+                    iter.remove();
+                }
+            }
+        }
+    }
+
+    void putResult(@NotNull QueryKey key, @NotNull List<DBCAttributeMetaData> attributes, @NotNull List<Object[]> rows, long maxRows) {
+        if (rows.size() > key.maxSize) {
+            remove(key);
+            return;
+        }
+        List<Object[]> rowsCopy = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            Object[] rowCopy = copyRow(row);
+            if (rowCopy == null) {
+                // LOBs may be bound to the result set, other values may be changed in place
+                remove(key);
+                return;
+            }
+            rowsCopy.add(rowCopy);
+        }
+        synchronized (results) {
+            removeResult(key);
+            if (key.generation != getGeneration(key.containerId)) {
+                // Data was changed while result was fetched
+                return;
+            }
+            results.put(key, new CachedResult(new ArrayList<>(attributes), rowsCopy, maxRows));
+            totalRows += rowsCopy.size();
+            // Evict least recently used results
+            for (Iterator<Map.Entry<QueryKey, CachedResult>> iter = results.entrySet().iterator(); totalRows > key.maxSize && iter.hasNext(); ) {
+                Map.Entry<QueryKey, CachedResult> entry = iter.next();
+                if (entry.getKey() != key) {
+                    totalRows -= entry.getValue().rows.size();
+                    iter.remove();
+                }
+            }
+        }
+    }
+
+    private long getGeneration(String containerId) {
+        Long generation = generations.get(containerId);
+        return generation == null ? 0 : generation;
+    }
+
+    private static boolean isCacheEnabled(DBCExecutionContext context) {
+        return context.getDataSource().getContainer().getPreferenceStore().getBoolean(ResultSetPreferences.RESULT_SET_QUERY_CACHE);
+    }
+
+    /**
+     * Copies row values. Returns null if some value can't be copied.
+     */
+    @Nullable
+    private static Object[] copyRow(Object[] row) {
+        Object[] copy = new Object[row.length];
+        for (int i = 0; i < row.length; i++) {
+            Object value = copyValue(row[i]);
+            if (value == NOT_CACHEABLE) {
+                return null;
+            }
+            copy[i] = value;
+        }
+        return copy;
+    }
+
+    private static Object copyValue(Object value) {
+        if (value == null || IMMUTABLE_TYPES.contains(value.getClass())) {
+            return value;
+        }
+        if (value instanceof TemporalAccessor && value.getClass().getName().startsWith("java.time.")) {
+            return value;
+        }
+        if (value instanceof Date) {
+            // Also copies SQL timestamps with nanoseconds
+            return ((Date) value).clone();
+        }
+        if (value instanceof byte[]) {
+            return ((byte[]) value).clone();
+        }
+        return NOT_CACHEABLE;
+    }
+
+    private void removeResult(QueryKey key) {
+        CachedResult oldResult = results.remove(key);
+        if (oldResult != null) {
+            totalRows -= oldResult.rows.size();
+        }
+    }
+
+    /**
+     * Collapses whitespaces outside of quoted strings and identifiers.
+     * Texts with escape characters, line comments or identifier quotes which differ at start and end (e.g. [name]) are used as is.
+     */
+    static String normalizeQueryText(@NotNull SQLDialect dialect, @NotNull String text) {
+        text = text.trim();
+        if (text.indexOf('\\') != -1 || text.indexOf('#') != -1 || text.contains("--") || text.indexOf('[') != -1 || text.indexOf(']') != -1) {
+            return text;
+        }
+        StringBuilder quotes = new StringBuilder("'\"`");
+        for (String[] quotePair : ArrayUtils.safeArray(dialect.getIdentifierQuoteStrings())) {
+            String quoteStart = quotePair[0], quoteEnd = quotePair[1];
+            if (quoteStart.length() == 1 && quoteStart.equals(quoteEnd)) {
+                quotes.append(quoteStart);
+            } else if (text.contains(quoteStart) || text.contains(quoteEnd)) {
+                return text;
+            }
+        }
+        StringBuilder result = new StringBuilder(text.length());
+        char quote = 0;
+        boolean space = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (Character.isWhitespace(c)) {
+                space = true;
+                continue;
+            } else if (quotes.indexOf(String.valueOf(c)) != -1) {
+                quote = c;
+            }
+            if (space) {
+                result.append(' ');
+                space = false;
+            }
+            result.append(c);
+        }
+        return result.toString();
+    }
+
+    /**
+     * Invalidates results on data changes made anywhere in the application
+     */
+    private class CacheInvalidator extends DefaultExecutionHandler {
+
+        @NotNull
+        @Override
+        public String getHandlerName() {
+            return ResultSetQueryCache.class.getName();
+        }
+
+        @Override
+        public void handleTransactionCommit(@NotNull DBCExecutionContext context) {
+            invalidate(context);
+        }
+
+        @Override
+        public void handleTransactionRollback(@NotNull DBCExecutionContext context, @Nullable DBCSavepoint savepoint) {
+            invalidate(context);
+        }
+
+        @Override
+        public void handleStatementExecuteEnd(@NotNull DBCStatement statement, long rows, Throwable error) {
+            // Results fetched before the end of statement have older generation and won't be cached
+            DBCExecutionContext context = statement.getSession().getExecutionContext();
+            if (!isCacheEnabled(context)) {
+                return;
+            }
+            String queryString = statement.getQueryString();
+            if (queryString == null || new SQLQuery(context.getDataSource(), queryString).isModifying()) {
+                invalidate(context);
+            }
+        }
+    }
+
+}
@@ -52,9 +52,12 @@ public class ResultSetRow {
     private int rowNumber;
     // Row number in grid
     private int visualNumber;
-    // Column values
-    @NotNull
-    public Object[] values;
+    // Column values. Null if row values are kept in row storage.
+    @Nullable
+    private Object[] values;
+    @Nullable
+    private ResultSetRowStorage storage;
+    private int storageIndex;
     @Nullable
     public Map<DBDAttributeBinding, Object> changes;
     // Row state
@@ -71,11 +74,68 @@ public class ResultSetRow {
         this.state = STATE_NORMAL;
     }
 
+    ResultSetRow(int rowNumber, @NotNull ResultSetRowStorage storage, int storageIndex) {
+        this.rowNumber = rowNumber;
+        this.visualNumber = rowNumber;
+        this.storage = storage;
+        this.storageIndex = storageIndex;
+        this.state = STATE_NORMAL;
+    }
+
+    /**
+     * Returns row values array. Values array may be modified by caller so
+     * if row is kept in row storage then it is detached from it.
+     */
     @NotNull
     public Object[] getValues() {
+        if (values == null) {
+            assert storage != null;
+            values = storage.getRowValues(storageIndex);
+            storage = null;
+        }
+        return values;
+    }
+
+    void setValues(@NotNull Object[] values) {
+        this.values = values;
+        this.storage = null;
+    }
+
+    /**
+     * Returns row values without detaching row from row storage.
+     * Result must not be modified.
+     */
+    @NotNull
+    public Object[] peekValues() {
+        if (values == null) {
+            assert storage != null;
+            return storage.getRowValues(storageIndex);
+        }
         return values;
     }
 
+    boolean hasStorage() {
+        return values == null;
+    }
+
+    @Nullable
+    Object getValue(int index) {
+        if (values == null) {
+            assert storage != null;
+            return storage.getValue(storageIndex, index);
+        }
+        return index < values.length ? values[index] : null;
+    }
+
+    void setValue(int index, @Nullable Object value) {
+        if (values == null) {
+            assert storage != null;
+            storage.setValue(storageIndex, index, value);
+        } else {
+            values[index] = value;
+        }
+    }
+
     public boolean isChanged() {
         return changes != null && !changes.isEmpty();
     }
@@ -124,8 +184,14 @@ public class ResultSetRow {
     }
 
     void release() {
-        for (Object value : values) {
-            DBUtils.releaseValue(value);
+        if (values == null) {
+            if (storage != null) {
+                storage.releaseRow(storageIndex);
+            }
+        } else {
+            for (Object value : values) {
+                DBUtils.releaseValue(value);
+            }
         }
         if (changes != null) {
             for (Object oldValue : changes.values()) {
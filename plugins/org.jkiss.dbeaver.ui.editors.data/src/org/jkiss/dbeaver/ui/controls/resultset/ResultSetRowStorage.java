@@ -0,0 +1,61 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.util.List;
+
+/**
+ * Compact storage of fetched row values.
+ * Rows which values are kept in storage do not hold own values array.
+ */
+interface ResultSetRowStorage {
+
+    int getRowCount();
+
+    /**
+     * Appends row values to the storage
+     * @return index of the first appended row
+     */
+    int appendRows(@NotNull List<Object[]> rows);
+
+    @Nullable
+    Object getValue(int row, int column);
+
+    void setValue(int row, int column, @Nullable Object value);
+
+    @NotNull
+    Object[] getRowValues(int row);
+
+    /**
+     * Releases row values. Only object values may need to be released.
+     */
+    void releaseRow(int row);
+
+    /**
+     * Estimated heap size occupied by storage (in bytes)
+     */
+    long getMemoryUsage();
+
+    /**
+     * Releases all storage resources
+     */
+    void dispose();
+
+}
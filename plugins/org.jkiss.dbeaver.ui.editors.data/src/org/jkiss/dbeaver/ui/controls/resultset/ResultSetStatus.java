@@ -23,6 +23,8 @@ public class ResultSetStatus {
 
     private boolean readOnly;
     private String readOnlyStatus;
+    // Time when served data was cached. Zero if data was read from database.
+    private volatile long cacheTime;
 
     public ResultSetStatus() {
         this.readOnly = true;
@@ -49,4 +51,16 @@ public class ResultSetStatus {
     public void setReadOnlyStatus(String readOnlyStatus) {
         this.readOnlyStatus = readOnlyStatus;
     }
+
+    public boolean isServedFromCache() {
+        return cacheTime > 0;
+    }
+
+    public long getCacheTime() {
+        return cacheTime;
+    }
+
+    public void setCacheTime(long cacheTime) {
+        this.cacheTime = cacheTime;
+    }
 }
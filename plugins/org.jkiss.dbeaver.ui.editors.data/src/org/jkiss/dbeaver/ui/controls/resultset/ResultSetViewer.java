@@ -106,6 +106,7 @@ import org.jkiss.utils.ArrayUtils;
 import org.jkiss.utils.CommonUtils;
 
 import java.lang.reflect.InvocationTargetException;
+import java.text.DateFormat;
 import java.text.DecimalFormat;
 import java.util.List;
 import java.util.*;
@@ -1933,6 +1934,11 @@ public class ResultSetViewer extends Viewer
         if (hasWarnings) {
             statusMessage += " - " + dataReceiver.getErrorList().size() + " warning(s)";
         }
+        if (model.getStatus().isServedFromCache()) {
+            statusMessage += " - " + NLS.bind(
+                ResultSetMessages.controls_resultset_viewer_status_served_from_cache,
+                DateFormat.getTimeInstance().format(new Date(model.getStatus().getCacheTime())));
+        }
         if (getPreferenceStore().getBoolean(ResultSetPreferences.RESULT_SET_SHOW_CONNECTION_NAME)) {
             DBSDataContainer dataContainer = getDataContainer();
             if (dataContainer != null) {
@@ -31,18 +31,28 @@ import org.jkiss.dbeaver.model.struct.DBSEntity;
 import org.jkiss.dbeaver.ui.controls.resultset.IResultSetController;
 import org.jkiss.dbeaver.ui.controls.resultset.ResultSetRow;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 
 public abstract class SQLGeneratorResultSet extends SQLGeneratorBase<IResultSetController> {
 
+    // Selection is read from grid control so it must be captured in UI thread
+    private volatile List<ResultSetRow> selectedRows;
+
     public IResultSetController getController() {
         return objects.get(0);
     }
 
+    @Override
+    public void prepareGenerator() {
+        selectedRows = new ArrayList<>(getController().getSelection().getSelectedRows());
+    }
+
     public List<ResultSetRow> getSelectedRows() {
-        return getController().getSelection().getSelectedRows();
+        List<ResultSetRow> rows = selectedRows;
+        return rows != null ? rows : getController().getSelection().getSelectedRows();
     }
 
     public DBSEntity getSingleEntity() {
@@ -87,6 +87,7 @@ public class ResultSetMessages extends NLS {
     public static String controls_resultset_viewer_status_rows_fetched;
     public static String controls_resultset_viewer_status_rows_updated;
     public static String controls_resultset_viewer_status_rows_size;
+    public static String controls_resultset_viewer_status_served_from_cache;
     public static String controls_resultset_viewer_value;
     public static String controls_resultset_viewer_calculate_row_count;
     public static String controls_resultset_viewer_hide_column_x;
@@ -226,6 +227,15 @@ public class ResultSetMessages extends NLS {
     public static String pref_page_database_resultsets_label_read_metadata_tip;
     public static String pref_page_database_resultsets_label_read_references_tip;
     public static String pref_page_database_resultsets_label_fetch_size_tip;
+    public static String pref_page_database_resultsets_label_columnar_storage;
+    public static String pref_page_database_resultsets_label_columnar_storage_tip;
+    public static String pref_page_database_resultsets_label_paged_storage;
+    public static String pref_page_database_resultsets_label_paged_storage_tip;
+    public static String pref_page_database_resultsets_label_paged_storage_window;
+    public static String pref_page_database_resultsets_label_query_cache;
+    public static String pref_page_database_resultsets_label_query_cache_tip;
+    public static String pref_page_database_resultsets_label_query_cache_ttl;
+    public static String pref_page_database_resultsets_label_query_cache_size;
 
     public static String pref_page_content_cache_clob;
     public static String pref_page_content_cache_blob;
@@ -66,6 +66,12 @@ public class PrefPageResultSetMain extends TargetPrefPage
     private Button showErrorsInDialog;
 
     private Button advUseFetchSize;
+    private Button advColumnarStorage;
+    private Button advPagedStorage;
+    private Text advPagedStorageWindow;
+    private Button advQueryCache;
+    private Text advQueryCacheTTL;
+    private Text advQueryCacheSize;
 
     private Button ignoreColumnLabelCheck;
 
@@ -94,6 +100,12 @@ public class PrefPageResultSetMain extends TargetPrefPage
             store.contains(ModelPreferences.RESULT_SET_USE_FETCH_SIZE) ||
             store.contains(ResultSetPreferences.RESULT_SET_USE_NAVIGATOR_FILTERS) ||
             store.contains(ResultSetPreferences.RESULT_SET_SHOW_ERRORS_IN_DIALOG) ||
+            store.contains(ResultSetPreferences.RESULT_SET_COLUMNAR_STORAGE) ||
+            store.contains(ResultSetPreferences.RESULT_SET_PAGED_STORAGE) ||
+            store.contains(ResultSetPreferences.RESULT_SET_PAGED_STORAGE_WINDOW) ||
+            store.contains(ResultSetPreferences.RESULT_SET_QUERY_CACHE) ||
+            store.contains(ResultSetPreferences.RESULT_SET_QUERY_CACHE_TTL) ||
+            store.contains(ResultSetPreferences.RESULT_SET_QUERY_CACHE_SIZE) ||
                     store.contains(ModelPreferences.RESULT_SET_IGNORE_COLUMN_LABEL)
             ;
     }
@@ -153,10 +165,31 @@ public class PrefPageResultSetMain extends TargetPrefPage
             });
         }
         {
-            Group advGroup = UIUtils.createControlGroup(leftPane, ResultSetMessages.pref_page_results_group_advanced, 1, GridData.VERTICAL_ALIGN_BEGINNING, 0);
-
-            ignoreColumnLabelCheck = UIUtils.createCheckbox(advGroup, ResultSetMessages.pref_page_database_general_use_column_names, ResultSetMessages.pref_page_database_general_use_column_names_tip, false, 1);
-            advUseFetchSize = UIUtils.createCheckbox(advGroup, ResultSetMessages.pref_page_database_resultsets_label_fetch_size, ResultSetMessages.pref_page_database_resultsets_label_fetch_size_tip, false, 1);
+            Group advGroup = UIUtils.createControlGroup(leftPane, ResultSetMessages.pref_page_results_group_advanced, 2, GridData.VERTICAL_ALIGN_BEGINNING, 0);
+
+            ignoreColumnLabelCheck = UIUtils.createCheckbox(advGroup, ResultSetMessages.pref_page_database_general_use_column_names, ResultSetMessages.pref_page_database_general_use_column_names_tip, false, 2);
+            advUseFetchSize = UIUtils.createCheckbox(advGroup, ResultSetMessages.pref_page_database_resultsets_label_fetch_size, ResultSetMessages.pref_page_database_resultsets_label_fetch_size_tip, false, 2);
+            advColumnarStorage = UIUtils.createCheckbox(advGroup, ResultSetMessages.pref_page_database_resultsets_label_columnar_storage, ResultSetMessages.pref_page_database_resultsets_label_columnar_storage_tip, false, 2);
+            advPagedStorage = UIUtils.createCheckbox(advGroup, ResultSetMessages.pref_page_database_resultsets_label_paged_storage, ResultSetMessages.pref_page_database_resultsets_label_paged_storage_tip, false, 2);
+            advPagedStorageWindow = UIUtils.createLabelText(advGroup, ResultSetMessages.pref_page_database_resultsets_label_paged_storage_window, "0", SWT.BORDER);
+            advPagedStorageWindow.addVerifyListener(UIUtils.getIntegerVerifyListener(Locale.getDefault()));
+            advPagedStorage.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e) {
+                    updateOptionsEnablement();
+                }
+            });
+            advQueryCache = UIUtils.createCheckbox(advGroup, ResultSetMessages.pref_page_database_resultsets_label_query_cache, ResultSetMessages.pref_page_database_resultsets_label_query_cache_tip, false, 2);
+            advQueryCacheTTL = UIUtils.createLabelText(advGroup, ResultSetMessages.pref_page_database_resultsets_label_query_cache_ttl, "0", SWT.BORDER);
+            advQueryCacheTTL.addVerifyListener(UIUtils.getIntegerVerifyListener(Locale.getDefault()));
+            advQueryCacheSize = UIUtils.createLabelText(advGroup, ResultSetMessages.pref_page_database_resultsets_label_query_cache_size, "0", SWT.BORDER);
+            advQueryCacheSize.addVerifyListener(UIUtils.getIntegerVerifyListener(Locale.getDefault()));
+            advQueryCache.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e) {
+                    updateOptionsEnablement();
+                }
+            });
         }
 
 
@@ -184,6 +217,9 @@ public class PrefPageResultSetMain extends TargetPrefPage
 
     private void updateOptionsEnablement() {
         readQueryReferences.setEnabled(readQueryMetadata.isEnabled() && readQueryMetadata.getSelection());
+        advPagedStorageWindow.setEnabled(advPagedStorage.getSelection());
+        advQueryCacheTTL.setEnabled(advQueryCache.getSelection());
+        advQueryCacheSize.setEnabled(advQueryCache.getSelection());
     }
 
     @Override
@@ -211,6 +247,12 @@ public class PrefPageResultSetMain extends TargetPrefPage
             useNavigatorFilters.setSelection(store.getBoolean(ResultSetPreferences.RESULT_SET_USE_NAVIGATOR_FILTERS));
 
             advUseFetchSize.setSelection(store.getBoolean(ModelPreferences.RESULT_SET_USE_FETCH_SIZE));
+            advColumnarStorage.setSelection(store.getBoolean(ResultSetPreferences.RESULT_SET_COLUMNAR_STORAGE));
+            advPagedStorage.setSelection(store.getBoolean(ResultSetPreferences.RESULT_SET_PAGED_STORAGE));
+            advPagedStorageWindow.setText(store.getString(ResultSetPreferences.RESULT_SET_PAGED_STORAGE_WINDOW));
+            advQueryCache.setSelection(store.getBoolean(ResultSetPreferences.RESULT_SET_QUERY_CACHE));
+            advQueryCacheTTL.setText(store.getString(ResultSetPreferences.RESULT_SET_QUERY_CACHE_TTL));
+            advQueryCacheSize.setText(store.getString(ResultSetPreferences.RESULT_SET_QUERY_CACHE_SIZE));
             ignoreColumnLabelCheck.setSelection(store.getBoolean(ModelPreferences.RESULT_SET_IGNORE_COLUMN_LABEL));
 
             showErrorsInDialog.setSelection(store.getBoolean(ResultSetPreferences.RESULT_SET_SHOW_ERRORS_IN_DIALOG));
@@ -242,6 +284,12 @@ public class PrefPageResultSetMain extends TargetPrefPage
             store.setValue(ResultSetPreferences.RESULT_SET_USE_NAVIGATOR_FILTERS, useNavigatorFilters.getSelection());
 
             store.setValue(ModelPreferences.RESULT_SET_USE_FETCH_SIZE, advUseFetchSize.getSelection());
+            store.setValue(ResultSetPreferences.RESULT_SET_COLUMNAR_STORAGE, advColumnarStorage.getSelection());
+            store.setValue(ResultSetPreferences.RESULT_SET_PAGED_STORAGE, advPagedStorage.getSelection());
+            store.setValue(ResultSetPreferences.RESULT_SET_PAGED_STORAGE_WINDOW, advPagedStorageWindow.getText());
+            store.setValue(ResultSetPreferences.RESULT_SET_QUERY_CACHE, advQueryCache.getSelection());
+            store.setValue(ResultSetPreferences.RESULT_SET_QUERY_CACHE_TTL, advQueryCacheTTL.getText());
+            store.setValue(ResultSetPreferences.RESULT_SET_QUERY_CACHE_SIZE, advQueryCacheSize.getText());
             store.setValue(ModelPreferences.RESULT_SET_IGNORE_COLUMN_LABEL, ignoreColumnLabelCheck.getSelection());
 
             store.setValue(ResultSetPreferences.RESULT_SET_SHOW_ERRORS_IN_DIALOG, showErrorsInDialog.getSelection());
@@ -271,6 +319,12 @@ public class PrefPageResultSetMain extends TargetPrefPage
         store.setToDefault(ResultSetPreferences.RESULT_SET_USE_NAVIGATOR_FILTERS);
 
         store.setToDefault(ModelPreferences.RESULT_SET_USE_FETCH_SIZE);
+        store.setToDefault(ResultSetPreferences.RESULT_SET_COLUMNAR_STORAGE);
+        store.setToDefault(ResultSetPreferences.RESULT_SET_PAGED_STORAGE);
+        store.setToDefault(ResultSetPreferences.RESULT_SET_PAGED_STORAGE_WINDOW);
+        store.setToDefault(ResultSetPreferences.RESULT_SET_QUERY_CACHE);
+        store.setToDefault(ResultSetPreferences.RESULT_SET_QUERY_CACHE_TTL);
+        store.setToDefault(ResultSetPreferences.RESULT_SET_QUERY_CACHE_SIZE);
         store.setToDefault(ModelPreferences.RESULT_SET_IGNORE_COLUMN_LABEL);
 
         store.setToDefault(ResultSetPreferences.RESULT_SET_SHOW_ERRORS_IN_DIALOG);
@@ -489,6 +489,10 @@ public abstract class SQLEditorBase extends BaseTextEditor implements DBPContext
             PlatformUI.getWorkbench().getThemeManager().removePropertyChangeListener(themeListener);
             themeListener = null;
         }
+        if (parserContext != null) {
+            parserContext.dispose();
+            parserContext = null;
+        }
 
         super.dispose();
     }
@@ -588,7 +592,11 @@ public abstract class SQLEditorBase extends BaseTextEditor implements DBPContext
         ruleManager.loadRules(getDataSource(), SQLEditorBase.isBigScript(getEditorInput()));
 
         ruleScanner.refreshRules(getDataSource(), ruleManager);
+        if (parserContext != null) {
+            parserContext.dispose();
+        }
         parserContext = new SQLParserContext(SQLEditorBase.this, syntaxManager, ruleManager, document != null ? document : new Document());
+        parserContext.enableStatementIndex();
 
         if (document instanceof IDocumentExtension3) {
             IDocumentPartitioner partitioner = new FastPartitioner(
@@ -39,9 +39,13 @@ import org.jkiss.dbeaver.model.data.DBDDataReceiver;
 import org.jkiss.dbeaver.model.data.DBDDataReceiverInteractive;
 import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.impl.AbstractExecutionSource;
+import org.jkiss.dbeaver.model.impl.local.LocalResultSet;
+import org.jkiss.dbeaver.model.impl.local.LocalStatement;
 import org.jkiss.dbeaver.model.impl.local.StatResultSet;
 import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
 import org.jkiss.dbeaver.model.qm.QMUtils;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRBlockingObject;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.sql.*;
 import org.jkiss.dbeaver.model.sql.parser.SQLSemanticProcessor;
@@ -53,6 +57,7 @@ import org.jkiss.dbeaver.runtime.ui.DBPPlatformUI;
 import org.jkiss.dbeaver.ui.UITask;
 import org.jkiss.dbeaver.ui.UIUtils;
 import org.jkiss.dbeaver.ui.controls.resultset.ResultSetPreferences;
+import org.jkiss.dbeaver.ui.controls.resultset.ResultSetQueryCache;
 import org.jkiss.dbeaver.ui.dialogs.ConfirmationDialog;
 import org.jkiss.dbeaver.ui.dialogs.exec.ExecutionQueueErrorJob;
 import org.jkiss.dbeaver.ui.editors.sql.SQLPreferenceConstants;
@@ -64,6 +69,11 @@ import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * SQLQueryJob
@@ -217,7 +227,11 @@ public class SQLQueryJob extends DataSourceJob
                     SQLScriptElement query = queries.get(queryNum);
 
                     fetchResultSetNumber = resultSetNumber;
-                    boolean runNext = executeSingleQuery(session, query, true);
+                    List<SQLQuery> parallelBlock = getParallelBlock(session, queryNum);
+                    int blockSize = parallelBlock == null ? 1 : parallelBlock.size();
+                    boolean runNext = parallelBlock == null ?
+                        executeSingleQuery(session, query, true) :
+                        executeParallelBlock(session, parallelBlock);
                     if (!runNext) {
                         if (lastError == null) {
                             // Execution cancel
@@ -257,8 +271,8 @@ public class SQLQueryJob extends DataSourceJob
                     if (monitor.isCanceled()) {
                         break;
                     }
-                    monitor.worked(1);
-                    queryNum++;
+                    monitor.worked(blockSize);
+                    queryNum += blockSize;
                 }
                 if (statistics.getStatementsCount() > 0) {
                     showExecutionResult(session);
@@ -482,6 +496,20 @@ public class SQLQueryJob extends DataSourceJob
     private void executeStatement(@NotNull DBCSession session, SQLQuery sqlQuery, long startTime, SQLQueryResult curResult) throws DBCException {
         AbstractExecutionSource source = new AbstractExecutionSource(dataContainer, session.getExecutionContext(), partSite.getPart(), sqlQuery);
         source.setScriptContext(scriptContext);
+
+        ResultSetQueryCache.QueryKey cacheKey = null;
+        if (sqlQuery.isModifying()) {
+            ResultSetQueryCache.getInstance().invalidate(session.getExecutionContext());
+        } else if (fetchResultSets && (fetchResultSetNumber < 0 || fetchResultSetNumber == resultSetNumber)) {
+            cacheKey = ResultSetQueryCache.getInstance().makeQueryKey(session.getExecutionContext(), sqlQuery, rsOffset, rsMaxRows);
+            // Refresh always reads data from database
+            if (cacheKey != null && !CommonUtils.isBitSet(fetchFlags, DBSDataContainer.FLAG_REFRESH) &&
+                fetchCachedResult(session, source, sqlQuery, startTime, curResult, cacheKey))
+            {
+                return;
+            }
+        }
+
         final DBCStatement dbcStatement = DBUtils.makeStatement(
             source,
             session,
@@ -492,14 +520,7 @@ public class SQLQueryJob extends DataSourceJob
         DBExecUtils.setStatementFetchSize(dbcStatement, rsOffset, rsMaxRows, fetchSize);
         curStatement = dbcStatement;
 
-        int statementTimeout = getDataSourceContainer().getPreferenceStore().getInt(SQLPreferenceConstants.STATEMENT_TIMEOUT);
-        if (statementTimeout > 0) {
-            try {
-                dbcStatement.setStatementTimeout(statementTimeout);
-            } catch (Throwable e) {
-                log.debug("Can't set statement timeout:" + e.getMessage());
-            }
-        }
+        setStatementTimeout(dbcStatement);
 
         // Execute statement
         try {
@@ -514,6 +535,7 @@ public class SQLQueryJob extends DataSourceJob
             curResult.setHasResultSet(hasResultSet);
 
             long updateCount = -1;
+            boolean firstResultSet = true;
             while (true) {
                 // Fetch data only if we have to fetch all results or if it is rs requested
                 if (fetchResultSetNumber < 0 || fetchResultSetNumber == resultSetNumber) {
@@ -536,9 +558,22 @@ public class SQLQueryJob extends DataSourceJob
                             break;
                         } else {
                             DBDDataReceiver dataReceiver = resultsConsumer.getDataReceiver(sqlQuery, resultSetNumber);
+                            if (dataReceiver != null && cacheKey != null) {
+                                // Only single result set queries are cached
+                                if (firstResultSet) {
+                                    ResultSetQueryCache.getInstance().captureResult(dataReceiver, cacheKey);
+                                } else {
+                                    ResultSetQueryCache.getInstance().remove(cacheKey);
+                                }
+                            }
+                            firstResultSet = false;
                             if (dataReceiver != null) {
                                 hasResultSet = fetchQueryData(session, resultSet, curResult, curResult.addExecuteResult(true), dataReceiver, true);
                             }
+                            if (cacheKey != null && monitor.isCanceled()) {
+                                // Do not serve partially fetched results
+                                ResultSetQueryCache.getInstance().remove(cacheKey);
+                            }
                         }
                     }
                 }
@@ -597,6 +632,208 @@ public class SQLQueryJob extends DataSourceJob
         }
     }
 
+    private void setStatementTimeout(DBCStatement dbcStatement) {
+        int statementTimeout = getDataSourceContainer().getPreferenceStore().getInt(SQLPreferenceConstants.STATEMENT_TIMEOUT);
+        if (statementTimeout > 0) {
+            try {
+                dbcStatement.setStatementTimeout(statementTimeout);
+            } catch (Throwable e) {
+                log.debug("Can't set statement timeout:" + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Returns queries which must be executed in parallel or null if query must be executed in the script session.
+     * Parallel pragma stays in effect until it is set to 1 or off, so each run of queries between control
+     * commands becomes a separate parallel block.
+     * Queries are executed in the script session if changes of parallel connections can't be kept as script
+     * commit mode requires (no-commit mode) or if script session has an open transaction: its locks could
+     * block parallel connections.
+     */
+    @Nullable
+    private List<SQLQuery> getParallelBlock(@NotNull DBCSession session, int queryNum) {
+        int degree = CommonUtils.toInt(scriptContext.getPragmas().get(SQLScriptProcessConstants.PRAGMA_PARALLEL));
+        if (degree <= 1 || (dataFilter != null && dataFilter.hasFilters())) {
+            return null;
+        }
+        if (!skipConfirmation && getDataSourceContainer().getConnectionConfiguration().getConnectionType().isConfirmExecute()) {
+            // Queries must be confirmed one by one
+            return null;
+        }
+        DBCTransactionManager txnManager = DBUtils.getTransactionManager(session.getExecutionContext());
+        if (txnManager != null && txnManager.isSupportsTransactions()) {
+            if (commitType == SQLScriptCommitType.NO_COMMIT) {
+                // Isolated contexts are closed after the block, uncommitted changes would be lost
+                log.debug("Parallel execution is not available in no-commit mode, queries are executed sequentially");
+                return null;
+            }
+            if (!txnManager.isAutoCommit() && QMUtils.isTransactionActive(session.getExecutionContext())) {
+                log.debug("Script session has an open transaction, queries are executed sequentially");
+                return null;
+            }
+        }
+        List<SQLQuery> block = new ArrayList<>();
+        for (int i = queryNum; i < queries.size() && queries.get(i) instanceof SQLQuery; i++) {
+            block.add((SQLQuery) queries.get(i));
+        }
+        return block.size() > 1 ? block : null;
+    }
+
+    /**
+     * Executes queries in isolated contexts. Each worker executes next not started query of the block.
+     * Result sets of parallel queries are not fetched, only execution statistics is collected.
+     * Transactions of all workers are committed or rolled back together when all queries are finished.
+     */
+    private boolean executeParallelBlock(@NotNull DBCSession session, @NotNull List<SQLQuery> block) {
+        lastError = null;
+        for (SQLQuery query : block) {
+            if (!scriptContext.fillQueryParameters(query, CommonUtils.isBitSet(fetchFlags, DBSDataContainer.FLAG_REFRESH))) {
+                // User canceled
+                return false;
+            }
+        }
+        DBRProgressMonitor monitor = session.getProgressMonitor();
+        int degree = Math.min(
+            block.size(),
+            CommonUtils.toInt(scriptContext.getPragmas().get(SQLScriptProcessConstants.PRAGMA_PARALLEL)));
+        ParallelBlockState blockState = new ParallelBlockState(block);
+        List<ParallelQueryWorker> workers = new ArrayList<>(degree);
+        for (int i = 0; i < degree; i++) {
+            ParallelQueryWorker worker = new ParallelQueryWorker(blockState);
+            workers.add(worker);
+            worker.schedule();
+        }
+        // Script job cancel must cancel statements running in workers
+        DBRBlockingObject blockCanceler = (cancelMonitor, blockThread) -> cancelParallelWorkers(blockState, workers);
+        monitor.startBlock(blockCanceler, "Execute queries in parallel");
+        int processedCount = 0;
+        boolean canceled = false;
+        try {
+            for (;;) {
+                boolean allExecuted = true;
+                for (ParallelQueryWorker worker : workers) {
+                    allExecuted &= worker.isExecuted();
+                }
+                for (SQLQueryResult result = blockState.results.poll(); result != null; result = blockState.results.poll()) {
+                    processParallelResult(session, result);
+                    processedCount++;
+                }
+                if (allExecuted) {
+                    break;
+                }
+                if (!canceled && monitor.isCanceled()) {
+                    canceled = true;
+                    cancelParallelWorkers(blockState, workers);
+                }
+                monitor.subTask("Execute queries in parallel (" + processedCount + "/" + block.size() + ")");
+                RuntimeUtils.pause(50);
+            }
+        } catch (RuntimeException e) {
+            // Do not leave workers waiting - roll them back
+            blockState.resultKnown.countDown();
+            throw e;
+        } finally {
+            monitor.endBlock();
+        }
+        canceled |= blockState.canceled.get();
+
+        boolean hasErrors = lastError != null;
+        for (ParallelQueryWorker worker : workers) {
+            hasErrors |= worker.error != null;
+        }
+        // Block result is known - finish transactions of all workers
+        blockState.commit = !canceled && !(hasErrors && errorHandling == SQLScriptErrorHandling.STOP_ROLLBACK);
+        blockState.resultKnown.countDown();
+        monitor.subTask(blockState.commit ? "Commit parallel transactions" : "Rollback parallel transactions");
+        for (ParallelQueryWorker worker : workers) {
+            while (!worker.isFinished()) {
+                RuntimeUtils.pause(50);
+            }
+        }
+
+        for (ParallelQueryWorker worker : workers) {
+            if (worker.error != null && lastError == null) {
+                lastError = worker.error;
+            }
+        }
+        if (canceled) {
+            return false;
+        }
+        return lastError == null || errorHandling == SQLScriptErrorHandling.IGNORE;
+    }
+
+    private static void cancelParallelWorkers(@NotNull ParallelBlockState blockState, @NotNull List<ParallelQueryWorker> workers) {
+        blockState.canceled.set(true);
+        blockState.stopped.set(true);
+        for (ParallelQueryWorker worker : workers) {
+            if (!worker.isExecuted()) {
+                // Cancels statement which is executed by worker at the moment
+                worker.cancel();
+            }
+        }
+    }
+
+    private void processParallelResult(@NotNull DBCSession session, @NotNull SQLQueryResult result) {
+        if (result.getError() != null) {
+            if (lastError == null) {
+                lastError = result.getError();
+            }
+        } else {
+            statistics.addStatementsCount();
+            statistics.addExecuteTime(result.getQueryTime());
+            for (SQLQueryResult.ExecuteResult executeResult : result.getExecuteResults()) {
+                if (executeResult.getUpdateCount() != null) {
+                    statistics.addRowsUpdated(executeResult.getUpdateCount());
+                }
+            }
+        }
+        if (listener != null) {
+            try {
+                listener.onStartQuery(session, result.getStatement());
+            } catch (Exception e) {
+                log.error(e);
+            }
+            notifyQueryExecutionEnd(result);
+        }
+    }
+
+    @NotNull
+    private SQLQueryResult executeParallelQuery(@NotNull DBCSession session, @NotNull SQLQuery query) {
+        SQLQuery sqlQuery = new SQLQuery(session.getDataSource(), query.getText(), query);
+        SQLQueryResult result = new SQLQueryResult(sqlQuery);
+        long startTime = System.currentTimeMillis();
+        try {
+            AbstractExecutionSource source = new AbstractExecutionSource(dataContainer, session.getExecutionContext(), partSite.getPart(), sqlQuery);
+            source.setScriptContext(scriptContext);
+            if (sqlQuery.isModifying()) {
+                ResultSetQueryCache.getInstance().invalidate(session.getExecutionContext());
+            }
+            DBCStatement dbcStatement = DBUtils.makeStatement(source, session, DBCStatementType.SCRIPT, sqlQuery, 0, 0);
+            try {
+                setStatementTimeout(dbcStatement);
+                boolean hasResultSet = dbcStatement.executeStatement();
+                result.setHasResultSet(hasResultSet);
+                if (!hasResultSet) {
+                    long updateCount = dbcStatement.getUpdateRowCount();
+                    if (updateCount >= 0) {
+                        result.addExecuteResult(false).setUpdateCount(updateCount);
+                    }
+                }
+                result.addWarnings(dbcStatement.getStatementWarnings());
+            } finally {
+                dbcStatement.close();
+            }
+        } catch (Throwable e) {
+            if (!(e instanceof DBException)) {
+                log.error("Unexpected error while processing SQL", e);
+            }
+            result.setError(e);
+        }
+        result.setQueryTime(System.currentTimeMillis() - startTime);
+        return result;
+    }
+
     private void showExecutionResult(DBCSession session) {
         if (statistics.getStatementsCount() > 1 || (resultSetNumber == 0 && (statistics.getRowsUpdated() >= 0 || statistics.getRowsFetched() >= 0))) {
             SQLQuery query = new SQLQuery(session.getDataSource(), "", -1, -1);
@@ -651,6 +888,35 @@ public class SQLQueryJob extends DataSourceJob
         fetchQueryData(session, fakeResultSet, resultInfo, executeResult, dataReceiver, false);
     }
 
+    private boolean fetchCachedResult(DBCSession session, AbstractExecutionSource source, SQLQuery sqlQuery, long startTime, SQLQueryResult curResult, ResultSetQueryCache.QueryKey cacheKey)
+    {
+        DBDDataReceiver dataReceiver = resultsConsumer.getDataReceiver(sqlQuery, resultSetNumber);
+        if (dataReceiver == null) {
+            return false;
+        }
+        LocalStatement statement = new LocalStatement(session, sqlQuery.getText());
+        statement.setStatementSource(source);
+        long rowCount = ResultSetQueryCache.getInstance().fetchCachedResult(
+            session, dataReceiver, new LocalResultSet<>(session, statement), cacheKey);
+        if (rowCount < 0) {
+            return false;
+        }
+        statistics.addExecuteTime(System.currentTimeMillis() - startTime);
+        statistics.addStatementsCount();
+        statistics.addRowsFetched(rowCount);
+
+        curResult.setHasResultSet(true);
+        SQLQueryResult.ExecuteResult executeResult = curResult.addExecuteResult(true);
+        String queryTitle = sqlQuery.getQueryTitle();
+        executeResult.setResultSetName(CommonUtils.isEmpty(queryTitle) ? DEFAULT_RESULSET_NAME : queryTitle);
+        executeResult.setRowCount(rowCount);
+
+        resultSetNumber++;
+        fetchResultSetNumber = resultSetNumber;
+        session.getProgressMonitor().subTask(rowCount + " rows served from cache");
+        return true;
+    }
+
     private boolean fetchQueryData(DBCSession session, DBCResultSet resultSet, SQLQueryResult result, SQLQueryResult.ExecuteResult executeResult, DBDDataReceiver dataReceiver, boolean updateStatistics)
         throws DBCException
     {
@@ -901,4 +1167,105 @@ public class SQLQueryJob extends DataSourceJob
         }.execute();
     }
 
+    private static class ParallelBlockState {
+        private final List<SQLQuery> queries;
+        private final AtomicInteger nextQuery = new AtomicInteger();
+        private final AtomicBoolean stopped = new AtomicBoolean();
+        private final AtomicBoolean canceled = new AtomicBoolean();
+        private final Queue<SQLQueryResult> results = new ConcurrentLinkedQueue<>();
+        // Released by script job when all workers have finished their queries
+        private final CountDownLatch resultKnown = new CountDownLatch(1);
+        private volatile boolean commit;
+
+        ParallelBlockState(List<SQLQuery> queries) {
+            this.queries = queries;
+        }
+    }
+
+    /**
+     * Executes queries of parallel block in its own isolated context.
+     * Auto-commit of the context is set from the script commit type. In manual commit mode
+     * worker keeps its transaction open until the result of the whole block is known.
+     */
+    private class ParallelQueryWorker extends AbstractJob {
+
+        private final ParallelBlockState blockState;
+        private volatile boolean executed;
+        private volatile boolean done;
+        private volatile Throwable error;
+
+        ParallelQueryWorker(ParallelBlockState blockState) {
+            super("Parallel SQL query execution");
+            setUser(false);
+            setSystem(true);
+            this.blockState = blockState;
+        }
+
+        /**
+         * Worker has finished its queries (or was canceled before start)
+         */
+        boolean isExecuted() {
+            return executed || getState() == NONE;
+        }
+
+        /**
+         * Worker has finished its transaction (or was canceled before start)
+         */
+        boolean isFinished() {
+            return done || getState() == NONE;
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            DBCExecutionContext baseContext = getExecutionContext();
+            DBCExecutionContext context = null;
+            try {
+                context = baseContext.getOwnerInstance().openIsolatedContext(monitor, "Parallel SQL script", baseContext);
+                try (DBCSession session = context.openSession(monitor, DBCExecutionPurpose.USER_SCRIPT, "Parallel SQL query")) {
+                    DBCTransactionManager txnManager = DBUtils.getTransactionManager(context);
+                    if (txnManager != null && txnManager.isSupportsTransactions()) {
+                        boolean autoCommit = commitType == SQLScriptCommitType.AUTOCOMMIT;
+                        if (txnManager.isAutoCommit() != autoCommit) {
+                            txnManager.setAutoCommit(monitor, autoCommit);
+                        }
+                    }
+                    try {
+                        while (!blockState.stopped.get() && !monitor.isCanceled()) {
+                            int queryIndex = blockState.nextQuery.getAndIncrement();
+                            if (queryIndex >= blockState.queries.size()) {
+                                break;
+                            }
+                            SQLQueryResult result = executeParallelQuery(session, blockState.queries.get(queryIndex));
+                            if (result.getError() != null && errorHandling != SQLScriptErrorHandling.IGNORE) {
+                                // Fail fast - do not start other queries
+                                blockState.stopped.set(true);
+                            }
+                            blockState.results.add(result);
+                        }
+                    } finally {
+                        executed = true;
+                    }
+                    blockState.resultKnown.await();
+                    if (txnManager != null && txnManager.isSupportsTransactions() && !txnManager.isAutoCommit()) {
+                        if (blockState.commit) {
+                            txnManager.commit(session);
+                        } else {
+                            txnManager.rollback(session, null);
+                        }
+                    }
+                }
+            } catch (Throwable e) {
+                error = e;
+                blockState.stopped.set(true);
+            } finally {
+                executed = true;
+                if (context != null) {
+                    context.close();
+                }
+                done = true;
+            }
+            return Status.OK_STATUS;
+        }
+    }
+
 }
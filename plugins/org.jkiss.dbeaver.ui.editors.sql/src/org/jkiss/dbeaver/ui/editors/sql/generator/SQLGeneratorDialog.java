@@ -16,6 +16,8 @@
  */
 package org.jkiss.dbeaver.ui.editors.sql.generator;
 
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.events.SelectionAdapter;
 import org.eclipse.swt.events.SelectionEvent;
@@ -28,17 +30,23 @@ import org.eclipse.ui.IWorkbenchPartSite;
 import org.jkiss.dbeaver.model.DBPScriptObject;
 import org.jkiss.dbeaver.model.DBPScriptObjectExt2;
 import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.sql.generator.SQLGenerator;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.dbeaver.ui.UIUtils;
 import org.jkiss.dbeaver.ui.editors.sql.dialogs.ViewSQLDialog;
 import org.jkiss.utils.CommonUtils;
 
+import java.lang.reflect.InvocationTargetException;
+
 class SQLGeneratorDialog extends ViewSQLDialog {
 
     private static final String PROP_USE_FQ_NAMES = "GenerateSQL.useFQNames";
     private static final String PROP_USE_COMPACT_SQL = "GenerateSQL.compactSQL";
 
     private final SQLGenerator<?> sqlGenerator;
+    private volatile GenerateJob generateJob;
 
     SQLGeneratorDialog(IWorkbenchPartSite parentSite, DBCExecutionContext context, SQLGenerator<?> sqlGenerator) {
         super(parentSite, () -> context,
@@ -82,12 +90,6 @@ class SQLGeneratorDialog extends ViewSQLDialog {
         sqlGenerator.setShowFullDdl(getDialogBoundsSettings().get(DBPScriptObject.OPTION_INCLUDE_NESTED_OBJECTS) != null &&
                 getDialogBoundsSettings().getBoolean(DBPScriptObject.OPTION_INCLUDE_NESTED_OBJECTS));
 
-        UIUtils.runInUI(sqlGenerator);
-        Object sql = sqlGenerator.getResult();
-        if (sql != null) {
-            setSQLText(CommonUtils.toString(sql));
-        }
-
         Composite composite = super.createDialogArea(parent);
         Group settings = UIUtils.createControlGroup(composite, "Settings", 5, GridData.FILL_HORIZONTAL, SWT.DEFAULT);
         settings.setLayout(new RowLayout());
@@ -98,12 +100,7 @@ class SQLGeneratorDialog extends ViewSQLDialog {
                 sqlGenerator.setFullyQualifiedNames(useFQNames.getSelection());
                 getDialogBoundsSettings().put(PROP_USE_FQ_NAMES, useFQNames.getSelection());
 
-                UIUtils.runInUI(sqlGenerator);
-                Object sql = sqlGenerator.getResult();
-                if (sql != null) {
-                    setSQLText(CommonUtils.toString(sql));
-                    updateSQL();
-                }
+                generateSQL();
             }
         });
         Button useCompactSQL = UIUtils.createCheckbox(settings, "Compact SQL", sqlGenerator.isCompactSQL());
@@ -113,12 +110,7 @@ class SQLGeneratorDialog extends ViewSQLDialog {
                 sqlGenerator.setCompactSQL(useCompactSQL.getSelection());
                 getDialogBoundsSettings().put(PROP_USE_COMPACT_SQL, useCompactSQL.getSelection());
 
-                UIUtils.runInUI(sqlGenerator);
-                Object sql = sqlGenerator.getResult();
-                if (sql != null) {
-                    setSQLText(CommonUtils.toString(sql));
-                    updateSQL();
-                }
+                generateSQL();
             }
         });
         if (supportComments) {
@@ -129,12 +121,7 @@ class SQLGeneratorDialog extends ViewSQLDialog {
                     sqlGenerator.setShowComments(useShowComments.getSelection());
                     getDialogBoundsSettings().put(DBPScriptObject.OPTION_INCLUDE_COMMENTS, useShowComments.getSelection());
 
-                    UIUtils.runInUI(sqlGenerator);
-                    Object sql = sqlGenerator.getResult();
-                    if (sql != null) {
-                        setSQLText(CommonUtils.toString(sql));
-                        updateSQL();
-                    }
+                    generateSQL();
                 }
             });
         }
@@ -146,12 +133,7 @@ class SQLGeneratorDialog extends ViewSQLDialog {
                     sqlGenerator.setShowPermissions(useShowPermissions.getSelection());
                     getDialogBoundsSettings().put(DBPScriptObject.OPTION_INCLUDE_PERMISSIONS, useShowPermissions.getSelection());
 
-                    UIUtils.runInUI(sqlGenerator);
-                    Object sql = sqlGenerator.getResult();
-                    if (sql != null) {
-                        setSQLText(CommonUtils.toString(sql));
-                        updateSQL();
-                    }
+                    generateSQL();
                 }
             });
         }
@@ -163,15 +145,104 @@ class SQLGeneratorDialog extends ViewSQLDialog {
                     sqlGenerator.setShowFullDdl(useShowFullDdl.getSelection());
                     getDialogBoundsSettings().put(DBPScriptObject.OPTION_INCLUDE_COMMENTS, useShowFullDdl.getSelection());
 
-                    UIUtils.runInUI(sqlGenerator);
-                    Object sql = sqlGenerator.getResult();
-                    if (sql != null) {
-                        setSQLText(CommonUtils.toString(sql));
-                        updateSQL();
-                    }
+                    generateSQL();
                 }
             });
         }
+
+        generateSQL();
+
         return composite;
     }
+
+    @Override
+    public boolean close() {
+        GenerateJob job = generateJob;
+        if (job != null) {
+            job.cancel();
+        }
+        return super.close();
+    }
+
+    /**
+     * Generates SQL in background. Generated parts are shown as soon as they are ready.
+     */
+    private void generateSQL() {
+        GenerateJob prevJob = generateJob;
+        if (prevJob != null) {
+            prevJob.cancel();
+        }
+        setSQLText("");
+        updateSQL();
+        // Generator input (e.g. result set selection) can't be read in the generator job
+        sqlGenerator.prepareGenerator();
+        generateJob = new GenerateJob();
+        generateJob.schedule();
+    }
+
+    private void showGeneratedSQL(GenerateJob job, String sql) {
+        UIUtils.asyncExec(() -> {
+            if (job != generateJob || getShell() == null || getShell().isDisposed()) {
+                return;
+            }
+            setSQLText(sql);
+            updateSQL();
+        });
+    }
+
+    private class GenerateJob extends AbstractJob {
+        private final StringBuilder partialSQL = new StringBuilder();
+        private volatile boolean refreshScheduled;
+
+        GenerateJob() {
+            super("Generate SQL");
+            setUser(false);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            // Generator keeps its result so runs must not overlap
+            synchronized (sqlGenerator) {
+                if (monitor.isCanceled()) {
+                    return Status.CANCEL_STATUS;
+                }
+                sqlGenerator.setPartialResultListener(this::addPartialResult);
+                try {
+                    sqlGenerator.run(monitor);
+                } catch (InvocationTargetException e) {
+                    DBWorkbench.getPlatformUI().showError("Generate SQL", "Error generating SQL", e.getTargetException());
+                    return Status.OK_STATUS;
+                } catch (InterruptedException e) {
+                    return Status.CANCEL_STATUS;
+                } finally {
+                    sqlGenerator.setPartialResultListener(null);
+                }
+                if (!monitor.isCanceled()) {
+                    showGeneratedSQL(this, CommonUtils.toString(sqlGenerator.getResult()));
+                }
+            }
+            return Status.OK_STATUS;
+        }
+
+        private void addPartialResult(String sqlPart) {
+            synchronized (partialSQL) {
+                partialSQL.append(sqlPart);
+            }
+            if (!refreshScheduled) {
+                // Several parts may be shown at once if editor is slower than generator
+                refreshScheduled = true;
+                UIUtils.asyncExec(() -> {
+                    refreshScheduled = false;
+                    String sql;
+                    synchronized (partialSQL) {
+                        sql = partialSQL.toString();
+                    }
+                    if (this == generateJob && getShell() != null && !getShell().isDisposed()) {
+                        setSQLText(sql);
+                        updateSQL();
+                    }
+                });
+            }
+        }
+    }
 }
@@ -18,6 +18,8 @@ package org.jkiss.dbeaver.ui.editors.sql.syntax;
 
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
 import org.eclipse.jface.text.*;
 import org.eclipse.jface.text.contentassist.*;
 import org.eclipse.jface.text.templates.GlobalTemplateVariables;
@@ -49,6 +51,7 @@ import org.jkiss.utils.ArrayUtils;
 import org.jkiss.utils.CommonUtils;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 
@@ -61,6 +64,8 @@ public class SQLCompletionProcessor implements IContentAssistProcessor
     private static final Log log = Log.getLog(SQLCompletionProcessor.class);
 
     private static IContextInformationValidator VALIDATOR = new Validator();
+    // Proposals found after this time are shown when search is finished
+    private static final long PROPOSALS_WAIT_TIMEOUT = 500;
     private static boolean lookupTemplates = false;
     private static boolean simpleMode = false;
 
@@ -77,6 +82,11 @@ public class SQLCompletionProcessor implements IContentAssistProcessor
     }
 
     private final SQLEditorBase editor;
+    private SQLContentAssistant contentAssistant;
+    private volatile ProposalSearchJob lastSearchJob;
+    // Proposals popup is shown
+    private volatile boolean assistSessionActive;
+    private boolean refreshingProposals;
 
     public SQLCompletionProcessor(SQLEditorBase editor)
     {
@@ -84,6 +94,7 @@ public class SQLCompletionProcessor implements IContentAssistProcessor
     }
 
     public void initAssistant(SQLContentAssistant contentAssistant) {
+        this.contentAssistant = contentAssistant;
         contentAssistant.addCompletionListener(new CompletionListener());
     }
 
@@ -132,28 +143,92 @@ public class SQLCompletionProcessor implements IContentAssistProcessor
         }
 
 
-        SQLCompletionAnalyzer analyzer = new SQLCompletionAnalyzer(request);
+        List<SQLCompletionProposalBase> proposals = Collections.emptyList();
+        boolean partialResult = false;
         DBPDataSource dataSource = editor.getDataSource();
         if (request.getWordPart() != null) {
             if (dataSource != null) {
-                ProposalSearchJob searchJob = new ProposalSearchJob(analyzer);
-                searchJob.schedule();
-                // Wait until job finished
-                UIUtils.waitJobCompletion(searchJob);
+                long modificationStamp = getModificationStamp(document);
+                ProposalSearchJob searchJob = lastSearchJob;
+                if (searchJob != null && searchJob.isFinished() && searchJob.isSameRequest(documentOffset, modificationStamp)) {
+                    // Proposals are refreshed after search has finished
+                    lastSearchJob = null;
+                    proposals = searchJob.analyzer.getProposals();
+                } else {
+                    if (searchJob != null && !searchJob.isFinished()) {
+                        searchJob.cancel();
+                    }
+                    SQLCompletionAnalyzer analyzer = new SQLCompletionAnalyzer(request);
+                    searchJob = new ProposalSearchJob(analyzer, documentOffset, modificationStamp);
+                    lastSearchJob = searchJob;
+                    searchJob.schedule();
+                    // Wait a bit. If search takes longer then show what was found so far and refresh proposals later.
+                    if (UIUtils.waitJobCompletion(searchJob, PROPOSALS_WAIT_TIMEOUT)) {
+                        lastSearchJob = null;
+                        proposals = analyzer.getProposals();
+                    } else {
+                        proposals = analyzer.getProposalsSnapshot();
+                        partialResult = true;
+                        searchJob.refreshOnFinish = true;
+                        if (searchJob.isFinished()) {
+                            refreshProposals(searchJob);
+                        }
+                    }
+                }
             }
         }
 
-        List<SQLCompletionProposalBase> proposals = analyzer.getProposals();
         List<ICompletionProposal> result = new ArrayList<>();
         for (SQLCompletionProposalBase cp : proposals) {
             if (cp instanceof ICompletionProposal) {
                 result.add((ICompletionProposal) cp);
             }
         }
+        if (partialResult) {
+            // Order them the same way as the final proposals will be ordered
+            result.sort(new SQLCompletionSorter()::compare);
+        }
+        if (contentAssistant != null) {
+            // Single proposal found so far is not necessarily the only one - do not insert it
+            contentAssistant.enableAutoInsert(
+                !partialResult && editor.getActivePreferenceStore().getBoolean(SQLPreferenceConstants.INSERT_SINGLE_PROPOSALS_AUTO));
+        }
 
         return ArrayUtils.toArray(ICompletionProposal.class, result);
     }
 
+    private static long getModificationStamp(IDocument document) {
+        return document instanceof IDocumentExtension4 ?
+            ((IDocumentExtension4) document).getModificationStamp() :
+            IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP;
+    }
+
+    /**
+     * Shows proposals of finished search if editor text and cursor position weren't changed since the search start
+     */
+    private void refreshProposals(ProposalSearchJob searchJob) {
+        UIUtils.asyncExec(() -> {
+            IDocument document = editor.getDocument();
+            TextViewer textViewer = editor.getTextViewer();
+            if (lastSearchJob != searchJob || !searchJob.isFinished() || document == null || textViewer == null || contentAssistant == null) {
+                return;
+            }
+            if (!assistSessionActive) {
+                // Popup was closed - do not show it again
+                lastSearchJob = null;
+                return;
+            }
+            if (searchJob.isSameRequest(textViewer.getSelectedRange().x, getModificationStamp(document))) {
+                refreshingProposals = true;
+                try {
+                    contentAssistant.showPossibleCompletions();
+                } finally {
+                    refreshingProposals = false;
+                }
+            }
+        });
+    }
+
     private ICompletionProposal[] makeCommandProposals(SQLCompletionRequest request, String prefix) {
         final String controlCommandPrefix = editor.getSyntaxManager().getControlCommandPrefix();
         if (prefix.startsWith(controlCommandPrefix)) {
@@ -247,15 +322,16 @@ public class SQLCompletionProcessor implements IContentAssistProcessor
         return VALIDATOR;
     }
 
-    private static class CompletionListener implements ICompletionListener, ICompletionListenerExtension {
+    private class CompletionListener implements ICompletionListener, ICompletionListenerExtension {
 
         @Override
         public void assistSessionStarted(ContentAssistEvent event) {
-
+            assistSessionActive = true;
         }
 
         @Override
         public void assistSessionEnded(ContentAssistEvent event) {
+            assistSessionActive = false;
             simpleMode = false;
         }
 
@@ -266,7 +342,9 @@ public class SQLCompletionProcessor implements IContentAssistProcessor
 
         @Override
         public void assistSessionRestarted(ContentAssistEvent event) {
-            simpleMode = true;
+            if (!refreshingProposals) {
+                simpleMode = true;
+            }
         }
     }
 
@@ -302,11 +380,30 @@ public class SQLCompletionProcessor implements IContentAssistProcessor
 
     private class ProposalSearchJob extends AbstractJob {
         private final SQLCompletionAnalyzer analyzer;
+        private final int documentOffset;
+        private final long modificationStamp;
+        private volatile boolean refreshOnFinish;
 
-        ProposalSearchJob(SQLCompletionAnalyzer analyzer) {
+        ProposalSearchJob(SQLCompletionAnalyzer analyzer, int documentOffset, long modificationStamp) {
             super("Search proposals...");
             setSystem(false);
             this.analyzer = analyzer;
+            this.documentOffset = documentOffset;
+            this.modificationStamp = modificationStamp;
+            addJobChangeListener(new JobChangeAdapter() {
+                @Override
+                public void done(IJobChangeEvent event) {
+                    if (refreshOnFinish && event.getResult().isOK()) {
+                        refreshProposals(ProposalSearchJob.this);
+                    }
+                }
+            });
+        }
+
+        boolean isSameRequest(int documentOffset, long modificationStamp) {
+            return this.documentOffset == documentOffset &&
+                this.modificationStamp == modificationStamp &&
+                modificationStamp != IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP;
         }
 
         @Override
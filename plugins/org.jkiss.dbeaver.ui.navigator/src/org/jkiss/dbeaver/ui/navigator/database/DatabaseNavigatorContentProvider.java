@@ -19,10 +19,13 @@ package org.jkiss.dbeaver.ui.navigator.database;
 import org.eclipse.jface.viewers.IStructuredContentProvider;
 import org.eclipse.jface.viewers.ITreeContentProvider;
 import org.eclipse.jface.viewers.Viewer;
+import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ModelPreferences;
 import org.jkiss.dbeaver.model.navigator.DBNDatabaseNode;
 import org.jkiss.dbeaver.model.navigator.DBNNode;
 import org.jkiss.dbeaver.model.navigator.DBNUtils;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
 import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSEntity;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
@@ -34,6 +37,10 @@ import org.jkiss.dbeaver.ui.navigator.database.load.TreeNodeLazyExpander;
 import org.jkiss.dbeaver.ui.navigator.database.load.TreeNodeSpecial;
 import org.jkiss.utils.ArrayUtils;
 
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
 /**
  * DatabaseNavigatorContentProvider
 */
@@ -44,6 +51,23 @@ class DatabaseNavigatorContentProvider implements IStructuredContentProvider, IT
 
     private DatabaseNavigatorTree navigatorTree;
     private boolean showRoot;
+    // Sorted children of long lists. Sorting of hundreds of thousands of nodes on each tree refresh is too slow.
+    // Cached children reference their parent so entries of disposed nodes are purged explicitly.
+    private final Map<DBNNode, SortedChildren> sortedChildrenCache = new IdentityHashMap<>();
+
+    private static class SortedChildren {
+        final DBNNode[] children;
+        final DBNNode[] sortedChildren;
+        final boolean sortAlphabetically;
+        final boolean sortFoldersFirst;
+
+        SortedChildren(DBNNode[] children, DBNNode[] sortedChildren, boolean sortAlphabetically, boolean sortFoldersFirst) {
+            this.children = children;
+            this.sortedChildren = sortedChildren;
+            this.sortAlphabetically = sortAlphabetically;
+            this.sortFoldersFirst = sortFoldersFirst;
+        }
+    }
 
     DatabaseNavigatorContentProvider(DatabaseNavigatorTree navigatorTree, boolean showRoot)
     {
@@ -59,6 +83,19 @@ class DatabaseNavigatorContentProvider implements IStructuredContentProvider, IT
     @Override
     public void dispose()
     {
+        synchronized (sortedChildrenCache) {
+            sortedChildrenCache.clear();
+        }
+    }
+
+    /**
+     * Drops cached children of the node and its descendants. Called when node children are refreshed.
+     */
+    void clearChildrenCache(DBNNode node)
+    {
+        synchronized (sortedChildrenCache) {
+            sortedChildrenCache.keySet().removeIf(n -> n == node || n.isDisposed() || n.isChildOf(node));
+        }
     }
 
     @Override
@@ -118,12 +155,18 @@ class DatabaseNavigatorContentProvider implements IStructuredContentProvider, IT
             try {
                 // Read children with null monitor cos' it's not a lazy node
                 // and no blocking process will occur
-                DBNNode[] children = DBNUtils.getNodeChildrenFiltered(
-                    new VoidProgressMonitor(), parentNode, true);
+                DBNNode[] children = getNodeChildren(parentNode);
                 if (ArrayUtils.isEmpty(children)) {
                     return EMPTY_CHILDREN;
                 } else {
                     int longListFetchSize = Math.max(NavigatorPreferences.MIN_LONG_LIST_FETCH_SIZE, DBWorkbench.getPlatform().getPreferenceStore().getInt(NavigatorPreferences.NAVIGATOR_LONG_LIST_FETCH_SIZE));
+                    if (children.length > longListFetchSize) {
+                        // Apply name filter before paging. Only matching nodes get tree items.
+                        Object[] filteredChildren = navigatorTree.filterByPattern(parentNode, children);
+                        if (filteredChildren != children) {
+                            children = Arrays.copyOf(filteredChildren, filteredChildren.length, DBNNode[].class);
+                        }
+                    }
                     if (children.length > longListFetchSize) {
                         Object[] curChildren = new Object[longListFetchSize + 1];
                         System.arraycopy(children, 0, curChildren, 0, longListFetchSize);
@@ -148,6 +191,31 @@ class DatabaseNavigatorContentProvider implements IStructuredContentProvider, IT
         }
     }
 
+    private DBNNode[] getNodeChildren(DBNNode parentNode) throws DBException {
+        DBNNode[] children = parentNode.getChildren(new VoidProgressMonitor());
+        if (children == null || children.length <= NavigatorPreferences.MIN_LONG_LIST_FETCH_SIZE) {
+            return DBNUtils.filterNavigableChildren(children, true);
+        }
+        DBPPreferenceStore prefStore = DBWorkbench.getPlatform().getPreferenceStore();
+        boolean sortAlphabetically = prefStore.getBoolean(ModelPreferences.NAVIGATOR_SORT_ALPHABETICALLY);
+        boolean sortFoldersFirst = prefStore.getBoolean(ModelPreferences.NAVIGATOR_SORT_FOLDERS_FIRST);
+        synchronized (sortedChildrenCache) {
+            SortedChildren sorted = sortedChildrenCache.get(parentNode);
+            if (sorted != null && sorted.children == children &&
+                sorted.sortAlphabetically == sortAlphabetically && sorted.sortFoldersFirst == sortFoldersFirst)
+            {
+                return sorted.sortedChildren;
+            }
+        }
+        // Node children array is replaced on any children change so it is safe to cache sort result by array identity
+        DBNNode[] sortedChildren = DBNUtils.filterNavigableChildren(children, true);
+        synchronized (sortedChildrenCache) {
+            sortedChildrenCache.keySet().removeIf(DBNNode::isDisposed);
+            sortedChildrenCache.put(parentNode, new SortedChildren(children, sortedChildren, sortAlphabetically, sortFoldersFirst));
+        }
+        return sortedChildren;
+    }
+
     @Override
     public boolean hasChildren(Object parent)
     {
@@ -77,6 +77,8 @@ public class DatabaseNavigatorTree extends Composite implements INavigatorListen
     private boolean checkEnabled;
     private INavigatorFilter navigatorFilter;
     private Text filterControl;
+    private TreeFilter treeFilter;
+    private DatabaseNavigatorContentProvider contentProvider;
     private boolean inlineRenameEnabled = false;
     private INavigatorItemRenderer itemRenderer;
 
@@ -118,7 +120,8 @@ public class DatabaseNavigatorTree extends Composite implements INavigatorListen
 
         DatabaseNavigatorLabelProvider labelProvider = new DatabaseNavigatorLabelProvider(treeViewer);
         treeViewer.setLabelProvider(labelProvider);
-        treeViewer.setContentProvider(new DatabaseNavigatorContentProvider(this, showRoot));
+        contentProvider = new DatabaseNavigatorContentProvider(this, showRoot);
+        treeViewer.setContentProvider(contentProvider);
 
         if (false) {
             // We don't need it
@@ -251,10 +254,23 @@ public class DatabaseNavigatorTree extends Composite implements INavigatorListen
         return filterControl;
     }
 
+    /**
+     * Filters children by the name pattern typed in the filter box.
+     * Used for long children lists which are shown page by page - the pattern must be applied to all children,
+     * not only to the current page.
+     */
+    Object[] filterByPattern(Object parent, Object[] children) {
+        if (treeFilter == null || !treeFilter.hasPattern) {
+            return children;
+        }
+        return treeFilter.filter(treeViewer, parent, children);
+    }
+
     private TreeViewer doCreateTreeViewer(Composite parent, int style) {
         checkEnabled = (style & SWT.CHECK) != 0;
 
-        // Create tree
+        // Create tree. Tree items are materialized when they become visible (folders may contain thousands of objects).
+        // Check trees are not virtual - check state of items must be available for all elements.
         int treeStyle = SWT.H_SCROLL | SWT.V_SCROLL | style;
         if (checkEnabled) {
             CheckboxTreeViewer checkboxTreeViewer = new CheckboxTreeViewer(parent, treeStyle);
@@ -269,11 +285,11 @@ public class DatabaseNavigatorTree extends Composite implements INavigatorListen
             return checkboxTreeViewer;
         } else {
             if (navigatorFilter != null) {
-                CustomFilteredTree filteredTree = new CustomFilteredTree(treeStyle);
+                CustomFilteredTree filteredTree = new CustomFilteredTree(treeStyle | SWT.VIRTUAL);
                 filterControl = filteredTree.getFilterControl();
                 return filteredTree.getViewer();
             } else {
-                return doCreateNavigatorTreeViewer(parent, style);
+                return doCreateNavigatorTreeViewer(parent, style | SWT.VIRTUAL);
             }
         }
     }
@@ -356,6 +372,7 @@ public class DatabaseNavigatorTree extends Composite implements INavigatorListen
                 final DBNNode node = event.getNode();
                 final DBNNode parentNode = node.getParentNode();
                 if (parentNode != null) {
+                    contentProvider.clearChildrenCache(parentNode);
                     if (!treeViewer.getControl().isDisposed()) {
                         if (!parentNode.isDisposed()) {
                             treeViewer.refresh(getViewerObject(parentNode));
@@ -369,6 +386,9 @@ public class DatabaseNavigatorTree extends Composite implements INavigatorListen
                 break;
             }
             case UPDATE:
+                if (event.getNode() != null && event.getNodeChange() != DBNEvent.NodeChange.SELECT) {
+                    contentProvider.clearChildrenCache(event.getNode());
+                }
                 if (!treeViewer.getControl().isDisposed() && !treeViewer.isBusy()) {
                     if (event.getNode() != null) {
                         switch (event.getNodeChange()) {
@@ -712,6 +732,7 @@ public class DatabaseNavigatorTree extends Composite implements INavigatorListen
 
         CustomFilteredTree(int treeStyle) {
             super(DatabaseNavigatorTree.this, treeStyle, new TreeFilter(DatabaseNavigatorTree.this.navigatorFilter), true);
+            treeFilter = (TreeFilter) getPatternFilter();
             try {
                 if (treeViewer != null) {
                     treeViewer.setUseHashlookup(true);
@@ -41,6 +41,7 @@ import org.jkiss.dbeaver.model.DBPNamedObject;
 import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
 import org.jkiss.dbeaver.model.exec.DBExecUtils;
+import org.jkiss.dbeaver.model.impl.struct.MetadataSearchIndex;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.DBRRunnableParametrized;
 import org.jkiss.dbeaver.model.sql.SQLUtils;
@@ -365,14 +366,26 @@ public class GotoObjectDialog extends FilteredItemsSelectionDialog {
         @Override
         public void run(DBRProgressMonitor param) throws InvocationTargetException, InterruptedException {
             try {
-                result = structureAssistant.findObjectsByMask(
+                result = MetadataSearchIndex.findObjectsByMask(
                     monitor,
-                    executionContext,
+                    executionContext.getDataSource(),
+                    structureAssistant,
                     container,
                     typesToSearch.toArray(new DBSObjectType[0]),
                     nameMask,
                     false,
-                    true, MAX_RESULT_COUNT);
+                    false,
+                    MAX_RESULT_COUNT);
+                if (result == null) {
+                    result = structureAssistant.findObjectsByMask(
+                        monitor,
+                        executionContext,
+                        container,
+                        typesToSearch.toArray(new DBSObjectType[0]),
+                        nameMask,
+                        false,
+                        true, MAX_RESULT_COUNT);
+                }
                 hasMoreResults = result.size() >= MAX_RESULT_COUNT;
             } catch (Exception e) {
                 throw new InvocationTargetException(e);
@@ -71,7 +71,10 @@ public abstract class AbstractSearchResult<OBJECT_TYPE> implements ISearchResult
     }
 
     public void addObjects(List<OBJECT_TYPE> objects) {
-        this.objects.addAll(objects);
+        // Objects may be added by parallel search jobs
+        synchronized (this.objects) {
+            this.objects.addAll(objects);
+        }
         fireChange(new DatabaseSearchResultEvent(objects));
     }
 
@@ -56,6 +56,8 @@ public class SearchDataPage extends AbstractSearchPage {
     private static final String PROP_SEARCH_NUMBERS = "search.data.search-numbers"; //$NON-NLS-1$
     private static final String PROP_SEARCH_LOBS = "search.data.search-lobs"; //$NON-NLS-1$
     private static final String PROP_SEARCH_FOREIGN = "search.data.search-foreign"; //$NON-NLS-1$
+    private static final String PROP_FULL_TEXT_SEARCH = "search.data.full-text-search"; //$NON-NLS-1$
+    private static final String PROP_PARALLEL_SEARCHES = "search.data.parallel-searches"; //$NON-NLS-1$
     private static final String PROP_HISTORY = "search.data.history"; //$NON-NLS-1$
 
     private Combo searchText;
@@ -139,6 +141,14 @@ public class SearchDataPage extends AbstractSearchPage {
             maxResultsSpinner.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING));
             maxResultsSpinner.addModifyListener(e -> params.maxResults = maxResultsSpinner.getSelection());
 
+            if (params.parallelSearches <= 0) {
+                params.parallelSearches = 4;
+            }
+
+            final Spinner parallelSearchesSpinner = UIUtils.createLabelSpinner(optionsGroup2, "Parallel searches", "Number of tables searched at once. Each search opens a separate connection.", params.parallelSearches, 1, 32);
+            parallelSearchesSpinner.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING));
+            parallelSearchesSpinner.addModifyListener(e -> params.parallelSearches = parallelSearchesSpinner.getSelection());
+
             final Button caseCheckbox = UIUtils.createCheckbox(optionsGroup2, UISearchMessages.dialog_search_objects_case_sensitive, "Case sensitive search", params.caseSensitive, 2);
             caseCheckbox.addSelectionListener(new SelectionAdapter() {
                 @Override
@@ -156,6 +166,14 @@ public class SearchDataPage extends AbstractSearchPage {
             });
 
 
+            final Button fullTextCheckbox = UIUtils.createCheckbox(optionsGroup2, "Use full-text search", "Use database full-text search (MySQL/SQL Server full-text indexes, PostgreSQL tsvector columns) where available.\nFull-text search matches whole words", params.fullTextSearch, 2);
+            fullTextCheckbox.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e) {
+                    params.fullTextSearch = fullTextCheckbox.getSelection();
+                }
+            });
+
             final Button searchNumbersCheckbox = UIUtils.createCheckbox(optionsGroup2, "Search in numbers", "Search in numeric columns (search value must be a number)", params.searchNumbers, 2);
             searchNumbersCheckbox.addSelectionListener(new SelectionAdapter() {
                 @Override
@@ -211,6 +229,8 @@ public class SearchDataPage extends AbstractSearchPage {
         params.searchNumbers = store.getString(PROP_SEARCH_NUMBERS) == null || store.getBoolean(PROP_SEARCH_NUMBERS);
         params.searchLOBs = store.getBoolean(PROP_SEARCH_LOBS);
         params.searchForeignObjects = store.getBoolean(PROP_SEARCH_FOREIGN);
+        params.fullTextSearch = store.getBoolean(PROP_FULL_TEXT_SEARCH);
+        params.parallelSearches = store.getInt(PROP_PARALLEL_SEARCHES);
         params.maxResults = store.getInt(PROP_SAMPLE_ROWS);
         for (int i = 0; ; i++) {
             String history = store.getString(PROP_HISTORY + "." + i); //$NON-NLS-1$
@@ -240,6 +260,8 @@ public class SearchDataPage extends AbstractSearchPage {
         store.setValue(PROP_SEARCH_NUMBERS, params.searchNumbers);
         store.setValue(PROP_SEARCH_LOBS, params.searchLOBs);
         store.setValue(PROP_SEARCH_FOREIGN, params.searchForeignObjects);
+        store.setValue(PROP_FULL_TEXT_SEARCH, params.fullTextSearch);
+        store.setValue(PROP_PARALLEL_SEARCHES, params.parallelSearches);
         saveTreeState();
 
         {
@@ -34,7 +34,9 @@ public class SearchDataParams {
     boolean searchNumbers;
     boolean searchLOBs;
     boolean searchForeignObjects;
+    boolean fullTextSearch; // Use native full-text predicates
     int maxResults;
+    int parallelSearches;
     List<DBNNode> selectedNodes = new ArrayList<>();
 
     public SearchDataParams()
@@ -97,6 +99,14 @@ public class SearchDataParams {
         this.searchForeignObjects = searchForeignObjects;
     }
 
+    public boolean isFullTextSearch() {
+        return fullTextSearch;
+    }
+
+    public void setFullTextSearch(boolean fullTextSearch) {
+        this.fullTextSearch = fullTextSearch;
+    }
+
     public int getMaxResults() {
         return maxResults;
     }
@@ -105,6 +115,14 @@ public class SearchDataParams {
         this.maxResults = maxResults;
     }
 
+    public int getParallelSearches() {
+        return parallelSearches;
+    }
+
+    public void setParallelSearches(int parallelSearches) {
+        this.parallelSearches = parallelSearches;
+    }
+
     public List<DBNNode> getSelectedNodes() {
         return selectedNodes;
     }
@@ -23,6 +23,7 @@ import org.eclipse.core.runtime.Status;
 import org.eclipse.search.ui.ISearchQuery;
 import org.eclipse.search.ui.ISearchResult;
 import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.*;
@@ -33,12 +34,17 @@ import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.impl.AbstractExecutionSource;
 import org.jkiss.dbeaver.model.navigator.DBNDatabaseNode;
 import org.jkiss.dbeaver.model.navigator.DBNModel;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRBlockingObject;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.DefaultProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.model.sql.SQLDialect;
+import org.jkiss.dbeaver.model.sql.SQLFullTextDialect;
 import org.jkiss.dbeaver.model.struct.DBSDataContainer;
 import org.jkiss.dbeaver.model.struct.DBSEntity;
 import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+import org.jkiss.dbeaver.model.struct.DBSInstance;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.dbeaver.ui.search.AbstractSearchResult;
 import org.jkiss.dbeaver.utils.GeneralUtils;
@@ -47,13 +53,21 @@ import org.jkiss.utils.CommonUtils;
 
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class SearchDataQuery implements ISearchQuery {
 
     private static final Log log = Log.getLog(SearchDataQuery.class);
 
+    private static final long PROGRESS_UPDATE_PERIOD = 200;
+
     private final SearchDataParams params;
     private SearchDataResult searchResult;
+    private final List<SearchJob> searchJobs = new ArrayList<>();
+    private volatile boolean searchCanceled;
+    private volatile Throwable searchError;
 
     private SearchDataQuery(SearchDataParams params)
     {
@@ -101,23 +115,34 @@ public class SearchDataQuery implements ISearchQuery {
             DBRProgressMonitor monitor = new DefaultProgressMonitor(m);
 
             int totalObjects = 0;
+            int parallelSearches = Math.min(Math.max(params.parallelSearches, 1), params.sources.size());
+            searchCanceled = false;
+            searchError = null;
 
             monitor.beginTask(
                 "Search \"" + searchString + "\" in " + params.sources.size() + " table(s) / " + dataSources.size() + " database(s)",
                 params.sources.size());
             try {
-                for (DBSDataContainer dataContainer : params.sources) {
-                    if (monitor.isCanceled()) {
-                        break;
-                    }
-                    if (searchDataInContainer(monitor, dbnModel, dataContainer)) {
-                        totalObjects++;
+                if (parallelSearches > 1) {
+                    totalObjects = searchInParallel(monitor, dbnModel, parallelSearches);
+                } else {
+                    for (DBSDataContainer dataContainer : params.sources) {
+                        if (monitor.isCanceled()) {
+                            break;
+                        }
+                        monitor.subTask("Search in '" + DBUtils.getObjectFullName(dataContainer, DBPEvaluationContext.DML) + "'");
+                        if (searchDataInContainer(monitor, dbnModel, dataContainer, null)) {
+                            totalObjects++;
+                        }
+                        monitor.worked(1);
                     }
-                    monitor.worked(1);
                 }
             } finally {
                 monitor.done();
             }
+            if (searchError != null) {
+                throw new DBException("Data search failed", searchError);
+            }
 
             searchResult.fireChange(new AbstractSearchResult.DatabaseSearchFinishEvent(searchResult, totalObjects));
 
@@ -127,7 +152,68 @@ public class SearchDataQuery implements ISearchQuery {
         }
     }
 
-    private boolean searchDataInContainer(DBRProgressMonitor monitor, DBNModel dbnModel, DBSDataContainer dataContainer) {
+    /**
+     * Searches tables in several threads. Each thread uses its own isolated context (per database instance).
+     * Progress is reported from the caller thread because search job monitor isn't thread-safe.
+     */
+    private int searchInParallel(DBRProgressMonitor monitor, DBNModel dbnModel, int parallelSearches) {
+        Iterator<DBSDataContainer> sourceIterator = params.sources.iterator();
+        AtomicInteger searchedCount = new AtomicInteger();
+        AtomicInteger foundCount = new AtomicInteger();
+        CountDownLatch finishLatch = new CountDownLatch(parallelSearches);
+        synchronized (this) {
+            searchJobs.clear();
+            for (int i = 0; i < parallelSearches; i++) {
+                searchJobs.add(new SearchJob(i + 1, dbnModel, sourceIterator, searchedCount, foundCount, finishLatch));
+            }
+        }
+        for (SearchJob job : searchJobs) {
+            job.schedule();
+        }
+        int reportedCount = 0;
+        try {
+            for (;;) {
+                boolean finished = finishLatch.await(PROGRESS_UPDATE_PERIOD, TimeUnit.MILLISECONDS);
+                if (monitor.isCanceled() && !searchCanceled) {
+                    cancelSearch(null, null);
+                }
+                int searched = searchedCount.get();
+                if (searched > reportedCount) {
+                    monitor.worked(searched - reportedCount);
+                    reportedCount = searched;
+                    monitor.subTask("Searched " + searched + " of " + params.sources.size() + " table(s), found in " + foundCount.get());
+                }
+                if (finished) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            cancelSearch(null, null);
+        }
+        return foundCount.get();
+    }
+
+    /**
+     * Stops parallel search. The first error is kept and reported in the search query status.
+     * Other jobs are canceled, which cancels their running queries.
+     */
+    private void cancelSearch(@Nullable SearchJob failedJob, @Nullable Throwable error) {
+        List<SearchJob> jobs;
+        synchronized (this) {
+            if (error != null && searchError == null) {
+                searchError = error;
+            }
+            searchCanceled = true;
+            jobs = new ArrayList<>(searchJobs);
+        }
+        for (SearchJob job : jobs) {
+            if (job != failedJob) {
+                job.cancel();
+            }
+        }
+    }
+
+    private boolean searchDataInContainer(DBRProgressMonitor monitor, DBNModel dbnModel, DBSDataContainer dataContainer, @Nullable DBCExecutionContext context) {
         if (!params.searchForeignObjects && dataContainer instanceof DBPForeignObject && ((DBPForeignObject) dataContainer).isForeignObject()) {
             return false;
         }
@@ -138,10 +224,12 @@ public class SearchDataQuery implements ISearchQuery {
             log.warn("Can't find tree node for object \"" + objectName + "\"");
             return false;
         }
-        monitor.subTask("Search in '" + objectName + "'");
         log.debug("Search in '" + objectName + "'");
         SearchTableMonitor searchMonitor = new SearchTableMonitor(monitor);
-        try (DBCSession session = DBUtils.openUtilSession(searchMonitor, dataContainer, "Search rows in " + objectName)) {
+        try (DBCSession session = context == null ?
+            DBUtils.openUtilSession(searchMonitor, dataContainer, "Search rows in " + objectName) :
+            context.openSession(searchMonitor, DBCExecutionPurpose.UTIL, "Search rows in " + objectName))
+        {
             TestDataReceiver dataReceiver = new TestDataReceiver(searchMonitor);
             try {
                 findRows(session, dataContainer, dataReceiver);
@@ -174,7 +262,7 @@ public class SearchDataQuery implements ISearchQuery {
         }
         try {
 
-            List<DBDAttributeConstraint> constraints = new ArrayList<>();
+            List<DBSEntityAttribute> attributes = new ArrayList<>();
             for (DBSEntityAttribute attribute : CommonUtils.safeCollection(entity.getAttributes(session.getProgressMonitor()))) {
                 if (params.fastSearch) {
                     if (DBUtils.findAttributeIndex(session.getProgressMonitor(), attribute) == null) {
@@ -184,6 +272,21 @@ public class SearchDataQuery implements ISearchQuery {
                 if (DBUtils.isPseudoAttribute(attribute) || DBUtils.isHiddenObject(attribute)) {
                     continue;
                 }
+                attributes.add(attribute);
+            }
+            String fullTextCondition = null;
+            SQLDialect dialect = session.getDataSource().getSQLDialect();
+            if (params.fullTextSearch && dialect instanceof SQLFullTextDialect) {
+                // Dialect removes attributes covered by full-text condition
+                try {
+                    fullTextCondition = ((SQLFullTextDialect) dialect).getFullTextSearchCondition(session, entity, attributes, params.searchString);
+                } catch (DBException e) {
+                    log.debug("Can't make full-text search condition for '" + entity.getName() + "'", e);
+                }
+            }
+
+            List<DBDAttributeConstraint> constraints = new ArrayList<>();
+            for (DBSEntityAttribute attribute : attributes) {
                 DBCLogicalOperator[] supportedOperators = DBUtils.getAttributeOperators(attribute);
                 DBCLogicalOperator operator;
                 Object value;
@@ -268,13 +371,18 @@ public class SearchDataQuery implements ISearchQuery {
                 constraint.setVisible(true);
                 constraints.add(constraint);
             }
-            if (constraints.isEmpty()) {
+            if (constraints.isEmpty() && fullTextCondition == null) {
                 return null;
             }
             dataReceiver.filter = new DBDDataFilter(constraints);
             dataReceiver.filter.setAnyConstraint(true);
+            if (fullTextCondition != null) {
+                // Joined with OR to other constraints
+                dataReceiver.filter.setWhere(fullTextCondition);
+            }
             DBCExecutionSource searchSource = new AbstractExecutionSource(dataContainer, session.getExecutionContext(), this);
-            return dataContainer.readData(searchSource, session, dataReceiver, dataReceiver.filter, -1, -1, 0, 0);
+            // Fetch only sample rows
+            return dataContainer.readData(searchSource, session, dataReceiver, dataReceiver.filter, 0, params.maxResults, 0, params.maxResults);
         } catch (DBException e) {
             throw new DBCException("Error finding rows", e);
         }
@@ -297,7 +405,101 @@ public class SearchDataQuery implements ISearchQuery {
 
         @Override
         public boolean isCanceled() {
-            return canceled || baseMonitor.isCanceled();
+            return canceled || searchCanceled || baseMonitor.isCanceled();
+        }
+
+        // Blocks are registered in the base monitor so canceling search job cancels running query
+
+        @Override
+        public void startBlock(DBRBlockingObject object, String taskName) {
+            baseMonitor.startBlock(object, taskName);
+        }
+
+        @Override
+        public void endBlock() {
+            baseMonitor.endBlock();
+        }
+
+        @Override
+        public List<DBRBlockingObject> getActiveBlocks() {
+            return baseMonitor.getActiveBlocks();
+        }
+    }
+
+    private class SearchJob extends AbstractJob {
+
+        private final DBNModel dbnModel;
+        private final Iterator<DBSDataContainer> sourceIterator;
+        private final AtomicInteger searchedCount;
+        private final AtomicInteger foundCount;
+        private final CountDownLatch finishLatch;
+        private final Map<DBSInstance, DBCExecutionContext> contexts = new HashMap<>();
+
+        SearchJob(int number, DBNModel dbnModel, Iterator<DBSDataContainer> sourceIterator, AtomicInteger searchedCount, AtomicInteger foundCount, CountDownLatch finishLatch) {
+            super("Data search (" + number + ")");
+            setUser(false);
+            setSystem(true);
+            this.dbnModel = dbnModel;
+            this.sourceIterator = sourceIterator;
+            this.searchedCount = searchedCount;
+            this.foundCount = foundCount;
+            this.finishLatch = finishLatch;
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            try {
+                for (DBSDataContainer dataContainer = nextSource(); dataContainer != null; dataContainer = nextSource()) {
+                    if (searchCanceled || monitor.isCanceled()) {
+                        break;
+                    }
+                    if (searchDataInContainer(monitor, dbnModel, dataContainer, getSearchContext(monitor, dataContainer))) {
+                        foundCount.incrementAndGet();
+                    }
+                    searchedCount.incrementAndGet();
+                }
+            } catch (Throwable e) {
+                if (searchCanceled) {
+                    // Search was already stopped, error is most likely caused by cancel
+                    log.debug("Data search error after cancel", e);
+                } else {
+                    // Stop other searches. The first error is reported in the search query status.
+                    cancelSearch(this, e);
+                }
+            } finally {
+                for (DBCExecutionContext context : contexts.values()) {
+                    if (context != null) {
+                        context.close();
+                    }
+                }
+                finishLatch.countDown();
+            }
+            return Status.OK_STATUS;
+        }
+
+        @Nullable
+        private DBSDataContainer nextSource() {
+            synchronized (sourceIterator) {
+                return sourceIterator.hasNext() ? sourceIterator.next() : null;
+            }
+        }
+
+        /**
+         * Returns isolated context of the table database instance.
+         * If table has no owner instance then returns null and table is searched in utility context.
+         */
+        @Nullable
+        private DBCExecutionContext getSearchContext(DBRProgressMonitor monitor, DBSDataContainer dataContainer) throws DBException {
+            DBSInstance instance = DBUtils.getObjectOwnerInstance(dataContainer);
+            if (instance == null) {
+                return null;
+            }
+            DBCExecutionContext context = contexts.get(instance);
+            if (context == null) {
+                context = instance.openIsolatedContext(monitor, "Data search", DBUtils.getDefaultContext(dataContainer, false));
+                contexts.put(instance, context);
+            }
+            return context;
         }
     }
 
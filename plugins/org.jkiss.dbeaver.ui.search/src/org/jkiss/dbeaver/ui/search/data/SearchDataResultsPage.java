@@ -25,13 +25,13 @@ import org.jkiss.dbeaver.ui.editors.data.AbstractDataEditor;
 import org.jkiss.dbeaver.ui.navigator.NavigatorUtils;
 import org.jkiss.dbeaver.ui.search.AbstractSearchResultsPage;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
+import java.util.IdentityHashMap;
+import java.util.Map;
 
 public class SearchDataResultsPage extends AbstractSearchResultsPage<SearchDataObject> {
 
-    private List<SearchDataObject> foundObjects = new ArrayList<>();
+    private final Map<DBNNode, SearchDataObject> foundObjects = new IdentityHashMap<>();
 
     @Override
     protected AbstractSearchResultsPage<SearchDataObject>.SearchResultsControl createResultControl(Composite parent) {
@@ -51,7 +51,9 @@ public class SearchDataResultsPage extends AbstractSearchResultsPage<SearchDataO
 
     @Override
     public void populateObjects(Collection<SearchDataObject> objects) {
-        foundObjects.addAll(objects);
+        for (SearchDataObject object : objects) {
+            foundObjects.put(object.getNode(), object);
+        }
         super.populateObjects(objects);
     }
 
@@ -82,12 +84,8 @@ public class SearchDataResultsPage extends AbstractSearchResultsPage<SearchDataO
 
         @Override
         protected Object getObjectValue(DBNNode item) {
-            for (SearchDataObject obj : foundObjects) {
-                if (obj.getNode() == item) {
-                    return obj;
-                }
-            }
-            return item;
+            SearchDataObject object = foundObjects.get(item);
+            return object != null ? object : item;
         }
     }
 
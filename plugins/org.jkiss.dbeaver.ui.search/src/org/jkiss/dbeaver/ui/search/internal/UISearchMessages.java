@@ -38,6 +38,7 @@ public class UISearchMessages extends NLS {
 	public static String dialog_search_objects_message_objects_found;
 	public static String dialog_search_objects_spinner_max_results;
     public static String dialog_search_objects_case_sensitive;
+    public static String dialog_search_objects_search_in_comments;
 	public static String dialog_search_objects_title;
 
     static {
@@ -56,6 +56,7 @@ public class SearchMetadataPage extends AbstractSearchPage {
 
     private static final String PROP_MASK = "search.metadata.mask"; //$NON-NLS-1$
     private static final String PROP_CASE_SENSITIVE = "search.metadata.case-sensitive"; //$NON-NLS-1$
+    private static final String PROP_SEARCH_IN_COMMENTS = "search.metadata.search-in-comments"; //$NON-NLS-1$
     private static final String PROP_MAX_RESULT = "search.metadata.max-results"; //$NON-NLS-1$
     private static final String PROP_MATCH_INDEX = "search.metadata.match-index"; //$NON-NLS-1$
     private static final String PROP_HISTORY = "search.metadata.history"; //$NON-NLS-1$
@@ -68,6 +69,7 @@ public class SearchMetadataPage extends AbstractSearchPage {
 
     private String nameMask;
     private boolean caseSensitive;
+    private boolean searchInComments;
     private int maxResults;
     private int matchTypeIndex;
     private Set<DBSObjectType> checkedTypes = new HashSet<>();
@@ -230,6 +232,17 @@ public class SearchMetadataPage extends AbstractSearchPage {
                 });
                 caseCheckbox.setLayoutData(new GridData(GridData.FILL_HORIZONTAL));
 
+                // Comments are searched only in local metadata index
+                final Button commentsCheckbox = UIUtils.createLabelCheckbox(settingsGroup, UISearchMessages.dialog_search_objects_search_in_comments, searchInComments);
+                commentsCheckbox.addSelectionListener(new SelectionAdapter() {
+                    @Override
+                    public void widgetSelected(SelectionEvent e)
+                    {
+                        searchInComments = commentsCheckbox.getSelection();
+                    }
+                });
+                commentsCheckbox.setLayoutData(new GridData(GridData.FILL_HORIZONTAL));
+
             }
 
             Label otLabel = UIUtils.createControlLabel(settingsGroup, UISearchMessages.dialog_search_objects_group_object_types);
@@ -406,6 +419,7 @@ public class SearchMetadataPage extends AbstractSearchPage {
         params.setObjectTypes(objectTypes);
         params.setObjectNameMask(objectNameMask);
         params.setCaseSensitive(caseSensitive);
+        params.setSearchInComments(searchInComments);
         params.setMaxResults(maxResults);
         return SearchMetadataQuery.createQuery(dataSource, params);
 
@@ -416,6 +430,7 @@ public class SearchMetadataPage extends AbstractSearchPage {
     {
         nameMask = store.getString(PROP_MASK);
         caseSensitive = store.getBoolean(PROP_CASE_SENSITIVE);
+        searchInComments = store.getBoolean(PROP_SEARCH_IN_COMMENTS);
         maxResults = store.getInt(PROP_MAX_RESULT);
         matchTypeIndex = store.getInt(PROP_MATCH_INDEX);
         for (int i = 0; ;i++) {
@@ -442,6 +457,7 @@ public class SearchMetadataPage extends AbstractSearchPage {
     {
         store.setValue(PROP_MASK, nameMask);
         store.setValue(PROP_CASE_SENSITIVE, caseSensitive);
+        store.setValue(PROP_SEARCH_IN_COMMENTS, searchInComments);
         store.setValue(PROP_MAX_RESULT, maxResults);
         store.setValue(PROP_MATCH_INDEX, matchTypeIndex);
         saveTreeState(store, PROP_SOURCES, dataSourceTree);
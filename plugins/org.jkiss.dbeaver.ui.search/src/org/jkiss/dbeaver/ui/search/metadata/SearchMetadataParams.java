@@ -30,6 +30,7 @@ public class SearchMetadataParams {
     private List<DBSObjectType> objectTypes;
     private String objectNameMask;
     private boolean caseSensitive;
+    private boolean searchInComments;
     private int maxResults;
     private int matchType;
 
@@ -77,6 +78,16 @@ public class SearchMetadataParams {
         this.caseSensitive = caseSensitive;
     }
 
+    public boolean isSearchInComments()
+    {
+        return searchInComments;
+    }
+
+    public void setSearchInComments(boolean searchInComments)
+    {
+        this.searchInComments = searchInComments;
+    }
+
     public int getMaxResults()
     {
         return maxResults;
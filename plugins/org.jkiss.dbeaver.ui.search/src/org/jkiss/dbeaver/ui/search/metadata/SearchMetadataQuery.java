@@ -27,6 +27,7 @@ import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBPDataSource;
 import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
+import org.jkiss.dbeaver.model.impl.struct.MetadataSearchIndex;
 import org.jkiss.dbeaver.model.navigator.DBNModel;
 import org.jkiss.dbeaver.model.navigator.DBNNode;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
@@ -108,14 +109,27 @@ public class SearchMetadataQuery implements ISearchQuery {
             int totalObjects = 0;
             DBNModel navigatorModel = DBWorkbench.getPlatform().getNavigatorModel();
             DBRProgressMonitor localMonitor = RuntimeUtils.makeMonitor(monitor);
-            Collection<DBSObjectReference> objects = structureAssistant.findObjectsByMask(
+            DBSObjectType[] typesToSearch = objectTypes.toArray(new DBSObjectType[0]);
+            Collection<DBSObjectReference> objects = MetadataSearchIndex.findObjectsByMask(
                 localMonitor,
-                executionContext,
+                executionContext.getDataSource(),
+                structureAssistant,
                 params.getParentObject(),
-                objectTypes.toArray(new DBSObjectType[0]),
+                typesToSearch,
                 objectNameMask,
                 params.isCaseSensitive(),
-                true, params.getMaxResults());
+                params.isSearchInComments(),
+                params.getMaxResults());
+            if (objects == null) {
+                objects = structureAssistant.findObjectsByMask(
+                    localMonitor,
+                    executionContext,
+                    params.getParentObject(),
+                    typesToSearch,
+                    objectNameMask,
+                    params.isCaseSensitive(),
+                    true, params.getMaxResults());
+            }
             for (DBSObjectReference reference : objects) {
                 if (monitor.isCanceled()) {
                     break;
@@ -1853,6 +1853,22 @@ public class UIUtils {
         display.update();
     }
 
+    /**
+     * Waits until job is finished or wait time is expired.
+     * @return true if job was finished
+     */
+    public static boolean waitJobCompletion(AbstractJob job, long waitTime) {
+        Display display = Display.getCurrent();
+        long startTime = System.currentTimeMillis();
+        while (!job.isFinished() && (System.currentTimeMillis() - startTime) < waitTime) {
+            if (!display.readAndDispatch()) {
+                RuntimeUtils.pause(10);
+            }
+        }
+        display.update();
+        return job.isFinished();
+    }
+
     public static void waitInUI(DBRCondition condition, long waitTime) {
         syncExec(() -> {
             long startTime = System.currentTimeMillis();
@@ -0,0 +1,60 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.test.tools;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Consumes values computed by benchmarks, so JIT can't eliminate measured code as dead code.
+ * Benchmark must call {@link #flush()} at the end.
+ */
+public final class BenchmarkSink {
+
+    // Updated by single benchmark thread without synchronization (cheap enough for per-value calls)
+    private static long valueSink;
+    // Updated by worker threads
+    private static final AtomicLong resultSink = new AtomicLong();
+
+    private BenchmarkSink() {
+    }
+
+    /**
+     * Consumes single value. Must be called from the main benchmark thread only.
+     */
+    public static void consume(Object value) {
+        if (value != null) {
+            valueSink += value.hashCode();
+        }
+    }
+
+    /**
+     * Consumes aggregated result of worker thread. Thread-safe.
+     */
+    public static void consumeResult(long result) {
+        resultSink.addAndGet(result);
+    }
+
+    /**
+     * Uses consumed values, so they can't be optimized out
+     */
+    public static void flush() {
+        if (valueSink + resultSink.get() == 42) {
+            System.out.println();
+        }
+    }
+
+}
@@ -0,0 +1,95 @@
+package org.jkiss.dbeaver.ext.test.tools;
+
+import au.com.bytecode.opencsv.CSVReader;
+import org.jkiss.dbeaver.tools.transfer.stream.importer.CSVParallelReader;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * Compares CSV import parsing throughput of opencsv reader (used by CSV importer by default)
+ * and parallel memory-mapped reader.
+ * Arguments: [file] [thread count] [mapped column count]. Sample file (1Gb by default) is generated if it doesn't exist.
+ */
+public class CSVImportBenchmark {
+
+    private static final long SAMPLE_FILE_SIZE = 1024L * 1024 * 1024;
+    private static final int COLUMN_COUNT = 8;
+    private static final int ITERATIONS = 3;
+
+    public static void main(String[] args) throws IOException {
+        File file = new File(args.length > 0 ? args[0] : System.getProperty("java.io.tmpdir") + "/dbeaver-csv-benchmark.csv");
+        int threadCount = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int mappedColumns = args.length > 2 ? Integer.parseInt(args[2]) : COLUMN_COUNT;
+        if (!file.exists()) {
+            generateFile(file);
+        }
+        boolean[] columnFilter = new boolean[COLUMN_COUNT];
+        for (int i = 0; i < Math.min(mappedColumns, COLUMN_COUNT); i++) {
+            columnFilter[i] = true;
+        }
+        long fileSize = file.length();
+        System.out.println("File " + file.getAbsolutePath() + " (" + (fileSize / 1024 / 1024) + "Mb)");
+
+        for (int i = 0; i < ITERATIONS; i++) {
+            long startTime = System.nanoTime();
+            long values = readOpenCSV(file);
+            printResult("opencsv", startTime, fileSize, values);
+
+            startTime = System.nanoTime();
+            values = readParallel(file, 1, columnFilter);
+            printResult("parallel (1 thread)", startTime, fileSize, values);
+
+            startTime = System.nanoTime();
+            values = readParallel(file, threadCount, columnFilter);
+            printResult("parallel (" + threadCount + " threads, " + mappedColumns + " columns)", startTime, fileSize, values);
+        }
+    }
+
+    private static long readOpenCSV(File file) throws IOException {
+        long values = 0;
+        try (CSVReader reader = new CSVReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8), ',', '"', '\\')) {
+            for (String[] line = reader.readNext(); line != null; line = reader.readNext()) {
+                values += line.length;
+            }
+        }
+        return values;
+    }
+
+    private static long readParallel(File file, int threadCount, boolean[] columnFilter) throws IOException {
+        long values = 0;
+        try (CSVParallelReader reader = new CSVParallelReader(file, StandardCharsets.UTF_8, ',', '"', '\\', threadCount, CSVParallelReader.DEFAULT_CHUNK_SIZE)) {
+            reader.setColumnFilter(columnFilter);
+            for (String[] line = reader.readNext(); line != null; line = reader.readNext()) {
+                values += line.length;
+            }
+        }
+        return values;
+    }
+
+    private static void printResult(String name, long startTime, long fileSize, long values) {
+        long time = (System.nanoTime() - startTime) / 1000000;
+        System.out.println(name + ": " + time + "ms, " + (fileSize / 1024 / 1024 * 1000 / Math.max(time, 1)) + "Mb/s (" + values + " values)");
+    }
+
+    private static void generateFile(File file) throws IOException {
+        System.out.println("Generate sample file " + file.getAbsolutePath());
+        Random random = new Random(0);
+        String[] statuses = {"NEW", "ACTIVE", "SUSPENDED", "CLOSED"};
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8), 1024 * 1024)) {
+            writer.write("id,customer_id,amount,active,created,status,comment,description\n");
+            long size = 0;
+            for (long id = 1; size < SAMPLE_FILE_SIZE; id++) {
+                String line = id + "," + random.nextInt(1000000) + "," + (random.nextInt(10000000) / 100.0) + "," + random.nextBoolean() + "," +
+                    "2020-" + (1 + random.nextInt(12)) + "-" + (1 + random.nextInt(28)) + " 12:" + (10 + random.nextInt(50)) + ":00," +
+                    statuses[random.nextInt(statuses.length)] + "," +
+                    "\"Comment " + id + ", with \"\"quotes\"\"\"," +
+                    (id % 100 == 0 ? "\"Multi-line\ndescription\"" : "Plain description of row " + id) + "\n";
+                writer.write(line);
+                size += line.length();
+            }
+        }
+    }
+
+}
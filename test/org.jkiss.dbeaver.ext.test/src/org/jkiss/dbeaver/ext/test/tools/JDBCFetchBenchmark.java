@@ -0,0 +1,503 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.test.tools;
+
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.data.*;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.impl.data.DefaultValueHandler;
+import org.jkiss.dbeaver.model.impl.data.formatters.*;
+import org.jkiss.dbeaver.model.impl.jdbc.data.handlers.JDBCStandardValueHandlerProvider;
+import org.jkiss.dbeaver.model.impl.jdbc.exec.JDBCColumnMetaData;
+import org.jkiss.dbeaver.model.impl.jdbc.exec.JDBCResultSetImpl;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.model.struct.DBSTypedObject;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.*;
+import java.util.*;
+
+/**
+ * Measures JDBC fetch path throughput (rows/s) and allocations (bytes/row):
+ * plain JDBC fetch, fetch with standard JDBC value handlers, result set viewer fetch (attribute bindings
+ * and rows buffer, like ResultSetDataReceiver), result set attributes and value handlers resolution
+ * and value formatting with data formatter profile.
+ * Narrow (2 columns) and wide (51 columns) tables are created in embedded database.
+ * Database JDBC driver must be in classpath. Default database is in-memory H2, Derby (jdbc:derby:memory:bench;create=true)
+ * can be used too. Column metadata is read without data source, so driver must report column schema or catalog.
+ * Arguments: [jdbc url] [row count]
+ */
+public class JDBCFetchBenchmark {
+
+    private static final String DEFAULT_URL = "jdbc:h2:mem:fetch_benchmark";
+    private static final int ROW_COUNT = 100000;
+    private static final int WIDE_COLUMN_GROUPS = 10;
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int ITERATIONS = 5;
+    private static final int RESOLVE_COUNT = 10000;
+
+    private interface Scenario {
+        // Returns number of processed rows
+        long run(Connection connection, String table) throws Exception;
+    }
+
+    private static JDBCSession session;
+    private static DBCSession bindingSession;
+    private static DBSDataContainer dataContainer;
+    private static DBDFormatSettings formatSettings;
+    private static final JDBCStandardValueHandlerProvider valueHandlerProvider = new JDBCStandardValueHandlerProvider();
+
+    public static void main(String[] args) throws Exception {
+        String url = args.length > 0 ? args[0] : DEFAULT_URL;
+        int rowCount = args.length > 1 ? Integer.parseInt(args[1]) : ROW_COUNT;
+
+        try (Connection connection = DriverManager.getConnection(url)) {
+            session = makeSession(connection);
+            formatSettings = new BenchmarkFormatSettings(Locale.ENGLISH);
+            bindingSession = makeBindingSession();
+            dataContainer = makeDataContainer();
+
+            String[] tables = {"BENCH_NARROW", "BENCH_WIDE"};
+            createTable(connection, tables[0], 0, rowCount);
+            createTable(connection, tables[1], WIDE_COLUMN_GROUPS, rowCount);
+
+            for (String table : tables) {
+                System.out.println("Table " + table + " (" + rowCount + " rows)");
+                measure("plain fetch", connection, table, JDBCFetchBenchmark::readPlain);
+                measure("value handlers fetch", connection, table, JDBCFetchBenchmark::readWithValueHandlers);
+                measure("result set viewer fetch", connection, table, JDBCFetchBenchmark::readWithBindings);
+                measure("attributes resolve", connection, table, JDBCFetchBenchmark::resolveAttributes);
+                measure("fetch and format", connection, table, JDBCFetchBenchmark::readAndFormat);
+            }
+        }
+        BenchmarkSink.flush();
+    }
+
+    private static void measure(String name, Connection connection, String table, Scenario scenario) throws Exception {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            scenario.run(connection, table);
+        }
+        long bestTime = Long.MAX_VALUE, rows = 0, allocated = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long startAllocated = getAllocatedBytes();
+            long startTime = System.nanoTime();
+            rows = scenario.run(connection, table);
+            bestTime = Math.min(bestTime, System.nanoTime() - startTime);
+            allocated += getAllocatedBytes() - startAllocated;
+        }
+        System.out.println("\t" + name + ": " + (rows * 1000000000L / Math.max(bestTime, 1)) + " rows/s, " +
+            (isAllocationSupported() ? (allocated / ITERATIONS / Math.max(rows, 1)) + " bytes/row" : "allocations unknown"));
+    }
+
+    private static long readPlain(Connection connection, String table) throws SQLException {
+        long rows = 0;
+        try (Statement dbStat = connection.createStatement(); ResultSet dbResult = dbStat.executeQuery("SELECT * FROM " + table)) {
+            int columnCount = dbResult.getMetaData().getColumnCount();
+            while (dbResult.next()) {
+                for (int i = 1; i <= columnCount; i++) {
+                    consume(dbResult.getObject(i));
+                }
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private static long readWithValueHandlers(Connection connection, String table) throws Exception {
+        long rows = 0;
+        try (Statement dbStat = connection.createStatement(); ResultSet dbResult = dbStat.executeQuery("SELECT * FROM " + table)) {
+            JDBCResultSetImpl resultSet = wrapResultSet(dbResult);
+            JDBCColumnMetaData[] columns = getColumns(dbResult);
+            DBDValueHandler[] valueHandlers = getValueHandlers(columns);
+            Object[] row = new Object[columns.length];
+            while (resultSet.nextRow()) {
+                for (int i = 0; i < columns.length; i++) {
+                    row[i] = valueHandlers[i].fetchValueObject(session, resultSet, columns[i], i);
+                }
+                consume(row[0]);
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Fetches rows the same way as ResultSetDataReceiver does: attribute bindings are created for each result set,
+     * each row is fetched by binding value handlers into a new array and kept in the rows buffer.
+     * The receiver itself can't be created without result set viewer.
+     */
+    private static long readWithBindings(Connection connection, String table) throws Exception {
+        List<Object[]> rows = new ArrayList<>();
+        try (Statement dbStat = connection.createStatement(); ResultSet dbResult = dbStat.executeQuery("SELECT * FROM " + table)) {
+            JDBCResultSetImpl resultSet = wrapResultSet(dbResult);
+            JDBCColumnMetaData[] columns = getColumns(dbResult);
+            DBDAttributeBinding[] bindings = new DBDAttributeBinding[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                bindings[i] = new DBDAttributeBindingMeta(dataContainer, bindingSession, columns[i]);
+            }
+            while (resultSet.nextRow()) {
+                Object[] row = new Object[bindings.length];
+                for (int i = 0; i < bindings.length; i++) {
+                    DBSAttributeBase attribute = bindings[i].getAttribute();
+                    if (attribute == null) {
+                        continue;
+                    }
+                    row[i] = bindings[i].getValueHandler().fetchValueObject(session, resultSet, attribute, bindings[i].getOrdinalPosition());
+                }
+                rows.add(row);
+            }
+        }
+        if (!rows.isEmpty()) {
+            BenchmarkSink.consume(rows.get(rows.size() - 1)[0]);
+        }
+        return rows.size();
+    }
+
+    /**
+     * Attributes are resolved once per result set, so each resolve counts as a row
+     */
+    private static long resolveAttributes(Connection connection, String table) throws Exception {
+        try (Statement dbStat = connection.createStatement(); ResultSet dbResult = dbStat.executeQuery("SELECT * FROM " + table + " WHERE 1=0")) {
+            for (int i = 0; i < RESOLVE_COUNT; i++) {
+                JDBCColumnMetaData[] columns = getColumns(dbResult);
+                consume(getValueHandlers(columns));
+            }
+        }
+        return RESOLVE_COUNT;
+    }
+
+    private static long readAndFormat(Connection connection, String table) throws Exception {
+        long rows = 0;
+        try (Statement dbStat = connection.createStatement(); ResultSet dbResult = dbStat.executeQuery("SELECT * FROM " + table)) {
+            JDBCResultSetImpl resultSet = wrapResultSet(dbResult);
+            JDBCColumnMetaData[] columns = getColumns(dbResult);
+            DBDValueHandler[] valueHandlers = getValueHandlers(columns);
+            while (resultSet.nextRow()) {
+                for (int i = 0; i < columns.length; i++) {
+                    Object value = valueHandlers[i].fetchValueObject(session, resultSet, columns[i], i);
+                    consume(valueHandlers[i].getValueDisplayString(columns[i], value, DBDDisplayFormat.UI));
+                }
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private static JDBCColumnMetaData[] getColumns(ResultSet dbResult) throws SQLException {
+        ResultSetMetaData metaData = dbResult.getMetaData();
+        JDBCColumnMetaData[] columns = new JDBCColumnMetaData[metaData.getColumnCount()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = new JDBCColumnMetaData(null, metaData, i);
+        }
+        return columns;
+    }
+
+    private static DBDValueHandler[] getValueHandlers(JDBCColumnMetaData[] columns) {
+        DBDValueHandler[] valueHandlers = new DBDValueHandler[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            valueHandlers[i] = valueHandlerProvider.getValueHandler(null, formatSettings, columns[i]);
+            if (valueHandlers[i] == null) {
+                valueHandlers[i] = formatSettings.getDefaultValueHandler();
+            }
+        }
+        return valueHandlers;
+    }
+
+    private static void consume(Object value) {
+        BenchmarkSink.consume(value);
+    }
+
+    private static void createTable(Connection connection, String table, int columnGroups, int rowCount) throws SQLException {
+        StringBuilder ddl = new StringBuilder("CREATE TABLE " + table + " (ID INTEGER NOT NULL PRIMARY KEY, NAME VARCHAR(100)");
+        for (int i = 0; i < columnGroups; i++) {
+            ddl.append(", I").append(i).append(" INTEGER, N").append(i).append(" NUMERIC(12,2), S").append(i).append(" VARCHAR(100)")
+                .append(", D").append(i).append(" TIMESTAMP, F").append(i).append(" DOUBLE PRECISION");
+        }
+        ddl.append(")");
+        try (Statement dbStat = connection.createStatement()) {
+            dbStat.execute(ddl.toString());
+        }
+
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        StringBuilder insert = new StringBuilder("INSERT INTO " + table + " VALUES (?,?");
+        for (int i = 0; i < columnGroups * 5; i++) {
+            insert.append(",?");
+        }
+        insert.append(")");
+        Random random = new Random(0);
+        long baseTime = System.currentTimeMillis();
+        try (PreparedStatement dbStat = connection.prepareStatement(insert.toString())) {
+            for (int row = 0; row < rowCount; row++) {
+                int index = 1;
+                dbStat.setInt(index++, row);
+                dbStat.setString(index++, "Name " + row);
+                for (int i = 0; i < columnGroups; i++) {
+                    dbStat.setInt(index++, random.nextInt());
+                    dbStat.setBigDecimal(index++, BigDecimal.valueOf(random.nextInt(100000000), 2));
+                    if (row % 10 == 0) {
+                        dbStat.setNull(index++, Types.VARCHAR);
+                    } else {
+                        dbStat.setString(index++, "Value " + random.nextInt(1000000));
+                    }
+                    dbStat.setTimestamp(index++, new Timestamp(baseTime - random.nextInt(1000000000)));
+                    dbStat.setDouble(index++, random.nextDouble() * 1000);
+                }
+                dbStat.addBatch();
+                if (row % 1000 == 999) {
+                    dbStat.executeBatch();
+                }
+            }
+            dbStat.executeBatch();
+        }
+        connection.commit();
+        connection.setAutoCommit(autoCommit);
+    }
+
+    private static JDBCResultSetImpl wrapResultSet(ResultSet dbResult) {
+        return new JDBCResultSetImpl(session, null, dbResult, "Benchmark", true) {};
+    }
+
+    /**
+     * Value handlers need only the connection and the progress monitor of the session
+     */
+    private static JDBCSession makeSession(Connection connection) {
+        VoidProgressMonitor monitor = new VoidProgressMonitor();
+        return (JDBCSession) Proxy.newProxyInstance(
+            JDBCFetchBenchmark.class.getClassLoader(),
+            new Class[] { JDBCSession.class },
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getOriginal": return connection;
+                    case "getProgressMonitor": return monitor;
+                    case "hashCode": return System.identityHashCode(proxy);
+                    case "equals": return proxy == args[0];
+                    case "toString": return "Benchmark session";
+                }
+                if (method.getDeclaringClass().isAssignableFrom(Connection.class)) {
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                }
+                Class<?> returnType = method.getReturnType();
+                if (returnType == Boolean.TYPE) {
+                    return false;
+                } else if (returnType == Integer.TYPE) {
+                    return 0;
+                } else if (returnType == Long.TYPE) {
+                    return 0L;
+                }
+                return null;
+            });
+    }
+
+    /**
+     * Session for attribute bindings creation. Its data source provides standard JDBC value handlers
+     * (data source registry requires platform).
+     */
+    private static DBCSession makeBindingSession() {
+        Object dataSource = Proxy.newProxyInstance(
+            JDBCFetchBenchmark.class.getClassLoader(),
+            new Class[] { DBPDataSource.class, DBDValueHandlerProvider.class },
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getValueHandler": return valueHandlerProvider.getValueHandler(null, formatSettings, (DBSTypedObject) args[2]);
+                    case "hashCode": return System.identityHashCode(proxy);
+                    case "equals": return proxy == args[0];
+                    case "toString": return "Benchmark data source";
+                }
+                return null;
+            });
+        return (DBCSession) Proxy.newProxyInstance(
+            JDBCFetchBenchmark.class.getClassLoader(),
+            new Class[] { DBCSession.class },
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getDataSource": return dataSource;
+                    case "getDataFormatterProfile": return formatSettings.getDataFormatterProfile();
+                    case "getDefaultValueHandler": return formatSettings.getDefaultValueHandler();
+                    case "hashCode": return System.identityHashCode(proxy);
+                    case "equals": return proxy == args[0];
+                    case "toString": return "Benchmark binding session";
+                }
+                return method.getReturnType() == Boolean.TYPE ? Boolean.FALSE : null;
+            });
+    }
+
+    /**
+     * Data container without data source (bindings use default preferences)
+     */
+    private static DBSDataContainer makeDataContainer() {
+        return (DBSDataContainer) Proxy.newProxyInstance(
+            JDBCFetchBenchmark.class.getClassLoader(),
+            new Class[] { DBSDataContainer.class },
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getName": return "Benchmark";
+                    case "hashCode": return System.identityHashCode(proxy);
+                    case "equals": return proxy == args[0];
+                    case "toString": return "Benchmark data container";
+                }
+                Class<?> returnType = method.getReturnType();
+                if (returnType == Boolean.TYPE) {
+                    return false;
+                } else if (returnType == Integer.TYPE) {
+                    return 0;
+                } else if (returnType == Long.TYPE) {
+                    return 0L;
+                }
+                return null;
+            });
+    }
+
+    private static Method allocatedBytesMethod;
+
+    private static boolean isAllocationSupported() {
+        return allocatedBytesMethod != null;
+    }
+
+    private static long getAllocatedBytes() {
+        try {
+            if (allocatedBytesMethod == null) {
+                // HotSpot specific API, accessed with reflection
+                allocatedBytesMethod = Class.forName("com.sun.management.ThreadMXBean").getMethod("getThreadAllocatedBytes", long.class);
+            }
+            return (Long) allocatedBytesMethod.invoke(ManagementFactory.getThreadMXBean(), Thread.currentThread().getId());
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
+    private static class BenchmarkFormatSettings implements DBDFormatSettings {
+
+        private final BenchmarkFormatterProfile profile;
+
+        BenchmarkFormatSettings(Locale locale) {
+            this.profile = new BenchmarkFormatterProfile(locale);
+        }
+
+        @Override
+        public DBDDataFormatterProfile getDataFormatterProfile() {
+            return profile;
+        }
+
+        @Override
+        public boolean isUseNativeDateTimeFormat() {
+            return false;
+        }
+
+        @Override
+        public boolean isUseNativeNumericFormat() {
+            return false;
+        }
+
+        @Override
+        public boolean isUseScientificNumericFormat() {
+            return false;
+        }
+
+        @Override
+        public DBDValueHandler getDefaultValueHandler() {
+            return DefaultValueHandler.INSTANCE;
+        }
+    }
+
+    /**
+     * Creates formatters with default properties, like default profile does (formatters registry requires platform)
+     */
+    private static class BenchmarkFormatterProfile implements DBDDataFormatterProfile {
+
+        private Locale locale;
+
+        BenchmarkFormatterProfile(Locale locale) {
+            this.locale = locale;
+        }
+
+        @Override
+        public DBPPreferenceStore getPreferenceStore() {
+            return null;
+        }
+
+        @Override
+        public String getProfileName() {
+            return "Benchmark";
+        }
+
+        @Override
+        public void setProfileName(String name) {
+        }
+
+        @Override
+        public Locale getLocale() {
+            return locale;
+        }
+
+        @Override
+        public void setLocale(Locale locale) {
+            this.locale = locale;
+        }
+
+        @Override
+        public Map<String, Object> getFormatterProperties(String typeId) {
+            return getSample(typeId).getDefaultProperties(locale);
+        }
+
+        @Override
+        public void setFormatterProperties(String typeId, Map<String, Object> properties) {
+        }
+
+        @Override
+        public boolean isOverridesParent() {
+            return false;
+        }
+
+        @Override
+        public void reset() {
+        }
+
+        @Override
+        public void saveProfile() {
+        }
+
+        @Override
+        public DBDDataFormatter createFormatter(String typeId, DBSTypedObject type) {
+            DBDDataFormatter formatter = DBDDataFormatter.TYPE_NAME_NUMBER.equals(typeId) ? new NumberDataFormatter() : new DateTimeDataFormatter();
+            formatter.init(type, locale, getFormatterProperties(typeId));
+            return formatter;
+        }
+
+        private static DBDDataFormatterSample getSample(String typeId) {
+            switch (typeId) {
+                case DBDDataFormatter.TYPE_NAME_NUMBER: return new NumberFormatSample();
+                case DBDDataFormatter.TYPE_NAME_DATE: return new DateFormatSample();
+                case DBDDataFormatter.TYPE_NAME_TIME: return new TimeFormatSample();
+                default: return new TimestampFormatSample();
+            }
+        }
+    }
+
+}
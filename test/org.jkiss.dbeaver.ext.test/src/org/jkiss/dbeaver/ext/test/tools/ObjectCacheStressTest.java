@@ -0,0 +1,281 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2020 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.test.tools;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.model.struct.cache.BasicObjectCache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Object cache concurrency stress test.
+ * Reader threads look up objects by name and iterate the object list while other threads modify
+ * the cache (add/remove objects) and periodically reload it (reload emulates slow metadata query).
+ * Reader latency percentiles are printed for lock-free reads (current cache implementation)
+ * and for reads which lock the same monitor as loader (the way struct cache children were read before,
+ * when loading of one object's children blocked readers of all others).
+ * Arguments: [object count] [reader threads] [seconds] [load time ms]
+ */
+public class ObjectCacheStressTest {
+
+    private static final int OBJECT_COUNT = 5000;
+    private static final int READER_THREADS = 8;
+    private static final int WRITER_THREADS = 2;
+    private static final int DURATION_SECONDS = 5;
+    private static final int LOAD_TIME_MS = 20;
+    private static final int MAX_LATENCY_SAMPLES = 5000000;
+
+    public static void main(String[] args) throws Exception {
+        int objectCount = args.length > 0 ? Integer.parseInt(args[0]) : OBJECT_COUNT;
+        int readerCount = args.length > 1 ? Integer.parseInt(args[1]) : READER_THREADS;
+        int duration = args.length > 2 ? Integer.parseInt(args[2]) : DURATION_SECONDS;
+        int loadTime = args.length > 3 ? Integer.parseInt(args[3]) : LOAD_TIME_MS;
+
+        System.out.println("Objects: " + objectCount + ", readers: " + readerCount + ", writers: " + WRITER_THREADS);
+        // Warm up
+        runScenario(objectCount, readerCount, 1, loadTime, false);
+        runScenario(objectCount, readerCount, 1, loadTime, true);
+
+        printResult("lock-free reads", runScenario(objectCount, readerCount, duration, loadTime, false));
+        printResult("locked reads", runScenario(objectCount, readerCount, duration, loadTime, true));
+        BenchmarkSink.flush();
+    }
+
+    private static long[] runScenario(int objectCount, int readerCount, int duration, int loadTime, boolean lockedReads) throws Exception {
+        TestCache cache = new TestCache(objectCount);
+        cache.getAllObjects(null, null);
+
+        AtomicBoolean stopped = new AtomicBoolean();
+        List<long[]> readerLatencies = new ArrayList<>();
+        int[] readerSamples = new int[readerCount];
+        List<Thread> threads = new ArrayList<>();
+        CountDownLatch startLatch = new CountDownLatch(1);
+
+        for (int i = 0; i < readerCount; i++) {
+            int readerIndex = i;
+            long[] latencies = new long[MAX_LATENCY_SAMPLES / readerCount];
+            readerLatencies.add(latencies);
+            threads.add(new Thread(() -> {
+                await(startLatch);
+                int count = 0;
+                long sum = 0;
+                for (int k = readerIndex; !stopped.get() && count < latencies.length; k++) {
+                    if (k % 1000 == 0) {
+                        // Do not flood CPU, readers are UI/completion requests
+                        Thread.yield();
+                    }
+                    String name = TestObject.makeName(k % objectCount);
+                    long startTime = System.nanoTime();
+                    if (lockedReads) {
+                        synchronized (cache.getCacheSync()) {
+                            sum += readCache(cache, name, k);
+                        }
+                    } else {
+                        sum += readCache(cache, name, k);
+                    }
+                    latencies[count++] = System.nanoTime() - startTime;
+                }
+                readerSamples[readerIndex] = count;
+                BenchmarkSink.consumeResult(sum);
+            }, "Reader " + i));
+        }
+        for (int i = 0; i < WRITER_THREADS; i++) {
+            int writerIndex = i;
+            threads.add(new Thread(() -> {
+                await(startLatch);
+                for (int k = 0; !stopped.get(); k++) {
+                    TestObject object = new TestObject("TEMP_" + writerIndex + "_" + k);
+                    if (lockedReads) {
+                        // Old cache modified object list in place under cache monitor
+                        synchronized (cache.getCacheSync()) {
+                            cache.cacheObject(object);
+                            cache.removeObject(object, false);
+                        }
+                    } else {
+                        cache.cacheObject(object);
+                        cache.removeObject(object, false);
+                    }
+                }
+            }, "Writer " + i));
+        }
+        threads.add(new Thread(() -> {
+            await(startLatch);
+            while (!stopped.get()) {
+                if (lockedReads) {
+                    synchronized (cache.getCacheSync()) {
+                        sleep(loadTime);
+                        cache.reload(TestCache.makeObjects(objectCount));
+                    }
+                } else {
+                    // Objects are read out of cache lock and then merged
+                    sleep(loadTime);
+                    cache.reload(TestCache.makeObjects(objectCount));
+                }
+                sleep(loadTime);
+            }
+        }, "Loader"));
+
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        startLatch.countDown();
+        sleep(duration * 1000L);
+        stopped.set(true);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        int total = 0;
+        for (int count : readerSamples) {
+            total += count;
+        }
+        long[] result = new long[total];
+        int pos = 0;
+        for (int i = 0; i < readerCount; i++) {
+            System.arraycopy(readerLatencies.get(i), 0, result, pos, readerSamples[i]);
+            pos += readerSamples[i];
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    private static long readCache(TestCache cache, String name, int iteration) {
+        TestObject object = cache.getCachedObject(name);
+        long result = object == null ? 0 : object.getName().length();
+        if (iteration % 100 == 0) {
+            // Navigator-like full list read
+            for (TestObject child : cache.getCachedObjects()) {
+                result += child.getName().length();
+            }
+        }
+        return result;
+    }
+
+    private static void printResult(String name, long[] latencies) {
+        if (latencies.length == 0) {
+            System.out.println(name + ": no samples");
+            return;
+        }
+        System.out.println(name + ": " + latencies.length + " reads" +
+            ", p50=" + percentile(latencies, 0.5) + "ns" +
+            ", p99=" + percentile(latencies, 0.99) + "ns" +
+            ", p99.9=" + percentile(latencies, 0.999) + "ns" +
+            ", max=" + latencies[latencies.length - 1] + "ns");
+    }
+
+    private static long percentile(long[] sorted, double fraction) {
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * fraction))];
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void sleep(long time) {
+        try {
+            Thread.sleep(time);
+        } catch (InterruptedException e) {
+            // ignore
+        }
+    }
+
+    private static class TestCache extends BasicObjectCache<DBSObject, TestObject> {
+        private final int objectCount;
+
+        TestCache(int objectCount) {
+            this.objectCount = objectCount;
+        }
+
+        static List<TestObject> makeObjects(int count) {
+            List<TestObject> objects = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                objects.add(new TestObject(TestObject.makeName(i)));
+            }
+            return objects;
+        }
+
+        void reload(List<TestObject> objects) {
+            mergeCache(objects);
+        }
+
+        @NotNull
+        @Override
+        public List<TestObject> getAllObjects(@NotNull DBRProgressMonitor monitor, @Nullable DBSObject owner) {
+            if (!isFullyCached()) {
+                synchronized (this) {
+                    if (!isFullyCached()) {
+                        setCache(makeObjects(objectCount));
+                    }
+                }
+            }
+            return getCachedObjects();
+        }
+    }
+
+    private static class TestObject implements DBSObject {
+        private final String name;
+
+        TestObject(String name) {
+            this.name = name;
+        }
+
+        static String makeName(int index) {
+            return "OBJECT_" + index;
+        }
+
+        @NotNull
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Nullable
+        @Override
+        public String getDescription() {
+            return null;
+        }
+
+        @Override
+        public boolean isPersisted() {
+            return true;
+        }
+
+        @Nullable
+        @Override
+        public DBSObject getParentObject() {
+            return null;
+        }
+
+        @Override
+        public DBPDataSource getDataSource() {
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,90 @@
+package org.jkiss.dbeaver.ext.test.tools;
+
+import org.jkiss.dbeaver.ui.controls.resultset.ResultSetColumnarStorage;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares heap usage and random access (scroll) latency of plain Object[] rows and columnar storage.
+ * Run with -Xmx4g.
+ */
+public class ResultSetStorageBenchmark {
+
+    private static final int ROW_COUNT = 500000;
+    private static final int SCROLL_PAGE_SIZE = 50;
+    private static final int SCROLL_PAGE_COUNT = 20000;
+
+    public static void main(String[] args) {
+        int rowCount = args.length > 0 ? Integer.parseInt(args[0]) : ROW_COUNT;
+
+        long baseMemory = usedMemory();
+        List<Object[]> rows = generateRows(rowCount);
+        long plainMemory = usedMemory() - baseMemory;
+        System.out.println("Plain rows: " + rowCount + " rows, heap " + (plainMemory / 1024 / 1024) + "Mb, " + (plainMemory / rowCount) + " bytes/row" +
+            " (estimated " + ResultSetColumnarStorage.getRowMemoryUsage(rows.get(0)) + " bytes/row)");
+        System.out.println("Plain rows scroll: " + measureScroll(rows, null) + "ns/page");
+
+        ResultSetColumnarStorage storage = new ResultSetColumnarStorage(rows.get(0).length);
+        storage.appendRows(rows);
+        rows = null;
+        long columnarMemory = usedMemory() - baseMemory;
+        System.out.println("Columnar storage: " + rowCount + " rows, heap " + (columnarMemory / 1024 / 1024) + "Mb, " + (columnarMemory / rowCount) + " bytes/row" +
+            " (estimated " + storage.getMemoryPerRow() + " bytes/row)");
+        System.out.println("Columnar storage scroll: " + measureScroll(null, storage) + "ns/page");
+    }
+
+    private static List<Object[]> generateRows(int rowCount) {
+        Random random = new Random(0);
+        String[] statuses = {"NEW", "ACTIVE", "SUSPENDED", "CLOSED"};
+        long baseTime = System.currentTimeMillis();
+        List<Object[]> rows = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            rows.add(new Object[]{
+                i,
+                (long) random.nextInt(1000000),
+                random.nextDouble() * 1000,
+                random.nextBoolean(),
+                new Timestamp(baseTime - random.nextInt(100000000)),
+                i % 10 == 0 ? null : random.nextInt(100),
+                new String(statuses[random.nextInt(statuses.length)])
+            });
+        }
+        return rows;
+    }
+
+    private static long measureScroll(List<Object[]> rows, ResultSetColumnarStorage storage) {
+        int rowCount = rows != null ? rows.size() : storage.getRowCount();
+        int columnCount = rows != null ? rows.get(0).length : storage.getColumnCount();
+        Random random = new Random(1);
+        int nonNulls = 0;
+        long startTime = System.nanoTime();
+        for (int page = 0; page < SCROLL_PAGE_COUNT; page++) {
+            int firstRow = random.nextInt(rowCount - SCROLL_PAGE_SIZE);
+            for (int row = firstRow; row < firstRow + SCROLL_PAGE_SIZE; row++) {
+                for (int col = 0; col < columnCount; col++) {
+                    Object value = rows != null ? rows.get(row)[col] : storage.getValue(row, col);
+                    if (value != null) {
+                        nonNulls++;
+                    }
+                }
+            }
+        }
+        long pageTime = (System.nanoTime() - startTime) / SCROLL_PAGE_COUNT;
+        if (nonNulls == 0) {
+            System.out.println("No values read");
+        }
+        return pageTime;
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+}